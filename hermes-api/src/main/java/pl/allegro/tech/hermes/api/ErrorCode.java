@@ -19,6 +19,8 @@ public enum ErrorCode {
     GROUP_ALREADY_EXISTS(BAD_REQUEST),
     OPERATION_DISABLED(NOT_ACCEPTABLE),
     OTHER(INTERNAL_SERVER_ERROR),
+    SERVICE_OVERLOADED(SERVICE_UNAVAILABLE),
+    QUOTA_EXCEEDED(429),
     UNAVAILABLE_RATE(BAD_REQUEST),
     SINGLE_MESSAGE_READER_EXCEPTION(INTERNAL_SERVER_ERROR),
     PARTITIONS_NOT_FOUND_FOR_TOPIC(NOT_FOUND),
@@ -38,7 +40,11 @@ public enum ErrorCode {
     private final int httpCode;
 
     private ErrorCode(Response.Status httpCode) {
-        this.httpCode = httpCode.getStatusCode();
+        this(httpCode.getStatusCode());
+    }
+
+    private ErrorCode(int httpCode) {
+        this.httpCode = httpCode;
     }
 
     public int getHttpCode() {
@@ -0,0 +1,99 @@
+package pl.allegro.tech.hermes.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.validator.constraints.NotEmpty;
+import pl.allegro.tech.hermes.api.constraints.ValidMessageFilter;
+
+import javax.validation.constraints.NotNull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+@ValidMessageFilter
+public class MessageFilterSpecification {
+
+    public enum Matcher {
+        EQUALS, PREFIX, IN
+    }
+
+    @NotEmpty
+    private final String path;
+
+    @NotNull
+    private final Matcher matcher;
+
+    private final String value;
+
+    private final List<String> values;
+
+    @JsonCreator
+    public MessageFilterSpecification(@JsonProperty("path") String path,
+                                      @JsonProperty("matcher") Matcher matcher,
+                                      @JsonProperty("value") String value,
+                                      @JsonProperty("values") List<String> values) {
+        this.path = path;
+        this.matcher = matcher;
+        this.value = value;
+        this.values = values != null ? values : Collections.emptyList();
+    }
+
+    public static MessageFilterSpecification equalTo(String path, String value) {
+        return new MessageFilterSpecification(path, Matcher.EQUALS, value, null);
+    }
+
+    public static MessageFilterSpecification startingWith(String path, String prefix) {
+        return new MessageFilterSpecification(path, Matcher.PREFIX, prefix, null);
+    }
+
+    public static MessageFilterSpecification in(String path, String... values) {
+        return new MessageFilterSpecification(path, Matcher.IN, null, Arrays.asList(values));
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Matcher getMatcher() {
+        return matcher;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, matcher, value, values);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final MessageFilterSpecification other = (MessageFilterSpecification) obj;
+        return Objects.equals(this.path, other.path)
+                && Objects.equals(this.matcher, other.matcher)
+                && Objects.equals(this.value, other.value)
+                && Objects.equals(this.values, other.values);
+    }
+
+    @Override
+    public String toString() {
+        return com.google.common.base.Objects.toStringHelper(this)
+                .add("path", path)
+                .add("matcher", matcher)
+                .add("value", value)
+                .add("values", values)
+                .toString();
+    }
+}
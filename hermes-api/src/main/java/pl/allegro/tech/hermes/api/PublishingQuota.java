@@ -0,0 +1,63 @@
+package pl.allegro.tech.hermes.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+import java.util.Objects;
+
+public class PublishingQuota {
+
+    @Min(0)
+    private final long messagesPerSecond;
+
+    @Min(0)
+    private final long bytesPerSecond;
+
+    public PublishingQuota(@JsonProperty("messagesPerSecond") long messagesPerSecond,
+                           @JsonProperty("bytesPerSecond") long bytesPerSecond) {
+        this.messagesPerSecond = messagesPerSecond;
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    public static PublishingQuota of(long messagesPerSecond, long bytesPerSecond) {
+        return new PublishingQuota(messagesPerSecond, bytesPerSecond);
+    }
+
+    /**
+     * @return messages per second published to topic through whole frontend cluster, 0 when not limited
+     */
+    public long getMessagesPerSecond() {
+        return messagesPerSecond;
+    }
+
+    /**
+     * @return bytes per second published to topic through whole frontend cluster, 0 when not limited
+     */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    @JsonIgnore
+    public boolean isUnlimited() {
+        return messagesPerSecond <= 0 && bytesPerSecond <= 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(messagesPerSecond, bytesPerSecond);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final PublishingQuota other = (PublishingQuota) obj;
+        return Objects.equals(this.messagesPerSecond, other.messagesPerSecond)
+                && Objects.equals(this.bytesPerSecond, other.bytesPerSecond);
+    }
+}
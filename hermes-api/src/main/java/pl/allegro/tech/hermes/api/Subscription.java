@@ -10,6 +10,7 @@ import pl.allegro.tech.hermes.api.helpers.Patch;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
+import java.util.List;
 import java.util.Objects;
 
 import static pl.allegro.tech.hermes.api.constraints.Names.ALLOWED_NAME_REGEX;
@@ -36,6 +37,11 @@ public class Subscription {
 
     private boolean trackingEnabled;
 
+    @Valid
+    private List<MessageFilterSpecification> filters;
+
+    private List<String> projection;
+
     public SubscriptionName toSubscriptionName() {
         return new SubscriptionName(name, topicName);
     }
@@ -62,13 +68,17 @@ public class Subscription {
                         @JsonProperty("endpoint") EndpointAddress endpoint,
                         @JsonProperty("description") String description,
                         @JsonProperty("subscriptionPolicy") SubscriptionPolicy subscriptionPolicy,
-                        @JsonProperty("trackingEnabled") boolean trackingEnabled) {
+                        @JsonProperty("trackingEnabled") boolean trackingEnabled,
+                        @JsonProperty("filters") List<MessageFilterSpecification> filters,
+                        @JsonProperty("projection") List<String> projection) {
         this(TopicName.fromQualifiedName(topicName), name, endpoint, description, subscriptionPolicy, trackingEnabled);
+        this.filters = filters;
+        this.projection = projection;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(endpoint, topicName, name, description, subscriptionPolicy);
+        return Objects.hash(endpoint, topicName, name, description, subscriptionPolicy, filters, projection);
     }
 
     @Override
@@ -86,7 +96,9 @@ public class Subscription {
                 && Objects.equals(this.name, other.name)
                 && Objects.equals(this.description, other.description)
                 && Objects.equals(this.subscriptionPolicy, other.subscriptionPolicy)
-                && Objects.equals(this.trackingEnabled, other.trackingEnabled);
+                && Objects.equals(this.trackingEnabled, other.trackingEnabled)
+                && Objects.equals(this.filters, other.filters)
+                && Objects.equals(this.projection, other.projection);
     }
 
     @JsonIgnore
@@ -148,6 +160,30 @@ public class Subscription {
         return trackingEnabled;
     }
 
+    /**
+     * @return filters message has to match to be delivered, null when subscription was defined without filters
+     */
+    public List<MessageFilterSpecification> getFilters() {
+        return filters;
+    }
+
+    @JsonIgnore
+    public boolean hasFilters() {
+        return filters != null && !filters.isEmpty();
+    }
+
+    /**
+     * @return paths of message fields delivered to subscriber, null when whole message is delivered
+     */
+    public List<String> getProjection() {
+        return projection;
+    }
+
+    @JsonIgnore
+    public boolean hasProjection() {
+        return projection != null && !projection.isEmpty();
+    }
+
     public Subscription anonymizePassword() {
         if (getEndpoint().containsCredentials()) {
             return Builder.subscription().withName(this.getName())
@@ -156,6 +192,8 @@ public class Subscription {
                     .withEndpoint(this.getEndpoint().anonymizePassword())
                     .withState(this.getState())
                     .withSubscriptionPolicy(this.getSubscriptionPolicy())
+                    .withFilters(this.getFilters())
+                    .withProjection(this.getProjection())
                     .build();
         }
         return this;
@@ -213,6 +251,16 @@ public class Subscription {
             return this;
         }
 
+        public Builder withFilters(List<MessageFilterSpecification> filters) {
+            subscription.filters = filters;
+            return this;
+        }
+
+        public Builder withProjection(List<String> projection) {
+            subscription.projection = projection;
+            return this;
+        }
+
         public Builder applyPatch(Subscription subscription) {
             if (subscription != null) {
                 this.subscription = Patch.apply(this.subscription, subscription);
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import pl.allegro.tech.hermes.api.helpers.Patch;
 
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import java.util.Objects;
 
@@ -22,16 +23,55 @@ public class SubscriptionPolicy {
 
     private boolean retryClientErrors = false;
 
+    @Min(1)
+    private Integer maxConnections;
+
+    private ContentEncoding contentEncoding;
+
+    @Min(1)
+    @Max(100)
+    private Integer hedgingBudget;
+
+    @Min(1)
+    @Max(1000)
+    private Integer keyOrderingLanes;
+
+    public enum ContentEncoding {
+        GZIP("gzip"), DEFLATE("deflate");
+
+        private final String headerValue;
+
+        ContentEncoding(String headerValue) {
+            this.headerValue = headerValue;
+        }
+
+        public String getHeaderValue() {
+            return headerValue;
+        }
+    }
+
     private SubscriptionPolicy() { }
 
+    public SubscriptionPolicy(int rate, int messageTtl, boolean retryClientErrors, Integer messageBackoff) {
+        this(rate, messageTtl, retryClientErrors, messageBackoff, null, null, null, null);
+    }
+
     @JsonCreator
     public SubscriptionPolicy(@JsonProperty("rate") int rate, @JsonProperty("messageTtl") int messageTtl,
                               @JsonProperty("retryClientErrors") boolean retryClientErrors,
-                              @JsonProperty("messageBackoff") Integer messageBackoff) {
+                              @JsonProperty("messageBackoff") Integer messageBackoff,
+                              @JsonProperty("maxConnections") Integer maxConnections,
+                              @JsonProperty("contentEncoding") ContentEncoding contentEncoding,
+                              @JsonProperty("hedgingBudget") Integer hedgingBudget,
+                              @JsonProperty("keyOrderingLanes") Integer keyOrderingLanes) {
         this.rate = rate;
         this.messageTtl = messageTtl;
         this.retryClientErrors = retryClientErrors;
         this.messageBackoff = messageBackoff != null ? messageBackoff : DEFAULT_MESSAGE_BACKOFF;
+        this.maxConnections = maxConnections;
+        this.contentEncoding = contentEncoding;
+        this.hedgingBudget = hedgingBudget;
+        this.keyOrderingLanes = keyOrderingLanes;
     }
 
     @Override
@@ -51,7 +91,11 @@ public class SubscriptionPolicy {
         return Objects.equals(this.rate, other.rate)
                 && Objects.equals(this.messageTtl, other.messageTtl)
                 && Objects.equals(this.messageBackoff, other.messageBackoff)
-                && Objects.equals(this.retryClientErrors, other.retryClientErrors);
+                && Objects.equals(this.retryClientErrors, other.retryClientErrors)
+                && Objects.equals(this.maxConnections, other.maxConnections)
+                && Objects.equals(this.contentEncoding, other.contentEncoding)
+                && Objects.equals(this.hedgingBudget, other.hedgingBudget)
+                && Objects.equals(this.keyOrderingLanes, other.keyOrderingLanes);
     }
 
     @Override
@@ -61,6 +105,10 @@ public class SubscriptionPolicy {
                 .add("messageTtl", messageTtl)
                 .add("messageBackoff", messageBackoff)
                 .add("retryClientErrors", retryClientErrors)
+                .add("maxConnections", maxConnections)
+                .add("contentEncoding", contentEncoding)
+                .add("hedgingBudget", hedgingBudget)
+                .add("keyOrderingLanes", keyOrderingLanes)
                 .toString();
     }
 
@@ -84,6 +132,44 @@ public class SubscriptionPolicy {
     public Integer getMessageBackoff() {
         return messageBackoff;
     }
+
+    public Integer getMaxConnections() {
+        return maxConnections;
+    }
+
+    public boolean hasDedicatedConnectionPool() {
+        return maxConnections != null;
+    }
+
+    public ContentEncoding getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public boolean hasContentEncoding() {
+        return contentEncoding != null;
+    }
+
+    /**
+     * @return max percent of requests which can be sent again to subscriber when response is late, null when hedging is disabled
+     */
+    public Integer getHedgingBudget() {
+        return hedgingBudget;
+    }
+
+    public boolean hasHedging() {
+        return hedgingBudget != null;
+    }
+
+    /**
+     * @return number of messages with different keys delivered in parallel, null when order of messages is not kept
+     */
+    public Integer getKeyOrderingLanes() {
+        return keyOrderingLanes;
+    }
+
+    public boolean hasKeyOrdering() {
+        return keyOrderingLanes != null;
+    }
     //</editor-fold>
 
     public static class Builder {
@@ -118,6 +204,26 @@ public class SubscriptionPolicy {
             return this;
         }
 
+        public Builder withMaxConnections(int maxConnections) {
+            subscriptionPolicy.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder withContentEncoding(ContentEncoding contentEncoding) {
+            subscriptionPolicy.contentEncoding = contentEncoding;
+            return this;
+        }
+
+        public Builder withHedgingBudget(int hedgingBudget) {
+            subscriptionPolicy.hedgingBudget = hedgingBudget;
+            return this;
+        }
+
+        public Builder withKeyOrderingLanes(int keyOrderingLanes) {
+            subscriptionPolicy.keyOrderingLanes = keyOrderingLanes;
+            return this;
+        }
+
         public Builder withClientErrorRetry() {
             subscriptionPolicy.retryClientErrors = true;
             return this;
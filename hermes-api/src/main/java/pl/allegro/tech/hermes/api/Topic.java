@@ -25,8 +25,14 @@ public class Topic {
 
     private ContentType contentType;
 
+    private Compression compression;
+
     public enum Ack {
-        NONE, LEADER, ALL
+        NONE, LEADER, ALL, FIRE_AND_FORGET
+    }
+
+    public enum Compression {
+        NONE, GZIP, SNAPPY, LZ4, AUTO
     }
 
     public enum ContentType {
@@ -40,11 +46,15 @@ public class Topic {
 
     private boolean migratedFromJsonType;
 
+    @Valid
+    private PublishingQuota publishingQuota;
+
     private Topic() { }
 
     public Topic(TopicName name, String description, RetentionTime retentionTime, String messageSchema,
                  boolean validationEnabled, boolean validationDryRunEnabled, boolean migratedFromJsonType, 
-                 Ack ack, boolean trackingEnabled, ContentType contentType) {
+                 Ack ack, boolean trackingEnabled, ContentType contentType, Compression compression,
+                 PublishingQuota publishingQuota) {
         this.name = name;
         this.description = description;
         this.retentionTime = retentionTime;
@@ -55,6 +65,8 @@ public class Topic {
         this.trackingEnabled = trackingEnabled;
         this.migratedFromJsonType = migratedFromJsonType;
         this.contentType = contentType;
+        this.compression = compression;
+        this.publishingQuota = publishingQuota;
     }
 
     @JsonCreator
@@ -68,10 +80,13 @@ public class Topic {
             @JsonProperty("ack") Ack ack,
             @JsonProperty("trackingEnabled") boolean trackingEnabled,
             @JsonProperty("migratedFromJsonType") boolean migratedFromJsonType,
-            @JsonProperty("contentType") ContentType contentType) {
+            @JsonProperty("contentType") ContentType contentType,
+            @JsonProperty("compression") Compression compression,
+            @JsonProperty("publishingQuota") PublishingQuota publishingQuota) {
 
         this(TopicName.fromQualifiedName(qualifiedName), description, retentionTime, messageSchema,
-                validationEnabled, validationDryRunEnabled, migratedFromJsonType, ack, trackingEnabled, contentType);
+                validationEnabled, validationDryRunEnabled, migratedFromJsonType, ack, trackingEnabled, contentType, compression,
+                publishingQuota);
     }
 
     public RetentionTime getRetentionTime() {
@@ -81,7 +96,7 @@ public class Topic {
     @Override
     public int hashCode() {
         return Objects.hash(name, description, retentionTime, messageSchema, validationEnabled, validationDryRunEnabled,
-                migratedFromJsonType, trackingEnabled, ack, contentType);
+                migratedFromJsonType, trackingEnabled, ack, contentType, compression, publishingQuota);
     }
 
     @Override
@@ -103,7 +118,9 @@ public class Topic {
             && Objects.equals(this.trackingEnabled, other.trackingEnabled)
             && Objects.equals(this.migratedFromJsonType, other.migratedFromJsonType)
             && Objects.equals(this.ack, other.ack)
-            && Objects.equals(this.contentType, other.contentType);
+            && Objects.equals(this.contentType, other.contentType)
+            && Objects.equals(this.compression, other.compression)
+            && Objects.equals(this.publishingQuota, other.publishingQuota);
     }
 
     @JsonProperty("name")
@@ -150,6 +167,20 @@ public class Topic {
         return contentType;
     }
 
+    /**
+     * @return compression of messages sent to Kafka, null when default compression of frontend is used
+     */
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * @return publishing quota shared by all frontends, null when publishing is not limited
+     */
+    public PublishingQuota getPublishingQuota() {
+        return publishingQuota;
+    }
+
     public boolean isTrackingEnabled() {
         return trackingEnabled;
     }
@@ -164,6 +195,11 @@ public class Topic {
         return getAck() == Ack.ALL;
     }
 
+    @JsonIgnore
+    public boolean isFireAndForget() {
+        return getAck() == Ack.FIRE_AND_FORGET;
+    }
+
     public static class Builder {
         private Topic topic;
 
@@ -248,6 +284,16 @@ public class Topic {
             return this;
         }
 
+        public Builder withCompression(Compression compression) {
+            topic.compression = compression;
+            return this;
+        }
+
+        public Builder withPublishingQuota(PublishingQuota publishingQuota) {
+            topic.publishingQuota = publishingQuota;
+            return this;
+        }
+
         public Builder migratedFromJsonType() {
             topic.migratedFromJsonType = true;
             return this;
@@ -23,6 +23,7 @@ public class EndpointAddressValidator implements ConstraintValidator<ValidAddres
     static {
         AVAILABLE_PROTOCOLS.add("http");
         AVAILABLE_PROTOCOLS.add("jms");
+        AVAILABLE_PROTOCOLS.add("pull");
     }
 
     public static void addProtocol(String protocol) {
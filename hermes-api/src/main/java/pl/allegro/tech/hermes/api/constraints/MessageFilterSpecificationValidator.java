@@ -0,0 +1,28 @@
+package pl.allegro.tech.hermes.api.constraints;
+
+import pl.allegro.tech.hermes.api.MessageFilterSpecification;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import java.util.Objects;
+
+public class MessageFilterSpecificationValidator implements ConstraintValidator<ValidMessageFilter, MessageFilterSpecification> {
+
+    @Override
+    public void initialize(ValidMessageFilter constraintAnnotation) {
+
+    }
+
+    @Override
+    public boolean isValid(MessageFilterSpecification specification, ConstraintValidatorContext context) {
+        if (specification == null || specification.getMatcher() == null) {
+            return true;
+        }
+        switch (specification.getMatcher()) {
+            case IN:
+                return !specification.getValues().isEmpty() && specification.getValues().stream().noneMatch(Objects::isNull);
+            default:
+                return specification.getValue() != null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package pl.allegro.tech.hermes.api.constraints;
+
+import javax.validation.Constraint;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.TYPE;
+
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({TYPE, ANNOTATION_TYPE})
+@Constraint(validatedBy = MessageFilterSpecificationValidator.class)
+public @interface ValidMessageFilter {
+    String message() default "Filter with EQUALS or PREFIX matcher requires value, filter with IN matcher requires non empty values";
+
+    Class[] groups() default { };
+
+    Class[] payload() default { };
+}
@@ -52,6 +52,19 @@ public class SubscriptionTest {
         assertThat(subscription.getSubscriptionPolicy().getMessageBackoff()).isEqualTo(100);
     }
 
+    @Test
+    public void shouldDeserializeSubscriptionWithDedicatedConnectionPool() throws Exception {
+        // given
+        String json = "{\"name\": \"test\", \"endpoint\": \"http://localhost:8888\", \"subscriptionPolicy\": {\"maxConnections\": 10}}";
+
+        // when
+        Subscription subscription = mapper.readValue(json, Subscription.class);
+
+        // then
+        assertThat(subscription.getSubscriptionPolicy().hasDedicatedConnectionPool()).isTrue();
+        assertThat(subscription.getSubscriptionPolicy().getMaxConnections()).isEqualTo(10);
+    }
+
     @Test
     public void shouldApplyPatchToSubscriptionPolicy() {
         //given
@@ -0,0 +1,31 @@
+package pl.allegro.tech.hermes.api.constraints;
+
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.MessageFilterSpecification;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.allegro.tech.hermes.api.MessageFilterSpecification.Matcher.EQUALS;
+import static pl.allegro.tech.hermes.api.MessageFilterSpecification.Matcher.IN;
+import static pl.allegro.tech.hermes.api.MessageFilterSpecification.Matcher.PREFIX;
+
+public class MessageFilterSpecificationValidatorTest {
+
+    private final MessageFilterSpecificationValidator validator = new MessageFilterSpecificationValidator();
+
+    @Test
+    public void shouldAcceptCompleteFilters() {
+        assertThat(validator.isValid(MessageFilterSpecification.equalTo("a", ""), null)).isTrue();
+        assertThat(validator.isValid(MessageFilterSpecification.startingWith("a", "b"), null)).isTrue();
+        assertThat(validator.isValid(MessageFilterSpecification.in("a", "b", "c"), null)).isTrue();
+    }
+
+    @Test
+    public void shouldRejectFiltersWithoutValueToMatch() {
+        assertThat(validator.isValid(new MessageFilterSpecification("a", EQUALS, null, null), null)).isFalse();
+        assertThat(validator.isValid(new MessageFilterSpecification("a", PREFIX, null, null), null)).isFalse();
+        assertThat(validator.isValid(new MessageFilterSpecification("a", IN, null, null), null)).isFalse();
+        assertThat(validator.isValid(new MessageFilterSpecification("a", IN, null, Arrays.asList("b", null)), null)).isFalse();
+    }
+}
@@ -40,6 +40,9 @@ public enum Configs {
     KAFKA_PRODUCER_METADATA_FETCH_TIMEOUT_MS("kafka.producer.metadata.fetch.timeout.ms", 500),
     KAFKA_PRODUCER_METADATA_MAX_AGE("kafka.producer.metadata.max.age.ms", 5 * 60 * 1000),
     KAFKA_PRODUCER_COMPRESSION_CODEC("kafka.producer.compression.codec", "none"),
+    KAFKA_PRODUCER_COMPRESSION_SAMPLING_INTERVAL("kafka.producer.compression.sampling.interval", 100),
+    KAFKA_PRODUCER_COMPRESSION_AUTO_MIN_SAVING_PERCENT("kafka.producer.compression.auto.min.saving.percent", 10),
+    KAFKA_PRODUCER_COMPRESSION_SWITCH_MAX_WAIT_MS("kafka.producer.compression.switch.max.wait.ms", 100),
     KAFKA_PRODUCER_RETRIES("kafka.producer.retries", Integer.MAX_VALUE),
     KAFKA_PRODUCER_BUFFER_MEMORY("kafka.producer.buffer.memory", 256 * 1024 * 1024L),
     KAFKA_PRODUCER_RETRY_BACKOFF_MS("kafka.producer.retry.backoff.ms", 256),
@@ -52,6 +55,13 @@ public enum Configs {
     KAFKA_PRODUCER_METRICS_SAMPLE_WINDOW_MS("kafka.producer.metrics.sample.window.ms", 30000),
     KAFKA_PRODUCER_MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION("kafka.producer.max.in.flight.requests.per.connection", 5),
     KAFKA_PRODUCER_REPORT_NODE_METRICS("kafka.producer.report.node.metrics", false),
+    KAFKA_PRODUCER_POOL_SIZE("kafka.producer.pool.size", 1),
+    KAFKA_FAILOVER_BROKER_LIST("kafka.failover.broker.list", ""),
+    KAFKA_FAILOVER_LATENCY_THRESHOLD_MS("kafka.failover.latency.threshold.ms", 500),
+    KAFKA_FAILOVER_ERROR_THRESHOLD_PERCENT("kafka.failover.error.threshold.percent", 20),
+    KAFKA_FAILOVER_FAILBACK_RATIO_PERCENT("kafka.failover.failback.ratio.percent", 50),
+    KAFKA_FAILOVER_MIN_DURATION_MS("kafka.failover.min.duration.ms", 30000),
+    KAFKA_FAILOVER_PROBE_INTERVAL("kafka.failover.probe.interval", 20),
     KAFKA_STREAM_COUNT("kafka.stream.count", 1),
 
     FRONTEND_PORT("frontend.port", 8080),
@@ -73,6 +83,28 @@ public enum Configs {
     FRONTEND_GRACEFUL_SHUTDOWN_ENABLED("frontend.graceful.shutdown.enabled", true),
     FRONTEND_GRACEFUL_SHUTDOWN_INITIAL_WAIT_MS("frontend.graceful.shutdown.initial.wait.ms", 10000),
     FRONTEND_HTTP2_ENABLED("frontend.http2.enabled", false),
+    FRONTEND_NATIVE_PUBLISHING_HANDLER_ENABLED("frontend.native.publishing.handler.enabled", false),
+    FRONTEND_MESSAGE_BUFFER_ENABLED("frontend.message.buffer.enabled", false),
+    FRONTEND_MESSAGE_BUFFER_DIRECTORY("frontend.message.buffer.directory", ""),
+    FRONTEND_MESSAGE_BUFFER_SEGMENT_SIZE("frontend.message.buffer.segment.size", 64 * 1024 * 1024),
+    FRONTEND_MESSAGE_BUFFER_MAX_SEGMENTS("frontend.message.buffer.max.segments", 16),
+    FRONTEND_MESSAGE_BUFFER_REPLAY_BATCH_SIZE("frontend.message.buffer.replay.batch.size", 100),
+    FRONTEND_MESSAGE_BUFFER_REPLAY_INTERVAL_MS("frontend.message.buffer.replay.interval.ms", 1000),
+    FRONTEND_MESSAGE_BUFFER_REPLAY_TIMEOUT_MS("frontend.message.buffer.replay.timeout.ms", 10000),
+    FRONTEND_ADMISSION_CONTROL_ENABLED("frontend.admission.control.enabled", false),
+    FRONTEND_ADMISSION_MIN_BUFFER_AVAILABLE_PERCENT("frontend.admission.min.buffer.available.percent", 10),
+    FRONTEND_ADMISSION_MAX_IN_FLIGHT("frontend.admission.max.in.flight", 0),
+    FRONTEND_ADMISSION_MAX_TOPIC_IN_FLIGHT("frontend.admission.max.topic.in.flight", 0),
+    FRONTEND_ADMISSION_RETRY_AFTER_SECONDS("frontend.admission.retry.after.seconds", 1),
+    FRONTEND_QUOTA_SHARE_REFRESH_INTERVAL_MS("frontend.quota.share.refresh.interval.ms", 5000),
+    FRONTEND_QUOTA_IDLE_EXPIRY_MS("frontend.quota.idle.expiry.ms", 60000),
+    FRONTEND_PROCESSING_EXECUTORS_ENABLED("frontend.processing.executors.enabled", false),
+    FRONTEND_PROCESSING_THREADS_COUNT("frontend.processing.threads.count", Runtime.getRuntime().availableProcessors()),
+    FRONTEND_PROCESSING_QUEUE_SIZE("frontend.processing.queue.size", 1000),
+    FRONTEND_PROCESSING_CRITICAL_TOPICS("frontend.processing.critical.topics", ""),
+    FRONTEND_PROCESSING_CRITICAL_THREADS_COUNT("frontend.processing.critical.threads.count", 2),
+    FRONTEND_WEBSOCKET_PUBLISHING_ENABLED("frontend.websocket.publishing.enabled", false),
+    FRONTEND_WEBSOCKET_MAX_IN_FLIGHT("frontend.websocket.max.in.flight", 1000),
 
     FRONTEND_SSL_ENABLED("frontend.ssl.enabled", false),
     FRONTEND_SSL_PORT("frontend.ssl.port", 8443),
@@ -93,8 +125,29 @@ public enum Configs {
     CONSUMER_HTTP_CLIENT_THREAD_POOL_SIZE("consumer.http.client.thread.pool.size", 30),
     CONSUMER_HTTP_CLIENT_THREAD_POOL_MONITORING("consumer.http.client.thread.pool.monitoring", false),
     CONSUMER_HTTP_CLIENT_MAX_CONNECTIONS_PER_DESTINATION("consumer.http.client.max.connections.per.destination", 100),
+    CONSUMER_HTTP_CLIENT_DEDICATED_THREAD_POOL_SIZE("consumer.http.client.dedicated.thread.pool.size", 8),
+    CONSUMER_HTTP_CLIENT_COMPRESSION_THRESHOLD_BYTES("consumer.http.client.compression.threshold.bytes", 1024),
+    CONSUMER_HTTP_CLIENT_COMPRESSION_LEVEL("consumer.http.client.compression.level", 6),
+    CONSUMER_HTTP_CLIENT_COMPRESSION_THREAD_POOL_SIZE("consumer.http.client.compression.thread.pool.size", 2),
+    CONSUMER_HTTP_CLIENT_COMPRESSION_QUEUE_SIZE("consumer.http.client.compression.queue.size", 1000),
+    CONSUMER_LOAD_BALANCING_STRATEGY("consumer.load.balancing.strategy", "none"),
+    CONSUMER_LOAD_BALANCING_DNS_REFRESH_SECONDS("consumer.load.balancing.dns.refresh.seconds", 30),
+    CONSUMER_LOAD_BALANCING_EJECTION_LATENCY_FACTOR("consumer.load.balancing.ejection.latency.factor", 3.0),
+    CONSUMER_LOAD_BALANCING_EJECTION_CONSECUTIVE_FAILURES("consumer.load.balancing.ejection.consecutive.failures", 5),
+    CONSUMER_LOAD_BALANCING_EJECTION_SECONDS("consumer.load.balancing.ejection.seconds", 30),
+    CONSUMER_JMS_SESSION_POOL_SIZE("consumer.jms.session.pool.size", 4),
+    CONSUMER_JMS_BATCH_SIZE("consumer.jms.batch.size", 0),
+    CONSUMER_JMS_BATCH_TIMEOUT_MS("consumer.jms.batch.timeout.ms", 100),
+    CONSUMER_HEDGING_LATENCY_PERCENTILE("consumer.hedging.latency.percentile", 0.95),
+    CONSUMER_HEDGING_MIN_DELAY_MS("consumer.hedging.min.delay.ms", 20),
+    CONSUMER_HEDGING_MIN_SAMPLES("consumer.hedging.min.samples", 100),
+    CONSUMER_HEDGING_THREAD_POOL_SIZE("consumer.hedging.thread.pool.size", 2),
 
     CONSUMER_INFLIGHT_SIZE("consumer.inflight.size", 100),
+    CONSUMER_MEMORY_BUDGET_BYTES("consumer.memory.budget.bytes", 0L),
+    CONSUMER_PAYLOAD_BUFFER_POOL_SIZE_BYTES("consumer.payload.buffer.pool.size.bytes", 32 * 1024 * 1024L),
+    CONSUMER_PAYLOAD_BUFFER_POOL_MAX_BUFFER_BYTES("consumer.payload.buffer.pool.max.buffer.bytes", 128 * 1024),
+    CONSUMER_FAILURE_LOG_SUMMARY_PERIOD_SECONDS("consumer.failure.log.summary.period.seconds", 60),
     CONSUMER_RATE_LIMITER_SUPERVISOR_PERIOD("consumer.rate.limiter.supervisor.period", 30),
     CONSUMER_RATE_LIMITER_REPORTING_THREAD_POOL_SIZE("consumer.rate.limiter.reporting.thread.pool.size", 30),
     CONSUMER_RATE_LIMITER_REPORTING_THREAD_POOL_MONITORING("consumer.rate.limiter.reporting.thread.pool.monitoring", false),
@@ -106,6 +159,12 @@ public enum Configs {
     CONSUMER_OFFSET_COMMIT_QUEUE_ALERT_MINIMAL_IDLE_PERIOD("consumer.offset.commit.queue.alert.minimal.idle.period", 3600),
     CONSUMER_OFFSET_COMMIT_QUEUE_ALERT_SIZE("consumer.offset.commit.queue.alert.size", 20_000),
     CONSUMER_HEALTH_CHECK_PORT("consumer.status.health.port", 8000),
+    CONSUMER_PULL_ENABLED("consumer.pull.enabled", false),
+    CONSUMER_PULL_PORT("consumer.pull.port", 8001),
+    CONSUMER_PULL_THREAD_POOL_SIZE("consumer.pull.thread.pool.size", 16),
+    CONSUMER_PULL_LEASE_TIMEOUT_MS("consumer.pull.lease.timeout.ms", 30_000),
+    CONSUMER_PULL_MAX_BATCH_SIZE("consumer.pull.max.batch.size", 100),
+    CONSUMER_PULL_MAX_WAIT_MS("consumer.pull.max.wait.ms", 20_000),
     CONSUMER_WORKLOAD_ALGORITHM("consumer.workload.algorithm", "legacy.mirror"),
     CONSUMER_WORKLOAD_ID("consumer.workload.id",
             new InetAddressHostnameResolver().resolve().replaceAll("\\.", "_") + "$" + abs(randomUUID().getMostSignificantBits())),
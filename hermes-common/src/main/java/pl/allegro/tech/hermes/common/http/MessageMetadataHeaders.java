@@ -3,7 +3,8 @@ package pl.allegro.tech.hermes.common.http;
 public enum MessageMetadataHeaders {
 
     MESSAGE_ID("Hermes-Message-Id"),
-    TOPIC_NAME("Hermes-Topic-Name");
+    TOPIC_NAME("Hermes-Topic-Name"),
+    PARTITION_KEY("Hermes-Partition-Key");
 
     private final String headerName;
 
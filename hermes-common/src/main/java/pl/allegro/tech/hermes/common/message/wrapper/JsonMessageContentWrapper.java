@@ -76,16 +76,14 @@ public class JsonMessageContentWrapper {
         int rootIndex = indexOf(json, contentRootField);
         int metadataIndex = indexOf(json, metadataRootField);
         try {
-            return new UnwrappedMessageContent(unwrapMesssageMetadata(json, metadataIndex, rootIndex), unwrapContent(json, rootIndex));
+            int contentOffset = rootIndex + contentRootField.length;
+            return new UnwrappedMessageContent(unwrapMesssageMetadata(json, metadataIndex, rootIndex), json,
+                    contentOffset, json.length - BRACKET_LENGTH - contentOffset);
         } catch (Exception exception) {
             throw new UnwrappingException("Could not unwrap json message", exception);
         }
     }
 
-    private byte[] unwrapContent(byte[] json, int rootIndex) {
-        return copyOfRange(json, rootIndex + contentRootField.length, json.length - BRACKET_LENGTH);
-    }
-
     private MessageMetadata unwrapMesssageMetadata(byte[] json, int metadataIndexStart, int metadataIndexEnd) throws IOException {
         return mapper.readValue(unwrapMetadataBytes(json, metadataIndexStart, metadataIndexEnd), MessageMetadata.class);
     }
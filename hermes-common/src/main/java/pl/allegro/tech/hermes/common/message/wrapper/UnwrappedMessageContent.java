@@ -2,19 +2,47 @@ package pl.allegro.tech.hermes.common.message.wrapper;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.Arrays;
+
 @SuppressFBWarnings("EI_EXPOSE_REP2")
 public class UnwrappedMessageContent {
 
     private final MessageMetadata messageMetadata;
-    private final byte[] content;
+    private final byte[] source;
+    private final int contentOffset;
+    private final int contentLength;
 
     public UnwrappedMessageContent(MessageMetadata messageMetadata, byte[] content) {
+        this(messageMetadata, content, 0, content.length);
+    }
+
+    /**
+     * Content is a range of source array, it is copied only when asked for as separate array.
+     */
+    public UnwrappedMessageContent(MessageMetadata messageMetadata, byte[] source, int contentOffset, int contentLength) {
         this.messageMetadata = messageMetadata;
-        this.content = content;
+        this.source = source;
+        this.contentOffset = contentOffset;
+        this.contentLength = contentLength;
     }
 
     public byte[] getContent() {
-        return content;
+        if (contentOffset == 0 && contentLength == source.length) {
+            return source;
+        }
+        return Arrays.copyOfRange(source, contentOffset, contentOffset + contentLength);
+    }
+
+    public byte[] getContentSource() {
+        return source;
+    }
+
+    public int getContentOffset() {
+        return contentOffset;
+    }
+
+    public int getContentLength() {
+        return contentLength;
     }
 
     public MessageMetadata getMessageMetadata() {
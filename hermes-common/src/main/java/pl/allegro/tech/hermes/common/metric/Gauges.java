@@ -13,8 +13,27 @@ public class Gauges {
             PRODUCER_LEADER_CONFIRMS_BUFFER_TOTAL_BYTES = "producer." + HOSTNAME + ".leader-confirms-buffer-total-bytes",
             PRODUCER_LEADER_CONFIRMS_BUFFER_AVAILABLE_BYTES = "producer." + HOSTNAME + ".leader-confirms-buffer-available-bytes",
             PRODUCER_LEADER_CONFIRMS_COMPRESSION_RATE = "producer." + HOSTNAME + ".leader-confirms-compression-rate-avg",
+            PRODUCER_EVERYONE_CONFIRMS_BATCH_SIZE = "producer." + HOSTNAME + ".everyone-confirms-batch-size-avg",
+            PRODUCER_LEADER_CONFIRMS_BATCH_SIZE = "producer." + HOSTNAME + ".leader-confirms-batch-size-avg",
+            PRODUCER_EVERYONE_CONFIRMS_REQUEST_LATENCY = "producer." + HOSTNAME + ".everyone-confirms-request-latency-avg",
+            PRODUCER_LEADER_CONFIRMS_REQUEST_LATENCY = "producer." + HOSTNAME + ".leader-confirms-request-latency-avg",
+            PRODUCER_TOPIC_COMPRESSION_CODEC = "producer." + HOSTNAME + ".compression." + GROUP + "." + TOPIC + ".codec",
+            PRODUCER_TOPIC_COMPRESSION_RATIO = "producer." + HOSTNAME + ".compression." + GROUP + "." + TOPIC + ".ratio",
+            PRODUCER_BUFFER_PENDING_MESSAGES = "producer." + HOSTNAME + ".message-buffer.pending-messages",
+            PRODUCER_BUFFER_PENDING_BYTES = "producer." + HOSTNAME + ".message-buffer.pending-bytes",
+            PRODUCER_BUFFER_USED_SEGMENTS = "producer." + HOSTNAME + ".message-buffer.used-segments",
+            PRODUCER_FAILOVER_DIVERTED_TOPICS = "producer." + HOSTNAME + ".failover.diverted-topics",
+            PRODUCER_FAILOVER_SECONDARY_PREFIX = "producer." + HOSTNAME + ".failover.secondary",
+            PRODUCER_IN_FLIGHT = "producer." + HOSTNAME + ".in-flight",
             PRODUCER_JMX_PREFIX = "producer." + HOSTNAME + ".jmx",
 
             CONSUMER_THREADS = "consumer." + HOSTNAME + ".threads",
-            CONSUMER_OUTPUT_RATE = "consumer." + HOSTNAME + ".output-rate." + GROUP + "." + TOPIC + "." + SUBSCRIPTION;
+            CONSUMER_MEMORY_BUDGET_TOTAL_BYTES = "consumer." + HOSTNAME + ".memory-budget.total-bytes",
+            CONSUMER_MEMORY_BUDGET_USED_BYTES = "consumer." + HOSTNAME + ".memory-budget.used-bytes",
+            CONSUMER_MEMORY_BUDGET_RESERVED_BYTES = "consumer." + HOSTNAME + ".memory-budget." + GROUP + "." + TOPIC + "." + SUBSCRIPTION + ".reserved-bytes",
+            CONSUMER_PAYLOAD_BUFFER_POOL_BYTES = "consumer." + HOSTNAME + ".payload-buffer-pool.pooled-bytes",
+            CONSUMER_OUTPUT_RATE = "consumer." + HOSTNAME + ".output-rate." + GROUP + "." + TOPIC + "." + SUBSCRIPTION,
+            CONSUMER_HTTP_CLIENT_ACTIVE_CONNECTIONS = "consumer." + HOSTNAME + ".http-client." + GROUP + "." + TOPIC + "." + SUBSCRIPTION + ".active-connections",
+            CONSUMER_HTTP_CLIENT_IDLE_CONNECTIONS = "consumer." + HOSTNAME + ".http-client." + GROUP + "." + TOPIC + "." + SUBSCRIPTION + ".idle-connections",
+            CONSUMER_HTTP_CLIENT_QUEUED_REQUESTS = "consumer." + HOSTNAME + ".http-client." + GROUP + "." + TOPIC + "." + SUBSCRIPTION + ".queued-requests";
 }
\ No newline at end of file
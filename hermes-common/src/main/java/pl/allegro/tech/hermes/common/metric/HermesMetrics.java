@@ -121,6 +121,10 @@ public class HermesMetrics {
                 pathContext().withHttpCode(statusCode).withGroup(topicName.getGroupName()).withTopic(topicName.getName()).build()));
     }
 
+    public Histogram histogram(String metric, TopicName topicName, String name) {
+        return metricRegistry.histogram(metricRegistryName(metric, topicName, name));
+    }
+
     public Counter counter(String metric, TopicName topicName) {
         return metricRegistry.counter(metricRegistryName(metric, topicName));
     }
@@ -164,6 +168,18 @@ public class HermesMetrics {
         metricRegistry.remove(normalizedMetricName);
     }
 
+    public <T> void registerGauge(String metric, TopicName topicName, Gauge<T> gauge) {
+        metricRegistry.register(metricRegistryName(metric, topicName), gauge);
+    }
+
+    public <T> void registerGauge(String metric, TopicName topicName, String name, Gauge<T> gauge) {
+        metricRegistry.register(metricRegistryName(metric, topicName, name), gauge);
+    }
+
+    public void unregisterGauge(String metric, TopicName topicName, String name) {
+        metricRegistry.remove(metricRegistryName(metric, topicName, name));
+    }
+
     public ConsumerLatencyTimer latencyTimer(Subscription subscription) {
         return new ConsumerLatencyTimer(this, subscription.getTopicName(), subscription.getName());
     }
@@ -194,6 +210,16 @@ public class HermesMetrics {
                 + getDoubleValue(PRODUCER_EVERYONE_CONFIRMS_BUFFER_AVAILABLE_BYTES);
     }
 
+    public double getLeaderConfirmsBufferAvailability() {
+        return getDoubleValue(PRODUCER_LEADER_CONFIRMS_BUFFER_AVAILABLE_BYTES)
+                / getDoubleValue(PRODUCER_LEADER_CONFIRMS_BUFFER_TOTAL_BYTES);
+    }
+
+    public double getEveryoneConfirmsBufferAvailability() {
+        return getDoubleValue(PRODUCER_EVERYONE_CONFIRMS_BUFFER_AVAILABLE_BYTES)
+                / getDoubleValue(PRODUCER_EVERYONE_CONFIRMS_BUFFER_TOTAL_BYTES);
+    }
+
     private double getDoubleValue(String gauge) {
         return (double) metricRegistry.getGauges().get(pathCompiler.compile(gauge)).getValue();
     }
@@ -10,6 +10,23 @@ public class Meters {
     PRODUCER_FAILED_METER = "producer." + HOSTNAME + ".failed-meter",
             PRODUCER_FAILED_TOPIC_METER = PRODUCER_FAILED_METER + "." + GROUP + "." + TOPIC,
 
+    PRODUCER_BUFFER_APPENDED_METER = "producer." + HOSTNAME + ".message-buffer.appended-meter",
+            PRODUCER_BUFFER_REPLAYED_METER = "producer." + HOSTNAME + ".message-buffer.replayed-meter",
+            PRODUCER_BUFFER_DROPPED_METER = "producer." + HOSTNAME + ".message-buffer.dropped-meter",
+
+    PRODUCER_FAILOVER_METER = "producer." + HOSTNAME + ".failover.secondary-meter",
+            PRODUCER_FAILOVER_FAILED_METER = "producer." + HOSTNAME + ".failover.secondary-failed-meter",
+
+    PRODUCER_SHED_BUFFER_METER = "producer." + HOSTNAME + ".shed.buffer-meter",
+            PRODUCER_SHED_IN_FLIGHT_METER = "producer." + HOSTNAME + ".shed.in-flight-meter",
+            PRODUCER_SHED_TOPIC_IN_FLIGHT_METER = "producer." + HOSTNAME + ".shed.topic-in-flight-meter",
+            PRODUCER_SHED_TOPIC_METER = "producer." + HOSTNAME + ".shed.meter." + GROUP + "." + TOPIC,
+
+    PRODUCER_QUOTA_EXCEEDED_METER = "producer." + HOSTNAME + ".quota.exceeded-meter",
+            PRODUCER_QUOTA_EXCEEDED_TOPIC_METER = PRODUCER_QUOTA_EXCEEDED_METER + "." + GROUP + "." + TOPIC,
+
+    PRODUCER_PROCESSING_REJECTED_METER = "producer." + HOSTNAME + ".processing.rejected-meter",
+
     PRODUCER_STATUS_CODES = "producer." + HOSTNAME + ".http-status-codes.code" + HTTP_CODE,
             PRODUCER_TOPIC_STATUS_CODES = "producer." + HOSTNAME + ".http-status-codes." + GROUP + "." + TOPIC + ".code" + HTTP_CODE,
 
@@ -32,6 +49,10 @@ public class Meters {
             CONSUMER_DISCARDED_TOPIC_METER = CONSUMER_DISCARDED_METER + "." + GROUP + "." + TOPIC,
             CONSUMER_DISCARDED_SUBSCRIPTION_METER = CONSUMER_DISCARDED_TOPIC_METER + "." + SUBSCRIPTION,
 
+    CONSUMER_FILTERED_METER = "consumer." + HOSTNAME + ".filtered-meter." + GROUP + "." + TOPIC + "." + SUBSCRIPTION,
+
+    CONSUMER_HEDGED_METER = "consumer." + HOSTNAME + ".hedged-meter." + GROUP + "." + TOPIC + "." + SUBSCRIPTION,
+
     CONSUMER_EXECUTOR_SUBMITTED = "consumer." + HOSTNAME + ".executors." + EXECUTOR_NAME + ".submitted",
     CONSUMER_EXECUTOR_COMPLETED = "consumer." + HOSTNAME + ".executors." + EXECUTOR_NAME + ".completed";
 }
\ No newline at end of file
@@ -33,6 +33,8 @@ public class Timers {
 
     CONSUMER_READ_LATENCY = "consumer." + HOSTNAME + ".read-latency",
 
+    CONSUMER_COMPRESSION_CPU_TIME = "consumer." + HOSTNAME + ".compression." + GROUP + "." + TOPIC + "." + SUBSCRIPTION + ".cpu-time",
+
     CONSUMER_EXECUTOR_DURATION = "consumer." + HOSTNAME + ".executors." + EXECUTOR_NAME + ".duration",
             CONSUMER_EXECUTOR_WAITING = "consumer." + HOSTNAME + ".executors." + EXECUTOR_NAME + ".waiting";
 
@@ -4,9 +4,16 @@ import com.google.common.base.Charsets;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
 
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
 public class MessageId {
     private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
 
+    private static final long NODE = nodeId(new InetAddressHostnameResolver().resolve());
+    private static final ThreadLocal<Generator> GENERATORS = ThreadLocal.withInitial(
+            () -> new Generator(Thread.currentThread().getId()));
+
     public static String forTopicAndOffset(String topic, Long offset) {
 
         return HASH_FUNCTION.newHasher()
@@ -16,4 +23,50 @@ public class MessageId {
                 .toString();
 
     }
+
+    /**
+     * Generates UUID formatted id without locking: milliseconds since epoch and per thread sequence go first, so ids
+     * are ordered by time, followed by host, process and thread, which keep ids generated in parallel unique.
+     */
+    public static String generate() {
+        return GENERATORS.get().next().toString();
+    }
+
+    static long nodeId(String hostname) {
+        long host = Hashing.murmur3_32().hashString(hostname, Charsets.UTF_8).asInt() & 0xFFFFL;
+        long process = ThreadLocalRandom.current().nextInt() & 0xFFFFL;
+        return host << 16 | process;
+    }
+
+    static final class Generator {
+
+        private static final long VERSION = 7L << 12;
+        private static final long VARIANT = 2L << 62;
+        private static final int MAX_SEQUENCE = 0xFFF;
+
+        private final long threadBits;
+        private long lastMillis = 0;
+        private int sequence = 0;
+
+        Generator(long threadId) {
+            this.threadBits = (threadId & 0x3FFFFFFFL) << 32;
+        }
+
+        UUID next() {
+            return next(System.currentTimeMillis());
+        }
+
+        UUID next(long now) {
+            if (now > lastMillis) {
+                lastMillis = now;
+                sequence = 0;
+            } else if (++sequence > MAX_SEQUENCE) {
+                lastMillis++;
+                sequence = 0;
+            }
+            long mostSigBits = lastMillis << 16 | VERSION | sequence;
+            long leastSigBits = VARIANT | threadBits | NODE;
+            return new UUID(mostSigBits, leastSigBits);
+        }
+    }
 }
@@ -15,6 +15,7 @@ public class ZookeeperPaths {
     public static final String CONSUMERS_PATH = "consumers";
     public static final String METRICS_PATH = "metrics";
     public static final String ADMIN_PATH = "admin";
+    public static final String FRONTEND_PATH = "frontend";
 
     private final String basePath;
 
@@ -101,6 +102,28 @@ public class ZookeeperPaths {
         );
     }
 
+    public String frontendPath() {
+        return Joiner.on(URL_SEPARATOR).join(basePath, FRONTEND_PATH);
+    }
+
+    public String frontendTopicMetricPath(String hostname, TopicName topicName, String metricName) {
+        return Joiner.on(URL_SEPARATOR).join(
+                frontendPath(),
+                hostname + topicMetricPathWithoutBasePath(topicName, metricName)
+        );
+    }
+
+    public String topicMetricPathWithoutBasePath(TopicName topicName, String metricName) {
+        return Joiner.on(URL_SEPARATOR).join(
+                "",
+                GROUPS_PATH,
+                topicName.getGroupName(),
+                TOPICS_PATH,
+                topicName.getName(),
+                METRICS_PATH,
+                metricName);
+    }
+
     public String subscriptionMetricPathWithoutBasePath(TopicName topicName, String subscriptionName, String metricName) {
         return Joiner.on(URL_SEPARATOR).join(
                 "",
@@ -38,6 +38,16 @@ public class DistributedEphemeralCounter {
         }
     }
 
+    public void deleteCounter(String path) {
+        try {
+            curatorClient.delete().forPath(path);
+        } catch (KeeperException.NoNodeException e) {
+            logger.trace("Counter {} was already removed", path, e);
+        } catch (Exception e) {
+            throw new ZookeeperCounterException(path, e);
+        }
+    }
+
     public long getValue(String basePath, String childrenPath) {
         Long sum = 0L;
         try {
@@ -0,0 +1,84 @@
+package pl.allegro.tech.hermes.common.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MessageIdTest {
+
+    @Test
+    public void shouldGenerateUuidFormattedId() {
+        // when
+        String id = MessageId.generate();
+
+        // then
+        assertThat(UUID.fromString(id).toString()).isEqualTo(id);
+        assertThat(UUID.fromString(id).variant()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldOrderIdsByTimeAndSequenceEvenWhenClockGoesBack() {
+        // given
+        MessageId.Generator generator = new MessageId.Generator(1);
+
+        // when
+        String first = generator.next(1000L).toString();
+        String sameMillis = generator.next(1000L).toString();
+        String clockWentBack = generator.next(900L).toString();
+        String later = generator.next(2000L).toString();
+
+        // then
+        assertThat(first.compareTo(sameMillis)).isNegative();
+        assertThat(sameMillis.compareTo(clockWentBack)).isNegative();
+        assertThat(clockWentBack.compareTo(later)).isNegative();
+    }
+
+    @Test
+    public void shouldMoveToNextMillisecondWhenSequenceIsExhausted() {
+        // given
+        MessageId.Generator generator = new MessageId.Generator(1);
+        UUID previous = generator.next(1000L);
+
+        // when
+        for (int i = 0; i < 5000; i++) {
+            UUID next = generator.next(1000L);
+
+            // then
+            assertThat(next.toString().compareTo(previous.toString())).isPositive();
+            previous = next;
+        }
+    }
+
+    @Test
+    public void shouldGenerateUniqueIdsInParallel() throws Exception {
+        // given
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    ids.add(MessageId.generate());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(ids).hasSize(80_000);
+    }
+}
@@ -7,7 +7,11 @@ import pl.allegro.tech.hermes.api.Subscription;
 import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Meters;
+import pl.allegro.tech.hermes.consumers.consumer.budget.SubscriptionMemoryBudget;
+import pl.allegro.tech.hermes.consumers.consumer.converter.MessageConverter;
 import pl.allegro.tech.hermes.consumers.consumer.converter.MessageConverterResolver;
+import pl.allegro.tech.hermes.consumers.consumer.filtering.FilterChain;
 import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionOffsetCommitQueues;
 import pl.allegro.tech.hermes.consumers.consumer.rate.ConsumerRateLimiter;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
@@ -24,25 +28,30 @@ public class Consumer implements Runnable {
 
     private static final Logger logger = LoggerFactory.getLogger(Consumer.class);
 
+    private static final long MEMORY_RESERVATION_TIMEOUT_MS = 100;
+
     private final MessageReceiver messageReceiver;
     private final HermesMetrics hermesMetrics;
     private final ConsumerRateLimiter rateLimiter;
     private final SubscriptionOffsetCommitQueues subscriptionOffsetCommitQueues;
     private final Semaphore inflightSemaphore;
+    private final SubscriptionMemoryBudget memoryBudget;
     private final Trackers trackers;
     private final MessageConverterResolver messageConverterResolver;
     private final Topic topic;
     private final ConsumerMessageSender sender;
 
     private Subscription subscription;
+    private volatile FilterChain filterChain;
+    private volatile MessageConverter projection;
 
     private final CountDownLatch stoppedLatch = new CountDownLatch(1);
     private volatile boolean consuming = true;
 
     public Consumer(MessageReceiver messageReceiver, HermesMetrics hermesMetrics, Subscription subscription,
                     ConsumerRateLimiter rateLimiter, SubscriptionOffsetCommitQueues subscriptionOffsetCommitQueues,
-                    ConsumerMessageSender sender, Semaphore inflightSemaphore, Trackers trackers,
-                    MessageConverterResolver messageConverterResolver, Topic topic) {
+                    ConsumerMessageSender sender, Semaphore inflightSemaphore, SubscriptionMemoryBudget memoryBudget,
+                    Trackers trackers, MessageConverterResolver messageConverterResolver, Topic topic) {
         this.messageReceiver = messageReceiver;
         this.hermesMetrics = hermesMetrics;
         this.subscription = subscription;
@@ -50,9 +59,12 @@ public class Consumer implements Runnable {
         this.subscriptionOffsetCommitQueues = subscriptionOffsetCommitQueues;
         this.sender = sender;
         this.inflightSemaphore = inflightSemaphore;
+        this.memoryBudget = memoryBudget;
         this.trackers = trackers;
         this.messageConverterResolver = messageConverterResolver;
         this.topic = topic;
+        this.filterChain = FilterChain.compile(subscription.getFilters());
+        this.projection = messageConverterResolver.projectionFor(subscription);
     }
 
     private String getId() {
@@ -70,8 +82,25 @@ public class Consumer implements Runnable {
                 Message message = messageReceiver.next();
 
                 Message convertedMessage = messageConverterResolver.converterFor(message, topic).convert(message, topic);
-
-                sendMessage(convertedMessage);
+                releaseIfReplaced(message, convertedMessage);
+
+                boolean matches;
+                try {
+                    matches = filterChain.matches(convertedMessage);
+                } catch (RuntimeException e) {
+                    discardUnfilterableMessage(convertedMessage, e);
+                    continue;
+                }
+
+                if (matches) {
+                    Message projectedMessage = projection.convert(convertedMessage, topic);
+                    releaseIfReplaced(convertedMessage, projectedMessage);
+                    if (reserveMemory(projectedMessage)) {
+                        sendMessage(projectedMessage);
+                    }
+                } else {
+                    skipFilteredMessage(convertedMessage);
+                }
             } catch (MessageReceivingTimeoutException messageReceivingTimeoutException) {
                 inflightSemaphore.release();
                 logger.debug("Timeout while reading message from topic. Trying to read message again", messageReceivingTimeoutException);
@@ -80,11 +109,33 @@ public class Consumer implements Runnable {
             }
         }
         messageReceiver.stop();
+        memoryBudget.close();
         unsetThreadName();
         logger.info("Stopped consumer for subscription {}", subscription.getId());
         stoppedLatch.countDown();
     }
 
+    /**
+     * Blocks consumer until message fits in memory budget. Message which was not reserved before consumer stopped
+     * is not committed, so it will be consumed again.
+     */
+    private boolean reserveMemory(Message message) throws InterruptedException {
+        while (consuming) {
+            if (memoryBudget.tryReserve(message, MEMORY_RESERVATION_TIMEOUT_MS)) {
+                return true;
+            }
+        }
+        inflightSemaphore.release();
+        message.release();
+        return false;
+    }
+
+    private void releaseIfReplaced(Message message, Message replacement) {
+        if (message != replacement) {
+            message.release();
+        }
+    }
+
     private void sendMessage(Message message) {
         subscriptionOffsetCommitQueues.put(message);
 
@@ -94,6 +145,27 @@ public class Consumer implements Runnable {
         sender.sendMessage(message);
     }
 
+    private void skipFilteredMessage(Message message) {
+        subscriptionOffsetCommitQueues.put(message);
+        subscriptionOffsetCommitQueues.remove(message);
+        inflightSemaphore.release();
+        message.release();
+
+        hermesMetrics.meter(Meters.CONSUMER_FILTERED_METER, subscription.getTopicName(), subscription.getName()).mark();
+    }
+
+    private void discardUnfilterableMessage(Message message, RuntimeException exception) {
+        logger.error("Discarding message {} of subscription {} which could not be filtered", message.getId(), getId(), exception);
+        subscriptionOffsetCommitQueues.put(message);
+        subscriptionOffsetCommitQueues.remove(message);
+        inflightSemaphore.release();
+        message.release();
+
+        hermesMetrics.meter(Meters.CONSUMER_DISCARDED_METER).mark();
+        hermesMetrics.meter(Meters.CONSUMER_DISCARDED_TOPIC_METER, subscription.getTopicName()).mark();
+        hermesMetrics.meter(Meters.CONSUMER_DISCARDED_SUBSCRIPTION_METER, subscription.getTopicName(), subscription.getName()).mark();
+    }
+
     public void stopConsuming() {
         logger.info("Stopping consumer for subscription {}", subscription.getId());
         rateLimiter.shutdown();
@@ -116,6 +188,8 @@ public class Consumer implements Runnable {
     public void updateSubscription(Subscription newSubscription) {
         rateLimiter.updateSubscription(newSubscription);
         sender.updateSubscription(newSubscription);
+        this.filterChain = FilterChain.compile(newSubscription.getFilters());
+        this.projection = messageConverterResolver.projectionFor(newSubscription);
         this.subscription = newSubscription;
     }
 
@@ -5,6 +5,8 @@ import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.api.Subscription;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.common.metric.timer.ConsumerLatencyTimer;
+import pl.allegro.tech.hermes.consumers.consumer.budget.SubscriptionMemoryBudget;
+import pl.allegro.tech.hermes.consumers.consumer.logging.AggregatingFailureLog;
 import pl.allegro.tech.hermes.consumers.consumer.rate.ConsumerRateLimiter;
 import pl.allegro.tech.hermes.consumers.consumer.result.ErrorHandler;
 import pl.allegro.tech.hermes.consumers.consumer.result.SuccessHandler;
@@ -13,12 +15,17 @@ import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeout;
 
 import java.time.Duration;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.lang.String.format;
 import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.failedResult;
@@ -33,8 +40,14 @@ public class ConsumerMessageSender {
     private final ConsumerRateLimiter rateLimiter;
     private final MessageSender messageSender;
     private final Semaphore inflightSemaphore;
+    private final SubscriptionMemoryBudget memoryBudget;
     private final FutureAsyncTimeout<MessageSendingResult> async;
     private final int asyncTimeoutMs;
+    private final Optional<KeyOrderingLanes> keyOrderingLanes;
+    private final ExecutorService keyOrderingExecutor;
+    private final AggregatingFailureLog failureLog;
+    private final AtomicInteger inflightRequests = new AtomicInteger();
+    private final AtomicBoolean messageSenderStopped = new AtomicBoolean();
     private ConsumerLatencyTimer consumerLatencyTimer;
     private Subscription subscription;
 
@@ -42,8 +55,9 @@ public class ConsumerMessageSender {
 
     public ConsumerMessageSender(Subscription subscription, MessageSender messageSender, SuccessHandler successHandler,
                                  ErrorHandler errorHandler, ConsumerRateLimiter rateLimiter, ExecutorService deliveryReportingExecutor,
-                                 Semaphore inflightSemaphore, HermesMetrics hermesMetrics, int asyncTimeoutMs,
-                                 FutureAsyncTimeout<MessageSendingResult> futureAsyncTimeout) {
+                                 Semaphore inflightSemaphore, SubscriptionMemoryBudget memoryBudget,
+                                 HermesMetrics hermesMetrics, int asyncTimeoutMs,
+                                 FutureAsyncTimeout<MessageSendingResult> futureAsyncTimeout, AggregatingFailureLog failureLog) {
         this.deliveryReportingExecutor = deliveryReportingExecutor;
         this.successHandler = successHandler;
         this.errorHandler = errorHandler;
@@ -51,21 +65,53 @@ public class ConsumerMessageSender {
         this.messageSender = messageSender;
         this.subscription = subscription;
         this.inflightSemaphore = inflightSemaphore;
+        this.memoryBudget = memoryBudget;
         this.retrySingleThreadExecutor = Executors.newScheduledThreadPool(1);
         this.async = futureAsyncTimeout;
         this.asyncTimeoutMs = asyncTimeoutMs;
+        this.failureLog = failureLog;
         this.consumerLatencyTimer = hermesMetrics.latencyTimer(subscription);
+        this.keyOrderingLanes = subscription.getSubscriptionPolicy().hasKeyOrdering()
+                ? Optional.of(new KeyOrderingLanes(subscription.getSubscriptionPolicy().getKeyOrderingLanes()))
+                : Optional.empty();
+        this.keyOrderingExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                new ThreadPoolExecutor.DiscardPolicy());
     }
 
+    /**
+     * Stops sending new messages, but lets requests in flight finish, so that their results are handled as usual.
+     * Message sender is stopped once the last of them completes or when async timeout passes, whichever comes first.
+     */
     public void shutdown() {
         consumerIsConsuming = false;
+        if (inflightRequests.get() == 0 || asyncTimeoutMs <= 0) {
+            stopMessageSender();
+        } else {
+            retrySingleThreadExecutor.schedule(this::stopMessageSender, asyncTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void stopMessageSender() {
+        if (messageSenderStopped.compareAndSet(false, true)) {
+            messageSender.stop();
+            keyOrderingExecutor.shutdown();
+        }
     }
 
     /**
      * Method is calling MessageSender and is registering listeners to handle response.
      * Main responsibility of this method is that no message will be fully processed or rejected without release on semaphore.
+     * When subscription keeps order of keys, message waits until previous message with the same key is processed.
      */
     public void sendMessage(final Message message) {
+        if (keyOrderingLanes.isPresent() && message.getPartitionKey().isPresent()
+                && !keyOrderingLanes.get().tryEnter(message, message.getPartitionKey().get())) {
+            return;
+        }
+        deliver(message);
+    }
+
+    private void deliver(final Message message) {
         while (consumerIsConsuming) {
             try {
                 submitAsyncSendMessageRequest(message, consumerLatencyTimer);
@@ -87,10 +133,26 @@ public class ConsumerMessageSender {
     private void submitAsyncSendMessageRequest(final Message message, final ConsumerLatencyTimer consumerLatencyTimer) {
         rateLimiter.acquire();
         ConsumerLatencyTimer.Context timer = consumerLatencyTimer.time();
-        final CompletableFuture<MessageSendingResult> response = async.within(messageSender.send(message), Duration.ofMillis(asyncTimeoutMs));
+        inflightRequests.incrementAndGet();
+        CompletableFuture<MessageSendingResult> sent;
+        try {
+            sent = messageSender.send(message);
+        } catch (RuntimeException e) {
+            requestCompleted();
+            throw e;
+        }
+        final CompletableFuture<MessageSendingResult> response = asyncTimeoutMs > 0
+                ? async.within(sent, Duration.ofMillis(asyncTimeoutMs))
+                : sent;
         response.thenAcceptAsync(new ResponseHandlingListener(message, timer), deliveryReportingExecutor);
     }
 
+    private void requestCompleted() {
+        if (inflightRequests.decrementAndGet() == 0 && !consumerIsConsuming) {
+            stopMessageSender();
+        }
+    }
+
     private boolean isTtlExceeded(Message message) {
         return message.isTtlExceeded(subscription.getSubscriptionPolicy().getMessageTtl());
     }
@@ -106,12 +168,28 @@ public class ConsumerMessageSender {
 
     private void handleMessageDiscarding(Message message, MessageSendingResult result) {
         inflightSemaphore.release();
+        memoryBudget.release(message);
         errorHandler.handleDiscarded(message, subscription, result);
+        message.release();
+        leaveKeyOrderingLane(message);
     }
 
     private void handleMessageSendingSuccess(Message message, MessageSendingResult result) {
         inflightSemaphore.release();
+        memoryBudget.release(message);
         successHandler.handle(message, subscription, result);
+        message.release();
+        leaveKeyOrderingLane(message);
+    }
+
+    /**
+     * Next message of the key is delivered on its own executor, so it does not wait behind retries of unrelated messages.
+     */
+    private void leaveKeyOrderingLane(Message message) {
+        if (keyOrderingLanes.isPresent() && message.getPartitionKey().isPresent()) {
+            keyOrderingLanes.get().leave(message.getPartitionKey().get())
+                    .ifPresent(next -> keyOrderingExecutor.execute(() -> deliver(next)));
+        }
     }
 
     private boolean shouldReduceSendingRate(MessageSendingResult result) {
@@ -134,10 +212,20 @@ public class ConsumerMessageSender {
 
         @Override
         public void accept(MessageSendingResult result) {
+            try {
+                handle(result);
+            } finally {
+                requestCompleted();
+            }
+        }
+
+        private void handle(MessageSendingResult result) {
             timer.stop();
             if (result.succeeded()) {
                 rateLimiter.registerSuccessfulSending();
                 handleMessageSendingSuccess(message, result);
+            } else if (result.isRedeliveryRequested()) {
+                retrySingleThreadExecutor.execute(() -> deliver(message));
             } else {
                 handleFailedSending(message, result);
                 if (!isTtlExceeded(message) && shouldRetrySending(result)) {
@@ -151,13 +239,13 @@ public class ConsumerMessageSender {
 
         private void retrySending(MessageSendingResult result) {
             if (result.isLoggable()) {
-                logger.info(
+                String rootCause = result.getRootCause();
+                failureLog.info(logger, subscription.getId(), rootCause, result.getFailure(), () ->
                     format("Retrying message send to endpoint %s; messageId %s; offset: %s; partition: %s; sub id: %s; rootCause: %s",
                         subscription.getEndpoint().getEndpoint(), message.getId(), message.getOffset(), message.getPartition(),
-                        subscription.getId(), result.getRootCause()),
-                    result.getFailure());
+                        subscription.getId(), rootCause));
             }
-            sendMessage(message);
+            deliver(message);
         }
     }
 }
@@ -5,29 +5,39 @@ import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.config.Configs;
 import pl.allegro.tech.hermes.common.message.undelivered.UndeliveredMessageLog;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Meters;
 import pl.allegro.tech.hermes.common.metric.executor.InstrumentedExecutorServiceFactory;
 import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.consumers.consumer.budget.SubscriptionMemoryBudget;
+import pl.allegro.tech.hermes.consumers.consumer.logging.AggregatingFailureLog;
 import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionOffsetCommitQueues;
 import pl.allegro.tech.hermes.consumers.consumer.rate.ConsumerRateLimiter;
 import pl.allegro.tech.hermes.consumers.consumer.result.DefaultErrorHandler;
 import pl.allegro.tech.hermes.consumers.consumer.result.DefaultSuccessHandler;
 import pl.allegro.tech.hermes.consumers.consumer.result.ErrorHandler;
 import pl.allegro.tech.hermes.consumers.consumer.result.SuccessHandler;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSender;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSenderFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+import pl.allegro.tech.hermes.consumers.consumer.sender.hedging.HedgingMessageSender;
+import pl.allegro.tech.hermes.consumers.consumer.sender.hedging.HedgingSettings;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeout;
 import pl.allegro.tech.hermes.tracker.consumers.Trackers;
 
 import javax.inject.Inject;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
 
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_HEDGING_THREAD_POOL_SIZE;
 import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_RATE_LIMITER_REPORTING_THREAD_POOL_SIZE;
 import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_SENDER_ASYNC_TIMEOUT_MS;
 import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_CLUSTER_NAME;
 
 public class ConsumerMessageSenderFactory {
 
+    private static final String PULL_PROTOCOL = "pull";
+
     private final ConfigFactory configFactory;
     private final HermesMetrics hermesMetrics;
     private final MessageSenderFactory messageSenderFactory;
@@ -36,11 +46,15 @@ public class ConsumerMessageSenderFactory {
     private final UndeliveredMessageLog undeliveredMessageLog;
     private final Clock clock;
     private final ExecutorService rateLimiterReportingExecutor;
+    private final ScheduledExecutorService hedgingExecutor;
+    private final HedgingSettings hedgingSettings;
+    private final AggregatingFailureLog failureLog;
 
     @Inject
     public ConsumerMessageSenderFactory(ConfigFactory configFactory, HermesMetrics hermesMetrics, MessageSenderFactory messageSenderFactory,
                                         Trackers trackers, FutureAsyncTimeout<MessageSendingResult> futureAsyncTimeout,
-                                        UndeliveredMessageLog undeliveredMessageLog, Clock clock, InstrumentedExecutorServiceFactory instrumentedExecutorServiceFactory) {
+                                        UndeliveredMessageLog undeliveredMessageLog, Clock clock, InstrumentedExecutorServiceFactory instrumentedExecutorServiceFactory,
+                                        AggregatingFailureLog failureLog) {
 
         this.configFactory = configFactory;
         this.hermesMetrics = hermesMetrics;
@@ -51,25 +65,54 @@ public class ConsumerMessageSenderFactory {
         this.clock = clock;
         this.rateLimiterReportingExecutor = instrumentedExecutorServiceFactory.getExecutorService("rate-limiter-reporter", configFactory.getIntProperty(CONSUMER_RATE_LIMITER_REPORTING_THREAD_POOL_SIZE),
                 configFactory.getBooleanProperty(Configs.CONSUMER_RATE_LIMITER_REPORTING_THREAD_POOL_MONITORING));
+        this.hedgingExecutor = instrumentedExecutorServiceFactory.getScheduledExecutorService("hedging",
+                configFactory.getIntProperty(CONSUMER_HEDGING_THREAD_POOL_SIZE), false);
+        this.hedgingSettings = HedgingSettings.fromConfig(configFactory);
+        this.failureLog = failureLog;
     }
 
     public ConsumerMessageSender create(Subscription subscription, ConsumerRateLimiter consumerRateLimiter,
-                                        SubscriptionOffsetCommitQueues subscriptionOffsetCommitQueues, Semaphore inflightSemaphore) {
+                                        SubscriptionOffsetCommitQueues subscriptionOffsetCommitQueues, Semaphore inflightSemaphore,
+                                        SubscriptionMemoryBudget memoryBudget) {
 
         SuccessHandler successHandler = new DefaultSuccessHandler(subscriptionOffsetCommitQueues, hermesMetrics, trackers);
         ErrorHandler errorHandler = new DefaultErrorHandler(subscriptionOffsetCommitQueues, hermesMetrics, undeliveredMessageLog,
-                clock, trackers, configFactory.getStringProperty(KAFKA_CLUSTER_NAME));
+                clock, trackers, configFactory.getStringProperty(KAFKA_CLUSTER_NAME), failureLog);
 
         return new ConsumerMessageSender(subscription,
-                messageSenderFactory.create(subscription),
+                createMessageSender(subscription),
                 successHandler,
                 errorHandler,
                 consumerRateLimiter,
                 rateLimiterReportingExecutor,
                 inflightSemaphore,
+                memoryBudget,
                 hermesMetrics,
-                configFactory.getIntProperty(CONSUMER_SENDER_ASYNC_TIMEOUT_MS),
-                futureAsyncTimeout);
+                asyncTimeoutMs(subscription),
+                futureAsyncTimeout,
+                failureLog);
+    }
+
+    private MessageSender createMessageSender(Subscription subscription) {
+        MessageSender messageSender = messageSenderFactory.create(subscription);
+        if (subscription.getSubscriptionPolicy().hasHedging() && !isPull(subscription)) {
+            return new HedgingMessageSender(messageSender, subscription.getSubscriptionPolicy().getHedgingBudget(), hedgingExecutor,
+                    hermesMetrics.meter(Meters.CONSUMER_HEDGED_METER, subscription.getTopicName(), subscription.getName()),
+                    hedgingSettings);
+        }
+        return messageSender;
+    }
+
+    /**
+     * Pulled message waits for client as long as needed and its lease expires on its own, so its sending is not
+     * limited by async timeout.
+     */
+    private int asyncTimeoutMs(Subscription subscription) {
+        return isPull(subscription) ? 0 : configFactory.getIntProperty(CONSUMER_SENDER_ASYNC_TIMEOUT_MS);
+    }
+
+    private boolean isPull(Subscription subscription) {
+        return PULL_PROTOCOL.equals(subscription.getEndpoint().getProtocol());
     }
 
 }
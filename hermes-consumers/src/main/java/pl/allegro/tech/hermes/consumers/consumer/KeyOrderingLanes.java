@@ -0,0 +1,57 @@
+package pl.allegro.tech.hermes.consumers.consumer;
+
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+
+/**
+ * Keeps at most one message with given partition key in delivery. Keys are hashed to bounded number of lanes,
+ * messages waiting for their lane are delivered in order of arrival once previous message leaves the lane.
+ */
+class KeyOrderingLanes {
+
+    private final Lane[] lanes;
+
+    KeyOrderingLanes(int lanesCount) {
+        this.lanes = new Lane[lanesCount];
+        for (int i = 0; i < lanesCount; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    /**
+     * @return true when message can be delivered right away, otherwise it waits for its lane
+     */
+    boolean tryEnter(Message message, String key) {
+        Lane lane = laneFor(key);
+        synchronized (lane) {
+            if (lane.busy) {
+                lane.waiting.add(message);
+                return false;
+            }
+            lane.busy = true;
+            return true;
+        }
+    }
+
+    /**
+     * @return next message which should be delivered in the lane left by given key
+     */
+    Optional<Message> leave(String key) {
+        Lane lane = laneFor(key);
+        synchronized (lane) {
+            Message next = lane.waiting.poll();
+            lane.busy = next != null;
+            return Optional.ofNullable(next);
+        }
+    }
+
+    private Lane laneFor(String key) {
+        return lanes[Math.abs(key.hashCode() % lanes.length)];
+    }
+
+    private static class Lane {
+        private final Queue<Message> waiting = new ArrayDeque<>();
+        private boolean busy;
+    }
+}
@@ -4,9 +4,10 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
 import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
+import pl.allegro.tech.hermes.consumers.consumer.buffer.PayloadBuffer;
 
-import java.util.Arrays;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @SuppressFBWarnings({ "EI_EXPOSE_REP", "EI_EXPOSE_REP2" })
@@ -20,12 +21,19 @@ public class Message {
 
     private long publishingTimestamp;
     private long readingTimestamp;
-    private byte[] data;
+    private volatile byte[] data;
+    private PayloadBuffer buffer;
+    private String partitionKey;
 
     private Message() {}
 
     public Message(String id, String topic, byte[] content, Topic.ContentType contentType, long publishingTimestamp,
                    long readingTimestamp, PartitionOffset partitionOffset) {
+        this(id, topic, content, contentType, publishingTimestamp, readingTimestamp, partitionOffset, null);
+    }
+
+    public Message(String id, String topic, byte[] content, Topic.ContentType contentType, long publishingTimestamp,
+                   long readingTimestamp, PartitionOffset partitionOffset, String partitionKey) {
         this.id = id;
         this.data = content;
         this.topic = topic;
@@ -33,6 +41,16 @@ public class Message {
         this.publishingTimestamp = publishingTimestamp;
         this.readingTimestamp = readingTimestamp;
         this.partitionOffset = partitionOffset;
+        this.partitionKey = partitionKey;
+    }
+
+    /**
+     * Message holds one reference to buffer, it has to be released when message is delivered or discarded.
+     */
+    public Message(String id, String topic, PayloadBuffer buffer, Topic.ContentType contentType, long publishingTimestamp,
+                   long readingTimestamp, PartitionOffset partitionOffset, String partitionKey) {
+        this(id, topic, (byte[]) null, contentType, publishingTimestamp, readingTimestamp, partitionOffset, partitionKey);
+        this.buffer = buffer;
     }
 
     public long getPublishingTimestamp() {
@@ -47,10 +65,33 @@ public class Message {
         return partitionOffset.getOffset();
     }
 
+    /**
+     * @return payload as separate array, pooled payload is copied on first call
+     */
     public byte[] getData() {
+        if (data == null && buffer != null) {
+            data = buffer.toBytes();
+        }
         return data;
     }
 
+    /**
+     * @return payload without copying it, holder which uses it asynchronously should retain it
+     */
+    public PayloadBuffer getBuffer() {
+        return buffer != null ? buffer : PayloadBuffer.wrap(data);
+    }
+
+    public int getDataLength() {
+        return buffer != null ? buffer.length() : data.length;
+    }
+
+    public void release() {
+        if (buffer != null) {
+            buffer.release();
+        }
+    }
+
     public Topic.ContentType getContentType() {
         return contentType;
     }
@@ -74,9 +115,16 @@ public class Message {
         return id;
     }
 
+    /**
+     * @return key given by publisher, messages with the same key are stored in the same partition
+     */
+    public Optional<String> getPartitionKey() {
+        return Optional.ofNullable(partitionKey);
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(topic, data, contentType, publishingTimestamp, readingTimestamp, partitionOffset);
+        return Objects.hash(topic, getBuffer(), contentType, publishingTimestamp, readingTimestamp, partitionOffset);
     }
 
     @Override
@@ -91,7 +139,7 @@ public class Message {
         return Objects.equals(this.topic, other.topic)
                 && Objects.equals(this.publishingTimestamp, other.publishingTimestamp)
                 && Objects.equals(this.readingTimestamp, other.readingTimestamp)
-                && Arrays.equals(this.data, other.data)
+                && Objects.equals(this.getBuffer(), other.getBuffer())
                 && Objects.equals(this.contentType, other.contentType)
                 && Objects.equals(this.partitionOffset, other.partitionOffset);
     }
@@ -113,17 +161,23 @@ public class Message {
 
         public Builder fromMessage(Message message) {
             this.message.id = message.getId();
-            this.message.data = message.getData();
+            this.message.data = message.data;
+            this.message.buffer = message.buffer != null ? message.buffer.retain() : null;
             this.message.contentType = message.getContentType();
             this.message.topic = message.getTopic();
             this.message.publishingTimestamp = message.getPublishingTimestamp();
             this.message.readingTimestamp = message.getReadingTimestamp();
             this.message.partitionOffset = message.partitionOffset;
+            this.message.partitionKey = message.partitionKey;
 
             return this;
         }
 
         public Builder withData(byte [] data) {
+            if (this.message.buffer != null) {
+                this.message.buffer.release();
+                this.message.buffer = null;
+            }
             this.message.data = data;
             return this;
         }
@@ -0,0 +1,122 @@
+package pl.allegro.tech.hermes.consumers.consumer.budget;
+
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.Gauges;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+
+import javax.inject.Inject;
+
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_MEMORY_BUDGET_BYTES;
+
+/**
+ * Node-wide limit of bytes kept by messages in flight. While nobody waits for budget, subscriptions may use all of it;
+ * once some subscription waits, each subscription which holds any messages is limited to equal share of it, so the
+ * waiting one gets bytes released by the others. Subscription without reserved bytes can always reserve one message,
+ * so even messages bigger than the share are delivered, which may exceed the budget by a single message per subscription.
+ */
+public class MemoryBudget {
+
+    private final long totalBytes;
+    private final HermesMetrics hermesMetrics;
+
+    private long usedBytes;
+    private int activeSubscriptions;
+    private int waitingSubscriptions;
+
+    @Inject
+    public MemoryBudget(ConfigFactory configFactory, HermesMetrics hermesMetrics) {
+        this(configFactory.getLongProperty(CONSUMER_MEMORY_BUDGET_BYTES), hermesMetrics);
+        hermesMetrics.registerGauge(Gauges.CONSUMER_MEMORY_BUDGET_TOTAL_BYTES, () -> totalBytes);
+        hermesMetrics.registerGauge(Gauges.CONSUMER_MEMORY_BUDGET_USED_BYTES, this::getUsedBytes);
+    }
+
+    MemoryBudget(long totalBytes, HermesMetrics hermesMetrics) {
+        this.totalBytes = totalBytes;
+        this.hermesMetrics = hermesMetrics;
+    }
+
+    public SubscriptionMemoryBudget forSubscription(Subscription subscription) {
+        return new SubscriptionMemoryBudget(this, subscription, hermesMetrics);
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    synchronized int getWaitingSubscriptions() {
+        return waitingSubscriptions;
+    }
+
+    boolean isEnabled() {
+        return totalBytes > 0;
+    }
+
+    synchronized boolean tryReserve(SubscriptionMemoryBudget subscription, int bytes, long timeoutMs)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        boolean waiting = false;
+        try {
+            while (!canReserve(subscription, bytes, waiting)) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                if (!waiting) {
+                    waiting = true;
+                    waitingSubscriptions++;
+                }
+                wait(remaining);
+            }
+        } finally {
+            if (waiting) {
+                waitingSubscriptions--;
+            }
+        }
+        if (subscription.reservedBytes == 0) {
+            activeSubscriptions++;
+        }
+        subscription.reservedBytes += bytes;
+        usedBytes += bytes;
+        return true;
+    }
+
+    synchronized void release(SubscriptionMemoryBudget subscription, int bytes) {
+        if (subscription.closed) {
+            return;
+        }
+        subscription.reservedBytes -= bytes;
+        usedBytes -= bytes;
+        if (subscription.reservedBytes == 0) {
+            activeSubscriptions--;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Returns all bytes still reserved by subscription, as messages in flight when it stopped may never be released.
+     */
+    synchronized void close(SubscriptionMemoryBudget subscription) {
+        if (subscription.closed) {
+            return;
+        }
+        subscription.closed = true;
+        if (subscription.reservedBytes > 0) {
+            usedBytes -= subscription.reservedBytes;
+            subscription.reservedBytes = 0;
+            activeSubscriptions--;
+        }
+        notifyAll();
+    }
+
+    private boolean canReserve(SubscriptionMemoryBudget subscription, int bytes, boolean waiting) {
+        if (subscription.reservedBytes == 0) {
+            return true;
+        }
+        if (usedBytes + bytes > totalBytes) {
+            return false;
+        }
+        boolean contended = waitingSubscriptions > (waiting ? 1 : 0);
+        return !contended || subscription.reservedBytes + bytes <= totalBytes / activeSubscriptions;
+    }
+}
@@ -0,0 +1,59 @@
+package pl.allegro.tech.hermes.consumers.consumer.budget;
+
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.common.metric.Gauges;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
+public class SubscriptionMemoryBudget {
+
+    private final MemoryBudget memoryBudget;
+    private final Subscription subscription;
+    private final HermesMetrics hermesMetrics;
+
+    // guarded by memoryBudget
+    long reservedBytes;
+    boolean closed;
+
+    SubscriptionMemoryBudget(MemoryBudget memoryBudget, Subscription subscription, HermesMetrics hermesMetrics) {
+        this.memoryBudget = memoryBudget;
+        this.subscription = subscription;
+        this.hermesMetrics = hermesMetrics;
+        if (memoryBudget.isEnabled()) {
+            hermesMetrics.registerGauge(Gauges.CONSUMER_MEMORY_BUDGET_RESERVED_BYTES, subscription.getTopicName(),
+                    subscription.getName(), this::getReservedBytes);
+        }
+    }
+
+    /**
+     * Waits until message fits in subscription share of memory budget.
+     *
+     * @return false when message could not be reserved within timeout
+     */
+    public boolean tryReserve(Message message, long timeoutMs) throws InterruptedException {
+        return !memoryBudget.isEnabled() || memoryBudget.tryReserve(this, message.getDataLength(), timeoutMs);
+    }
+
+    public void release(Message message) {
+        if (memoryBudget.isEnabled()) {
+            memoryBudget.release(this, message.getDataLength());
+        }
+    }
+
+    public long getReservedBytes() {
+        synchronized (memoryBudget) {
+            return reservedBytes;
+        }
+    }
+
+    /**
+     * Returns bytes of messages still in flight to the node budget; their later releases are ignored.
+     */
+    public void close() {
+        if (memoryBudget.isEnabled()) {
+            memoryBudget.close(this);
+            hermesMetrics.unregisterGauge(Gauges.CONSUMER_MEMORY_BUDGET_RESERVED_BYTES, subscription.getTopicName(),
+                    subscription.getName());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package pl.allegro.tech.hermes.consumers.consumer.buffer;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Message payload kept in array which may be larger than payload itself. Buffer is reference counted, array goes back
+ * to pool when last holder releases it, so it must not be used afterwards.
+ */
+@SuppressFBWarnings("EI_EXPOSE_REP")
+public class PayloadBuffer {
+
+    private final byte[] array;
+    private final int length;
+    private final PayloadBufferPool pool;
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    PayloadBuffer(byte[] array, int length, PayloadBufferPool pool) {
+        this.array = array;
+        this.length = length;
+        this.pool = pool;
+    }
+
+    public static PayloadBuffer wrap(byte[] data) {
+        return new PayloadBuffer(data, data.length, null);
+    }
+
+    public byte[] array() {
+        if (references.get() <= 0) {
+            throw new IllegalStateException("Payload buffer has already been released");
+        }
+        return array;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(array(), 0, length);
+    }
+
+    public byte[] toBytes() {
+        return Arrays.copyOf(array(), length);
+    }
+
+    public PayloadBuffer retain() {
+        references.incrementAndGet();
+        return this;
+    }
+
+    public void release() {
+        int remaining = references.decrementAndGet();
+        if (remaining == 0 && pool != null) {
+            pool.recycle(array);
+        } else if (remaining < 0) {
+            throw new IllegalStateException("Payload buffer released more times than retained");
+        }
+    }
+
+    /**
+     * Compares payloads only, ignoring unused tail of array.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        PayloadBuffer other = (PayloadBuffer) obj;
+        if (length != other.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (array[i] != other.array[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < length; i++) {
+            result = 31 * result + array[i];
+        }
+        return result;
+    }
+}
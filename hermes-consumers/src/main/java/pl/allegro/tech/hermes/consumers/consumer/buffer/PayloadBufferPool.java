@@ -0,0 +1,86 @@
+package pl.allegro.tech.hermes.consumers.consumer.buffer;
+
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.Gauges;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PAYLOAD_BUFFER_POOL_MAX_BUFFER_BYTES;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PAYLOAD_BUFFER_POOL_SIZE_BYTES;
+
+/**
+ * Keeps released payload arrays in power of two size classes, so that consumers reuse them instead of allocating
+ * new array for each message. Payloads bigger than max buffer size are not pooled.
+ */
+public class PayloadBufferPool {
+
+    private static final int MIN_BUFFER_BYTES = 256;
+
+    private final long poolSizeBytes;
+    private final int maxBufferBytes;
+    private final List<Queue<byte[]>> sizeClasses;
+    private final AtomicLong pooledBytes = new AtomicLong();
+
+    @Inject
+    public PayloadBufferPool(ConfigFactory configFactory, HermesMetrics hermesMetrics) {
+        this(configFactory.getLongProperty(CONSUMER_PAYLOAD_BUFFER_POOL_SIZE_BYTES),
+                configFactory.getIntProperty(CONSUMER_PAYLOAD_BUFFER_POOL_MAX_BUFFER_BYTES));
+        hermesMetrics.registerGauge(Gauges.CONSUMER_PAYLOAD_BUFFER_POOL_BYTES, pooledBytes::get);
+    }
+
+    public PayloadBufferPool(long poolSizeBytes, int maxBufferBytes) {
+        this.poolSizeBytes = poolSizeBytes;
+        this.maxBufferBytes = maxBufferBytes;
+        int sizeClassCount = sizeClass(Math.max(maxBufferBytes, MIN_BUFFER_BYTES)) + 1;
+        this.sizeClasses = new ArrayList<>(sizeClassCount);
+        for (int i = 0; i < sizeClassCount; i++) {
+            sizeClasses.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    public PayloadBuffer copyOf(byte[] source, int offset, int length) {
+        PayloadBuffer buffer = acquire(length);
+        System.arraycopy(source, offset, buffer.array(), 0, length);
+        return buffer;
+    }
+
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    PayloadBuffer acquire(int length) {
+        if (!isPooled(length)) {
+            return new PayloadBuffer(new byte[length], length, null);
+        }
+        int sizeClass = sizeClass(Math.max(length, MIN_BUFFER_BYTES));
+        byte[] array = sizeClasses.get(sizeClass).poll();
+        if (array != null) {
+            pooledBytes.addAndGet(-array.length);
+        } else {
+            array = new byte[1 << sizeClass];
+        }
+        return new PayloadBuffer(array, length, this);
+    }
+
+    void recycle(byte[] array) {
+        if (pooledBytes.addAndGet(array.length) <= poolSizeBytes) {
+            sizeClasses.get(sizeClass(array.length)).offer(array);
+        } else {
+            pooledBytes.addAndGet(-array.length);
+        }
+    }
+
+    private boolean isPooled(int length) {
+        return poolSizeBytes > 0 && length <= maxBufferBytes;
+    }
+
+    private static int sizeClass(int length) {
+        return 32 - Integer.numberOfLeadingZeros(length - 1);
+    }
+}
@@ -20,9 +20,10 @@ public class AvroToJsonMessageConverter implements MessageConverter {
 
     @Override
     public Message convert(Message message, Topic topic) {
+        byte[] json = AvroToJsonConverter.convert(message.getData(), schemaRepository.getSchemaWithoutMetadata(topic));
         return message()
                 .fromMessage(message)
-                .withData(AvroToJsonConverter.convert(message.getData(), schemaRepository.getSchemaWithoutMetadata(topic)))
+                .withData(json)
                 .build();
     }
 
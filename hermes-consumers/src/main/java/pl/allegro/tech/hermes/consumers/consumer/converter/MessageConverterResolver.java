@@ -1,5 +1,6 @@
 package pl.allegro.tech.hermes.consumers.consumer.converter;
 
+import pl.allegro.tech.hermes.api.Subscription;
 import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
 
@@ -24,4 +25,12 @@ public class MessageConverterResolver {
 
         return noOperationMessageConverter;
     }
+
+    public MessageConverter projectionFor(Subscription subscription) {
+        if (subscription.hasProjection()) {
+            return new ProjectingMessageConverter(subscription.getProjection());
+        }
+
+        return noOperationMessageConverter;
+    }
 }
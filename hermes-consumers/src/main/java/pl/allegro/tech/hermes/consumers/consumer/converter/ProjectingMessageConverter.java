@@ -0,0 +1,37 @@
+package pl.allegro.tech.hermes.consumers.consumer.converter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.json.JsonProjection;
+
+import java.io.IOException;
+import java.util.List;
+
+import static pl.allegro.tech.hermes.consumers.consumer.Message.message;
+
+public class ProjectingMessageConverter implements MessageConverter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectingMessageConverter.class);
+
+    private final JsonProjection projection;
+
+    public ProjectingMessageConverter(List<String> paths) {
+        this.projection = JsonProjection.compile(paths);
+    }
+
+    @Override
+    public Message convert(Message message, Topic topic) {
+        try {
+            byte[] projectedData = projection.project(message.getData());
+            return message()
+                    .fromMessage(message)
+                    .withData(projectedData)
+                    .build();
+        } catch (IOException exception) {
+            logger.debug("Could not project message {} on topic {}, delivering it whole", message.getId(), topic.getQualifiedName(), exception);
+            return message;
+        }
+    }
+}
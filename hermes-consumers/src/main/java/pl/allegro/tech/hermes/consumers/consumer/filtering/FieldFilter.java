@@ -0,0 +1,46 @@
+package pl.allegro.tech.hermes.consumers.consumer.filtering;
+
+import com.google.common.collect.ImmutableSet;
+import pl.allegro.tech.hermes.api.MessageFilterSpecification;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+class FieldFilter {
+
+    private final String path;
+
+    private final Predicate<String> predicate;
+
+    FieldFilter(MessageFilterSpecification specification) {
+        this.path = specification.getPath();
+        this.predicate = predicateFor(specification);
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * Scalar values are compared by their textual form; missing and null fields never match.
+     */
+    boolean matches(Object value) {
+        return value != null && predicate.test(value.toString());
+    }
+
+    private static Predicate<String> predicateFor(MessageFilterSpecification specification) {
+        switch (specification.getMatcher()) {
+            case EQUALS:
+                String expected = specification.getValue();
+                return value -> value.equals(expected);
+            case PREFIX:
+                String prefix = specification.getValue();
+                return value -> value.startsWith(prefix);
+            case IN:
+                Set<String> allowed = ImmutableSet.copyOf(specification.getValues());
+                return allowed::contains;
+            default:
+                throw new IllegalArgumentException("Unsupported filter matcher " + specification.getMatcher());
+        }
+    }
+}
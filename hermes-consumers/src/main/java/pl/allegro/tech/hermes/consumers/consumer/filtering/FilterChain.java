@@ -0,0 +1,60 @@
+package pl.allegro.tech.hermes.consumers.consumer.filtering;
+
+import pl.allegro.tech.hermes.api.MessageFilterSpecification;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.json.JsonFieldsExtractor;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Subscription filters compiled once, evaluated against JSON payload in single streaming pass.
+ * Message is delivered only when it matches all filters.
+ */
+public class FilterChain {
+
+    private static final FilterChain ACCEPT_ALL = new FilterChain(Collections.emptyList());
+
+    private final List<FieldFilter> filters;
+
+    private final JsonFieldsExtractor extractor;
+
+    private FilterChain(List<FieldFilter> filters) {
+        this.filters = filters;
+        this.extractor = JsonFieldsExtractor.compile(filters.stream().map(FieldFilter::getPath).collect(toList()));
+    }
+
+    public static FilterChain compile(List<MessageFilterSpecification> specifications) {
+        if (specifications == null || specifications.isEmpty()) {
+            return ACCEPT_ALL;
+        }
+        return new FilterChain(specifications.stream().map(FieldFilter::new).collect(toList()));
+    }
+
+    /**
+     * Payload which can't be read as JSON is always delivered, so that no message is lost due to filtering.
+     */
+    public boolean matches(Message message) {
+        if (filters.isEmpty()) {
+            return true;
+        }
+
+        Map<String, Object> values;
+        try {
+            values = extractor.extract(message.getData());
+        } catch (IOException e) {
+            return true;
+        }
+
+        for (FieldFilter filter : filters) {
+            if (!filter.matches(values.get(filter.getPath()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
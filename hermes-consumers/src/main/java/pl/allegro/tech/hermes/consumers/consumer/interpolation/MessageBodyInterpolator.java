@@ -2,54 +2,35 @@ package pl.allegro.tech.hermes.consumers.consumer.interpolation;
 
 import com.damnhandy.uri.template.UriTemplate;
 import com.damnhandy.uri.template.VariableExpansionException;
-import com.google.common.base.Charsets;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import com.google.common.collect.Maps;
-import com.jayway.jsonpath.InvalidPathException;
-import com.jayway.jsonpath.JsonPath;
 import pl.allegro.tech.hermes.api.EndpointAddress;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.json.JsonFieldsExtractor;
 
+import java.io.IOException;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Map;
 
 public class MessageBodyInterpolator implements UriInterpolator {
 
     private static final int MAX_CACHE_SIZE = 1000;
 
-    private final LoadingCache<String, UriTemplate> templateCache = CacheBuilder
+    private final LoadingCache<String, InterpolationPlan> planCache = CacheBuilder
             .newBuilder()
             .maximumSize(MAX_CACHE_SIZE)
-            .build(new TemplateLoader());
-
-    private final LoadingCache<String, JsonPath> variableCompiler = CacheBuilder
-            .newBuilder()
-            .maximumSize(MAX_CACHE_SIZE)
-            .build(new JsonPathLoader());
+            .build(new InterpolationPlanLoader());
 
     public URI interpolate(EndpointAddress endpoint, Message message) throws InterpolationException {
-        UriTemplate template = templateCache.getUnchecked(endpoint.getEndpoint());
-        String[] variables = template.getVariables();
-
-        if (variables.length > 0) {
-            Map<String, Object> values = Maps.newHashMap();
-            String payload = new String(message.getData(), Charsets.UTF_8);
+        InterpolationPlan plan = planCache.getUnchecked(endpoint.getEndpoint());
 
-            for (String variable : variables) {
-
-                JsonPath path = variableCompiler.getUnchecked(variable);
-
-                try {
-                    values.put(variable, path.read(payload));
-                } catch (InvalidPathException e) {
-                    throw new InterpolationException(String.format("Missing variable on path %s", path.getPath()), e);
-                }
-            }
+        if (plan.hasVariables()) {
+            Map<String, Object> values = plan.extractValues(message.getData());
 
             try {
-                return URI.create(template.expand(values));
+                return URI.create(plan.expand(values));
             } catch (VariableExpansionException e) {
                 throw new InterpolationException("Cannot expand template", e);
             }
@@ -59,20 +40,52 @@ public class MessageBodyInterpolator implements UriInterpolator {
 
     }
 
-    private static class TemplateLoader extends CacheLoader<String, UriTemplate> {
+    private static class InterpolationPlan {
 
-        @Override
-        public UriTemplate load(String url) throws Exception {
-            return UriTemplate.fromTemplate(url);
+        private static final String ROOT_PREFIX = "$.";
+
+        private final UriTemplate template;
+
+        private final JsonFieldsExtractor extractor;
+
+        InterpolationPlan(UriTemplate template) {
+            this.template = template;
+            this.extractor = JsonFieldsExtractor.compile(Arrays.asList(template.getVariables()));
+        }
+
+        boolean hasVariables() {
+            return !extractor.getPaths().isEmpty();
+        }
+
+        String expand(Map<String, Object> values) throws VariableExpansionException {
+            // UriTemplate keeps values of expanded variables in its state
+            synchronized (template) {
+                return template.expand(values);
+            }
+        }
+
+        Map<String, Object> extractValues(byte[] payload) throws InterpolationException {
+            Map<String, Object> values;
+            try {
+                values = extractor.extract(payload);
+            } catch (IOException e) {
+                throw new InterpolationException("Cannot read message payload", e);
+            }
+
+            for (String variable : extractor.getPaths()) {
+                if (!values.containsKey(variable)) {
+                    throw new InterpolationException(String.format("Missing variable on path %s", ROOT_PREFIX + variable));
+                }
+            }
+            return values;
         }
     }
 
-    private static class JsonPathLoader extends CacheLoader<String, JsonPath> {
+    private static class InterpolationPlanLoader extends CacheLoader<String, InterpolationPlan> {
 
-        private static final String ROOT_PREFIX = "$.";
         @Override
-        public JsonPath load(String key) throws Exception {
-            return JsonPath.compile(ROOT_PREFIX + key);
+        public InterpolationPlan load(String url) throws Exception {
+            return new InterpolationPlan(UriTemplate.fromTemplate(url));
         }
     }
 
@@ -0,0 +1,140 @@
+package pl.allegro.tech.hermes.consumers.consumer.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Extracts values of dot separated paths (e.g. <code>some.object</code>) from JSON document in single pass over its tokens,
+ * without building whole document in memory. Parsing stops as soon as all paths are found.
+ * Compiled extractor is immutable and can be shared between threads.
+ */
+public class JsonFieldsExtractor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String PATH_SEPARATOR = "\\.";
+
+    private static final String ROOT_PREFIX = "$.";
+
+    private final Node root = new Node(null);
+
+    private final Set<String> paths;
+
+    private JsonFieldsExtractor(Collection<String> paths) {
+        this.paths = new LinkedHashSet<>(paths);
+        for (String path : this.paths) {
+            root.add(normalize(path).split(PATH_SEPARATOR), 0, path);
+        }
+    }
+
+    public static JsonFieldsExtractor compile(Collection<String> paths) {
+        return new JsonFieldsExtractor(paths);
+    }
+
+    public Set<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * @return values of found paths; scalars are returned as String, Number or Boolean, objects and arrays as Map and List
+     */
+    public Map<String, Object> extract(byte[] json) throws IOException {
+        Map<String, Object> values = new HashMap<>();
+        if (paths.isEmpty()) {
+            return values;
+        }
+        try (JsonParser parser = MAPPER.getFactory().createParser(json)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                extractObject(parser, root, values);
+            }
+        }
+        return values;
+    }
+
+    private boolean extractObject(JsonParser parser, Node node, Map<String, Object> values) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Node child = node.children.get(parser.getCurrentName());
+            JsonToken token = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+            } else if (child.path != null) {
+                child.collect(readValue(parser, token), values);
+            } else if (token == JsonToken.START_OBJECT) {
+                if (extractObject(parser, child, values)) {
+                    return true;
+                }
+            } else {
+                parser.skipChildren();
+            }
+
+            if (values.size() == paths.size()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object readValue(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return parser.getBooleanValue();
+            case VALUE_NULL:
+                return null;
+            default:
+                return parser.readValueAs(Object.class);
+        }
+    }
+
+    private static String normalize(String path) {
+        return path.startsWith(ROOT_PREFIX) ? path.substring(ROOT_PREFIX.length()) : path;
+    }
+
+    private static class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        private String path;
+
+        Node(String path) {
+            this.path = path;
+        }
+
+        void add(String[] fields, int index, String fullPath) {
+            Node child = children.computeIfAbsent(fields[index], name -> new Node(null));
+            if (index == fields.length - 1) {
+                child.path = fullPath;
+            } else {
+                child.add(fields, index + 1, fullPath);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void collect(Object value, Map<String, Object> values) {
+            if (path != null) {
+                values.put(path, value);
+            }
+            if (value instanceof Map) {
+                Map<String, Object> object = (Map<String, Object>) value;
+                children.forEach((name, child) -> {
+                    if (object.containsKey(name)) {
+                        child.collect(object.get(name), values);
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package pl.allegro.tech.hermes.consumers.consumer.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copies only selected dot separated paths of JSON document, streaming tokens from input straight to output.
+ * Objects on the way to selected fields are kept, other fields are skipped without being parsed into memory.
+ * Compiled projection is immutable and can be shared between threads.
+ */
+public class JsonProjection {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final String PATH_SEPARATOR = "\\.";
+
+    private static final String ROOT_PREFIX = "$.";
+
+    private final Node root = new Node();
+
+    private final int fieldsCount;
+
+    private JsonProjection(Collection<String> paths) {
+        for (String path : paths) {
+            String normalized = path.startsWith(ROOT_PREFIX) ? path.substring(ROOT_PREFIX.length()) : path;
+            root.add(normalized.split(PATH_SEPARATOR), 0);
+        }
+        this.fieldsCount = root.countSelected();
+    }
+
+    public static JsonProjection compile(Collection<String> paths) {
+        return new JsonProjection(paths);
+    }
+
+    /**
+     * @return projected document; documents which are not JSON objects are returned as they are
+     */
+    public byte[] project(byte[] json) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return json;
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.min(json.length, 1024));
+            try (JsonGenerator generator = FACTORY.createGenerator(output)) {
+                generator.writeStartObject();
+                projectObject(parser, generator, root, new int[] {0});
+                generator.writeEndObject();
+            }
+            return output.toByteArray();
+        }
+    }
+
+    private boolean projectObject(JsonParser parser, JsonGenerator generator, Node node, int[] copied) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            Node child = node.children.get(name);
+            JsonToken token = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+                continue;
+            }
+
+            if (child.selected) {
+                generator.writeFieldName(name);
+                generator.copyCurrentStructure(parser);
+                copied[0]++;
+            } else if (token == JsonToken.START_OBJECT) {
+                generator.writeObjectFieldStart(name);
+                boolean allCopied = projectObject(parser, generator, child, copied);
+                generator.writeEndObject();
+                if (allCopied) {
+                    return true;
+                }
+            } else {
+                parser.skipChildren();
+            }
+
+            if (copied[0] == fieldsCount) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        private boolean selected;
+
+        void add(String[] fields, int index) {
+            Node child = children.computeIfAbsent(fields[index], name -> new Node());
+            if (index == fields.length - 1) {
+                child.selected = true;
+            } else {
+                child.add(fields, index + 1);
+            }
+        }
+
+        int countSelected() {
+            int count = 0;
+            for (Node child : children.values()) {
+                count += child.selected ? 1 : child.countSelected();
+            }
+            return count;
+        }
+    }
+}
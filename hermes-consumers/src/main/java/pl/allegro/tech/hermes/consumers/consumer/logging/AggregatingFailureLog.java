@@ -0,0 +1,110 @@
+package pl.allegro.tech.hermes.consumers.consumer.logging;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_FAILURE_LOG_SUMMARY_PERIOD_SECONDS;
+
+/**
+ * Logs repeated failures of the same kind once per summary period. First failure for given logger, subscription
+ * and root cause is logged in full, following ones are only counted and reported in summary at the end of period.
+ * Details are formatted only when they are logged.
+ */
+public class AggregatingFailureLog {
+
+    private final Map<FailureKey, AtomicLong> failures = new ConcurrentHashMap<>();
+    private final int summaryPeriodSeconds;
+
+    @Inject
+    public AggregatingFailureLog(ConfigFactory configFactory) {
+        this(configFactory.getIntProperty(CONSUMER_FAILURE_LOG_SUMMARY_PERIOD_SECONDS));
+        Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("failure-log-summary-%d").setDaemon(true).build()
+        ).scheduleAtFixedRate(this::logSummaries, summaryPeriodSeconds, summaryPeriodSeconds, TimeUnit.SECONDS);
+    }
+
+    AggregatingFailureLog(int summaryPeriodSeconds) {
+        this.summaryPeriodSeconds = summaryPeriodSeconds;
+    }
+
+    public void info(Logger logger, String subscriptionId, String rootCause, Throwable failure, Supplier<String> details) {
+        if (logger.isInfoEnabled() && isFirstInPeriod(new FailureKey(logger, false, subscriptionId, rootCause))) {
+            logger.info(details.get(), failure);
+        }
+    }
+
+    public void error(Logger logger, String subscriptionId, String rootCause, Throwable failure, Supplier<String> details) {
+        if (isFirstInPeriod(new FailureKey(logger, true, subscriptionId, rootCause))) {
+            logger.error(details.get(), failure);
+        }
+    }
+
+    void logSummaries() {
+        failures.forEach((key, counter) -> {
+            long count = counter.getAndSet(0);
+            if (count == 0) {
+                failures.remove(key, counter);
+            } else if (count > 1) {
+                key.logSummary(count - 1, summaryPeriodSeconds);
+            }
+        });
+    }
+
+    private boolean isFirstInPeriod(FailureKey key) {
+        return failures.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet() == 1;
+    }
+
+    private static final class FailureKey {
+
+        private final Logger logger;
+        private final boolean error;
+        private final String subscriptionId;
+        private final String rootCause;
+
+        FailureKey(Logger logger, boolean error, String subscriptionId, String rootCause) {
+            this.logger = logger;
+            this.error = error;
+            this.subscriptionId = subscriptionId;
+            this.rootCause = rootCause;
+        }
+
+        void logSummary(long suppressed, int periodSeconds) {
+            String format = "Suppressed {} similar failures in last {}s; sub id: {}; rootCause: {}";
+            if (error) {
+                logger.error(format, suppressed, periodSeconds, subscriptionId, rootCause);
+            } else {
+                logger.info(format, suppressed, periodSeconds, subscriptionId, rootCause);
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            FailureKey other = (FailureKey) obj;
+            return error == other.error
+                    && Objects.equals(logger.getName(), other.logger.getName())
+                    && Objects.equals(subscriptionId, other.subscriptionId)
+                    && Objects.equals(rootCause, other.rootCause);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(logger.getName(), error, subscriptionId, rootCause);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package pl.allegro.tech.hermes.consumers.consumer.receiver.kafka;
 
 import com.codahale.metrics.Timer;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import kafka.consumer.ConsumerIterator;
 import kafka.consumer.ConsumerTimeoutException;
@@ -20,9 +21,12 @@ import pl.allegro.tech.hermes.common.message.wrapper.MessageContentWrapper;
 import pl.allegro.tech.hermes.common.message.wrapper.UnwrappedMessageContent;
 import pl.allegro.tech.hermes.common.time.Clock;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.buffer.PayloadBufferPool;
+import pl.allegro.tech.hermes.consumers.consumer.logging.AggregatingFailureLog;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceivingTimeoutException;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +44,9 @@ public class KafkaMessageReceiver implements MessageReceiver {
 
     private final ConsumerConnector consumerConnector;
     private final MessageContentWrapper contentWrapper;
+    private final PayloadBufferPool payloadBufferPool;
+    private final AggregatingFailureLog failureLog;
+    private final SubscriptionName subscriptionName;
     private final Timer readingTimer;
     private final Clock clock;
     private final BlockingQueue<Message> readQueue;
@@ -50,10 +57,14 @@ public class KafkaMessageReceiver implements MessageReceiver {
 
     public KafkaMessageReceiver(Topic topic, ConsumerConnector consumerConnector, MessageContentWrapper contentWrapper,
                                 Timer readingTimer, Clock clock, KafkaNamesMapper kafkaNamesMapper,
-                                Integer kafkaStreamCount, Integer readTimeout, SubscriptionName subscriptionName) {
+                                Integer kafkaStreamCount, Integer readTimeout, SubscriptionName subscriptionName,
+                                PayloadBufferPool payloadBufferPool, AggregatingFailureLog failureLog) {
         this.topic = topic;
         this.consumerConnector = consumerConnector;
         this.contentWrapper = contentWrapper;
+        this.payloadBufferPool = payloadBufferPool;
+        this.failureLog = failureLog;
+        this.subscriptionName = subscriptionName;
         this.readingTimer = readingTimer;
         this.clock = clock;
         this.readTimeout = readTimeout;
@@ -119,18 +130,22 @@ public class KafkaMessageReceiver implements MessageReceiver {
             return new Message(
                     unwrappedContent.getMessageMetadata().getId(),
                     topic.getQualifiedName(),
-                    unwrappedContent.getContent(),
+                    payloadBufferPool.copyOf(unwrappedContent.getContentSource(), unwrappedContent.getContentOffset(),
+                            unwrappedContent.getContentLength()),
                     kafkaTopic.contentType(),
                     unwrappedContent.getMessageMetadata().getTimestamp(),
                     clock.getTime(),
-                    new PartitionOffset(kafkaTopic.name(), message.offset(), message.partition()));
+                    new PartitionOffset(kafkaTopic.name(), message.offset(), message.partition()),
+                    message.key() != null ? new String(message.key(), StandardCharsets.UTF_8) : null);
 
         } catch (ConsumerTimeoutException consumerTimeoutException) {
             throw new MessageReceivingTimeoutException("No messages received", consumerTimeoutException);
         } catch (Exception e) {
             if (message != null) {
-                logger.error("Error while receiving message. Last read message: %s Partition: %d Offset: %d",
-                    new String(message.message()), message.partition(), message.offset(), e);
+                MessageAndMetadata<byte[], byte[]> lastMessage = message;
+                failureLog.error(logger, subscriptionName.getId(), Throwables.getRootCause(e).getMessage(), e, () ->
+                        String.format("Error while receiving message. Last read message size: %d Partition: %d Offset: %d",
+                                lastMessage.message().length, lastMessage.partition(), lastMessage.offset()));
             }
             throw new InternalProcessingException("Message received failed", e);
         }
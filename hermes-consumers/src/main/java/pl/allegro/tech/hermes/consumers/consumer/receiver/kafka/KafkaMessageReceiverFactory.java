@@ -13,6 +13,8 @@ import pl.allegro.tech.hermes.common.message.wrapper.MessageContentWrapper;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.common.metric.Timers;
 import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.consumers.consumer.buffer.PayloadBufferPool;
+import pl.allegro.tech.hermes.consumers.consumer.logging.AggregatingFailureLog;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.ReceiverFactory;
 
@@ -26,15 +28,20 @@ public class KafkaMessageReceiverFactory implements ReceiverFactory {
     private final HermesMetrics hermesMetrics;
     private final Clock clock;
     private final KafkaNamesMapper kafkaNamesMapper;
+    private final PayloadBufferPool payloadBufferPool;
+    private final AggregatingFailureLog failureLog;
 
     @Inject
     public KafkaMessageReceiverFactory(ConfigFactory configFactory, MessageContentWrapper messageContentWrapper,
-                                       HermesMetrics hermesMetrics, Clock clock, KafkaNamesMapper kafkaNamesMapper) {
+                                       HermesMetrics hermesMetrics, Clock clock, KafkaNamesMapper kafkaNamesMapper,
+                                       PayloadBufferPool payloadBufferPool, AggregatingFailureLog failureLog) {
         this.configFactory = configFactory;
         this.messageContentWrapper = messageContentWrapper;
         this.hermesMetrics = hermesMetrics;
         this.clock = clock;
         this.kafkaNamesMapper = kafkaNamesMapper;
+        this.payloadBufferPool = payloadBufferPool;
+        this.failureLog = failureLog;
     }
 
     @Override
@@ -52,7 +59,9 @@ public class KafkaMessageReceiverFactory implements ReceiverFactory {
                 kafkaNamesMapper,
                 configFactory.getIntProperty(Configs.KAFKA_STREAM_COUNT),
                 configFactory.getIntProperty(Configs.KAFKA_CONSUMER_TIMEOUT_MS),
-                subscriptionName);
+                subscriptionName,
+                payloadBufferPool,
+                failureLog);
     }
 
     private ConsumerConfig createConsumerConfig(ConsumerGroupId groupId) {
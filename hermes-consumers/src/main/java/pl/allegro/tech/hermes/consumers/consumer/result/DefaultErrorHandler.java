@@ -9,6 +9,7 @@ import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.common.metric.Meters;
 import pl.allegro.tech.hermes.common.time.Clock;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.logging.AggregatingFailureLog;
 import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionOffsetCommitQueues;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.tracker.consumers.Trackers;
@@ -25,21 +26,26 @@ public class DefaultErrorHandler extends AbstractHandler implements ErrorHandler
     private final Clock clock;
     private final Trackers trackers;
     private final String cluster;
+    private final AggregatingFailureLog failureLog;
 
     public DefaultErrorHandler(SubscriptionOffsetCommitQueues offsetHelper, HermesMetrics hermesMetrics,
-                               UndeliveredMessageLog undeliveredMessageLog, Clock clock, Trackers trackers, String cluster) {
+                               UndeliveredMessageLog undeliveredMessageLog, Clock clock, Trackers trackers, String cluster,
+                               AggregatingFailureLog failureLog) {
         super(offsetHelper, hermesMetrics);
         this.undeliveredMessageLog = undeliveredMessageLog;
         this.clock = clock;
         this.trackers = trackers;
         this.cluster = cluster;
+        this.failureLog = failureLog;
     }
 
     @Override
     public void handleDiscarded(Message message, Subscription subscription, MessageSendingResult result) {
-        LOGGER.info(format("Failed deliver message to endpoint %s; messageId %s; offset: %s; partition: %s; sub id: %s; rootCause: %s",
-                subscription.getEndpoint(), message.getId(), message.getOffset(), message.getPartition(), subscription.getId(),
-                result.getRootCause()), result.getFailure());
+        String rootCause = result.getRootCause();
+        failureLog.info(LOGGER, subscription.getId(), rootCause, result.getFailure(), () ->
+                format("Failed deliver message to endpoint %s; messageId %s; offset: %s; partition: %s; sub id: %s; rootCause: %s",
+                        subscription.getEndpoint(), message.getId(), message.getOffset(), message.getPartition(), subscription.getId(),
+                        rootCause));
 
         offsetHelper.remove(message);
 
@@ -49,7 +55,7 @@ public class DefaultErrorHandler extends AbstractHandler implements ErrorHandler
         undeliveredMessageLog.add(createUndeliveredMessage(subscription, new String(message.getData()), result.getFailure(), clock.getTime(),
                 message.getPartition(), message.getOffset(), cluster));
 
-        trackers.get(subscription).logDiscarded(toMessageMetadata(message, subscription), result.getRootCause());
+        trackers.get(subscription).logDiscarded(toMessageMetadata(message, subscription), rootCause);
     }
 
     private void updateMeters(Subscription subscription) {
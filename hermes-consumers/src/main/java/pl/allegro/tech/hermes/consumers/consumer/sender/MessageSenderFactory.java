@@ -16,11 +16,13 @@ public class MessageSenderFactory {
     public MessageSenderFactory(
             MessageSenderProviders messageSenderProviders,
             @Named("defaultHttpMessageSenderProvider") ProtocolMessageSenderProvider defaultHttpMessageSenderProvider,
-            @Named("defaultJmsMessageSenderProvider") ProtocolMessageSenderProvider defaultJmsMessageSenderProvider) {
+            @Named("defaultJmsMessageSenderProvider") ProtocolMessageSenderProvider defaultJmsMessageSenderProvider,
+            @Named("defaultPullMessageSenderProvider") ProtocolMessageSenderProvider defaultPullMessageSenderProvider) {
 
         this.messageSenderProviders = messageSenderProviders;
         this.messageSenderProviders.putIfProtocolAbsent("http", defaultHttpMessageSenderProvider);
         this.messageSenderProviders.putIfProtocolAbsent("jms", defaultJmsMessageSenderProvider);
+        this.messageSenderProviders.putIfProtocolAbsent("pull", defaultPullMessageSenderProvider);
 
         this.messageSenderProviders.startAll();
     }
@@ -33,6 +35,6 @@ public class MessageSenderFactory {
             throw new EndpointProtocolNotSupportedException(endpoint);
         }
 
-        return protocolMessageSenderProvider.get().create(endpoint.getEndpoint());
+        return protocolMessageSenderProvider.get().create(subscription);
     }
 }
@@ -17,6 +17,7 @@ public class MessageSendingResult {
     public static final String UNKNOWN_CAUSE = "unknown";
     private Throwable failure;
     private boolean loggable = false;
+    private boolean redeliveryRequested = false;
     private Response.Status.Family responseFamily;
     private int statusCode;
 
@@ -93,6 +94,14 @@ public class MessageSendingResult {
         return loggable;
     }
 
+    /**
+     * Message was not rejected by subscriber, but should be sent again, e.g. when pulled message lease expired. Such
+     * result does not count as failure: it does not slow down sending and does not use up message TTL.
+     */
+    public boolean isRedeliveryRequested() {
+        return redeliveryRequested;
+    }
+
     public static MessageSendingResult succeededResult() {
         return new MessageSendingResult();
     }
@@ -108,4 +117,10 @@ public class MessageSendingResult {
     public static MessageSendingResult loggedFailResult(Throwable cause) {
         return new MessageSendingResult(cause, true);
     }
+
+    public static MessageSendingResult redeliveryResult(Throwable cause) {
+        MessageSendingResult result = new MessageSendingResult(cause);
+        result.redeliveryRequested = true;
+        return result;
+    }
 }
@@ -1,8 +1,14 @@
 package pl.allegro.tech.hermes.consumers.consumer.sender;
 
+import pl.allegro.tech.hermes.api.Subscription;
+
 public interface ProtocolMessageSenderProvider {
     MessageSender create(String endpoint);
 
+    default MessageSender create(Subscription subscription) {
+        return create(subscription.getEndpoint().getEndpoint());
+    }
+
     void start() throws Exception;
 
     void stop() throws Exception;
@@ -0,0 +1,29 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.hedging;
+
+/**
+ * Every request adds fraction of token equal to budget percent, every hedged request takes one token.
+ * Number of saved tokens is capped, so that long period of fast responses does not allow burst of hedged requests.
+ */
+class HedgingBudget {
+
+    private static final double MAX_TOKENS = 10;
+
+    private final double tokensPerRequest;
+    private double tokens;
+
+    HedgingBudget(int budgetPercent) {
+        this.tokensPerRequest = budgetPercent / 100.0;
+    }
+
+    synchronized void requestSent() {
+        tokens = Math.min(MAX_TOKENS, tokens + tokensPerRequest);
+    }
+
+    synchronized boolean tryAcquire() {
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,111 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.hedging;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSender;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends message again when subscriber did not respond within observed latency percentile and completes
+ * with first successful response. Should be used only for subscribers which handle duplicated messages.
+ */
+public class HedgingMessageSender implements MessageSender {
+
+    private static final long DELAY_REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MessageSender messageSender;
+    private final ScheduledExecutorService scheduler;
+    private final Meter hedgedMeter;
+    private final HedgingSettings settings;
+    private final HedgingBudget budget;
+    private final Histogram latencies = new Histogram(new ExponentiallyDecayingReservoir());
+
+    private volatile long hedgingDelayMillis = -1;
+    private volatile long hedgingDelayComputedAt = System.nanoTime();
+
+    public HedgingMessageSender(MessageSender messageSender, int budgetPercent, ScheduledExecutorService scheduler,
+                                Meter hedgedMeter, HedgingSettings settings) {
+        this.messageSender = messageSender;
+        this.scheduler = scheduler;
+        this.hedgedMeter = hedgedMeter;
+        this.settings = settings;
+        this.budget = new HedgingBudget(budgetPercent);
+    }
+
+    @Override
+    public CompletableFuture<MessageSendingResult> send(Message message) {
+        budget.requestSent();
+        long delay = hedgingDelay();
+
+        long sendingStartTime = System.nanoTime();
+        CompletableFuture<MessageSendingResult> primary = messageSender.send(message);
+        primary.thenAccept(result -> {
+            if (result.succeeded()) {
+                latencies.update(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sendingStartTime));
+            }
+        });
+
+        if (delay < 0) {
+            return primary;
+        }
+
+        HedgedDelivery delivery = new HedgedDelivery();
+        ScheduledFuture<?> hedge = scheduler.schedule(() -> delivery.hedge(message), delay, TimeUnit.MILLISECONDS);
+        primary.thenAccept(result -> {
+            hedge.cancel(false);
+            delivery.complete(result);
+        });
+        return delivery.result;
+    }
+
+    @Override
+    public void stop() {
+        messageSender.stop();
+    }
+
+    private long hedgingDelay() {
+        long now = System.nanoTime();
+        boolean enoughSamples = latencies.getCount() >= settings.getMinSamples();
+        if (now - hedgingDelayComputedAt >= DELAY_REFRESH_INTERVAL_NANOS || (hedgingDelayMillis < 0 && enoughSamples)) {
+            hedgingDelayComputedAt = now;
+            hedgingDelayMillis = enoughSamples ? Math.max(settings.getMinDelayMillis(),
+                    (long) latencies.getSnapshot().getValue(settings.getLatencyPercentile())) : -1;
+        }
+        return hedgingDelayMillis;
+    }
+
+    private class HedgedDelivery {
+
+        private final CompletableFuture<MessageSendingResult> result = new CompletableFuture<>();
+        private final AtomicInteger pendingRequests = new AtomicInteger(1);
+
+        void hedge(Message message) {
+            if (result.isDone() || !budget.tryAcquire()) {
+                return;
+            }
+            if (pendingRequests.getAndUpdate(pending -> pending == 0 ? 0 : pending + 1) == 0) {
+                return;
+            }
+            hedgedMeter.mark();
+            try {
+                messageSender.send(message).thenAccept(this::complete);
+            } catch (RuntimeException exception) {
+                complete(MessageSendingResult.failedResult(exception));
+            }
+        }
+
+        void complete(MessageSendingResult sendingResult) {
+            if (sendingResult.succeeded() || pendingRequests.decrementAndGet() == 0) {
+                result.complete(sendingResult);
+            }
+        }
+    }
+}
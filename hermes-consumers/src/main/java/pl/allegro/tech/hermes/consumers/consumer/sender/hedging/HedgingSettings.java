@@ -0,0 +1,40 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.hedging;
+
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_HEDGING_LATENCY_PERCENTILE;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_HEDGING_MIN_DELAY_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_HEDGING_MIN_SAMPLES;
+
+public class HedgingSettings {
+
+    private final double latencyPercentile;
+    private final long minDelayMillis;
+    private final int minSamples;
+
+    public HedgingSettings(double latencyPercentile, long minDelayMillis, int minSamples) {
+        this.latencyPercentile = latencyPercentile;
+        this.minDelayMillis = minDelayMillis;
+        this.minSamples = minSamples;
+    }
+
+    public static HedgingSettings fromConfig(ConfigFactory configFactory) {
+        return new HedgingSettings(
+                configFactory.getDoubleProperty(CONSUMER_HEDGING_LATENCY_PERCENTILE),
+                configFactory.getIntProperty(CONSUMER_HEDGING_MIN_DELAY_MS),
+                configFactory.getIntProperty(CONSUMER_HEDGING_MIN_SAMPLES)
+        );
+    }
+
+    public double getLatencyPercentile() {
+        return latencyPercentile;
+    }
+
+    public long getMinDelayMillis() {
+        return minDelayMillis;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+}
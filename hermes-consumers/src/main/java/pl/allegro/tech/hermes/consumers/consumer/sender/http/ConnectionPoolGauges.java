@@ -0,0 +1,67 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.PoolingHttpDestination;
+import org.eclipse.jetty.client.api.Destination;
+import org.eclipse.jetty.client.api.Request;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+import static pl.allegro.tech.hermes.common.metric.Gauges.CONSUMER_HTTP_CLIENT_ACTIVE_CONNECTIONS;
+import static pl.allegro.tech.hermes.common.metric.Gauges.CONSUMER_HTTP_CLIENT_IDLE_CONNECTIONS;
+import static pl.allegro.tech.hermes.common.metric.Gauges.CONSUMER_HTTP_CLIENT_QUEUED_REQUESTS;
+
+/**
+ * Connection pool gauges of single subscription. Only destinations the subscription has actually sent requests to are
+ * counted, so that gauges are right for endpoints given by IP or resolved to many instances, also on shared client.
+ */
+class ConnectionPoolGauges {
+
+    private final HermesMetrics hermesMetrics;
+    private final Subscription subscription;
+    private final HttpClient client;
+    private final Set<String> destinations = ConcurrentHashMap.newKeySet();
+
+    ConnectionPoolGauges(HermesMetrics hermesMetrics, Subscription subscription, HttpClient client) {
+        this.hermesMetrics = hermesMetrics;
+        this.subscription = subscription;
+        this.client = client;
+    }
+
+    void track(Request request) {
+        destinations.add(key(request.getScheme(), request.getHost(), request.getPort()));
+    }
+
+    void register() {
+        unregister();
+        hermesMetrics.registerGauge(CONSUMER_HTTP_CLIENT_ACTIVE_CONNECTIONS, subscription.getTopicName(), subscription.getName(),
+                () -> sum(destination -> destination.getConnectionPool().getActiveConnections().size()));
+        hermesMetrics.registerGauge(CONSUMER_HTTP_CLIENT_IDLE_CONNECTIONS, subscription.getTopicName(), subscription.getName(),
+                () -> sum(destination -> destination.getConnectionPool().getIdleConnections().size()));
+        hermesMetrics.registerGauge(CONSUMER_HTTP_CLIENT_QUEUED_REQUESTS, subscription.getTopicName(), subscription.getName(),
+                () -> sum(destination -> destination.getHttpExchanges().size()));
+    }
+
+    void unregister() {
+        hermesMetrics.unregisterGauge(CONSUMER_HTTP_CLIENT_ACTIVE_CONNECTIONS, subscription.getTopicName(), subscription.getName());
+        hermesMetrics.unregisterGauge(CONSUMER_HTTP_CLIENT_IDLE_CONNECTIONS, subscription.getTopicName(), subscription.getName());
+        hermesMetrics.unregisterGauge(CONSUMER_HTTP_CLIENT_QUEUED_REQUESTS, subscription.getTopicName(), subscription.getName());
+    }
+
+    private int sum(ToIntFunction<PoolingHttpDestination<?>> value) {
+        return client.getDestinations().stream()
+                .filter(destination -> destinations.contains(key(destination.getScheme(), destination.getHost(), destination.getPort())))
+                .filter(destination -> destination instanceof PoolingHttpDestination)
+                .mapToInt(destination -> value.applyAsInt((PoolingHttpDestination<?>) destination))
+                .sum();
+    }
+
+    private static String key(String scheme, String host, int port) {
+        int normalizedPort = port > 0 ? port : "https".equalsIgnoreCase(scheme) ? 443 : 80;
+        return scheme.toLowerCase() + "://" + host.toLowerCase() + ":" + normalizedPort;
+    }
+}
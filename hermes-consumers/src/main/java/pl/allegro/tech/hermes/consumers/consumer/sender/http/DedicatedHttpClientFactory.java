@@ -0,0 +1,41 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.util.HttpCookieStore;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+
+import javax.inject.Inject;
+
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_HTTP_CLIENT_DEDICATED_THREAD_POOL_SIZE;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_INFLIGHT_SIZE;
+
+/**
+ * Creates http clients owned by a single subscription, so that a slow endpoint can only exhaust
+ * its own connections and threads instead of the ones shared by all subscriptions.
+ */
+public class DedicatedHttpClientFactory {
+
+    private final ConfigFactory configFactory;
+
+    @Inject
+    public DedicatedHttpClientFactory(ConfigFactory configFactory) {
+        this.configFactory = configFactory;
+    }
+
+    public HttpClient create(Subscription subscription) {
+        HttpClient client = new HttpClient();
+        client.setMaxConnectionsPerDestination(subscription.getSubscriptionPolicy().getMaxConnections());
+        client.setMaxRequestsQueuedPerDestination(configFactory.getIntProperty(CONSUMER_INFLIGHT_SIZE));
+        client.setExecutor(createExecutor(subscription));
+        client.setCookieStore(new HttpCookieStore.Empty());
+        return client;
+    }
+
+    private QueuedThreadPool createExecutor(Subscription subscription) {
+        QueuedThreadPool executor = new QueuedThreadPool(configFactory.getIntProperty(CONSUMER_HTTP_CLIENT_DEDICATED_THREAD_POOL_SIZE));
+        executor.setName("jetty-http-client-" + subscription.getId());
+        return executor;
+    }
+}
@@ -0,0 +1,30 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+class DeflaterPool {
+
+    private final BlockingQueue<Deflater> idle;
+    private final int level;
+    private final boolean nowrap;
+
+    DeflaterPool(int level, boolean nowrap, int maxIdle) {
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+        this.level = level;
+        this.nowrap = nowrap;
+    }
+
+    Deflater borrow() {
+        Deflater deflater = idle.poll();
+        return deflater != null ? deflater : new Deflater(level, nowrap);
+    }
+
+    void release(Deflater deflater) {
+        deflater.reset();
+        if (!idle.offer(deflater)) {
+            deflater.end();
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package pl.allegro.tech.hermes.consumers.consumer.sender.http;
 
 import org.eclipse.jetty.client.HttpClient;
+import pl.allegro.tech.hermes.api.Subscription;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.exception.InternalProcessingException;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSender;
 import pl.allegro.tech.hermes.consumers.consumer.sender.ProtocolMessageSenderProvider;
 import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.EndpointAddressResolver;
 import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.ResolvableEndpointAddress;
 
 import javax.inject.Inject;
+import java.util.Optional;
 
 import static pl.allegro.tech.hermes.api.EndpointAddress.of;
 import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_HTTP_CLIENT_REQUEST_TIMEOUT;
@@ -15,17 +19,26 @@ import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_HTTP_CLIENT_
 public class JettyHttpMessageSenderProvider implements ProtocolMessageSenderProvider {
 
     private final HttpClient httpClient;
+    private final DedicatedHttpClientFactory dedicatedHttpClientFactory;
+    private final RequestBodyCompressor requestBodyCompressor;
     private final EndpointAddressResolver endpointAddressResolver;
+    private final HermesMetrics hermesMetrics;
     private final int requestTimeout;
 
     @Inject
     public JettyHttpMessageSenderProvider(
             HttpClient httpClient,
+            DedicatedHttpClientFactory dedicatedHttpClientFactory,
+            RequestBodyCompressor requestBodyCompressor,
             ConfigFactory configFactory,
-            EndpointAddressResolver endpointAddressResolver) {
+            EndpointAddressResolver endpointAddressResolver,
+            HermesMetrics hermesMetrics) {
 
         this.httpClient = httpClient;
+        this.dedicatedHttpClientFactory = dedicatedHttpClientFactory;
+        this.requestBodyCompressor = requestBodyCompressor;
         this.endpointAddressResolver = endpointAddressResolver;
+        this.hermesMetrics = hermesMetrics;
         this.requestTimeout = configFactory.getIntProperty(CONSUMER_HTTP_CLIENT_REQUEST_TIMEOUT);
     }
 
@@ -48,4 +61,32 @@ public class JettyHttpMessageSenderProvider implements ProtocolMessageSenderProv
         ResolvableEndpointAddress resolvableEndpoint = new ResolvableEndpointAddress(of(endpoint), endpointAddressResolver);
         return new JettyMessageSender(httpClient, resolvableEndpoint, requestTimeout);
     }
+
+    @Override
+    public MessageSender create(Subscription subscription) {
+        ResolvableEndpointAddress resolvableEndpoint = new ResolvableEndpointAddress(subscription.getEndpoint(), endpointAddressResolver);
+        Optional<RequestCompression> compression = requestBodyCompressor.forSubscription(subscription);
+
+        if (subscription.getSubscriptionPolicy().hasDedicatedConnectionPool()) {
+            HttpClient dedicatedClient = startDedicatedClient(subscription);
+            ConnectionPoolGauges gauges = new ConnectionPoolGauges(hermesMetrics, subscription, dedicatedClient);
+            gauges.register();
+            return new JettyMessageSender(dedicatedClient, resolvableEndpoint, requestTimeout, gauges, true, compression);
+        }
+
+        ConnectionPoolGauges gauges = new ConnectionPoolGauges(hermesMetrics, subscription, httpClient);
+        gauges.register();
+        return new JettyMessageSender(httpClient, resolvableEndpoint, requestTimeout, gauges, false, compression);
+    }
+
+    private HttpClient startDedicatedClient(Subscription subscription) {
+        HttpClient client = dedicatedHttpClientFactory.create(subscription);
+        try {
+            client.start();
+            return client;
+        } catch (Exception e) {
+            throw new InternalProcessingException(
+                    String.format("Unable to start dedicated http client for subscription %s", subscription.getId()), e);
+        }
+    }
 }
@@ -1,16 +1,23 @@
 package pl.allegro.tech.hermes.consumers.consumer.sender.http;
 
 import org.eclipse.jetty.client.HttpClient;
-import org.eclipse.jetty.client.util.BytesContentProvider;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.util.ByteBufferContentProvider;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.SubscriptionPolicy.ContentEncoding;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.buffer.PayloadBuffer;
 import pl.allegro.tech.hermes.consumers.consumer.sender.CompletableFutureAwareMessageSender;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.EndpointAddressResolutionException;
 import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.ResolvableEndpointAddress;
+import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.ResolvedEndpoint;
 
 import javax.ws.rs.core.MediaType;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -18,34 +25,109 @@ import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.MESSAGE_
 
 public class JettyMessageSender extends CompletableFutureAwareMessageSender {
 
+    private static final Logger logger = LoggerFactory.getLogger(JettyMessageSender.class);
+
     private final HttpClient client;
     private final ResolvableEndpointAddress endpoint;
     private final long timeout;
+    private final Optional<ConnectionPoolGauges> connectionPoolGauges;
+    private final boolean dedicatedClient;
+    private final Optional<RequestCompression> compression;
 
     public JettyMessageSender(HttpClient client, ResolvableEndpointAddress endpoint, int timeout) {
         this.client = client;
         this.endpoint = endpoint;
         this.timeout = timeout;
+        this.connectionPoolGauges = Optional.empty();
+        this.dedicatedClient = false;
+        this.compression = Optional.empty();
+    }
+
+    JettyMessageSender(HttpClient client, ResolvableEndpointAddress endpoint, int timeout,
+                       ConnectionPoolGauges connectionPoolGauges, boolean dedicatedClient,
+                       Optional<RequestCompression> compression) {
+        this.client = client;
+        this.endpoint = endpoint;
+        this.timeout = timeout;
+        this.connectionPoolGauges = Optional.of(connectionPoolGauges);
+        this.dedicatedClient = dedicatedClient;
+        this.compression = compression;
     }
 
     @Override
     protected void sendMessage(Message message, final CompletableFuture<MessageSendingResult> resultFuture) {
+        ResolvedEndpoint resolvedEndpoint;
         try {
-            client.newRequest(endpoint.resolveFor(message))
-                .method(HttpMethod.POST)
-                .header(HttpHeader.KEEP_ALIVE.toString(), "true")
-                .header(MESSAGE_ID.getName(), message.getId())
-                .header(HttpHeader.CONTENT_TYPE.toString(), MediaType.APPLICATION_JSON)
-                .timeout(timeout, TimeUnit.MILLISECONDS)
-                .content(new BytesContentProvider(message.getData()))
-                .send(result -> resultFuture.complete(new MessageSendingResult(result)));
+            resolvedEndpoint = endpoint.resolveEndpointFor(message);
         } catch (EndpointAddressResolutionException exception) {
             resultFuture.complete(MessageSendingResult.failedResult(exception));
+            return;
+        }
+        try {
+            if (compression.isPresent() && compression.get().appliesTo(message.getDataLength())) {
+                RequestCompression requestCompression = compression.get();
+                requestCompression.compress(message.getData()).whenComplete((body, failure) -> {
+                    if (failure != null) {
+                        notSent(resolvedEndpoint, failure, resultFuture);
+                    } else {
+                        try {
+                            send(message, resolvedEndpoint, PayloadBuffer.wrap(body),
+                                    Optional.of(requestCompression.getContentEncoding()), resultFuture);
+                        } catch (RuntimeException exception) {
+                            notSent(resolvedEndpoint, exception, resultFuture);
+                        }
+                    }
+                });
+            } else {
+                send(message, resolvedEndpoint, message.getBuffer(), Optional.empty(), resultFuture);
+            }
+        } catch (RuntimeException exception) {
+            notSent(resolvedEndpoint, exception, resultFuture);
         }
     }
 
+    private void notSent(ResolvedEndpoint resolvedEndpoint, Throwable cause, CompletableFuture<MessageSendingResult> resultFuture) {
+        resolvedEndpoint.reportNotSent();
+        resultFuture.complete(MessageSendingResult.failedResult(cause));
+    }
+
+    /**
+     * Body is retained until request completes, as it may outlive delivery when response times out.
+     */
+    private void send(Message message, ResolvedEndpoint resolvedEndpoint, PayloadBuffer body, Optional<ContentEncoding> contentEncoding,
+                      CompletableFuture<MessageSendingResult> resultFuture) {
+        Request request = client.newRequest(resolvedEndpoint.getUri())
+            .method(HttpMethod.POST)
+            .header(HttpHeader.KEEP_ALIVE.toString(), "true")
+            .header(MESSAGE_ID.getName(), message.getId())
+            .header(HttpHeader.CONTENT_TYPE.toString(), MediaType.APPLICATION_JSON)
+            .timeout(timeout, TimeUnit.MILLISECONDS)
+            .content(new ByteBufferContentProvider(body.asByteBuffer()));
+        resolvedEndpoint.getHostHeader().ifPresent(host -> request.header(HttpHeader.HOST.toString(), host));
+        contentEncoding.ifPresent(encoding -> request.header(HttpHeader.CONTENT_ENCODING.toString(), encoding.getHeaderValue()));
+        connectionPoolGauges.ifPresent(gauges -> gauges.track(request));
+
+        body.retain();
+        long sendingStartTime = System.currentTimeMillis();
+        request.send(result -> {
+            body.release();
+            MessageSendingResult sendingResult = new MessageSendingResult(result);
+            resolvedEndpoint.reportDelivery(System.currentTimeMillis() - sendingStartTime,
+                    sendingResult.succeeded() || sendingResult.isClientError());
+            resultFuture.complete(sendingResult);
+        });
+    }
+
     @Override
     public void stop() {
+        connectionPoolGauges.ifPresent(ConnectionPoolGauges::unregister);
+        if (dedicatedClient && client.isRunning()) {
+            try {
+                client.stop();
+            } catch (Exception e) {
+                logger.warn("Could not stop dedicated http client", e);
+            }
+        }
     }
 
 }
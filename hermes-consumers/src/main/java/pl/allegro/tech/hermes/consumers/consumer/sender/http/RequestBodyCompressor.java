@@ -0,0 +1,134 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.api.SubscriptionPolicy.ContentEncoding;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Histograms;
+import pl.allegro.tech.hermes.common.metric.Timers;
+
+import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_HTTP_CLIENT_COMPRESSION_LEVEL;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_HTTP_CLIENT_COMPRESSION_QUEUE_SIZE;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_HTTP_CLIENT_COMPRESSION_THREAD_POOL_SIZE;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_HTTP_CLIENT_COMPRESSION_THRESHOLD_BYTES;
+
+/**
+ * Compresses request bodies on bounded pool of workers, reusing deflaters between requests.
+ * When all workers are busy and queue is full, body is compressed by the calling consumer thread,
+ * which slows down consumption instead of buffering unbounded number of messages.
+ */
+public class RequestBodyCompressor {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final HermesMetrics hermesMetrics;
+    private final int threshold;
+    private final DeflaterPool gzipDeflaters;
+    private final DeflaterPool deflateDeflaters;
+    private final ExecutorService executor;
+
+    @Inject
+    public RequestBodyCompressor(ConfigFactory configFactory, HermesMetrics hermesMetrics) {
+        this.hermesMetrics = hermesMetrics;
+        this.threshold = configFactory.getIntProperty(CONSUMER_HTTP_CLIENT_COMPRESSION_THRESHOLD_BYTES);
+
+        int level = configFactory.getIntProperty(CONSUMER_HTTP_CLIENT_COMPRESSION_LEVEL);
+        int poolSize = configFactory.getIntProperty(CONSUMER_HTTP_CLIENT_COMPRESSION_THREAD_POOL_SIZE);
+        this.gzipDeflaters = new DeflaterPool(level, true, poolSize);
+        this.deflateDeflaters = new DeflaterPool(level, false, poolSize);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(configFactory.getIntProperty(CONSUMER_HTTP_CLIENT_COMPRESSION_QUEUE_SIZE)),
+                new ThreadFactoryBuilder().setNameFormat("request-compression-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public Optional<RequestCompression> forSubscription(Subscription subscription) {
+        if (!subscription.getSubscriptionPolicy().hasContentEncoding()) {
+            return Optional.empty();
+        }
+        return Optional.of(new RequestCompression(this, subscription.getSubscriptionPolicy().getContentEncoding(), subscription));
+    }
+
+    boolean shouldCompress(int bodyLength) {
+        return bodyLength > 0 && bodyLength >= threshold;
+    }
+
+    CompletableFuture<byte[]> compressAsync(byte[] body, ContentEncoding encoding, Subscription subscription) {
+        return CompletableFuture.supplyAsync(() -> compress(body, encoding, subscription), executor);
+    }
+
+    byte[] compress(byte[] body, ContentEncoding encoding, Subscription subscription) {
+        long start = currentCpuTime();
+        byte[] compressed = encoding == ContentEncoding.GZIP ? gzip(body) : deflate(body);
+
+        hermesMetrics.timer(Timers.CONSUMER_COMPRESSION_CPU_TIME, subscription.getTopicName(), subscription.getName())
+                .update(currentCpuTime() - start, TimeUnit.NANOSECONDS);
+        hermesMetrics.histogram(Histograms.CONSUMER_COMPRESSION_RATIO, subscription.getTopicName(), subscription.getName())
+                .update(compressed.length * 100L / body.length);
+        return compressed;
+    }
+
+    private byte[] gzip(byte[] body) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 2 + GZIP_HEADER.length + GZIP_TRAILER_SIZE);
+        output.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+        deflate(body, gzipDeflaters, output);
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        writeIntLittleEndian(output, (int) crc.getValue());
+        writeIntLittleEndian(output, body.length);
+        return output.toByteArray();
+    }
+
+    private byte[] deflate(byte[] body) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 2);
+        deflate(body, deflateDeflaters, output);
+        return output.toByteArray();
+    }
+
+    private void deflate(byte[] body, DeflaterPool pool, ByteArrayOutputStream output) {
+        Deflater deflater = pool.borrow();
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                output.write(buffer, 0, length);
+            }
+        } finally {
+            pool.release(deflater);
+        }
+    }
+
+    private void writeIntLittleEndian(ByteArrayOutputStream output, int value) {
+        output.write(value & 0xff);
+        output.write((value >> 8) & 0xff);
+        output.write((value >> 16) & 0xff);
+        output.write((value >> 24) & 0xff);
+    }
+
+    private long currentCpuTime() {
+        if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+            return threadMXBean.getCurrentThreadCpuTime();
+        }
+        return System.nanoTime();
+    }
+}
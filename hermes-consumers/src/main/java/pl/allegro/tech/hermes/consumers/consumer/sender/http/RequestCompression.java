@@ -0,0 +1,31 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http;
+
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.api.SubscriptionPolicy.ContentEncoding;
+
+import java.util.concurrent.CompletableFuture;
+
+public class RequestCompression {
+
+    private final RequestBodyCompressor compressor;
+    private final ContentEncoding contentEncoding;
+    private final Subscription subscription;
+
+    RequestCompression(RequestBodyCompressor compressor, ContentEncoding contentEncoding, Subscription subscription) {
+        this.compressor = compressor;
+        this.contentEncoding = contentEncoding;
+        this.subscription = subscription;
+    }
+
+    public boolean appliesTo(int bodyLength) {
+        return compressor.shouldCompress(bodyLength);
+    }
+
+    public CompletableFuture<byte[]> compress(byte[] body) {
+        return compressor.compressAsync(body, contentEncoding, subscription);
+    }
+
+    public ContentEncoding getContentEncoding() {
+        return contentEncoding;
+    }
+}
@@ -3,35 +3,58 @@ package pl.allegro.tech.hermes.consumers.consumer.sender.jms;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.exception.InternalProcessingException;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSender;
 import pl.allegro.tech.hermes.consumers.uri.UriUtils;
+
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSContext;
 import java.net.URI;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_JMS_BATCH_SIZE;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_JMS_BATCH_TIMEOUT_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_JMS_SESSION_POOL_SIZE;
 
 public abstract class AbstractJmsMessageSenderProvider implements JmsMessageSenderProvider {
 
     protected final ConfigFactory configFactory;
     protected final LoadingCache<URI, ConnectionFactory> connectionFactoryCache;
+    private final ScheduledExecutorService batchCommitScheduler;
+    private final int sessionPoolSize;
+    private final int batchSize;
+    private final int batchTimeoutMs;
 
     public AbstractJmsMessageSenderProvider(ConfigFactory configFactory) {
         this.configFactory = configFactory;
         this.connectionFactoryCache = CacheBuilder.newBuilder().build(new ConnectionFactoryLoader());
+        this.sessionPoolSize = configFactory.getIntProperty(CONSUMER_JMS_SESSION_POOL_SIZE);
+        this.batchSize = configFactory.getIntProperty(CONSUMER_JMS_BATCH_SIZE);
+        this.batchTimeoutMs = configFactory.getIntProperty(CONSUMER_JMS_BATCH_TIMEOUT_MS);
+        this.batchCommitScheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("jms-batch-commit-%d").setDaemon(true).build());
     }
 
     @Override
     public MessageSender create(String endpoint) {
         URI endpointURI = URI.create(endpoint);
         ConnectionFactory connectionFactory = getConnectionFactory(endpointURI);
-        JMSContext jmsContext = connectionFactory.createContext(
+        String topicName = extractTopicName(endpointURI);
+        int sessionMode = batchSize > 0 ? JMSContext.SESSION_TRANSACTED : JMSContext.AUTO_ACKNOWLEDGE;
+        JmsSessionPool sessionPool = new JmsSessionPool(() -> new JmsSession(connectionFactory.createContext(
                 UriUtils.extractUserNameFromUri(endpointURI),
-                UriUtils.extractPasswordFromUri(endpointURI)
-        );
+                UriUtils.extractPasswordFromUri(endpointURI),
+                sessionMode
+        ), topicName), sessionPoolSize);
 
-        return new JmsMessageSender(jmsContext, extractTopicName(endpointURI));
+        if (batchSize > 0) {
+            return new JmsMessageSender(sessionPool, topicName, batchSize, batchTimeoutMs, batchCommitScheduler);
+        }
+        return new JmsMessageSender(sessionPool, topicName);
     }
 
     @Override
@@ -40,6 +63,7 @@ public abstract class AbstractJmsMessageSenderProvider implements JmsMessageSend
 
     @Override
     public void stop() throws Exception {
+        batchCommitScheduler.shutdown();
         connectionFactoryCache.invalidateAll();
     }
 
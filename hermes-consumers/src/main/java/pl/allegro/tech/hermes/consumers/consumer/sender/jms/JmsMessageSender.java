@@ -3,6 +3,7 @@ package pl.allegro.tech.hermes.consumers.consumer.sender.jms;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.buffer.PayloadBuffer;
 import pl.allegro.tech.hermes.consumers.consumer.sender.CompletableFutureAwareMessageSender;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 
@@ -11,7 +12,12 @@ import javax.jms.CompletionListener;
 import javax.jms.JMSContext;
 import javax.jms.JMSException;
 import javax.jms.JMSRuntimeException;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.MESSAGE_ID;
 import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.TOPIC_NAME;
@@ -24,44 +30,101 @@ public class JmsMessageSender extends CompletableFutureAwareMessageSender {
 
     private final String topicName;
 
-    private final JMSContext jmsContext;
+    private final JmsSessionPool sessionPool;
+
+    private final int batchSize;
+
+    private final Optional<ScheduledFuture<?>> batchCommitTask;
 
     public JmsMessageSender(JMSContext jmsContext, String destinationTopic) {
-        this.jmsContext = jmsContext;
+        this(new JmsSessionPool(() -> new JmsSession(jmsContext, destinationTopic), 1), destinationTopic);
+    }
+
+    JmsMessageSender(JmsSessionPool sessionPool, String destinationTopic) {
+        this.sessionPool = sessionPool;
         this.topicName = destinationTopic;
+        this.batchSize = 0;
+        this.batchCommitTask = Optional.empty();
+    }
+
+    /**
+     * Sends messages in transactions, committed when batch is full or its first message waits longer than batch timeout.
+     */
+    JmsMessageSender(JmsSessionPool sessionPool, String destinationTopic, int batchSize, long batchTimeoutMs,
+                     ScheduledExecutorService scheduler) {
+        this.sessionPool = sessionPool;
+        this.topicName = destinationTopic;
+        this.batchSize = batchSize;
+        this.batchCommitTask = Optional.of(scheduler.scheduleWithFixedDelay(() -> commitBatchesOlderThan(batchTimeoutMs),
+                batchTimeoutMs, batchTimeoutMs, TimeUnit.MILLISECONDS));
     }
 
     @Override
     public void stop() {
-        jmsContext.close();
+        batchCommitTask.ifPresent(task -> task.cancel(false));
+        commitBatchesOlderThan(0);
+        sessionPool.close();
     }
 
     @Override
     protected void sendMessage(Message msg, final CompletableFuture<MessageSendingResult> resultFuture) {
+        JmsSession session = null;
         try {
-            BytesMessage message = jmsContext.createBytesMessage();
-            message.writeBytes(msg.getData());
+            session = sessionPool.borrow();
+            BytesMessage message = session.createBytesMessage();
+            PayloadBuffer payload = msg.getBuffer();
+            message.writeBytes(payload.array(), 0, payload.length());
             message.setStringProperty(TOPIC_NAME.getCamelCaseName(), msg.getTopic());
             message.setStringProperty(MESSAGE_ID.getCamelCaseName(), msg.getId());
 
-            CompletionListener asyncListener = new CompletionListener() {
-                @Override
-                public void onCompletion(javax.jms.Message message) {
-                    resultFuture.complete(succeededResult());
-                }
-
-                @Override
-                public void onException(javax.jms.Message message, Exception exception) {
-                    logger.warn(String.format("Exception while sending message to topic %s", topicName), exception);
-                    resultFuture.complete(failedResult(exception));
+            if (isBatching()) {
+                session.sendInTransaction(message, resultFuture);
+                if (session.uncommittedCount() >= batchSize) {
+                    session.commit();
                 }
-            };
-            jmsContext.createProducer()
-                    .setAsync(asyncListener)
-                    .send(jmsContext.createTopic(topicName), message);
+            } else {
+                session.sendAsync(message, completionListener(resultFuture));
+            }
         } catch (JMSException | JMSRuntimeException e) {
             resultFuture.complete(failedResult(e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resultFuture.complete(failedResult(e));
+        } finally {
+            if (session != null) {
+                sessionPool.release(session);
+            }
         }
     }
 
+    private boolean isBatching() {
+        return batchSize > 0;
+    }
+
+    private CompletionListener completionListener(CompletableFuture<MessageSendingResult> resultFuture) {
+        return new CompletionListener() {
+            @Override
+            public void onCompletion(javax.jms.Message message) {
+                resultFuture.complete(succeededResult());
+            }
+
+            @Override
+            public void onException(javax.jms.Message message, Exception exception) {
+                logger.warn(String.format("Exception while sending message to topic %s", topicName), exception);
+                resultFuture.complete(failedResult(exception));
+            }
+        };
+    }
+
+    private void commitBatchesOlderThan(long timeoutMs) {
+        long timestamp = System.currentTimeMillis() - timeoutMs;
+        List<JmsSession> sessions = sessionPool.borrowIdle();
+        try {
+            sessions.stream()
+                    .filter(session -> session.hasUncommittedOlderThan(timestamp))
+                    .forEach(JmsSession::commit);
+        } finally {
+            sessions.forEach(sessionPool::release);
+        }
+    }
 }
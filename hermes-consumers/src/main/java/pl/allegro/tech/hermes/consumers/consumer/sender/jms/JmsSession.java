@@ -0,0 +1,94 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+import javax.jms.BytesMessage;
+import javax.jms.CompletionListener;
+import javax.jms.JMSContext;
+import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Topic;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.failedResult;
+import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.succeededResult;
+
+/**
+ * Context with its producer and destination created once. Can be used by one thread at a time.
+ */
+class JmsSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(JmsSession.class);
+
+    private final JMSContext context;
+    private final JMSProducer producer;
+    private final Topic destination;
+    private final List<CompletableFuture<MessageSendingResult>> uncommitted = new ArrayList<>();
+    private long firstUncommittedTimestamp;
+
+    JmsSession(JMSContext context, String topicName) {
+        this.context = context;
+        this.producer = context.createProducer();
+        this.destination = context.createTopic(topicName);
+    }
+
+    BytesMessage createBytesMessage() {
+        return context.createBytesMessage();
+    }
+
+    void sendAsync(BytesMessage message, CompletionListener listener) {
+        producer.setAsync(listener).send(destination, message);
+    }
+
+    void sendInTransaction(BytesMessage message, CompletableFuture<MessageSendingResult> resultFuture) {
+        producer.setAsync(null).send(destination, message);
+        if (uncommitted.isEmpty()) {
+            firstUncommittedTimestamp = System.currentTimeMillis();
+        }
+        uncommitted.add(resultFuture);
+    }
+
+    int uncommittedCount() {
+        return uncommitted.size();
+    }
+
+    boolean hasUncommittedOlderThan(long timestamp) {
+        return !uncommitted.isEmpty() && firstUncommittedTimestamp <= timestamp;
+    }
+
+    void commit() {
+        try {
+            context.commit();
+            uncommitted.forEach(future -> future.complete(succeededResult()));
+        } catch (JMSRuntimeException exception) {
+            logger.warn("Could not commit batch of {} messages", uncommitted.size(), exception);
+            rollback();
+            uncommitted.forEach(future -> future.complete(failedResult(exception)));
+        } finally {
+            uncommitted.clear();
+        }
+    }
+
+    /**
+     * Commits messages sent in transaction before closing, so they are neither rolled back by broker nor left with
+     * results never completed.
+     */
+    void close() {
+        if (!uncommitted.isEmpty()) {
+            commit();
+        }
+        context.close();
+    }
+
+    private void rollback() {
+        try {
+            context.rollback();
+        } catch (JMSRuntimeException exception) {
+            logger.warn("Could not rollback batch", exception);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.jms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sessions are created on demand up to max size, when all of them are in use caller waits for first one released.
+ */
+class JmsSessionPool {
+
+    private final Supplier<JmsSession> sessionFactory;
+    private final BlockingQueue<JmsSession> idle;
+    private final AtomicInteger created = new AtomicInteger();
+    private final int maxSize;
+    private volatile boolean closed;
+
+    JmsSessionPool(Supplier<JmsSession> sessionFactory, int maxSize) {
+        this.sessionFactory = sessionFactory;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+        this.maxSize = maxSize;
+    }
+
+    JmsSession borrow() throws InterruptedException {
+        JmsSession session = idle.poll();
+        if (session != null) {
+            return session;
+        }
+        if (created.incrementAndGet() <= maxSize) {
+            try {
+                return sessionFactory.get();
+            } catch (RuntimeException exception) {
+                created.decrementAndGet();
+                throw exception;
+            }
+        }
+        created.decrementAndGet();
+        return idle.take();
+    }
+
+    /**
+     * @return sessions which are not in use at the moment, they have to be released afterwards
+     */
+    List<JmsSession> borrowIdle() {
+        List<JmsSession> sessions = new ArrayList<>(maxSize);
+        idle.drainTo(sessions);
+        return sessions;
+    }
+
+    void release(JmsSession session) {
+        if (closed) {
+            session.close();
+        } else {
+            idle.offer(session);
+        }
+    }
+
+    void close() {
+        closed = true;
+        borrowIdle().forEach(JmsSession::close);
+    }
+}
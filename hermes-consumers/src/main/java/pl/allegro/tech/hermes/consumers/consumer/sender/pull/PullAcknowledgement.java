@@ -0,0 +1,21 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.pull;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.List;
+
+public class PullAcknowledgement {
+
+    private final List<PullOffset> offsets;
+
+    @JsonCreator
+    public PullAcknowledgement(@JsonProperty("offsets") List<PullOffset> offsets) {
+        this.offsets = offsets == null ? Collections.emptyList() : offsets;
+    }
+
+    public List<PullOffset> getOffsets() {
+        return offsets;
+    }
+}
@@ -0,0 +1,64 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.pull;
+
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+public class PullBatch {
+
+    private final long leaseTimeoutMs;
+    private final List<PulledMessage> messages;
+
+    PullBatch(long leaseTimeoutMs, List<Message> messages) {
+        this.leaseTimeoutMs = leaseTimeoutMs;
+        this.messages = messages.stream().map(PulledMessage::new).collect(toList());
+    }
+
+    public long getLeaseTimeoutMs() {
+        return leaseTimeoutMs;
+    }
+
+    public List<PulledMessage> getMessages() {
+        return messages;
+    }
+
+    public static class PulledMessage {
+
+        private final String id;
+        private final int partition;
+        private final long offset;
+        private final long publishedAt;
+        private final String body;
+
+        PulledMessage(Message message) {
+            this.id = message.getId();
+            this.partition = message.getPartition();
+            this.offset = message.getOffset();
+            this.publishedAt = message.getPublishingTimestamp();
+            this.body = new String(message.getData(), StandardCharsets.UTF_8);
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getPartition() {
+            return partition;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getPublishedAt() {
+            return publishedAt;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.pull;
+
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.sender.CompletableFutureAwareMessageSender;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+import java.util.concurrent.CompletableFuture;
+
+public class PullMessageSender extends CompletableFutureAwareMessageSender {
+
+    private final PullQueue queue;
+    private final Runnable onStop;
+
+    PullMessageSender(PullQueue queue, Runnable onStop) {
+        this.queue = queue;
+        this.onStop = onStop;
+    }
+
+    @Override
+    protected void sendMessage(Message message, CompletableFuture<MessageSendingResult> resultFuture) {
+        queue.offer(message, resultFuture);
+    }
+
+    @Override
+    public void stop() {
+        onStop.run();
+    }
+}
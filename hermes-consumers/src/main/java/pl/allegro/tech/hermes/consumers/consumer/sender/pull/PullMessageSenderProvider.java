@@ -0,0 +1,113 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.pull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpServer;
+import pl.allegro.tech.hermes.api.EndpointAddress;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.exception.EndpointProtocolNotSupportedException;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSender;
+import pl.allegro.tech.hermes.consumers.consumer.sender.ProtocolMessageSenderProvider;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PULL_ENABLED;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PULL_LEASE_TIMEOUT_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PULL_MAX_BATCH_SIZE;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PULL_MAX_WAIT_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PULL_PORT;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PULL_THREAD_POOL_SIZE;
+
+/**
+ * Delivers messages of subscriptions with pull:// endpoint to clients polling HTTP endpoint of this consumer, instead
+ * of pushing them. Long polls hold threads of dedicated pool, so they never block health checks.
+ */
+public class PullMessageSenderProvider implements ProtocolMessageSenderProvider {
+
+    private static final long EXPIRY_CHECK_INTERVAL_MS = 500;
+
+    private final ConfigFactory configFactory;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final boolean enabled;
+    private final long leaseTimeoutMs;
+
+    private final ConcurrentMap<String, PullQueue> queues = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+    private ExecutorService requestExecutor;
+    private ScheduledExecutorService expiryExecutor;
+
+    @Inject
+    public PullMessageSenderProvider(ConfigFactory configFactory, ObjectMapper objectMapper, Clock clock) {
+        this.configFactory = configFactory;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.enabled = configFactory.getBooleanProperty(CONSUMER_PULL_ENABLED);
+        this.leaseTimeoutMs = configFactory.getIntProperty(CONSUMER_PULL_LEASE_TIMEOUT_MS);
+    }
+
+    @Override
+    public MessageSender create(String endpoint) {
+        throw new EndpointProtocolNotSupportedException(EndpointAddress.of(endpoint));
+    }
+
+    @Override
+    public MessageSender create(Subscription subscription) {
+        if (!enabled) {
+            throw new EndpointProtocolNotSupportedException(subscription.getEndpoint());
+        }
+        String subscriptionId = subscription.getId();
+        PullQueue queue = new PullQueue(leaseTimeoutMs, clock);
+        PullQueue previous = queues.put(subscriptionId, queue);
+        if (previous != null) {
+            previous.close();
+        }
+        return new PullMessageSender(queue, () -> {
+            queues.remove(subscriptionId, queue);
+            queue.close();
+        });
+    }
+
+    @Override
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        requestExecutor = Executors.newFixedThreadPool(configFactory.getIntProperty(CONSUMER_PULL_THREAD_POOL_SIZE),
+                new ThreadFactoryBuilder().setNameFormat("pull-requests-%d").setDaemon(true).build());
+        expiryExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("pull-lease-expiry-%d").setDaemon(true).build());
+        expiryExecutor.scheduleAtFixedRate(() -> queues.values().forEach(PullQueue::expire),
+                EXPIRY_CHECK_INTERVAL_MS, EXPIRY_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        server = HttpServer.create(new InetSocketAddress(configFactory.getIntProperty(CONSUMER_PULL_PORT)), 0);
+        server.setExecutor(requestExecutor);
+        server.createContext("/topics/", new PullRequestHandler(id -> Optional.ofNullable(queues.get(id)), objectMapper,
+                leaseTimeoutMs, configFactory.getIntProperty(CONSUMER_PULL_MAX_BATCH_SIZE),
+                configFactory.getIntProperty(CONSUMER_PULL_MAX_WAIT_MS)));
+        server.start();
+    }
+
+    @Override
+    public void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        requestExecutor.shutdownNow();
+        expiryExecutor.shutdownNow();
+        queues.values().forEach(PullQueue::close);
+    }
+}
@@ -0,0 +1,43 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.pull;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+public class PullOffset {
+
+    private final int partition;
+    private final long offset;
+
+    @JsonCreator
+    public PullOffset(@JsonProperty("partition") int partition, @JsonProperty("offset") long offset) {
+        this.partition = partition;
+        this.offset = offset;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PullOffset that = (PullOffset) o;
+        return partition == that.partition && offset == that.offset;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(partition, offset);
+    }
+}
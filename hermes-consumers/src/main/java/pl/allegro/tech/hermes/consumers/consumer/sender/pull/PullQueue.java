@@ -0,0 +1,141 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.pull;
+
+import pl.allegro.tech.hermes.common.exception.InternalProcessingException;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.failedResult;
+import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.redeliveryResult;
+import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.succeededResult;
+
+/**
+ * Messages of single subscription waiting to be pulled. Messages wait for client as long as needed; pulled messages
+ * are leased until acknowledged and those not acknowledged within lease timeout are handed back to consumer for
+ * redelivery, which is not counted as failed delivery.
+ */
+class PullQueue {
+
+    private final long leaseTimeoutMs;
+    private final Clock clock;
+
+    private final BlockingQueue<PendingMessage> waiting = new LinkedBlockingQueue<>();
+    private final ConcurrentMap<PullOffset, PendingMessage> leased = new ConcurrentHashMap<>();
+
+    private volatile boolean closed = false;
+
+    PullQueue(long leaseTimeoutMs, Clock clock) {
+        this.leaseTimeoutMs = leaseTimeoutMs;
+        this.clock = clock;
+    }
+
+    void offer(Message message, CompletableFuture<MessageSendingResult> resultFuture) {
+        if (closed) {
+            resultFuture.complete(failedResult(new InternalProcessingException("Pull subscription is stopped")));
+            return;
+        }
+        waiting.add(new PendingMessage(message, resultFuture));
+    }
+
+    /**
+     * Waits up to waitMs for first message, then takes as many already waiting messages as fit in the batch.
+     */
+    List<Message> lease(int maxMessages, long waitMs) throws InterruptedException {
+        List<Message> batch = new ArrayList<>();
+        long waitUntil = clock.getTime() + waitMs;
+        while (batch.isEmpty()) {
+            long remaining = waitUntil - clock.getTime();
+            PendingMessage next = remaining > 0 ? waiting.poll(remaining, TimeUnit.MILLISECONDS) : waiting.poll();
+            if (next == null) {
+                return batch;
+            }
+            leaseTo(next, batch);
+        }
+        PendingMessage next;
+        while (batch.size() < maxMessages && (next = waiting.poll()) != null) {
+            leaseTo(next, batch);
+        }
+        return batch;
+    }
+
+    int acknowledge(Collection<PullOffset> offsets) {
+        int acknowledged = 0;
+        for (PullOffset offset : offsets) {
+            PendingMessage pending = leased.remove(offset);
+            if (pending != null && pending.complete(State.LEASED, succeededResult())) {
+                acknowledged++;
+            }
+        }
+        return acknowledged;
+    }
+
+    void expire() {
+        long now = clock.getTime();
+        leased.values().removeIf(pending -> pending.isExpired(now) && pending.complete(State.LEASED, leaseExpired()));
+    }
+
+    void close() {
+        closed = true;
+        MessageSendingResult stopped = failedResult(new InternalProcessingException("Pull subscription is stopped"));
+        waiting.removeIf(pending -> pending.complete(State.WAITING, stopped));
+        leased.values().removeIf(pending -> pending.complete(State.LEASED, stopped));
+    }
+
+    private void leaseTo(PendingMessage pending, List<Message> batch) {
+        if (pending.lease(clock.getTime() + leaseTimeoutMs)) {
+            Message message = pending.message;
+            leased.put(new PullOffset(message.getPartition(), message.getOffset()), pending);
+            batch.add(message);
+        }
+    }
+
+    private MessageSendingResult leaseExpired() {
+        return redeliveryResult(new TimeoutException("Message was not acknowledged within " + leaseTimeoutMs + " ms"));
+    }
+
+    private enum State {
+        WAITING, LEASED, DONE
+    }
+
+    private static final class PendingMessage {
+
+        private final Message message;
+        private final CompletableFuture<MessageSendingResult> resultFuture;
+        private final AtomicReference<State> state = new AtomicReference<>(State.WAITING);
+        private volatile long expiresAt;
+
+        PendingMessage(Message message, CompletableFuture<MessageSendingResult> resultFuture) {
+            this.message = message;
+            this.resultFuture = resultFuture;
+        }
+
+        boolean lease(long expiresAt) {
+            this.expiresAt = expiresAt;
+            return state.compareAndSet(State.WAITING, State.LEASED);
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        boolean complete(State expected, MessageSendingResult result) {
+            if (state.compareAndSet(expected, State.DONE)) {
+                resultFuture.complete(result);
+                return true;
+            }
+            return false;
+        }
+    }
+}
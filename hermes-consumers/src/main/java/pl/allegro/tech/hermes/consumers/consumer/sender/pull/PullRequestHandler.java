@@ -0,0 +1,139 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.pull;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+import static javax.ws.rs.core.Response.Status.NOT_FOUND;
+import static javax.ws.rs.core.Response.Status.OK;
+
+/**
+ * Serves GET /topics/{topic}/subscriptions/{subscription}/messages?max=N&amp;wait=ms, which long-polls for batch of
+ * messages, and POST /topics/{topic}/subscriptions/{subscription}/acks, which acknowledges leased offsets.
+ */
+class PullRequestHandler implements HttpHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PullRequestHandler.class);
+
+    private static final int METHOD_NOT_ALLOWED = 405;
+
+    private final Function<String, Optional<PullQueue>> queues;
+    private final ObjectMapper objectMapper;
+    private final long leaseTimeoutMs;
+    private final int maxBatchSize;
+    private final long maxWaitMs;
+
+    PullRequestHandler(Function<String, Optional<PullQueue>> queues, ObjectMapper objectMapper,
+                       long leaseTimeoutMs, int maxBatchSize, long maxWaitMs) {
+        this.queues = queues;
+        this.objectMapper = objectMapper;
+        this.leaseTimeoutMs = leaseTimeoutMs;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            if (path.length != 6 || !"subscriptions".equals(path[3]) || !isResource(path[5])) {
+                respond(exchange, NOT_FOUND.getStatusCode(), error("Unknown resource"));
+                return;
+            }
+            Optional<PullQueue> queue = queues.apply(Subscription.getId(TopicName.fromQualifiedName(path[2]), path[4]));
+            if (!queue.isPresent()) {
+                respond(exchange, NOT_FOUND.getStatusCode(), error("Subscription is not consumed in pull mode on this host"));
+            } else if ("messages".equals(path[5]) && "GET".equals(exchange.getRequestMethod())) {
+                pull(exchange, queue.get());
+            } else if ("acks".equals(path[5]) && "POST".equals(exchange.getRequestMethod())) {
+                acknowledge(exchange, queue.get());
+            } else {
+                respond(exchange, METHOD_NOT_ALLOWED, error("Method not allowed"));
+            }
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            respond(exchange, BAD_REQUEST.getStatusCode(), error(e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+        } catch (RuntimeException e) {
+            logger.error("Failed to handle pull request {}", exchange.getRequestURI(), e);
+            exchange.close();
+        }
+    }
+
+    private void pull(HttpExchange exchange, PullQueue queue) throws IOException, InterruptedException {
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        int max = (int) Math.min(parameter(query, "max", maxBatchSize), maxBatchSize);
+        long wait = Math.min(parameter(query, "wait", 0), maxWaitMs);
+        if (max <= 0 || wait < 0) {
+            throw new IllegalArgumentException("Parameters max and wait must be positive");
+        }
+        List<Message> messages = queue.lease(max, wait);
+        respond(exchange, OK.getStatusCode(), new PullBatch(leaseTimeoutMs, messages));
+    }
+
+    private void acknowledge(HttpExchange exchange, PullQueue queue) throws IOException {
+        PullAcknowledgement acknowledgement = objectMapper.readValue(exchange.getRequestBody(), PullAcknowledgement.class);
+        int acknowledged = queue.acknowledge(acknowledgement.getOffsets());
+        respond(exchange, OK.getStatusCode(), ImmutableMap.of("acknowledged", acknowledged));
+    }
+
+    private boolean isResource(String name) {
+        return "messages".equals(name) || "acks".equals(name);
+    }
+
+    private long parameter(Map<String, String> query, String name, long defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be a number");
+        }
+    }
+
+    private Map<String, String> query(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                String[] keyValue = parameter.split("=", 2);
+                parameters.put(URLDecoder.decode(keyValue[0], "UTF-8"),
+                        keyValue.length > 1 ? URLDecoder.decode(keyValue[1], "UTF-8") : "");
+            }
+        }
+        return parameters;
+    }
+
+    private Map<String, String> error(String message) {
+        return ImmutableMap.of("message", String.valueOf(message));
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] response = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+}
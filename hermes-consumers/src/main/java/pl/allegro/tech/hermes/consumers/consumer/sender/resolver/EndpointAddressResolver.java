@@ -9,4 +9,8 @@ public interface EndpointAddressResolver {
 
     URI resolve(EndpointAddress address, Message message) throws EndpointAddressResolutionException;
 
+    default ResolvedEndpoint resolveEndpoint(EndpointAddress address, Message message) throws EndpointAddressResolutionException {
+        return ResolvedEndpoint.of(resolve(address, message));
+    }
+
 }
@@ -0,0 +1,46 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.resolver;
+
+import org.glassfish.hk2.api.Factory;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.consumers.consumer.interpolation.UriInterpolator;
+
+import javax.inject.Inject;
+import java.net.InetAddress;
+
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_LOAD_BALANCING_STRATEGY;
+
+public class EndpointAddressResolverFactory implements Factory<EndpointAddressResolver> {
+
+    private static final String NO_LOAD_BALANCING = "none";
+
+    private final UriInterpolator interpolator;
+    private final ConfigFactory configFactory;
+    private final Clock clock;
+
+    @Inject
+    public EndpointAddressResolverFactory(UriInterpolator interpolator, ConfigFactory configFactory, Clock clock) {
+        this.interpolator = interpolator;
+        this.configFactory = configFactory;
+        this.clock = clock;
+    }
+
+    @Override
+    public EndpointAddressResolver provide() {
+        EndpointAddressResolver interpolatingResolver = new InterpolatingEndpointAddressResolver(interpolator);
+        String strategy = configFactory.getStringProperty(CONSUMER_LOAD_BALANCING_STRATEGY);
+        if (NO_LOAD_BALANCING.equalsIgnoreCase(strategy)) {
+            return interpolatingResolver;
+        }
+        return new LoadBalancingEndpointAddressResolver(
+                interpolatingResolver,
+                InetAddress::getAllByName,
+                LoadBalancingStrategy.valueOf(strategy.toUpperCase()),
+                LoadBalancingSettings.fromConfig(configFactory),
+                clock);
+    }
+
+    @Override
+    public void dispose(EndpointAddressResolver instance) {
+    }
+}
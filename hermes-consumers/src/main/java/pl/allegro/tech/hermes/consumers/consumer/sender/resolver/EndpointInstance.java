@@ -0,0 +1,86 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.resolver;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class EndpointInstance {
+
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    private final InetAddress address;
+    private final EndpointInstances pool;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private volatile double latency;
+    private volatile long ejectedUntil;
+
+    EndpointInstance(InetAddress address, EndpointInstances pool) {
+        this.address = address;
+        this.pool = pool;
+    }
+
+    void started() {
+        outstanding.incrementAndGet();
+    }
+
+    void finished(long latencyMillis, boolean healthy) {
+        outstanding.decrementAndGet();
+        if (healthy) {
+            consecutiveFailures.set(0);
+            updateLatency(latencyMillis);
+        } else {
+            consecutiveFailures.incrementAndGet();
+        }
+        pool.delivered(this);
+    }
+
+    void abandoned() {
+        outstanding.decrementAndGet();
+    }
+
+    private synchronized void updateLatency(long latencyMillis) {
+        latency = latency == 0 ? latencyMillis : LATENCY_SMOOTHING * latencyMillis + (1 - LATENCY_SMOOTHING) * latency;
+    }
+
+    /**
+     * Latency is forgotten, so that instance is probed again once ejection ends.
+     */
+    synchronized void eject(long until) {
+        ejectedUntil = until;
+        latency = 0;
+        consecutiveFailures.set(0);
+    }
+
+    boolean isAvailable(long now) {
+        return ejectedUntil <= now;
+    }
+
+    /**
+     * Expected time of serving next request, taking into account requests already queued on instance.
+     */
+    double load() {
+        return (latency + 1) * (outstanding.get() + 1);
+    }
+
+    InetAddress getAddress() {
+        return address;
+    }
+
+    String getHostLiteral() {
+        return address instanceof Inet6Address ? "[" + address.getHostAddress() + "]" : address.getHostAddress();
+    }
+
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    double getLatency() {
+        return latency;
+    }
+
+    int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+}
@@ -0,0 +1,121 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.resolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.common.time.Clock;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * All addresses of single endpoint host, refreshed periodically from DNS.
+ */
+class EndpointInstances {
+
+    private static final Logger logger = LoggerFactory.getLogger(EndpointInstances.class);
+
+    private final String host;
+    private final HostAddressResolver hostAddressResolver;
+    private final LoadBalancingStrategy strategy;
+    private final LoadBalancingSettings settings;
+    private final Clock clock;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile List<EndpointInstance> instances = Collections.emptyList();
+    private volatile long refreshAt;
+
+    EndpointInstances(String host, HostAddressResolver hostAddressResolver, LoadBalancingStrategy strategy,
+                      LoadBalancingSettings settings, Clock clock) {
+        this.host = host;
+        this.hostAddressResolver = hostAddressResolver;
+        this.strategy = strategy;
+        this.settings = settings;
+        this.clock = clock;
+    }
+
+    /**
+     * @return instance to send request to or empty, when host has single address and balancing makes no sense
+     */
+    Optional<EndpointInstance> select() {
+        refreshIfExpired();
+        List<EndpointInstance> current = instances;
+        if (current.size() < 2) {
+            return Optional.empty();
+        }
+        List<EndpointInstance> available = available(current, clock.getTime());
+        EndpointInstance selected = strategy.select(available.isEmpty() ? current : available);
+        selected.started();
+        return Optional.of(selected);
+    }
+
+    void delivered(EndpointInstance instance) {
+        long now = clock.getTime();
+        List<EndpointInstance> available = available(instances, now);
+        if (available.size() < 2) {
+            return;
+        }
+        if (instance.isAvailable(now) && instance.getConsecutiveFailures() >= settings.getEjectionConsecutiveFailures()) {
+            eject(instance, now, "failing");
+        } else {
+            slowest(available).ifPresent(slowest -> eject(slowest, now, "slow"));
+        }
+    }
+
+    List<EndpointInstance> getInstances() {
+        return instances;
+    }
+
+    private Optional<EndpointInstance> slowest(List<EndpointInstance> available) {
+        double[] latencies = available.stream().mapToDouble(EndpointInstance::getLatency).filter(l -> l > 0).sorted().toArray();
+        if (latencies.length < 2) {
+            return Optional.empty();
+        }
+        double threshold = latencies[latencies.length / 2] * settings.getEjectionLatencyFactor();
+        return available.stream()
+                .filter(instance -> instance.getLatency() > threshold)
+                .max(Comparator.comparingDouble(EndpointInstance::getLatency));
+    }
+
+    private void eject(EndpointInstance instance, long now, String reason) {
+        instance.eject(now + settings.getEjectionMillis());
+        logger.info("Ejecting {} instance {} of host {} for {} ms", reason, instance.getAddress().getHostAddress(), host,
+                settings.getEjectionMillis());
+    }
+
+    private List<EndpointInstance> available(List<EndpointInstance> current, long now) {
+        return current.stream().filter(instance -> instance.isAvailable(now)).collect(toList());
+    }
+
+    private void refreshIfExpired() {
+        if (clock.getTime() >= refreshAt && refreshing.compareAndSet(false, true)) {
+            try {
+                instances = merge(instances, hostAddressResolver.resolve(host));
+            } catch (UnknownHostException e) {
+                logger.warn("Could not refresh addresses of host {}, keeping {} known addresses", host, instances.size(), e);
+            } finally {
+                refreshAt = clock.getTime() + settings.getDnsRefreshMillis();
+                refreshing.set(false);
+            }
+        }
+    }
+
+    private List<EndpointInstance> merge(List<EndpointInstance> current, InetAddress[] addresses) {
+        Map<InetAddress, EndpointInstance> known = current.stream()
+                .collect(toMap(EndpointInstance::getAddress, Function.identity()));
+        return Collections.unmodifiableList(Arrays.stream(addresses)
+                .distinct()
+                .map(address -> known.getOrDefault(address, new EndpointInstance(address, this)))
+                .collect(toList()));
+    }
+}
@@ -0,0 +1,10 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.resolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+public interface HostAddressResolver {
+
+    InetAddress[] resolve(String host) throws UnknownHostException;
+
+}
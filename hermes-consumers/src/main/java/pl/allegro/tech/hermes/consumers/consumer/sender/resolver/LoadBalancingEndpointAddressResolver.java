@@ -0,0 +1,88 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.resolver;
+
+import com.google.common.net.InetAddresses;
+import pl.allegro.tech.hermes.api.EndpointAddress;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Spreads requests among all addresses endpoint host resolves to, instead of relying on the address
+ * picked by http client when opening connections. Requests are sent directly to chosen address
+ * with original host in Host header. HTTPS endpoints are left to http client, as TLS needs host name
+ * for SNI and certificate verification, which would be lost once host is replaced with its address.
+ */
+public class LoadBalancingEndpointAddressResolver implements EndpointAddressResolver {
+
+    private final EndpointAddressResolver delegate;
+    private final HostAddressResolver hostAddressResolver;
+    private final LoadBalancingStrategy strategy;
+    private final LoadBalancingSettings settings;
+    private final Clock clock;
+
+    private final ConcurrentMap<String, EndpointInstances> instancesByHost = new ConcurrentHashMap<>();
+
+    public LoadBalancingEndpointAddressResolver(EndpointAddressResolver delegate, HostAddressResolver hostAddressResolver,
+                                                LoadBalancingStrategy strategy, LoadBalancingSettings settings, Clock clock) {
+        this.delegate = delegate;
+        this.hostAddressResolver = hostAddressResolver;
+        this.strategy = strategy;
+        this.settings = settings;
+        this.clock = clock;
+    }
+
+    @Override
+    public URI resolve(EndpointAddress address, Message message) throws EndpointAddressResolutionException {
+        return delegate.resolve(address, message);
+    }
+
+    @Override
+    public ResolvedEndpoint resolveEndpoint(EndpointAddress address, Message message) throws EndpointAddressResolutionException {
+        URI uri = delegate.resolve(address, message);
+        String host = uri.getHost();
+        if (host == null || host.startsWith("[") || InetAddresses.isInetAddress(host) || isSecure(uri)) {
+            return ResolvedEndpoint.of(uri);
+        }
+
+        Optional<EndpointInstance> instance = instancesFor(host).select();
+        if (!instance.isPresent()) {
+            return ResolvedEndpoint.of(uri);
+        }
+        return ResolvedEndpoint.ofInstance(addressedTo(uri, instance.get()), authority(uri), instance.get());
+    }
+
+    EndpointInstances instancesFor(String host) {
+        return instancesByHost.computeIfAbsent(host,
+                h -> new EndpointInstances(h, hostAddressResolver, strategy, settings, clock));
+    }
+
+    private boolean isSecure(URI uri) {
+        return "https".equalsIgnoreCase(uri.getScheme());
+    }
+
+    private URI addressedTo(URI uri, EndpointInstance instance) {
+        StringBuilder builder = new StringBuilder(uri.getScheme()).append("://");
+        if (uri.getRawUserInfo() != null) {
+            builder.append(uri.getRawUserInfo()).append('@');
+        }
+        builder.append(instance.getHostLiteral());
+        if (uri.getPort() != -1) {
+            builder.append(':').append(uri.getPort());
+        }
+        if (uri.getRawPath() != null) {
+            builder.append(uri.getRawPath());
+        }
+        if (uri.getRawQuery() != null) {
+            builder.append('?').append(uri.getRawQuery());
+        }
+        return URI.create(builder.toString());
+    }
+
+    private String authority(URI uri) {
+        return uri.getPort() != -1 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+    }
+}
@@ -0,0 +1,49 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.resolver;
+
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_LOAD_BALANCING_DNS_REFRESH_SECONDS;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_LOAD_BALANCING_EJECTION_CONSECUTIVE_FAILURES;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_LOAD_BALANCING_EJECTION_LATENCY_FACTOR;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_LOAD_BALANCING_EJECTION_SECONDS;
+
+public class LoadBalancingSettings {
+
+    private final long dnsRefreshMillis;
+    private final double ejectionLatencyFactor;
+    private final int ejectionConsecutiveFailures;
+    private final long ejectionMillis;
+
+    public LoadBalancingSettings(long dnsRefreshMillis, double ejectionLatencyFactor, int ejectionConsecutiveFailures,
+                                 long ejectionMillis) {
+        this.dnsRefreshMillis = dnsRefreshMillis;
+        this.ejectionLatencyFactor = ejectionLatencyFactor;
+        this.ejectionConsecutiveFailures = ejectionConsecutiveFailures;
+        this.ejectionMillis = ejectionMillis;
+    }
+
+    public static LoadBalancingSettings fromConfig(ConfigFactory configFactory) {
+        return new LoadBalancingSettings(
+                configFactory.getIntProperty(CONSUMER_LOAD_BALANCING_DNS_REFRESH_SECONDS) * 1000L,
+                configFactory.getDoubleProperty(CONSUMER_LOAD_BALANCING_EJECTION_LATENCY_FACTOR),
+                configFactory.getIntProperty(CONSUMER_LOAD_BALANCING_EJECTION_CONSECUTIVE_FAILURES),
+                configFactory.getIntProperty(CONSUMER_LOAD_BALANCING_EJECTION_SECONDS) * 1000L
+        );
+    }
+
+    public long getDnsRefreshMillis() {
+        return dnsRefreshMillis;
+    }
+
+    public double getEjectionLatencyFactor() {
+        return ejectionLatencyFactor;
+    }
+
+    public int getEjectionConsecutiveFailures() {
+        return ejectionConsecutiveFailures;
+    }
+
+    public long getEjectionMillis() {
+        return ejectionMillis;
+    }
+}
@@ -0,0 +1,34 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.resolver;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public enum LoadBalancingStrategy {
+
+    LEAST_OUTSTANDING {
+        @Override
+        EndpointInstance select(List<EndpointInstance> instances) {
+            return instances.stream()
+                    .min(Comparator.comparingInt(EndpointInstance::getOutstanding).thenComparingDouble(EndpointInstance::getLatency))
+                    .get();
+        }
+    },
+
+    POWER_OF_TWO_CHOICES {
+        @Override
+        EndpointInstance select(List<EndpointInstance> instances) {
+            if (instances.size() == 1) {
+                return instances.get(0);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(instances.size());
+            int second = (first + 1 + random.nextInt(instances.size() - 1)) % instances.size();
+            EndpointInstance a = instances.get(first);
+            EndpointInstance b = instances.get(second);
+            return a.load() <= b.load() ? a : b;
+        }
+    };
+
+    abstract EndpointInstance select(List<EndpointInstance> instances);
+}
@@ -20,6 +20,10 @@ public class ResolvableEndpointAddress {
         return resolver.resolve(address, message);
     }
 
+    public ResolvedEndpoint resolveEndpointFor(Message message) throws EndpointAddressResolutionException {
+        return resolver.resolveEndpoint(address, message);
+    }
+
     public String toString() {
         return address.toString();
     }
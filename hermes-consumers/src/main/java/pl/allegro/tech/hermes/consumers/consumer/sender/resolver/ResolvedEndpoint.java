@@ -0,0 +1,51 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.resolver;
+
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * Address of single delivery. When request is addressed directly to one of endpoint instances,
+ * it carries original host to be sent in Host header and collects delivery statistics of that instance.
+ */
+public class ResolvedEndpoint {
+
+    private final URI uri;
+    private final Optional<String> hostHeader;
+    private final Optional<EndpointInstance> instance;
+
+    private ResolvedEndpoint(URI uri, Optional<String> hostHeader, Optional<EndpointInstance> instance) {
+        this.uri = uri;
+        this.hostHeader = hostHeader;
+        this.instance = instance;
+    }
+
+    public static ResolvedEndpoint of(URI uri) {
+        return new ResolvedEndpoint(uri, Optional.empty(), Optional.empty());
+    }
+
+    static ResolvedEndpoint ofInstance(URI uri, String hostHeader, EndpointInstance instance) {
+        return new ResolvedEndpoint(uri, Optional.of(hostHeader), Optional.of(instance));
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public Optional<String> getHostHeader() {
+        return hostHeader;
+    }
+
+    /**
+     * @param healthy false when instance failed to answer or answered with server error
+     */
+    public void reportDelivery(long latencyMillis, boolean healthy) {
+        instance.ifPresent(i -> i.finished(latencyMillis, healthy));
+    }
+
+    /**
+     * Request never reached instance, so its latency and health stay untouched.
+     */
+    public void reportNotSent() {
+        instance.ifPresent(EndpointInstance::abandoned);
+    }
+}
@@ -8,6 +8,9 @@ import pl.allegro.tech.hermes.common.di.factories.UndeliveredMessageLogFactory;
 import pl.allegro.tech.hermes.common.message.undelivered.UndeliveredMessageLog;
 import pl.allegro.tech.hermes.common.metric.executor.InstrumentedExecutorServiceFactory;
 import pl.allegro.tech.hermes.consumers.consumer.ConsumerMessageSenderFactory;
+import pl.allegro.tech.hermes.consumers.consumer.budget.MemoryBudget;
+import pl.allegro.tech.hermes.consumers.consumer.buffer.PayloadBufferPool;
+import pl.allegro.tech.hermes.consumers.consumer.logging.AggregatingFailureLog;
 import pl.allegro.tech.hermes.consumers.consumer.converter.AvroToJsonMessageConverter;
 import pl.allegro.tech.hermes.consumers.consumer.converter.MessageConverterResolver;
 import pl.allegro.tech.hermes.consumers.consumer.converter.NoOperationMessageConverter;
@@ -29,11 +32,14 @@ import pl.allegro.tech.hermes.consumers.consumer.receiver.kafka.OffsetStoragesFa
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSenderFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.consumers.consumer.sender.ProtocolMessageSenderProvider;
+import pl.allegro.tech.hermes.consumers.consumer.sender.http.DedicatedHttpClientFactory;
+import pl.allegro.tech.hermes.consumers.consumer.sender.http.RequestBodyCompressor;
 import pl.allegro.tech.hermes.consumers.consumer.sender.http.HttpClientFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.http.JettyHttpMessageSenderProvider;
 import pl.allegro.tech.hermes.consumers.consumer.sender.jms.JmsHornetQMessageSenderProvider;
+import pl.allegro.tech.hermes.consumers.consumer.sender.pull.PullMessageSenderProvider;
 import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.EndpointAddressResolver;
-import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.InterpolatingEndpointAddressResolver;
+import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.EndpointAddressResolverFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeout;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeoutFactory;
 import pl.allegro.tech.hermes.consumers.health.HealthCheckServer;
@@ -64,11 +70,13 @@ public class ConsumersBinder extends AbstractBinder {
         bindFactory(MessageCommitterFactory.class).in(Singleton.class).to(new TypeLiteral<List<MessageCommitter>>() {
         });
         bind(MessageBodyInterpolator.class).in(Singleton.class).to(UriInterpolator.class);
-        bind(InterpolatingEndpointAddressResolver.class).to(EndpointAddressResolver.class).in(Singleton.class);
+        bindFactory(EndpointAddressResolverFactory.class).in(Singleton.class).to(EndpointAddressResolver.class);
         bind(JmsHornetQMessageSenderProvider.class).to(ProtocolMessageSenderProvider.class)
                 .in(Singleton.class).named("defaultJmsMessageSenderProvider");
         bind(JettyHttpMessageSenderProvider.class).to(ProtocolMessageSenderProvider.class)
                 .in(Singleton.class).named("defaultHttpMessageSenderProvider");
+        bind(PullMessageSenderProvider.class).to(ProtocolMessageSenderProvider.class)
+                .in(Singleton.class).named("defaultPullMessageSenderProvider");
 
         bindSingleton(ConsumersSupervisor.class);
         bindSingleton(MessageSenderFactory.class);
@@ -79,6 +87,9 @@ public class ConsumersBinder extends AbstractBinder {
         bindSingleton(ZookeeperAdminCache.class);
         bindSingleton(InstrumentedExecutorServiceFactory.class);
         bindSingleton(ConsumerMessageSenderFactory.class);
+        bindSingleton(MemoryBudget.class);
+        bindSingleton(PayloadBufferPool.class);
+        bindSingleton(AggregatingFailureLog.class);
         bindSingleton(NoOperationMessageConverter.class);
         bindSingleton(AvroToJsonMessageConverter.class);
         bindSingleton(MessageConverterResolver.class);
@@ -88,6 +99,8 @@ public class ConsumersBinder extends AbstractBinder {
         bindFactory(OffsetStoragesFactory.class).in(Singleton.class).to(new TypeLiteral<List<OffsetsStorage>>() {});
         bindFactory(FutureAsyncTimeoutFactory.class).in(Singleton.class).to(new TypeLiteral<FutureAsyncTimeout<MessageSendingResult>>(){});
         bindFactory(HttpClientFactory.class).in(Singleton.class).to(HttpClient.class);
+        bindSingleton(DedicatedHttpClientFactory.class);
+        bindSingleton(RequestBodyCompressor.class);
         bindFactory(ZookeeperSubscriptionsCacheFactory.class).to(SubscriptionsCache.class).in(Singleton.class);
 
         bindFactory(UndeliveredMessageLogFactory.class).in(Singleton.class).to(UndeliveredMessageLog.class);
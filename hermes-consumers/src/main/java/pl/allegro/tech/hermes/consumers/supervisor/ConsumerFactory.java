@@ -7,6 +7,8 @@ import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.common.time.Clock;
 import pl.allegro.tech.hermes.consumers.consumer.Consumer;
 import pl.allegro.tech.hermes.consumers.consumer.ConsumerMessageSenderFactory;
+import pl.allegro.tech.hermes.consumers.consumer.budget.MemoryBudget;
+import pl.allegro.tech.hermes.consumers.consumer.budget.SubscriptionMemoryBudget;
 import pl.allegro.tech.hermes.consumers.consumer.converter.MessageConverterResolver;
 import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionOffsetCommitQueues;
 import pl.allegro.tech.hermes.consumers.consumer.rate.ConsumerRateLimitSupervisor;
@@ -33,6 +35,7 @@ public class ConsumerFactory {
     private final Clock clock;
     private final TopicRepository topicRepository;
     private final MessageConverterResolver messageConverterResolver;
+    private final MemoryBudget memoryBudget;
 
     @Inject
     public ConsumerFactory(ReceiverFactory messageReceiverFactory,
@@ -44,7 +47,8 @@ public class ConsumerFactory {
             ConsumerMessageSenderFactory consumerMessageSenderFactory,
             Clock clock,
             TopicRepository topicRepository,
-            MessageConverterResolver messageConverterResolver) {
+            MessageConverterResolver messageConverterResolver,
+            MemoryBudget memoryBudget) {
 
         this.messageReceiverFactory = messageReceiverFactory;
         this.hermesMetrics = hermesMetrics;
@@ -56,6 +60,7 @@ public class ConsumerFactory {
         this.clock = clock;
         this.topicRepository = topicRepository;
         this.messageConverterResolver = messageConverterResolver;
+        this.memoryBudget = memoryBudget;
     }
 
     Consumer createConsumer(Subscription subscription) {
@@ -66,6 +71,7 @@ public class ConsumerFactory {
                 consumerRateLimitSupervisor);
 
         Semaphore inflightSemaphore = new Semaphore(configFactory.getIntProperty(CONSUMER_INFLIGHT_SIZE));
+        SubscriptionMemoryBudget subscriptionMemoryBudget = memoryBudget.forSubscription(subscription);
 
         Topic topic = topicRepository.getTopicDetails(subscription.getTopicName());
 
@@ -75,8 +81,10 @@ public class ConsumerFactory {
             subscription,
             consumerRateLimiter,
             subscriptionOffsetCommitQueues,
-            consumerMessageSenderFactory.create(subscription, consumerRateLimiter, subscriptionOffsetCommitQueues, inflightSemaphore),
+            consumerMessageSenderFactory.create(subscription, consumerRateLimiter, subscriptionOffsetCommitQueues,
+                    inflightSemaphore, subscriptionMemoryBudget),
             inflightSemaphore,
+            subscriptionMemoryBudget,
             trackers,
             messageConverterResolver,
             topic);
@@ -13,6 +13,8 @@ import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.common.metric.Meters;
 import pl.allegro.tech.hermes.common.metric.timer.ConsumerLatencyTimer;
+import pl.allegro.tech.hermes.consumers.consumer.budget.SubscriptionMemoryBudget;
+import pl.allegro.tech.hermes.consumers.consumer.logging.AggregatingFailureLog;
 import pl.allegro.tech.hermes.consumers.consumer.rate.ConsumerRateLimiter;
 import pl.allegro.tech.hermes.consumers.consumer.result.ErrorHandler;
 import pl.allegro.tech.hermes.consumers.consumer.result.SuccessHandler;
@@ -21,8 +23,10 @@ import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeout;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
@@ -32,6 +36,7 @@ import static pl.allegro.tech.hermes.api.EndpointAddress.of;
 import static pl.allegro.tech.hermes.api.Subscription.Builder.subscription;
 import static pl.allegro.tech.hermes.api.SubscriptionPolicy.Builder.subscriptionPolicy;
 import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.failedResult;
+import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.redeliveryResult;
 import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.succeededResult;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -69,6 +74,12 @@ public class ConsumerMessageSenderTest {
     @Mock
     private Meter errors;
 
+    @Mock
+    private SubscriptionMemoryBudget memoryBudget;
+
+    @Mock
+    private AggregatingFailureLog failureLog;
+
     private Semaphore inflightSemaphore;
 
     private ConsumerMessageSender sender;
@@ -100,6 +111,7 @@ public class ConsumerMessageSenderTest {
 
         // then
         verifySemaphoreReleased();
+        verify(memoryBudget).release(message);
         verifyRateLimiterSuccessfulSendingCountedTimes(1);
         verifyLatencyTimersCountedTimes(1, 1);
         verifyZeroInteractions(errorHandler);
@@ -160,6 +172,51 @@ public class ConsumerMessageSenderTest {
         verifyRateLimiterFailedSendingCountedTimes(1);
     }
 
+    @Test
+    public void shouldStopMessageSenderImmediatelyWhenNoRequestIsInFlight() {
+        // when
+        sender.shutdown();
+
+        // then
+        verify(messageSender).stop();
+    }
+
+    @Test
+    public void shouldLetRequestInFlightCompleteBeforeStoppingMessageSender() {
+        // given
+        Message message = message();
+        CompletableFuture<MessageSendingResult> inflight = new CompletableFuture<>();
+        when(messageSender.send(message)).thenReturn(inflight);
+        sender.sendMessage(message);
+
+        // when
+        sender.shutdown();
+
+        // then
+        verify(messageSender, never()).stop();
+        inflight.complete(succeededResult());
+        verify(successHandler, timeout(1000)).handle(eq(message), eq(subscription), any(MessageSendingResult.class));
+        verify(messageSender, timeout(1000)).stop();
+        verifySemaphoreReleased();
+    }
+
+    @Test
+    public void shouldRedeliverMessageWithoutCountingFailureWhenRedeliveryIsRequested() {
+        // given
+        Message message = messageWithTimestamp(System.currentTimeMillis() - 11000);
+        doReturn(redelivery()).doReturn(success()).when(messageSender).send(message);
+
+        // when
+        sender.sendMessage(message);
+        verify(successHandler, timeout(1000)).handle(eq(message), eq(subscription), any(MessageSendingResult.class));
+
+        // then
+        verifySemaphoreReleased();
+        verifyRateLimiterFailedSendingCountedTimes(0);
+        verifyZeroInteractions(errorHandler);
+        verifyZeroInteractions(failedMeter);
+    }
+
     @Test
     public void shouldNotKeepTryingToSendMessageFailedWithStatusCode4xx() throws InterruptedException {
         // given
@@ -269,10 +326,78 @@ public class ConsumerMessageSenderTest {
         verifyErrorHandlerHandleFailed(message, subscriptionWithBackoff, 1 + executionTime / senderBackoffTime);
     }
 
+    @Test
+    public void shouldDeliverMessageWithTheSameKeyAfterPreviousOneIsProcessed() {
+        // given
+        Subscription subscriptionWithKeyOrdering = subscriptionBuilderWithTestValues()
+                .withSubscriptionPolicy(subscriptionPolicy().applyDefaults().withKeyOrderingLanes(10).build())
+                .build();
+        setUpMetrics(subscriptionWithKeyOrdering);
+        sender = consumerMessageSender(subscriptionWithKeyOrdering);
+
+        Message first = messageWithKey(1, "key");
+        Message second = messageWithKey(2, "key");
+        Message otherKey = messageWithKey(3, "other");
+        CompletableFuture<MessageSendingResult> firstResult = new CompletableFuture<>();
+        when(messageSender.send(first)).thenReturn(firstResult);
+        when(messageSender.send(second)).thenReturn(success());
+        when(messageSender.send(otherKey)).thenReturn(success());
+
+        // when
+        sender.sendMessage(first);
+        sender.sendMessage(second);
+        sender.sendMessage(otherKey);
+
+        // then
+        verify(messageSender).send(otherKey);
+        verify(messageSender, never()).send(second);
+
+        firstResult.complete(succeededResult());
+        verify(messageSender, timeout(1000).times(3)).send(any(Message.class));
+        verify(messageSender).send(second);
+    }
+
+    @Test
+    public void shouldNotDelayMessageOfKeyBehindRetriesOfUnrelatedMessages() throws InterruptedException {
+        // given
+        Subscription subscriptionWithKeyOrdering = subscriptionBuilderWithTestValues()
+                .withSubscriptionPolicy(subscriptionPolicy().applyDefaults().withKeyOrderingLanes(10).build())
+                .build();
+        setUpMetrics(subscriptionWithKeyOrdering);
+        sender = consumerMessageSender(subscriptionWithKeyOrdering);
+
+        Message retried = messageWithKey(1, "retried");
+        Message first = messageWithKey(2, "key");
+        Message second = messageWithKey(3, "key");
+        CountDownLatch retryStarted = new CountDownLatch(1);
+        CountDownLatch retryFinished = new CountDownLatch(1);
+        doReturn(failure()).doAnswer(invocation -> {
+            retryStarted.countDown();
+            retryFinished.await();
+            return success();
+        }).when(messageSender).send(retried);
+        CompletableFuture<MessageSendingResult> firstResult = new CompletableFuture<>();
+        when(messageSender.send(first)).thenReturn(firstResult);
+        when(messageSender.send(second)).thenReturn(success());
+
+        sender.sendMessage(retried);
+        assertThat(retryStarted.await(1, TimeUnit.SECONDS)).isTrue();
+        sender.sendMessage(first);
+        sender.sendMessage(second);
+
+        // when
+        firstResult.complete(succeededResult());
+
+        // then
+        verify(messageSender, timeout(1000).times(4)).send(any(Message.class));
+        verify(messageSender).send(second);
+        retryFinished.countDown();
+    }
+
     private ConsumerMessageSender consumerMessageSender(Subscription subscription) {
         return new ConsumerMessageSender(subscription, messageSender, successHandler, errorHandler, rateLimiter,
-                Executors.newSingleThreadExecutor(), inflightSemaphore, hermesMetrics, ASYNC_TIMEOUT_MS,
-                new FutureAsyncTimeout<>(MessageSendingResult::loggedFailResult, Executors.newSingleThreadScheduledExecutor()));
+                Executors.newSingleThreadExecutor(), inflightSemaphore, memoryBudget, hermesMetrics, ASYNC_TIMEOUT_MS,
+                new FutureAsyncTimeout<>(MessageSendingResult::loggedFailResult, Executors.newSingleThreadScheduledExecutor()), failureLog);
     }
 
     private void verifyRateLimiterSuccessfulSendingCountedTimes(int count) {
@@ -338,6 +463,10 @@ public class ConsumerMessageSenderTest {
         return CompletableFuture.completedFuture(failedResult(exception()));
     }
 
+    private CompletableFuture<MessageSendingResult> redelivery() {
+        return CompletableFuture.completedFuture(redeliveryResult(exception()));
+    }
+
     private CompletableFuture<MessageSendingResult> failure(int statusCode) {
         return CompletableFuture.completedFuture(failedResult(statusCode));
     }
@@ -350,6 +479,11 @@ public class ConsumerMessageSenderTest {
         return messageWithTimestamp(System.currentTimeMillis());
     }
 
+    private Message messageWithKey(long offset, String key) {
+        return new Message("id", "topic", "{\"username\":\"ala\"}".getBytes(), Topic.ContentType.JSON, 122424L,
+                System.currentTimeMillis(), new PartitionOffset(KafkaTopicName.valueOf("kafka_topic"), offset, 0), key);
+    }
+
     private Message messageWithTimestamp(long timestamp) {
         return new Message("id", "topic", "{\"username\":\"ala\"}".getBytes(), Topic.ContentType.JSON, 122424L, timestamp,
                 new PartitionOffset(KafkaTopicName.valueOf("kafka_topic"), 10, 0));
@@ -15,6 +15,7 @@ import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
 import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
 import pl.allegro.tech.hermes.common.message.undelivered.UndeliveredMessageLog;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.consumers.consumer.budget.SubscriptionMemoryBudget;
 import pl.allegro.tech.hermes.consumers.consumer.converter.MessageConverterResolver;
 import pl.allegro.tech.hermes.consumers.consumer.converter.NoOperationMessageConverter;
 import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionOffsetCommitQueues;
@@ -24,6 +25,7 @@ import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceivingTimeou
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.tracker.consumers.Trackers;
 
+import java.util.Collections;
 import java.util.concurrent.Semaphore;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -83,6 +85,9 @@ public class ConsumerTest {
     @Mock
     Semaphore infligtSemaphore;
 
+    @Mock
+    private SubscriptionMemoryBudget memoryBudget;
+
     @Mock
     private  ConsumerMessageSender sender;
 
@@ -94,8 +99,10 @@ public class ConsumerTest {
         when(configFactory.getIntProperty(Configs.REPORT_PERIOD)).thenReturn(10);
         when(configFactory.getIntProperty(Configs.CONSUMER_INFLIGHT_SIZE)).thenReturn(50);
         when(messageConverterResolver.converterFor(any(Message.class), any(Topic.class))).thenReturn(new NoOperationMessageConverter());
+        when(messageConverterResolver.projectionFor(any(Subscription.class))).thenReturn(new NoOperationMessageConverter());
+        when(memoryBudget.tryReserve(any(Message.class), anyLong())).thenReturn(true);
         consumer = spy(new Consumer(messageReceiver, hermesMetrics, SUBSCRIPTION,
-                consumerRateLimiter, partitionOffsetHelper, sender, infligtSemaphore, trackers, messageConverterResolver, TOPIC));
+                consumerRateLimiter, partitionOffsetHelper, sender, infligtSemaphore, memoryBudget, trackers, messageConverterResolver, TOPIC));
     }
 
     @Test
@@ -148,6 +155,71 @@ public class ConsumerTest {
         verify(hermesMetrics).incrementInflightCounter(SUBSCRIPTION);
     }
 
+    @Test
+    public void shouldMarkFilteredOutMessageAsDeliveredWithoutSendingIt() {
+        // given
+        Subscription filteredSubscription = subscription().applyDefaults()
+                .withTopicName(new TopicName("group", "topic"))
+                .withName("subscription")
+                .withFilters(Collections.singletonList(MessageFilterSpecification.equalTo("username", "ola")))
+                .build();
+        consumer = spy(new Consumer(messageReceiver, hermesMetrics, filteredSubscription,
+                consumerRateLimiter, partitionOffsetHelper, sender, infligtSemaphore, memoryBudget, trackers, messageConverterResolver, TOPIC));
+        when(messageReceiver.next()).thenReturn(MESSAGE);
+        doReturn(true).doReturn(false).when(consumer).isConsuming();
+
+        // when
+        consumer.run();
+
+        // then
+        verify(sender, never()).sendMessage(any(Message.class));
+        verify(partitionOffsetHelper).remove(MESSAGE);
+        verify(infligtSemaphore).release();
+    }
+
+    @Test
+    public void shouldSendMessageMatchingFilters() {
+        // given
+        Subscription filteredSubscription = subscription().applyDefaults()
+                .withTopicName(new TopicName("group", "topic"))
+                .withName("subscription")
+                .withFilters(Collections.singletonList(MessageFilterSpecification.in("username", "ala", "ola")))
+                .build();
+        consumer = spy(new Consumer(messageReceiver, hermesMetrics, filteredSubscription,
+                consumerRateLimiter, partitionOffsetHelper, sender, infligtSemaphore, memoryBudget, trackers, messageConverterResolver, TOPIC));
+        when(messageReceiver.next()).thenReturn(MESSAGE);
+        doReturn(true).doReturn(false).when(consumer).isConsuming();
+
+        // when
+        consumer.run();
+
+        // then
+        verify(sender).sendMessage(MESSAGE);
+    }
+
+    @Test
+    public void shouldDiscardMessageWhichCouldNotBeFilteredAndKeepConsuming() {
+        // given
+        Subscription filteredSubscription = subscription().applyDefaults()
+                .withTopicName(new TopicName("group", "topic"))
+                .withName("subscription")
+                .withFilters(Collections.singletonList(new MessageFilterSpecification(
+                        "username", MessageFilterSpecification.Matcher.PREFIX, null, null)))
+                .build();
+        consumer = spy(new Consumer(messageReceiver, hermesMetrics, filteredSubscription,
+                consumerRateLimiter, partitionOffsetHelper, sender, infligtSemaphore, memoryBudget, trackers, messageConverterResolver, TOPIC));
+        when(messageReceiver.next()).thenReturn(MESSAGE);
+        doReturn(true).doReturn(true).doReturn(false).when(consumer).isConsuming();
+
+        // when
+        consumer.run();
+
+        // then
+        verify(sender, never()).sendMessage(any(Message.class));
+        verify(partitionOffsetHelper, times(2)).remove(MESSAGE);
+        verify(infligtSemaphore, times(2)).release();
+    }
+
     @Test
     public void shouldStopConsuming() {
         consumer.stopConsuming();
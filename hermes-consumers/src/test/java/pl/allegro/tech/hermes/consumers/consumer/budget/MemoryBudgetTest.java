@@ -0,0 +1,150 @@
+package pl.allegro.tech.hermes.consumers.consumer.budget;
+
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.jayway.awaitility.Awaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static pl.allegro.tech.hermes.api.Subscription.Builder.subscription;
+import static pl.allegro.tech.hermes.consumers.test.MessageBuilder.message;
+
+public class MemoryBudgetTest {
+
+    private static final Subscription FIRST = subscription().withTopicName("group", "topic").withName("first").build();
+    private static final Subscription SECOND = subscription().withTopicName("group", "topic").withName("second").build();
+
+    private final HermesMetrics hermesMetrics = mock(HermesMetrics.class);
+
+    @Test
+    public void shouldNotReserveMessageExceedingBudget() throws InterruptedException {
+        // given
+        MemoryBudget budget = new MemoryBudget(100, hermesMetrics);
+        SubscriptionMemoryBudget subscriptionBudget = budget.forSubscription(FIRST);
+        subscriptionBudget.tryReserve(messageOfSize(60), 0);
+
+        // when
+        boolean reserved = subscriptionBudget.tryReserve(messageOfSize(60), 0);
+
+        // then
+        assertThat(reserved).isFalse();
+        assertThat(budget.getUsedBytes()).isEqualTo(60);
+    }
+
+    @Test
+    public void shouldAlwaysReserveFirstMessageOfSubscription() throws InterruptedException {
+        // given
+        MemoryBudget budget = new MemoryBudget(100, hermesMetrics);
+        budget.forSubscription(FIRST).tryReserve(messageOfSize(100), 0);
+
+        // when
+        boolean reserved = budget.forSubscription(SECOND).tryReserve(messageOfSize(150), 0);
+
+        // then
+        assertThat(reserved).isTrue();
+        assertThat(budget.getUsedBytes()).isEqualTo(250);
+    }
+
+    @Test
+    public void shouldLetSubscriptionExceedItsShareWhenNobodyWaitsForBudget() throws InterruptedException {
+        // given
+        MemoryBudget budget = new MemoryBudget(100, hermesMetrics);
+        SubscriptionMemoryBudget first = budget.forSubscription(FIRST);
+        first.tryReserve(messageOfSize(40), 0);
+        budget.forSubscription(SECOND).tryReserve(messageOfSize(10), 0);
+
+        // when
+        boolean reserved = first.tryReserve(messageOfSize(20), 0);
+
+        // then
+        assertThat(reserved).isTrue();
+        assertThat(first.getReservedBytes()).isEqualTo(60);
+    }
+
+    @Test
+    public void shouldLimitSubscriptionToItsShareWhenOthersWaitForBudget() throws InterruptedException {
+        // given
+        MemoryBudget budget = new MemoryBudget(100, hermesMetrics);
+        SubscriptionMemoryBudget first = budget.forSubscription(FIRST);
+        SubscriptionMemoryBudget second = budget.forSubscription(SECOND);
+        first.tryReserve(messageOfSize(40), 0);
+        second.tryReserve(messageOfSize(10), 0);
+        new Thread(() -> {
+            try {
+                second.tryReserve(messageOfSize(60), 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }).start();
+        await().atMost(1, TimeUnit.SECONDS).until(() -> budget.getWaitingSubscriptions() == 1);
+
+        // when
+        boolean reserved = first.tryReserve(messageOfSize(20), 0);
+
+        // then
+        assertThat(reserved).isFalse();
+        assertThat(first.getReservedBytes()).isEqualTo(40);
+    }
+
+    @Test
+    public void shouldReserveWaitingMessageAfterRelease() throws InterruptedException {
+        // given
+        MemoryBudget budget = new MemoryBudget(100, hermesMetrics);
+        SubscriptionMemoryBudget subscriptionBudget = budget.forSubscription(FIRST);
+        Message first = messageOfSize(60);
+        subscriptionBudget.tryReserve(first, 0);
+        subscriptionBudget.tryReserve(messageOfSize(30), 0);
+
+        // when
+        new Thread(() -> subscriptionBudget.release(first)).start();
+        boolean reserved = subscriptionBudget.tryReserve(messageOfSize(60), 1000);
+
+        // then
+        assertThat(reserved).isTrue();
+        assertThat(budget.getUsedBytes()).isEqualTo(90);
+    }
+
+    @Test
+    public void shouldReturnBytesOfMessagesInFlightWhenSubscriptionIsRestarted() throws InterruptedException {
+        // given
+        MemoryBudget budget = new MemoryBudget(100, hermesMetrics);
+        SubscriptionMemoryBudget stopped = budget.forSubscription(FIRST);
+        Message inFlight = messageOfSize(60);
+        stopped.tryReserve(inFlight, 0);
+        stopped.close();
+
+        // when
+        SubscriptionMemoryBudget restarted = budget.forSubscription(FIRST);
+        restarted.tryReserve(messageOfSize(60), 0);
+        boolean reserved = restarted.tryReserve(messageOfSize(30), 0);
+        stopped.release(inFlight);
+
+        // then
+        assertThat(reserved).isTrue();
+        assertThat(budget.getUsedBytes()).isEqualTo(90);
+        assertThat(restarted.getReservedBytes()).isEqualTo(90);
+    }
+
+    @Test
+    public void shouldNotLimitWhenBudgetIsDisabled() throws InterruptedException {
+        // given
+        MemoryBudget budget = new MemoryBudget(0, hermesMetrics);
+        SubscriptionMemoryBudget subscriptionBudget = budget.forSubscription(FIRST);
+        subscriptionBudget.tryReserve(messageOfSize(1000), 0);
+
+        // when
+        boolean reserved = subscriptionBudget.tryReserve(messageOfSize(1000), 0);
+
+        // then
+        assertThat(reserved).isTrue();
+        assertThat(budget.getUsedBytes()).isZero();
+    }
+
+    private Message messageOfSize(int bytes) {
+        return message(new String(new char[bytes])).build();
+    }
+}
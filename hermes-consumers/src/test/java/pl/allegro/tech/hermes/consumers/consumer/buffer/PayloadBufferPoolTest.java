@@ -0,0 +1,107 @@
+package pl.allegro.tech.hermes.consumers.consumer.buffer;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PayloadBufferPoolTest {
+
+    private static final byte[] SOURCE = "{\"wrapped\":{\"a\":1}}".getBytes();
+
+    @Test
+    public void shouldCopyRangeOfSource() {
+        // given
+        PayloadBufferPool pool = new PayloadBufferPool(1024, 1024);
+
+        // when
+        PayloadBuffer buffer = pool.copyOf(SOURCE, 11, 7);
+
+        // then
+        assertThat(new String(buffer.toBytes())).isEqualTo("{\"a\":1}");
+        assertThat(buffer.array().length).isEqualTo(256);
+    }
+
+    @Test
+    public void shouldCompareBuffersByPayloadOnly() {
+        // given
+        PayloadBufferPool pool = new PayloadBufferPool(1024, 1024);
+
+        // when
+        PayloadBuffer pooled = pool.copyOf(SOURCE, 11, 7);
+        PayloadBuffer wrapped = PayloadBuffer.wrap("{\"a\":1}".getBytes());
+
+        // then
+        assertThat(pooled).isEqualTo(wrapped);
+        assertThat(pooled.hashCode()).isEqualTo(wrapped.hashCode());
+        assertThat(pooled).isNotEqualTo(pool.copyOf(SOURCE, 11, 6));
+    }
+
+    @Test
+    public void shouldReuseReleasedArray() {
+        // given
+        PayloadBufferPool pool = new PayloadBufferPool(1024, 1024);
+        PayloadBuffer first = pool.copyOf(SOURCE, 0, SOURCE.length);
+        byte[] array = first.array();
+
+        // when
+        first.release();
+        PayloadBuffer second = pool.copyOf(SOURCE, 0, 10);
+
+        // then
+        assertThat(second.array()).isSameAs(array);
+        assertThat(pool.getPooledBytes()).isZero();
+    }
+
+    @Test
+    public void shouldReturnArrayToPoolOnlyWhenLastReferenceIsReleased() {
+        // given
+        PayloadBufferPool pool = new PayloadBufferPool(1024, 1024);
+        PayloadBuffer buffer = pool.copyOf(SOURCE, 0, SOURCE.length).retain();
+
+        // when
+        buffer.release();
+
+        // then
+        assertThat(pool.getPooledBytes()).isZero();
+        buffer.release();
+        assertThat(pool.getPooledBytes()).isEqualTo(256);
+    }
+
+    @Test
+    public void shouldNotPoolPayloadsLargerThanMaxBuffer() {
+        // given
+        PayloadBufferPool pool = new PayloadBufferPool(1024, 8);
+
+        // when
+        PayloadBuffer buffer = pool.copyOf(SOURCE, 0, SOURCE.length);
+        buffer.release();
+
+        // then
+        assertThat(pool.getPooledBytes()).isZero();
+    }
+
+    @Test
+    public void shouldNotKeepMoreBytesThanPoolSize() {
+        // given
+        PayloadBufferPool pool = new PayloadBufferPool(256, 1024);
+        PayloadBuffer first = pool.copyOf(SOURCE, 0, SOURCE.length);
+        PayloadBuffer second = pool.copyOf(SOURCE, 0, SOURCE.length);
+
+        // when
+        first.release();
+        second.release();
+
+        // then
+        assertThat(pool.getPooledBytes()).isEqualTo(256);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAllowUsingReleasedBuffer() {
+        // given
+        PayloadBuffer buffer = new PayloadBufferPool(1024, 1024).copyOf(SOURCE, 0, SOURCE.length);
+        buffer.release();
+
+        // when
+        buffer.array();
+    }
+}
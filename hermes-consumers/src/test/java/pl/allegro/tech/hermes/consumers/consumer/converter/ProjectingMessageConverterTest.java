@@ -0,0 +1,57 @@
+package pl.allegro.tech.hermes.consumers.consumer.converter;
+
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.allegro.tech.hermes.consumers.test.MessageBuilder.message;
+
+public class ProjectingMessageConverterTest {
+
+    private static final Topic TOPIC = Topic.Builder.topic().withName("group.topic").build();
+
+    @Test
+    public void shouldDeliverOnlyProjectedFields() {
+        // given
+        ProjectingMessageConverter converter = new ProjectingMessageConverter(Arrays.asList("id", "user.name", "$.tags"));
+        Message message = message(
+                "{\"id\": 1, \"payload\": {\"big\": [1, 2, 3]}, \"user\": {\"name\": \"john\", \"age\": 30}, \"tags\": [\"a\"]}"
+        ).build();
+
+        // when
+        Message projected = converter.convert(message, TOPIC);
+
+        // then
+        assertThat(new String(projected.getData())).isEqualTo("{\"id\":1,\"user\":{\"name\":\"john\"},\"tags\":[\"a\"]}");
+        assertThat(projected.getId()).isEqualTo(message.getId());
+    }
+
+    @Test
+    public void shouldCopyWholeObjectWhenProjectedPathPointsToIt() {
+        // given
+        ProjectingMessageConverter converter = new ProjectingMessageConverter(Arrays.asList("user", "user.name"));
+
+        // when
+        Message projected = converter.convert(message("{\"user\": {\"name\": \"john\", \"age\": 30}, \"id\": 1}").build(), TOPIC);
+
+        // then
+        assertThat(new String(projected.getData())).isEqualTo("{\"user\":{\"name\":\"john\",\"age\":30}}");
+    }
+
+    @Test
+    public void shouldDeliverWholeMessageWhenItIsNotJsonObject() {
+        // given
+        ProjectingMessageConverter converter = new ProjectingMessageConverter(Collections.singletonList("id"));
+        Message message = message("not a json").build();
+
+        // when
+        Message projected = converter.convert(message, TOPIC);
+
+        // then
+        assertThat(projected).isSameAs(message);
+    }
+}
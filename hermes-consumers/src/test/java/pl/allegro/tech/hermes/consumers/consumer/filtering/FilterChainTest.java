@@ -0,0 +1,67 @@
+package pl.allegro.tech.hermes.consumers.consumer.filtering;
+
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.MessageFilterSpecification;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.allegro.tech.hermes.api.MessageFilterSpecification.equalTo;
+import static pl.allegro.tech.hermes.api.MessageFilterSpecification.in;
+import static pl.allegro.tech.hermes.api.MessageFilterSpecification.startingWith;
+import static pl.allegro.tech.hermes.consumers.test.MessageBuilder.message;
+
+public class FilterChainTest {
+
+    private static final String PAYLOAD = "{\"user\": {\"id\": \"user-123\", \"country\": \"PL\", \"age\": 30}, \"type\": \"created\"}";
+
+    @Test
+    public void shouldMatchEveryMessageWithoutFilters() {
+        // when & then
+        assertThat(FilterChain.compile(null).matches(message(PAYLOAD).build())).isTrue();
+        assertThat(FilterChain.compile(Collections.<MessageFilterSpecification>emptyList()).matches(message("not json").build())).isTrue();
+    }
+
+    @Test
+    public void shouldMatchMessageSatisfyingAllFilters() {
+        // given
+        FilterChain chain = FilterChain.compile(Arrays.asList(
+                equalTo("user.country", "PL"),
+                startingWith("user.id", "user-"),
+                in("type", "created", "updated"),
+                equalTo("user.age", "30")));
+
+        // when & then
+        assertThat(chain.matches(message(PAYLOAD).build())).isTrue();
+    }
+
+    @Test
+    public void shouldNotMatchMessageFailingAnyFilter() {
+        // given
+        FilterChain chain = FilterChain.compile(Arrays.asList(
+                equalTo("user.country", "PL"),
+                in("type", "deleted")));
+
+        // when & then
+        assertThat(chain.matches(message(PAYLOAD).build())).isFalse();
+    }
+
+    @Test
+    public void shouldNotMatchMessageWithoutFilteredField() {
+        // given
+        FilterChain chain = FilterChain.compile(Collections.singletonList(startingWith("user.name", "a")));
+
+        // when & then
+        assertThat(chain.matches(message(PAYLOAD).build())).isFalse();
+    }
+
+    @Test
+    public void shouldDeliverMessageWhichIsNotJson() {
+        // given
+        FilterChain chain = FilterChain.compile(Collections.singletonList(equalTo("type", "created")));
+
+        // when & then
+        assertThat(chain.matches(message("{not json").build())).isTrue();
+    }
+}
@@ -111,4 +111,15 @@ public class MessageBodyInterpolatorTest {
         // then
         assertThat(interpolated).isEqualTo(expectedEndpoint);
     }
-}
\ No newline at end of file
+
+    @Test(expected = InterpolationException.class)
+    public void willThrowExceptionOnMalformedPayload() throws InterpolationException {
+        // given
+        EndpointAddress endpoint = EndpointAddress.of("http://some.endpoint.com/{some.object}");
+        Message msg = new Message("id", "some.topic", "{\"some\": ".getBytes(), Topic.ContentType.JSON, 1232443L, 12324434L,
+                new PartitionOffset(KAFKA_TOPIC, 0, 0));
+
+        // when
+        new MessageBodyInterpolator().interpolate(endpoint, msg);
+    }
+}
@@ -0,0 +1,75 @@
+package pl.allegro.tech.hermes.consumers.consumer.json;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonFieldsExtractorTest {
+
+    @Test
+    public void shouldExtractNestedValues() throws Exception {
+        // given
+        JsonFieldsExtractor extractor = JsonFieldsExtractor.compile(Arrays.asList("a", "b.c", "b.d.e"));
+        String json = "{\"x\": [1, {\"a\": 0}], \"b\": {\"c\": true, \"d\": {\"e\": 1.5}}, \"a\": \"value\"}";
+
+        // when
+        Map<String, Object> values = extractor.extract(json.getBytes());
+
+        // then
+        assertThat(values).isEqualTo(ImmutableMap.of("a", "value", "b.c", true, "b.d.e", 1.5));
+    }
+
+    @Test
+    public void shouldExtractObjectAndItsFields() throws Exception {
+        // given
+        JsonFieldsExtractor extractor = JsonFieldsExtractor.compile(Arrays.asList("a", "a.b"));
+
+        // when
+        Map<String, Object> values = extractor.extract("{\"a\": {\"b\": 1}}".getBytes());
+
+        // then
+        assertThat(values.get("a")).isEqualTo(ImmutableMap.of("b", 1));
+        assertThat(values.get("a.b")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldAcceptJsonPathRootPrefix() throws Exception {
+        // given
+        JsonFieldsExtractor extractor = JsonFieldsExtractor.compile(Collections.singletonList("$.a.b"));
+
+        // when
+        Map<String, Object> values = extractor.extract("{\"a\": {\"b\": \"c\"}}".getBytes());
+
+        // then
+        assertThat(values).isEqualTo(ImmutableMap.of("$.a.b", "c"));
+    }
+
+    @Test
+    public void shouldSkipMissingPaths() throws Exception {
+        // given
+        JsonFieldsExtractor extractor = JsonFieldsExtractor.compile(Arrays.asList("a.b", "c"));
+
+        // when
+        Map<String, Object> values = extractor.extract("{\"a\": 1, \"c\": null}".getBytes());
+
+        // then
+        assertThat(values).containsOnlyKeys("c");
+    }
+
+    @Test
+    public void shouldStopReadingWhenAllPathsFound() throws Exception {
+        // given
+        JsonFieldsExtractor extractor = JsonFieldsExtractor.compile(Collections.singletonList("a"));
+
+        // when
+        Map<String, Object> values = extractor.extract("{\"a\": 1, \"rest\": this is not json".getBytes());
+
+        // then
+        assertThat(values).isEqualTo(ImmutableMap.of("a", 1));
+    }
+}
@@ -0,0 +1,84 @@
+package pl.allegro.tech.hermes.consumers.consumer.logging;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import java.util.function.Supplier;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AggregatingFailureLogTest {
+
+    private static final RuntimeException FAILURE = new RuntimeException("Connection refused");
+
+    private final Logger logger = mock(Logger.class);
+
+    private final AggregatingFailureLog failureLog = new AggregatingFailureLog(60);
+
+    {
+        when(logger.getName()).thenReturn("test");
+        when(logger.isInfoEnabled()).thenReturn(true);
+    }
+
+    @Test
+    public void shouldLogOnlyFirstOfRepeatedFailures() {
+        // when
+        for (int i = 0; i < 5; i++) {
+            failureLog.info(logger, "sub", "Connection refused", FAILURE, () -> "details");
+        }
+
+        // then
+        verify(logger, times(1)).info("details", FAILURE);
+    }
+
+    @Test
+    public void shouldLogFailuresWithDifferentCauseSeparately() {
+        // when
+        failureLog.info(logger, "sub", "Connection refused", FAILURE, () -> "refused");
+        failureLog.info(logger, "sub", "Timeout", FAILURE, () -> "timeout");
+        failureLog.info(logger, "other", "Timeout", FAILURE, () -> "other timeout");
+
+        // then
+        verify(logger).info("refused", FAILURE);
+        verify(logger).info("timeout", FAILURE);
+        verify(logger).info("other timeout", FAILURE);
+    }
+
+    @Test
+    public void shouldSummarizeSuppressedFailuresAndLogDetailsAgainInNextPeriod() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            failureLog.info(logger, "sub", "Connection refused", FAILURE, () -> "details");
+        }
+
+        // when
+        failureLog.logSummaries();
+        failureLog.info(logger, "sub", "Connection refused", FAILURE, () -> "details");
+
+        // then
+        verify(logger).info(anyString(), eq(2L), eq(60), eq("sub"), eq("Connection refused"));
+        verify(logger, times(2)).info("details", FAILURE);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotFormatDetailsOfSuppressedFailures() {
+        // given
+        Supplier<String> details = mock(Supplier.class);
+        failureLog.info(logger, "sub", "Connection refused", FAILURE, () -> "first");
+
+        // when
+        failureLog.info(logger, "sub", "Connection refused", FAILURE, details);
+
+        // then
+        verify(details, never()).get();
+        verify(logger, times(1)).info(any(String.class), any(Throwable.class));
+    }
+}
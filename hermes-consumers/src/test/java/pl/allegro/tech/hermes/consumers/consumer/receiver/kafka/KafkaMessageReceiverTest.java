@@ -22,6 +22,8 @@ import pl.allegro.tech.hermes.common.message.wrapper.MessageMetadata;
 import pl.allegro.tech.hermes.common.message.wrapper.UnwrappedMessageContent;
 import pl.allegro.tech.hermes.common.time.SystemClock;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.buffer.PayloadBufferPool;
+import pl.allegro.tech.hermes.consumers.consumer.logging.AggregatingFailureLog;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceivingTimeoutException;
 
 import java.util.List;
@@ -63,6 +65,9 @@ public class KafkaMessageReceiverTest {
     @Mock
     private MessageAndMetadata<byte[], byte[]> messageAndMetadata;
 
+    @Mock
+    private AggregatingFailureLog failureLog;
+
     private KafkaNamesMapper kafkaNamesMapper = new KafkaNamesMapper("ns");
 
     private KafkaMessageReceiver kafkaMsgReceiver;
@@ -76,7 +81,8 @@ public class KafkaMessageReceiverTest {
         when(messageAndMetadata.message()).thenReturn(WRAPPED_MESSAGE_CONTENT.getBytes());
         when(messageContentWrapper.unwrap(WRAPPED_MESSAGE_CONTENT.getBytes(), TOPIC, TOPIC.getContentType())).thenReturn(new UnwrappedMessageContent(METADATA, CONTENT.getBytes()));
         kafkaMsgReceiver = new KafkaMessageReceiver(TOPIC, consumerConnector, messageContentWrapper,
-                timer, new SystemClock(), kafkaNamesMapper, KAFKA_STREAM_COUNT, 100, SubscriptionName.fromString("ns_group.topic$sub"));
+                timer, new SystemClock(), kafkaNamesMapper, KAFKA_STREAM_COUNT, 100, SubscriptionName.fromString("ns_group.topic$sub"),
+                new PayloadBufferPool(1024, 1024), failureLog);
     }
 
     @After
@@ -19,6 +19,7 @@ import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.common.time.Clock;
 import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionOffsetCommitQueues;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.logging.AggregatingFailureLog;
 import pl.allegro.tech.hermes.consumers.test.TestTrackers;
 
 import static org.mockito.Mockito.reset;
@@ -62,6 +63,9 @@ public class DefaultErrorHandlerTest {
     @Mock
     private Counter counter;
 
+    @Mock
+    private AggregatingFailureLog failureLog;
+
     private TestTrackers trackers = new TestTrackers();
 
     private DefaultErrorHandler defaultErrorHandler;
@@ -72,7 +76,7 @@ public class DefaultErrorHandlerTest {
         when(subscription.getName()).thenReturn(SUBSCRIPTION_NAME);
         when(subscription.getTopicName()).thenReturn(QUALIFIED_TOPIC_NAME);
         when(clock.getTime()).thenReturn(CURRENT_TIME);
-        defaultErrorHandler = new DefaultErrorHandler(offsetHelper, hermesMetrics, undeliveredMessageLog, clock, trackers, CLUSTER);
+        defaultErrorHandler = new DefaultErrorHandler(offsetHelper, hermesMetrics, undeliveredMessageLog, clock, trackers, CLUSTER, failureLog);
         reset(hermesMetrics);
     }
 
@@ -30,11 +30,12 @@ public class MessageSenderFactoryTest {
         Subscription subscription = subscription().withEndpoint(EndpointAddress.of(endpoint)).build();
 
         MessageSenderFactory messageSenderFactory = new MessageSenderFactory(
-            providersFrom("myProtocol", messageSenderProvider), defaultMessageSenderProvider, defaultMessageSenderProvider
+            providersFrom("myProtocol", messageSenderProvider), defaultMessageSenderProvider, defaultMessageSenderProvider,
+            defaultMessageSenderProvider
         );
 
         // when & then
-        assertThat(messageSenderFactory.create(subscription)).isEqualTo(messageSenderProvider.create(endpoint));
+        assertThat(messageSenderFactory.create(subscription)).isEqualTo(messageSenderProvider.create(subscription));
     }
 
     @Test
@@ -42,12 +43,12 @@ public class MessageSenderFactoryTest {
         // given
         final String endpoint = "http://192.168.0.1";
         MessageSenderFactory messageSenderFactory = new MessageSenderFactory(
-            new MessageSenderProviders(), messageSenderProvider, defaultMessageSenderProvider
+            new MessageSenderProviders(), messageSenderProvider, defaultMessageSenderProvider, defaultMessageSenderProvider
         );
         Subscription subscription = subscription().withEndpoint(EndpointAddress.of(endpoint)).build();
 
         // when & then
-        assertThat(messageSenderFactory.create(subscription)).isEqualTo(messageSenderProvider.create(endpoint));
+        assertThat(messageSenderFactory.create(subscription)).isEqualTo(messageSenderProvider.create(subscription));
     }
 
     @Test
@@ -55,19 +56,20 @@ public class MessageSenderFactoryTest {
         // given
         final String endpoint = "jms://192.168.0.1/topic";
         MessageSenderFactory messageSenderFactory = new MessageSenderFactory(
-                new MessageSenderProviders(), defaultMessageSenderProvider, messageSenderProvider
+                new MessageSenderProviders(), defaultMessageSenderProvider, messageSenderProvider, defaultMessageSenderProvider
         );
         Subscription subscription = subscription().withEndpoint(EndpointAddress.of(endpoint)).build();
 
         // when & then
-        assertThat(messageSenderFactory.create(subscription)).isEqualTo(messageSenderProvider.create(endpoint));
+        assertThat(messageSenderFactory.create(subscription)).isEqualTo(messageSenderProvider.create(subscription));
     }
 
     @Test
     public void shouldGetProtocolNotSupportedExceptionWhenPassingUnknownUri() {
         // given
         MessageSenderFactory messageSenderFactory = new MessageSenderFactory(
-            new MessageSenderProviders(), defaultMessageSenderProvider, defaultMessageSenderProvider
+            new MessageSenderProviders(), defaultMessageSenderProvider, defaultMessageSenderProvider,
+            defaultMessageSenderProvider
         );
         Subscription subscription = subscription().withEndpoint(EndpointAddress.of("unknown://localhost:8080/test")).build();
 
@@ -85,11 +87,12 @@ public class MessageSenderFactoryTest {
         final String endpoint = "http://service";
         Subscription subscription = subscription().withEndpoint(EndpointAddress.of(endpoint)).build();
         MessageSenderFactory messageSenderFactory = new MessageSenderFactory(
-            providersFrom("http", messageSenderProvider), defaultMessageSenderProvider, defaultMessageSenderProvider
+            providersFrom("http", messageSenderProvider), defaultMessageSenderProvider, defaultMessageSenderProvider,
+            defaultMessageSenderProvider
         );
 
         // when & then
-        assertThat(messageSenderFactory.create(subscription)).isEqualTo(messageSenderProvider.create(endpoint));
+        assertThat(messageSenderFactory.create(subscription)).isEqualTo(messageSenderProvider.create(subscription));
     }
 
     private MessageSenderProviders providersFrom(String protocol, ProtocolMessageSenderProvider protocolMessageSenderProvider) {
@@ -0,0 +1,121 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.hedging;
+
+import com.codahale.metrics.Meter;
+import org.junit.After;
+import org.junit.Test;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSender;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.allegro.tech.hermes.consumers.test.MessageBuilder.message;
+
+public class HedgingMessageSenderTest {
+
+    private static final HedgingSettings SETTINGS = new HedgingSettings(0.95, 10, 2);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ControlledMessageSender messageSender = new ControlledMessageSender();
+    private final Meter hedgedMeter = new Meter();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void shouldNotHedgeBeforeLatencyIsKnown() throws Exception {
+        // given
+        HedgingMessageSender sender = new HedgingMessageSender(messageSender, 100, scheduler, hedgedMeter, SETTINGS);
+
+        // when
+        CompletableFuture<MessageSendingResult> result = sender.send(message("content").build());
+        Thread.sleep(50);
+
+        // then
+        assertThat(messageSender.requests).hasSize(1);
+        assertThat(result).isSameAs(messageSender.requests.get(0));
+    }
+
+    @Test
+    public void shouldCompleteWithHedgedResponseWhenPrimaryIsLate() throws Exception {
+        // given
+        HedgingMessageSender sender = warmedUpSender(100);
+
+        // when
+        CompletableFuture<MessageSendingResult> result = sender.send(message("content").build());
+        waitForRequests(4);
+        messageSender.requests.get(3).complete(new MessageSendingResult(200));
+
+        // then
+        assertThat(result.get(1, TimeUnit.SECONDS).succeeded()).isTrue();
+        assertThat(hedgedMeter.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldWaitForOtherRequestWhenFirstResponseFailed() throws Exception {
+        // given
+        HedgingMessageSender sender = warmedUpSender(100);
+        CompletableFuture<MessageSendingResult> result = sender.send(message("content").build());
+        waitForRequests(4);
+
+        // when
+        messageSender.requests.get(3).complete(new MessageSendingResult(500));
+
+        // then
+        assertThat(result.isDone()).isFalse();
+        messageSender.requests.get(2).complete(new MessageSendingResult(200));
+        assertThat(result.get(1, TimeUnit.SECONDS).succeeded()).isTrue();
+    }
+
+    @Test
+    public void shouldNotHedgeWhenBudgetIsExhausted() throws Exception {
+        // given
+        HedgingMessageSender sender = warmedUpSender(10);
+
+        // when
+        sender.send(message("content").build());
+        Thread.sleep(50);
+
+        // then
+        assertThat(messageSender.requests).hasSize(3);
+        assertThat(hedgedMeter.getCount()).isZero();
+    }
+
+    private HedgingMessageSender warmedUpSender(int budgetPercent) {
+        HedgingMessageSender sender = new HedgingMessageSender(messageSender, budgetPercent, scheduler, hedgedMeter, SETTINGS);
+        sender.send(message("content").build()).complete(new MessageSendingResult(200));
+        sender.send(message("content").build()).complete(new MessageSendingResult(200));
+        return sender;
+    }
+
+    private void waitForRequests(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (messageSender.requests.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static class ControlledMessageSender implements MessageSender {
+
+        private final List<CompletableFuture<MessageSendingResult>> requests = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<MessageSendingResult> send(Message message) {
+            CompletableFuture<MessageSendingResult> request = new CompletableFuture<>();
+            requests.add(request);
+            return request;
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package pl.allegro.tech.hermes.consumers.consumer.sender.http;
 
+import com.codahale.metrics.Gauge;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.util.HttpCookieStore;
@@ -8,18 +9,25 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import pl.allegro.tech.hermes.api.EndpointAddress;
 import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.api.TopicName;
 import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
 import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
+import pl.allegro.tech.hermes.common.metric.Gauges;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.EndpointAddressResolver;
 import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.ResolvableEndpointAddress;
+import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.ResolvedEndpoint;
 import pl.allegro.tech.hermes.test.helper.endpoint.RemoteServiceEndpoint;
 
 import java.net.URI;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -30,6 +38,12 @@ import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static pl.allegro.tech.hermes.api.Subscription.Builder.subscription;
 import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.MESSAGE_ID;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -44,6 +58,9 @@ public class JettyMessageSenderTest {
     private static HttpClient client;
     private static WireMockServer wireMockServer;
 
+    @Mock
+    private HermesMetrics hermesMetrics;
+
     private RemoteServiceEndpoint remoteServiceEndpoint;
     private JettyMessageSender messageSender;
 
@@ -124,6 +141,57 @@ public class JettyMessageSenderTest {
         assertThat(remoteServiceEndpoint.getLastReceivedRequest().getHeader(MESSAGE_ID.getName())).isEqualTo("id");
     }
 
+    @Test
+    public void shouldReportUnsentMessageAsFailedWhenRequestCouldNotBeCreated() throws Exception {
+        // given
+        HttpClient failingClient = mock(HttpClient.class);
+        when(failingClient.newRequest(any(URI.class))).thenThrow(new IllegalStateException("client stopped"));
+        ResolvedEndpoint resolvedEndpoint = mock(ResolvedEndpoint.class);
+        when(resolvedEndpoint.getUri()).thenReturn(URI.create(ENDPOINT.getEndpoint()));
+        ResolvableEndpointAddress address = mock(ResolvableEndpointAddress.class);
+        when(address.resolveEndpointFor(SOME_MESSAGE)).thenReturn(resolvedEndpoint);
+
+        // when
+        CompletableFuture<MessageSendingResult> future = new JettyMessageSender(failingClient, address, 1000).send(SOME_MESSAGE);
+
+        // then
+        assertFalse(future.get(1, TimeUnit.SECONDS).succeeded());
+        verify(resolvedEndpoint).reportNotSent();
+    }
+
+    @Test
+    public void shouldCountConnectionsOnlyOfDestinationsSubscriptionHasSentTo() throws Exception {
+        // given
+        remoteServiceEndpoint.expectMessages(MESSAGE_BODY);
+        ConnectionPoolGauges used = gauges("used");
+        ConnectionPoolGauges unused = gauges("unused");
+        ResolvableEndpointAddress address = new ResolvableEndpointAddress(
+                EndpointAddress.of(format("http://127.0.0.1:%d/", ENDPOINT_PORT)), new SimpleEndpointAddressResolver());
+        JettyMessageSender sender = new JettyMessageSender(client, address, 1000, used, false, Optional.empty());
+
+        // when
+        assertTrue(sender.send(SOME_MESSAGE).get(1, TimeUnit.SECONDS).succeeded());
+
+        // then
+        assertThat(idleConnections("used").getValue()).isEqualTo(1);
+        assertThat(idleConnections("unused").getValue()).isEqualTo(0);
+    }
+
+    private ConnectionPoolGauges gauges(String subscriptionName) {
+        ConnectionPoolGauges gauges = new ConnectionPoolGauges(hermesMetrics,
+                subscription().withTopicName("group", "topic").withName(subscriptionName).build(), client);
+        gauges.register();
+        return gauges;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Gauge<Integer> idleConnections(String subscriptionName) {
+        ArgumentCaptor<Gauge> gauge = ArgumentCaptor.forClass(Gauge.class);
+        verify(hermesMetrics).registerGauge(eq(Gauges.CONSUMER_HTTP_CLIENT_IDLE_CONNECTIONS), any(TopicName.class),
+                eq(subscriptionName), gauge.capture());
+        return gauge.getValue();
+    }
+
     private static final class SimpleEndpointAddressResolver implements EndpointAddressResolver {
         @Override
         public URI resolve(EndpointAddress address, Message message) {
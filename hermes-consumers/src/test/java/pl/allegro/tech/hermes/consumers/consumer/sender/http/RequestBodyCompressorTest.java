@@ -0,0 +1,86 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.api.SubscriptionPolicy.ContentEncoding;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static com.google.common.base.Strings.repeat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.allegro.tech.hermes.api.Subscription.Builder.subscription;
+import static pl.allegro.tech.hermes.api.SubscriptionPolicy.Builder.subscriptionPolicy;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RequestBodyCompressorTest {
+
+    private static final byte[] LARGE_BODY = repeat("{\"field\": \"value\"}", 200).getBytes();
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private HermesMetrics hermesMetrics;
+
+    @Test
+    public void shouldGzipBody() throws Exception {
+        // given
+        RequestBodyCompressor compressor = new RequestBodyCompressor(new ConfigFactory(), hermesMetrics);
+
+        // when
+        byte[] compressed = compressor.compress(LARGE_BODY, ContentEncoding.GZIP, subscriptionWith(ContentEncoding.GZIP));
+
+        // then
+        assertThat(compressed.length).isLessThan(LARGE_BODY.length);
+        assertThat(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed)))).isEqualTo(LARGE_BODY);
+    }
+
+    @Test
+    public void shouldDeflateBodyWithReusedDeflater() throws Exception {
+        // given
+        RequestBodyCompressor compressor = new RequestBodyCompressor(new ConfigFactory(), hermesMetrics);
+        Subscription subscription = subscriptionWith(ContentEncoding.DEFLATE);
+
+        // when
+        compressor.compress(LARGE_BODY, ContentEncoding.DEFLATE, subscription);
+        byte[] compressed = compressor.compressAsync(LARGE_BODY, ContentEncoding.DEFLATE, subscription).get();
+
+        // then
+        assertThat(ByteStreams.toByteArray(new InflaterInputStream(new ByteArrayInputStream(compressed)))).isEqualTo(LARGE_BODY);
+    }
+
+    @Test
+    public void shouldNotCompressBodiesBelowThreshold() {
+        // given
+        RequestBodyCompressor compressor = new RequestBodyCompressor(new ConfigFactory(), hermesMetrics);
+
+        // when
+        RequestCompression compression = compressor.forSubscription(subscriptionWith(ContentEncoding.GZIP)).get();
+
+        // then
+        assertThat(compression.appliesTo("{}".getBytes().length)).isFalse();
+        assertThat(compression.appliesTo(LARGE_BODY.length)).isTrue();
+    }
+
+    @Test
+    public void shouldNotCompressForSubscriptionWithoutContentEncoding() {
+        // given
+        RequestBodyCompressor compressor = new RequestBodyCompressor(new ConfigFactory(), hermesMetrics);
+        Subscription subscription = subscription().applyDefaults().build();
+
+        // when & then
+        assertThat(compressor.forSubscription(subscription).isPresent()).isFalse();
+    }
+
+    private Subscription subscriptionWith(ContentEncoding contentEncoding) {
+        return subscription().applyDefaults().withTopicName("group", "topic").withName("subscription")
+                .withSubscriptionPolicy(subscriptionPolicy().applyDefaults().withContentEncoding(contentEncoding).build())
+                .build();
+    }
+}
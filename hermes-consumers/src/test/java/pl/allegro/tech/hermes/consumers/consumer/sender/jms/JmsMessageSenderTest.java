@@ -1,15 +1,14 @@
 package pl.allegro.tech.hermes.consumers.consumer.sender.jms;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import pl.allegro.tech.hermes.api.Topic;
-import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
 import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
@@ -22,11 +21,15 @@ import javax.jms.JMSException;
 import javax.jms.JMSProducer;
 import javax.jms.JMSRuntimeException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.MESSAGE_ID;
@@ -46,16 +49,20 @@ public class JmsMessageSenderTest {
     @Mock
     private BytesMessage messageMock;
 
-    @Mock
-    private ConfigFactory configFactoryMock;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
 
-    @InjectMocks
     private JmsMessageSender messageSender;
 
     @Before
     public void setUp() throws Exception {
         when(jmsContextMock.createBytesMessage()).thenReturn(messageMock);
         when(jmsContextMock.createProducer()).thenReturn(jmsProducerMock);
+        messageSender = new JmsMessageSender(jmsContextMock, "topic");
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
     }
 
     @Test
@@ -85,7 +92,7 @@ public class JmsMessageSenderTest {
     @Test
     public void shouldReturnFalseWhenJMSThrowsCheckedException() throws Exception {
         // given
-        doThrow(new JMSException("test")).when(messageMock).writeBytes(SOME_MESSAGE.getData());
+        doThrow(new JMSException("test")).when(messageMock).writeBytes(SOME_MESSAGE.getData(), 0, SOME_MESSAGE.getDataLength());
 
         // when
         CompletableFuture<MessageSendingResult> future = messageSender.send(SOME_MESSAGE);
@@ -113,4 +120,82 @@ public class JmsMessageSenderTest {
         // then
         verify(messageMock).setStringProperty(MESSAGE_ID.getCamelCaseName(), "id");
     }
+
+    @Test
+    public void shouldCommitBatchWhenItIsFull() throws Exception {
+        // given
+        JmsMessageSender batchingSender = batchingSender(2, TimeUnit.HOURS.toMillis(1));
+
+        // when
+        CompletableFuture<MessageSendingResult> first = batchingSender.send(SOME_MESSAGE);
+        CompletableFuture<MessageSendingResult> second = batchingSender.send(SOME_MESSAGE);
+
+        // then
+        verify(jmsContextMock, times(1)).commit();
+        assertTrue(first.get(1, TimeUnit.SECONDS).succeeded());
+        assertTrue(second.get(1, TimeUnit.SECONDS).succeeded());
+    }
+
+    @Test
+    public void shouldCommitIncompleteBatchAfterTimeout() throws Exception {
+        // given
+        JmsMessageSender batchingSender = batchingSender(100, 10);
+
+        // when
+        CompletableFuture<MessageSendingResult> future = batchingSender.send(SOME_MESSAGE);
+
+        // then
+        assertTrue(future.get(1, TimeUnit.SECONDS).succeeded());
+        verify(jmsContextMock).commit();
+    }
+
+    @Test
+    public void shouldFailWholeBatchWhenCommitFails() throws Exception {
+        // given
+        doThrow(new JMSRuntimeException("test")).when(jmsContextMock).commit();
+        JmsMessageSender batchingSender = batchingSender(2, TimeUnit.HOURS.toMillis(1));
+
+        // when
+        CompletableFuture<MessageSendingResult> first = batchingSender.send(SOME_MESSAGE);
+        CompletableFuture<MessageSendingResult> second = batchingSender.send(SOME_MESSAGE);
+
+        // then
+        assertFalse(first.get(1, TimeUnit.SECONDS).succeeded());
+        assertFalse(second.get(1, TimeUnit.SECONDS).succeeded());
+        verify(jmsContextMock).rollback();
+    }
+
+    @Test
+    public void shouldCommitBatchOfSessionReleasedAfterSenderIsStopped() throws Exception {
+        // given
+        JmsSessionPool sessionPool = new JmsSessionPool(() -> new JmsSession(jmsContextMock, "topic"), 1);
+        JmsSession session = sessionPool.borrow();
+        CompletableFuture<MessageSendingResult> future = new CompletableFuture<>();
+        session.sendInTransaction(messageMock, future);
+        new JmsMessageSender(sessionPool, "topic", 2, TimeUnit.HOURS.toMillis(1), scheduler).stop();
+
+        // when
+        sessionPool.release(session);
+
+        // then
+        assertTrue(future.get(1, TimeUnit.SECONDS).succeeded());
+        verify(jmsContextMock).commit();
+        verify(jmsContextMock).close();
+    }
+
+    @Test
+    public void shouldReuseProducerForSubsequentMessages() throws Exception {
+        // when
+        messageSender.send(SOME_MESSAGE);
+        messageSender.send(SOME_MESSAGE);
+
+        // then
+        verify(jmsContextMock, times(1)).createProducer();
+        verify(jmsContextMock, never()).commit();
+    }
+
+    private JmsMessageSender batchingSender(int batchSize, long batchTimeoutMs) {
+        JmsSessionPool sessionPool = new JmsSessionPool(() -> new JmsSession(jmsContextMock, "topic"), 1);
+        return new JmsMessageSender(sessionPool, "topic", batchSize, batchTimeoutMs, scheduler);
+    }
 }
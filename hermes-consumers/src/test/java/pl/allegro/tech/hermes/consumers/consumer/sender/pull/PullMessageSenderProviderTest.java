@@ -0,0 +1,148 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.pull;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.exception.EndpointProtocolNotSupportedException;
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
+import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
+import pl.allegro.tech.hermes.common.time.SystemClock;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSender;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static pl.allegro.tech.hermes.api.EndpointAddress.of;
+import static pl.allegro.tech.hermes.api.Subscription.Builder.subscription;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PULL_ENABLED;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PULL_LEASE_TIMEOUT_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PULL_MAX_BATCH_SIZE;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PULL_MAX_WAIT_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PULL_PORT;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PULL_THREAD_POOL_SIZE;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PullMessageSenderProviderTest {
+
+    private static final Subscription SUBSCRIPTION = subscription()
+            .withTopicName("group.topic").withName("subscription").withEndpoint(of("pull://group.topic")).build();
+
+    @Mock
+    private ConfigFactory configFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private int port;
+
+    private PullMessageSenderProvider provider;
+
+    @Before
+    public void setUp() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        when(configFactory.getBooleanProperty(CONSUMER_PULL_ENABLED)).thenReturn(true);
+        when(configFactory.getIntProperty(CONSUMER_PULL_PORT)).thenReturn(port);
+        when(configFactory.getIntProperty(CONSUMER_PULL_THREAD_POOL_SIZE)).thenReturn(2);
+        when(configFactory.getIntProperty(CONSUMER_PULL_LEASE_TIMEOUT_MS)).thenReturn(30_000);
+        when(configFactory.getIntProperty(CONSUMER_PULL_MAX_BATCH_SIZE)).thenReturn(10);
+        when(configFactory.getIntProperty(CONSUMER_PULL_MAX_WAIT_MS)).thenReturn(1000);
+        provider = new PullMessageSenderProvider(configFactory, objectMapper, new SystemClock());
+    }
+
+    @After
+    public void tearDown() {
+        provider.stop();
+    }
+
+    @Test
+    public void shouldCompleteSentMessageWhenItIsPulledAndAcknowledgedOverHttp() throws Exception {
+        // given
+        provider.start();
+        MessageSender sender = provider.create(SUBSCRIPTION);
+
+        // when
+        CompletableFuture<MessageSendingResult> result = sender.send(message(7));
+        JsonNode batch = request("GET", "messages?max=10&wait=100", null);
+        request("POST", "acks", "{\"offsets\": [{\"partition\": 0, \"offset\": 7}]}");
+
+        // then
+        assertThat(batch.get("messages").get(0).get("offset").asLong()).isEqualTo(7);
+        assertThat(result.get(1, TimeUnit.SECONDS).succeeded()).isTrue();
+    }
+
+    @Test
+    public void shouldFailMessagesWaitingForPullWhenSenderIsStopped() throws Exception {
+        // given
+        provider.start();
+        MessageSender sender = provider.create(SUBSCRIPTION);
+        CompletableFuture<MessageSendingResult> result = sender.send(message(7));
+
+        // when
+        sender.stop();
+
+        // then
+        assertThat(result.get(1, TimeUnit.SECONDS).succeeded()).isFalse();
+        assertThat(status("GET", "messages")).isEqualTo(404);
+    }
+
+    @Test(expected = EndpointProtocolNotSupportedException.class)
+    public void shouldNotCreateSenderWhenPullIsDisabled() {
+        // given
+        when(configFactory.getBooleanProperty(CONSUMER_PULL_ENABLED)).thenReturn(false);
+        provider = new PullMessageSenderProvider(configFactory, objectMapper, new SystemClock());
+
+        // when
+        provider.create(SUBSCRIPTION);
+    }
+
+    @Test(expected = EndpointProtocolNotSupportedException.class)
+    public void shouldNotCreateSenderForEndpointWithoutSubscription() {
+        // when
+        provider.create("pull://group.topic");
+    }
+
+    private JsonNode request(String method, String resource, String body) throws IOException {
+        HttpURLConnection connection = connection(method, resource);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream os = connection.getOutputStream()) {
+                os.write(body.getBytes());
+            }
+        }
+        return objectMapper.readTree(connection.getInputStream());
+    }
+
+    private int status(String method, String resource) throws IOException {
+        return connection(method, resource).getResponseCode();
+    }
+
+    private HttpURLConnection connection(String method, String resource) throws IOException {
+        URL url = new URL("http://localhost:" + port + "/topics/group.topic/subscriptions/subscription/" + resource);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        return connection;
+    }
+
+    private Message message(long offset) {
+        return new Message("id-" + offset, "group.topic", "{}".getBytes(), Topic.ContentType.JSON, 0L, 0L,
+                new PartitionOffset(KafkaTopicName.valueOf("group_topic"), offset, 0));
+    }
+}
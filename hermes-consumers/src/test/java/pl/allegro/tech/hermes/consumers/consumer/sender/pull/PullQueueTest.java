@@ -0,0 +1,108 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.pull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
+import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PullQueueTest {
+
+    private static final long LEASE_TIMEOUT_MS = 1000;
+
+    @Mock
+    private Clock clock;
+
+    private PullQueue queue;
+
+    @Before
+    public void setUp() {
+        queue = new PullQueue(LEASE_TIMEOUT_MS, clock);
+    }
+
+    @Test
+    public void shouldLeaseBatchOfWaitingMessagesUpToLimit() throws InterruptedException {
+        // given
+        queue.offer(message(1), new CompletableFuture<>());
+        queue.offer(message(2), new CompletableFuture<>());
+        queue.offer(message(3), new CompletableFuture<>());
+
+        // when
+        List<Message> batch = queue.lease(2, 0);
+
+        // then
+        assertThat(batch).extracting("offset").containsExactly(1L, 2L);
+        assertThat(queue.lease(2, 0)).extracting("offset").containsExactly(3L);
+    }
+
+    @Test
+    public void shouldCompleteOnlyAcknowledgedLeasedMessages() throws InterruptedException {
+        // given
+        CompletableFuture<MessageSendingResult> acknowledged = new CompletableFuture<>();
+        CompletableFuture<MessageSendingResult> notAcknowledged = new CompletableFuture<>();
+        queue.offer(message(1), acknowledged);
+        queue.offer(message(2), notAcknowledged);
+        queue.lease(10, 0);
+
+        // when
+        int count = queue.acknowledge(asList(new PullOffset(0, 1), new PullOffset(0, 7)));
+
+        // then
+        assertThat(count).isEqualTo(1);
+        assertThat(acknowledged.getNow(null).succeeded()).isTrue();
+        assertThat(notAcknowledged.isDone()).isFalse();
+    }
+
+    @Test
+    public void shouldRequestRedeliveryOfMessageNotAcknowledgedWithinLease() throws InterruptedException {
+        // given
+        CompletableFuture<MessageSendingResult> result = new CompletableFuture<>();
+        when(clock.getTime()).thenReturn(0L);
+        queue.offer(message(1), result);
+        queue.lease(10, 0);
+
+        // when
+        when(clock.getTime()).thenReturn(LEASE_TIMEOUT_MS);
+        queue.expire();
+
+        // then
+        assertThat(result.getNow(null).isRedeliveryRequested()).isTrue();
+        assertThat(result.getNow(null).succeeded()).isFalse();
+        assertThat(queue.acknowledge(asList(new PullOffset(0, 1)))).isZero();
+    }
+
+    @Test
+    public void shouldKeepMessageWaitingUntilItIsPulled() throws InterruptedException {
+        // given
+        CompletableFuture<MessageSendingResult> result = new CompletableFuture<>();
+        when(clock.getTime()).thenReturn(0L);
+        queue.offer(message(1), result);
+
+        // when
+        when(clock.getTime()).thenReturn(LEASE_TIMEOUT_MS);
+        queue.expire();
+
+        // then
+        assertThat(result.isDone()).isFalse();
+        assertThat(queue.lease(10, 0)).extracting("offset").containsExactly(1L);
+    }
+
+    private Message message(long offset) {
+        return new Message("id-" + offset, "group.topic", "{}".getBytes(), Topic.ContentType.JSON, 0L, 0L,
+                new PartitionOffset(KafkaTopicName.valueOf("group_topic"), offset, 0));
+    }
+}
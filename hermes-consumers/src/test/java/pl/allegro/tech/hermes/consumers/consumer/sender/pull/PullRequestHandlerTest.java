@@ -0,0 +1,209 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.pull;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
+import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PullRequestHandlerTest {
+
+    private static final String SUBSCRIPTION_ID = "group_topic_subscription";
+    private static final String RESOURCE = "/topics/group.topic/subscriptions/subscription/";
+
+    @Mock
+    private Clock clock;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PullQueue queue;
+
+    private HttpServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        queue = new PullQueue(1000, clock);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/topics/", new PullRequestHandler(
+                id -> SUBSCRIPTION_ID.equals(id) ? Optional.of(queue) : Optional.empty(), objectMapper, 1000, 2, 100));
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldReturnBatchOfPulledMessagesLimitedByMaxBatchSize() throws IOException {
+        // given
+        queue.offer(message(1), new CompletableFuture<>());
+        queue.offer(message(2), new CompletableFuture<>());
+        queue.offer(message(3), new CompletableFuture<>());
+        HttpURLConnection connection = connection("GET", RESOURCE + "messages?max=10&wait=0", "");
+
+        // when
+        int status = connection.getResponseCode();
+
+        // then
+        assertThat(status).isEqualTo(200);
+        JsonNode batch = body(connection);
+        assertThat(batch.get("leaseTimeoutMs").asLong()).isEqualTo(1000);
+        assertThat(batch.get("messages")).hasSize(2);
+        assertThat(batch.get("messages").get(0).get("offset").asLong()).isEqualTo(1);
+        assertThat(batch.get("messages").get(0).get("body").asText()).isEqualTo("{}");
+    }
+
+    @Test
+    public void shouldAcknowledgeLeasedMessages() throws IOException, InterruptedException {
+        // given
+        CompletableFuture<MessageSendingResult> result = new CompletableFuture<>();
+        queue.offer(message(1), result);
+        queue.lease(1, 0);
+        HttpURLConnection connection = connection("POST", RESOURCE + "acks",
+                "{\"offsets\": [{\"partition\": 0, \"offset\": 1}, {\"partition\": 0, \"offset\": 2}]}");
+
+        // when
+        int status = connection.getResponseCode();
+
+        // then
+        assertThat(status).isEqualTo(200);
+        assertThat(body(connection).get("acknowledged").asInt()).isEqualTo(1);
+        assertThat(result.getNow(null).succeeded()).isTrue();
+    }
+
+    @Test
+    public void shouldRespondWithNotFoundForUnknownResource() throws IOException {
+        // given
+        HttpURLConnection connection = connection("GET", "/topics/group.topic/subscriptions/subscription/unknown", "");
+
+        // when
+        int status = connection.getResponseCode();
+
+        // then
+        assertThat(status).isEqualTo(404);
+    }
+
+    @Test
+    public void shouldRespondWithNotFoundForSubscriptionNotConsumedInPullMode() throws IOException {
+        // given
+        HttpURLConnection connection = connection("GET", "/topics/group.topic/subscriptions/other/messages", "");
+
+        // when
+        int status = connection.getResponseCode();
+
+        // then
+        assertThat(status).isEqualTo(404);
+    }
+
+    @Test
+    public void shouldRespondWithMethodNotAllowedForWrongMethod() throws IOException {
+        // given
+        HttpURLConnection connection = connection("POST", RESOURCE + "messages", "");
+
+        // when
+        int status = connection.getResponseCode();
+
+        // then
+        assertThat(status).isEqualTo(405);
+    }
+
+    @Test
+    public void shouldRespondWithBadRequestForInvalidBatchSize() throws IOException {
+        // given
+        HttpURLConnection connection = connection("GET", RESOURCE + "messages?max=abc", "");
+
+        // when
+        int status = connection.getResponseCode();
+
+        // then
+        assertThat(status).isEqualTo(400);
+        assertThat(errorBody(connection).get("message").asText()).isEqualTo("Parameter max must be a number");
+    }
+
+    @Test
+    public void shouldDecodeQueryParameters() throws IOException {
+        // given
+        queue.offer(message(1), new CompletableFuture<>());
+        HttpURLConnection connection = connection("GET", RESOURCE + "messages?max=%31&wait=%30", "");
+
+        // when
+        int status = connection.getResponseCode();
+
+        // then
+        assertThat(status).isEqualTo(200);
+        assertThat(body(connection).get("messages")).hasSize(1);
+    }
+
+    @Test
+    public void shouldRespondWithBadRequestForInvalidWaitTime() throws IOException {
+        // given
+        HttpURLConnection connection = connection("GET", RESOURCE + "messages?wait=1%20s", "");
+
+        // when
+        int status = connection.getResponseCode();
+
+        // then
+        assertThat(status).isEqualTo(400);
+        assertThat(errorBody(connection).get("message").asText()).isEqualTo("Parameter wait must be a number");
+    }
+
+    @Test
+    public void shouldRespondWithBadRequestForMalformedAcknowledgement() throws IOException {
+        // given
+        HttpURLConnection connection = connection("POST", RESOURCE + "acks", "{\"offsets\": 1");
+
+        // when
+        int status = connection.getResponseCode();
+
+        // then
+        assertThat(status).isEqualTo(400);
+    }
+
+    private HttpURLConnection connection(String method, String resource, String body) throws IOException {
+        URL url = new URL("http://localhost:" + server.getAddress().getPort() + resource);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (!body.isEmpty()) {
+            connection.setDoOutput(true);
+            try (OutputStream os = connection.getOutputStream()) {
+                os.write(body.getBytes());
+            }
+        }
+        return connection;
+    }
+
+    private JsonNode body(HttpURLConnection connection) throws IOException {
+        return objectMapper.readTree(connection.getInputStream());
+    }
+
+    private JsonNode errorBody(HttpURLConnection connection) throws IOException {
+        return objectMapper.readTree(connection.getErrorStream());
+    }
+
+    private Message message(long offset) {
+        return new Message("id-" + offset, "group.topic", "{}".getBytes(), Topic.ContentType.JSON, 0L, 0L,
+                new PartitionOffset(KafkaTopicName.valueOf("group_topic"), offset, 0));
+    }
+}
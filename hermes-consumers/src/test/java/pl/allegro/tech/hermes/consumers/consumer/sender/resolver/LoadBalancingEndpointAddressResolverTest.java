@@ -0,0 +1,165 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.resolver;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.EndpointAddress;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static pl.allegro.tech.hermes.consumers.test.MessageBuilder.message;
+
+public class LoadBalancingEndpointAddressResolverTest {
+
+    private static final EndpointAddress ENDPOINT = EndpointAddress.of("http://service.example.com:8080/events?a=b");
+
+    private static final Message MESSAGE = message("content").build();
+
+    private final Clock clock = mock(Clock.class);
+
+    private final Map<String, InetAddress[]> dns = new HashMap<>();
+
+    private final LoadBalancingEndpointAddressResolver resolver = new LoadBalancingEndpointAddressResolver(
+            (address, message) -> URI.create(address.getEndpoint()),
+            this::lookup,
+            LoadBalancingStrategy.LEAST_OUTSTANDING,
+            new LoadBalancingSettings(30_000, 3.0, 2, 10_000),
+            clock);
+
+    @Before
+    public void setUp() {
+        when(clock.getTime()).thenReturn(0L);
+    }
+
+    @Test
+    public void shouldNotRewriteAddressOfHostWithSingleAddress() throws Exception {
+        // given
+        dns.put("service.example.com", addresses("10.0.0.1"));
+
+        // when
+        ResolvedEndpoint endpoint = resolver.resolveEndpoint(ENDPOINT, MESSAGE);
+
+        // then
+        assertThat(endpoint.getUri()).isEqualTo(URI.create("http://service.example.com:8080/events?a=b"));
+        assertThat(endpoint.getHostHeader().isPresent()).isFalse();
+    }
+
+    @Test
+    public void shouldSendRequestDirectlyToInstanceWithOriginalHostHeader() throws Exception {
+        // given
+        dns.put("service.example.com", addresses("10.0.0.1", "10.0.0.2"));
+
+        // when
+        ResolvedEndpoint endpoint = resolver.resolveEndpoint(ENDPOINT, MESSAGE);
+
+        // then
+        assertThat(endpoint.getUri()).isEqualTo(URI.create("http://10.0.0.1:8080/events?a=b"));
+        assertThat(endpoint.getHostHeader().get()).isEqualTo("service.example.com:8080");
+    }
+
+    @Test
+    public void shouldNotRewriteAddressOfHttpsEndpoint() throws Exception {
+        // given
+        dns.put("service.example.com", addresses("10.0.0.1", "10.0.0.2"));
+
+        // when
+        ResolvedEndpoint endpoint = resolver.resolveEndpoint(EndpointAddress.of("https://service.example.com/events"), MESSAGE);
+
+        // then
+        assertThat(endpoint.getUri()).isEqualTo(URI.create("https://service.example.com/events"));
+        assertThat(endpoint.getHostHeader().isPresent()).isFalse();
+    }
+
+    @Test
+    public void shouldSendToInstanceWithLeastOutstandingRequests() throws Exception {
+        // given
+        dns.put("service.example.com", addresses("10.0.0.1", "10.0.0.2"));
+
+        // when
+        ResolvedEndpoint first = resolver.resolveEndpoint(ENDPOINT, MESSAGE);
+        ResolvedEndpoint second = resolver.resolveEndpoint(ENDPOINT, MESSAGE);
+        first.reportDelivery(10, true);
+        ResolvedEndpoint third = resolver.resolveEndpoint(ENDPOINT, MESSAGE);
+
+        // then
+        assertThat(first.getUri().getHost()).isEqualTo("10.0.0.1");
+        assertThat(second.getUri().getHost()).isEqualTo("10.0.0.2");
+        assertThat(third.getUri().getHost()).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    public void shouldEjectFailingInstanceUntilEjectionTimePasses() throws Exception {
+        // given
+        dns.put("service.example.com", addresses("10.0.0.1", "10.0.0.2"));
+        resolver.resolveEndpoint(ENDPOINT, MESSAGE).reportDelivery(10, false);
+        resolver.resolveEndpoint(ENDPOINT, MESSAGE).reportDelivery(10, true);
+        resolver.resolveEndpoint(ENDPOINT, MESSAGE).reportDelivery(10, false);
+
+        // when
+        ResolvedEndpoint duringEjection = resolver.resolveEndpoint(ENDPOINT, MESSAGE);
+        duringEjection.reportDelivery(10, true);
+        when(clock.getTime()).thenReturn(10_000L);
+        ResolvedEndpoint afterEjection = resolver.resolveEndpoint(ENDPOINT, MESSAGE);
+
+        // then
+        assertThat(duringEjection.getUri().getHost()).isEqualTo("10.0.0.2");
+        assertThat(afterEjection.getUri().getHost()).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    public void shouldEjectInstanceMuchSlowerThanOthers() throws Exception {
+        // given
+        dns.put("service.example.com", addresses("10.0.0.1", "10.0.0.2", "10.0.0.3"));
+        resolver.resolveEndpoint(ENDPOINT, MESSAGE).reportDelivery(500, true);
+        resolver.resolveEndpoint(ENDPOINT, MESSAGE).reportDelivery(10, true);
+        resolver.resolveEndpoint(ENDPOINT, MESSAGE).reportDelivery(10, true);
+
+        // when
+        ResolvedEndpoint first = resolver.resolveEndpoint(ENDPOINT, MESSAGE);
+        ResolvedEndpoint second = resolver.resolveEndpoint(ENDPOINT, MESSAGE);
+        ResolvedEndpoint third = resolver.resolveEndpoint(ENDPOINT, MESSAGE);
+
+        // then
+        assertThat(first.getUri().getHost()).isNotEqualTo("10.0.0.1");
+        assertThat(second.getUri().getHost()).isNotEqualTo("10.0.0.1");
+        assertThat(third.getUri().getHost()).isNotEqualTo("10.0.0.1");
+    }
+
+    @Test
+    public void shouldRefreshAddressesAfterRefreshPeriod() throws Exception {
+        // given
+        dns.put("service.example.com", addresses("10.0.0.1", "10.0.0.2"));
+        resolver.resolveEndpoint(ENDPOINT, MESSAGE);
+        dns.put("service.example.com", addresses("10.0.0.3", "10.0.0.4"));
+
+        // when
+        when(clock.getTime()).thenReturn(30_000L);
+        ResolvedEndpoint endpoint = resolver.resolveEndpoint(ENDPOINT, MESSAGE);
+
+        // then
+        assertThat(endpoint.getUri().getHost()).isEqualTo("10.0.0.3");
+    }
+
+    private InetAddress[] lookup(String host) throws UnknownHostException {
+        if (!dns.containsKey(host)) {
+            throw new UnknownHostException(host);
+        }
+        return dns.get(host);
+    }
+
+    private static InetAddress[] addresses(String... ips) throws UnknownHostException {
+        InetAddress[] addresses = new InetAddress[ips.length];
+        for (int i = 0; i < ips.length; i++) {
+            addresses[i] = InetAddress.getByName(ips[i]);
+        }
+        return addresses;
+    }
+}
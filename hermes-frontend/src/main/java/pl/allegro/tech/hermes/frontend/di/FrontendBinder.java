@@ -6,13 +6,23 @@ import org.glassfish.hk2.utilities.binding.AbstractBinder;
 import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
 import pl.allegro.tech.hermes.frontend.cache.topic.zookeeper.ZookeeperTopicsCacheFactory;
 import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
+import pl.allegro.tech.hermes.frontend.producer.buffer.BufferedBrokerMessageProducerFactory;
+import pl.allegro.tech.hermes.frontend.producer.kafka.KafkaBrokerMessageProducer;
 import pl.allegro.tech.hermes.frontend.producer.kafka.KafkaBrokerMessageProducerFactory;
 import pl.allegro.tech.hermes.frontend.producer.kafka.KafkaMessageProducerFactory;
 import pl.allegro.tech.hermes.frontend.producer.kafka.Producers;
+import pl.allegro.tech.hermes.frontend.publishing.MessageBodyBuffers;
 import pl.allegro.tech.hermes.frontend.publishing.MessageContentTypeEnforcer;
 import pl.allegro.tech.hermes.frontend.publishing.MessagePublisher;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingPipeline;
 import pl.allegro.tech.hermes.frontend.publishing.PublishingServlet;
+import pl.allegro.tech.hermes.frontend.publishing.admission.AdmissionControl;
+import pl.allegro.tech.hermes.frontend.publishing.handler.PublishingHandler;
 import pl.allegro.tech.hermes.frontend.publishing.metadata.MetadataAddingMessageConverter;
+import pl.allegro.tech.hermes.frontend.publishing.processing.ProcessingExecutors;
+import pl.allegro.tech.hermes.frontend.publishing.quota.TopicQuotas;
+import pl.allegro.tech.hermes.frontend.publishing.quota.TopicQuotasFactory;
+import pl.allegro.tech.hermes.frontend.publishing.websocket.StreamingPublishingHandler;
 import pl.allegro.tech.hermes.frontend.server.HermesServer;
 import pl.allegro.tech.hermes.frontend.services.HealthCheckService;
 import pl.allegro.tech.hermes.frontend.validator.*;
@@ -29,18 +39,26 @@ public class FrontendBinder extends AbstractBinder {
     protected void configure() {
         bind(HermesServer.class).to(HermesServer.class).in(Singleton.class);
         bind(PublishingServlet.class).to(PublishingServlet.class).in(Singleton.class);
+        bind(PublishingHandler.class).to(PublishingHandler.class).in(Singleton.class);
+        bind(StreamingPublishingHandler.class).to(StreamingPublishingHandler.class).in(Singleton.class);
         bind(MessageValidators.class).to(MessageValidators.class).in(Singleton.class);
 
         bind(HealthCheckService.class).to(HealthCheckService.class).in(Singleton.class);
 
         bindFactory(KafkaMessageProducerFactory.class).to(Producers.class).in(Singleton.class);
-        bindFactory(KafkaBrokerMessageProducerFactory.class).to(BrokerMessageProducer.class).in(Singleton.class);
+        bindFactory(KafkaBrokerMessageProducerFactory.class).to(KafkaBrokerMessageProducer.class).in(Singleton.class);
+        bindFactory(BufferedBrokerMessageProducerFactory.class).to(BrokerMessageProducer.class).in(Singleton.class);
         bindFactory(ZkClientFactory.class).to(ZkClient.class).in(Singleton.class);
         bindSingleton(PublishingMessageTracker.class);
         bindSingleton(NoOperationPublishingTracker.class);
         bindFactory(ZookeeperTopicsCacheFactory.class).to(TopicsCache.class).in(Singleton.class);
         bindSingleton(MessagePublisher.class);
+        bindSingleton(PublishingPipeline.class);
         bindSingleton(MessageContentTypeEnforcer.class);
+        bindSingleton(MessageBodyBuffers.class);
+        bindFactory(TopicQuotasFactory.class).to(TopicQuotas.class).in(Singleton.class);
+        bindSingleton(AdmissionControl.class);
+        bindSingleton(ProcessingExecutors.class);
         bindSingleton(JsonTopicMessageValidator.class);
         bindSingleton(AvroTopicMessageValidator.class);
         bindSingleton(MetadataAddingMessageConverter.class);
@@ -0,0 +1,169 @@
+package pl.allegro.tech.hermes.frontend.producer.buffer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of records prefixed with length and CRC32 checksum, mapped into memory. Header keeps sequence of
+ * segment, which orders segments after restart, and position of first record not yet replayed. Every record is
+ * followed by zero length marker, so records left in recycled segment are never read again. Records torn by crash
+ * before segment was flushed do not match their checksum and are cut off with everything after them when segment is
+ * opened.
+ */
+class BufferSegment {
+
+    private static final Logger logger = LoggerFactory.getLogger(BufferSegment.class);
+
+    static final int HEADER_SIZE = 12;
+
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int READ_POSITION_OFFSET = 8;
+    private static final int LENGTH_SIZE = 4;
+    private static final int CHECKSUM_SIZE = 4;
+    private static final int RECORD_HEADER_SIZE = LENGTH_SIZE + CHECKSUM_SIZE;
+
+    private final File file;
+    private final RandomAccessFile raf;
+    private final MappedByteBuffer buffer;
+
+    private long sequence;
+    private int readPosition;
+    private int writePosition;
+    private int records;
+
+    private BufferSegment(File file, RandomAccessFile raf, MappedByteBuffer buffer) {
+        this.file = file;
+        this.raf = raf;
+        this.buffer = buffer;
+        this.sequence = buffer.getLong(SEQUENCE_OFFSET);
+        this.readPosition = Math.max(buffer.getInt(READ_POSITION_OFFSET), HEADER_SIZE);
+        this.writePosition = readPosition;
+        scan();
+    }
+
+    static BufferSegment open(File file, int size) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        if (raf.length() != size) {
+            raf.setLength(size);
+        }
+        return new BufferSegment(file, raf, raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    boolean append(byte[] record) {
+        int end = writePosition + RECORD_HEADER_SIZE + record.length;
+        if (end + LENGTH_SIZE > buffer.capacity()) {
+            return false;
+        }
+        buffer.putInt(end, 0);
+        buffer.position(writePosition + RECORD_HEADER_SIZE);
+        buffer.put(record);
+        buffer.putInt(writePosition + LENGTH_SIZE, checksum(record));
+        buffer.putInt(writePosition, record.length);
+        writePosition = end;
+        records++;
+        return true;
+    }
+
+    byte[] read(int position) {
+        if (position >= writePosition) {
+            return null;
+        }
+        byte[] record = new byte[buffer.getInt(position)];
+        buffer.position(position + RECORD_HEADER_SIZE);
+        buffer.get(record);
+        return record;
+    }
+
+    int next(int position) {
+        return position + RECORD_HEADER_SIZE + buffer.getInt(position);
+    }
+
+    void commit(int position, int committedRecords) {
+        readPosition = position;
+        records -= committedRecords;
+        buffer.putInt(READ_POSITION_OFFSET, position);
+    }
+
+    void recycle(long newSequence) {
+        sequence = newSequence;
+        readPosition = HEADER_SIZE;
+        writePosition = HEADER_SIZE;
+        records = 0;
+        buffer.putInt(HEADER_SIZE, 0);
+        buffer.putInt(READ_POSITION_OFFSET, HEADER_SIZE);
+        buffer.putLong(SEQUENCE_OFFSET, newSequence);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        force();
+        raf.close();
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    int getReadPosition() {
+        return readPosition;
+    }
+
+    int getRecords() {
+        return records;
+    }
+
+    int getPendingBytes() {
+        return writePosition - readPosition;
+    }
+
+    boolean isEmpty() {
+        return readPosition >= writePosition;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    private void scan() {
+        while (writePosition + LENGTH_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(writePosition);
+            if (length == 0) {
+                return;
+            }
+            if (!isValid(writePosition, length)) {
+                logger.warn("Truncating message buffer segment {} at position {}, found corrupted record of length {}",
+                        file, writePosition, length);
+                buffer.putInt(writePosition, 0);
+                return;
+            }
+            writePosition += RECORD_HEADER_SIZE + length;
+            records++;
+        }
+    }
+
+    private boolean isValid(int position, int length) {
+        if (length < 0 || position + RECORD_HEADER_SIZE + length + LENGTH_SIZE > buffer.capacity()) {
+            return false;
+        }
+        byte[] record = new byte[length];
+        buffer.position(position + RECORD_HEADER_SIZE);
+        buffer.get(record);
+        return buffer.getInt(position + LENGTH_SIZE) == checksum(record);
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,114 @@
+package pl.allegro.tech.hermes.frontend.producer.buffer;
+
+import com.codahale.metrics.Meter;
+import org.apache.kafka.clients.producer.BufferExhaustedException;
+import org.apache.kafka.common.errors.RetriableException;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorates Kafka producer with local write-ahead buffer. Messages which Kafka rejected because it is unreachable or
+ * its producer buffer is full are appended to the buffer and reported as accepted, they are reported as published
+ * only by tracker once replayed; topics with ack level ALL are never buffered, as local disk is not a replica. While
+ * buffer is not empty new messages are buffered as well, so they do not overtake the ones waiting for replay.
+ * Messages rejected by Kafka are appended on separate executor, so writing them to disk does not block Kafka producer
+ * I/O thread, which runs the callbacks.
+ */
+public class BufferedBrokerMessageProducer implements BrokerMessageProducer {
+
+    private final BrokerMessageProducer producer;
+    private final MessageBuffer buffer;
+    private final ScheduledExecutorService replayExecutor;
+    private final ExecutorService appendExecutor;
+    private final Meter bufferedMeter;
+
+    BufferedBrokerMessageProducer(BrokerMessageProducer producer, MessageBuffer buffer,
+                                  ScheduledExecutorService replayExecutor, ExecutorService appendExecutor,
+                                  Meter bufferedMeter) {
+        this.producer = producer;
+        this.buffer = buffer;
+        this.replayExecutor = replayExecutor;
+        this.appendExecutor = appendExecutor;
+        this.bufferedMeter = bufferedMeter;
+    }
+
+    @Override
+    public void send(Message message, Topic topic, PublishingCallback callback) {
+        if (topic.getAck() == Topic.Ack.ALL) {
+            producer.send(message, topic, callback);
+        } else if (!buffer.isEmpty() && append(message, topic)) {
+            callback.onAccepted(message, topic);
+        } else {
+            producer.send(message, topic, new BufferingCallback(callback));
+        }
+    }
+
+    public void close() {
+        replayExecutor.shutdownNow();
+        appendExecutor.shutdown();
+        try {
+            replayExecutor.awaitTermination(1, TimeUnit.SECONDS);
+            appendExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        buffer.close();
+    }
+
+    private boolean append(Message message, Topic topic) {
+        boolean appended = buffer.append(new BufferedMessage(topic.getName(), message), !topic.isFireAndForget());
+        if (appended) {
+            bufferedMeter.mark();
+        }
+        return appended;
+    }
+
+    static boolean isTransient(Exception exception) {
+        return exception instanceof RetriableException || exception instanceof BufferExhaustedException;
+    }
+
+    private class BufferingCallback implements PublishingCallback {
+
+        private final PublishingCallback callback;
+
+        BufferingCallback(PublishingCallback callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void onUnpublished(Message message, Topic topic, Exception exception) {
+            if (!isTransient(exception)) {
+                callback.onUnpublished(message, topic, exception);
+                return;
+            }
+            try {
+                appendExecutor.execute(() -> {
+                    if (append(message, topic)) {
+                        callback.onAccepted(message, topic);
+                    } else {
+                        callback.onUnpublished(message, topic, exception);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                callback.onUnpublished(message, topic, exception);
+            }
+        }
+
+        @Override
+        public void onPublished(Message message, Topic topic) {
+            callback.onPublished(message, topic);
+        }
+
+        @Override
+        public void onAccepted(Message message, Topic topic) {
+            callback.onAccepted(message, topic);
+        }
+    }
+}
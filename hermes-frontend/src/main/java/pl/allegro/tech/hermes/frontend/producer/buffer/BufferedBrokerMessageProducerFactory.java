@@ -0,0 +1,90 @@
+package pl.allegro.tech.hermes.frontend.producer.buffer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.glassfish.hk2.api.Factory;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.Gauges;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Meters;
+import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
+import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
+import pl.allegro.tech.hermes.frontend.producer.kafka.KafkaBrokerMessageProducer;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_MESSAGE_BUFFER_DIRECTORY;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_MESSAGE_BUFFER_ENABLED;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_MESSAGE_BUFFER_MAX_SEGMENTS;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_MESSAGE_BUFFER_REPLAY_BATCH_SIZE;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_MESSAGE_BUFFER_REPLAY_INTERVAL_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_MESSAGE_BUFFER_REPLAY_TIMEOUT_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_MESSAGE_BUFFER_SEGMENT_SIZE;
+
+public class BufferedBrokerMessageProducerFactory implements Factory<BrokerMessageProducer> {
+
+    private final KafkaBrokerMessageProducer kafkaBrokerMessageProducer;
+    private final TopicsCache topicsCache;
+    private final Trackers trackers;
+    private final HermesMetrics hermesMetrics;
+    private final ConfigFactory configFactory;
+
+    @Inject
+    public BufferedBrokerMessageProducerFactory(KafkaBrokerMessageProducer kafkaBrokerMessageProducer, TopicsCache topicsCache,
+                                                Trackers trackers, HermesMetrics hermesMetrics, ConfigFactory configFactory) {
+        this.kafkaBrokerMessageProducer = kafkaBrokerMessageProducer;
+        this.topicsCache = topicsCache;
+        this.trackers = trackers;
+        this.hermesMetrics = hermesMetrics;
+        this.configFactory = configFactory;
+    }
+
+    @Override
+    public BrokerMessageProducer provide() {
+        if (!configFactory.getBooleanProperty(FRONTEND_MESSAGE_BUFFER_ENABLED)) {
+            return kafkaBrokerMessageProducer;
+        }
+        String directory = configFactory.getStringProperty(FRONTEND_MESSAGE_BUFFER_DIRECTORY);
+        if (directory.isEmpty()) {
+            throw new IllegalStateException(FRONTEND_MESSAGE_BUFFER_DIRECTORY.getName()
+                    + " has to point to persistent storage when message buffer is enabled");
+        }
+        MessageBuffer buffer = new MessageBuffer(
+                new File(directory),
+                configFactory.getIntProperty(FRONTEND_MESSAGE_BUFFER_SEGMENT_SIZE),
+                configFactory.getIntProperty(FRONTEND_MESSAGE_BUFFER_MAX_SEGMENTS));
+
+        hermesMetrics.registerGauge(Gauges.PRODUCER_BUFFER_PENDING_MESSAGES, buffer::getPendingMessages);
+        hermesMetrics.registerGauge(Gauges.PRODUCER_BUFFER_PENDING_BYTES, buffer::getPendingBytes);
+        hermesMetrics.registerGauge(Gauges.PRODUCER_BUFFER_USED_SEGMENTS, buffer::getUsedSegments);
+
+        MessageBufferReplayer replayer = new MessageBufferReplayer(buffer, kafkaBrokerMessageProducer, topicsCache, trackers,
+                configFactory.getIntProperty(FRONTEND_MESSAGE_BUFFER_REPLAY_BATCH_SIZE),
+                configFactory.getIntProperty(FRONTEND_MESSAGE_BUFFER_REPLAY_TIMEOUT_MS),
+                hermesMetrics.meter(Meters.PRODUCER_BUFFER_REPLAYED_METER),
+                hermesMetrics.meter(Meters.PRODUCER_BUFFER_DROPPED_METER));
+
+        ScheduledExecutorService replayExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("message-buffer-replay-%d").setDaemon(true).build());
+        int interval = configFactory.getIntProperty(FRONTEND_MESSAGE_BUFFER_REPLAY_INTERVAL_MS);
+        replayExecutor.scheduleWithFixedDelay(replayer, interval, interval, TimeUnit.MILLISECONDS);
+
+        ExecutorService appendExecutor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("message-buffer-append-%d").setDaemon(true).build());
+
+        return new BufferedBrokerMessageProducer(kafkaBrokerMessageProducer, buffer, replayExecutor, appendExecutor,
+                hermesMetrics.meter(Meters.PRODUCER_BUFFER_APPENDED_METER));
+    }
+
+    @Override
+    public void dispose(BrokerMessageProducer instance) {
+        if (instance instanceof BufferedBrokerMessageProducer) {
+            ((BufferedBrokerMessageProducer) instance).close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package pl.allegro.tech.hermes.frontend.producer.buffer;
+
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class BufferedMessage {
+
+    private final TopicName topicName;
+    private final Message message;
+
+    BufferedMessage(TopicName topicName, Message message) {
+        this.topicName = topicName;
+        this.message = message;
+    }
+
+    TopicName getTopicName() {
+        return topicName;
+    }
+
+    Message getMessage() {
+        return message;
+    }
+
+    byte[] serialize() {
+        byte[] topic = topicName.qualifiedName().getBytes(UTF_8);
+        byte[] id = message.getId().getBytes(UTF_8);
+        byte[] key = message.getPartitionKey().map(k -> k.getBytes(UTF_8)).orElse(null);
+        ByteBuffer record = ByteBuffer.allocate(
+                4 + topic.length + 4 + id.length + 8 + 4 + (key == null ? 0 : key.length) + message.getData().length);
+        putBytes(record, topic);
+        putBytes(record, id);
+        record.putLong(message.getTimestamp());
+        putBytes(record, key);
+        record.put(message.getData());
+        return record.array();
+    }
+
+    static BufferedMessage deserialize(byte[] bytes) {
+        ByteBuffer record = ByteBuffer.wrap(bytes);
+        TopicName topicName = TopicName.fromQualifiedName(getString(record).get());
+        String id = getString(record).get();
+        long timestamp = record.getLong();
+        Optional<String> key = getString(record);
+        byte[] data = new byte[record.remaining()];
+        record.get(data);
+        return new BufferedMessage(topicName, new Message(id, data, timestamp, key.orElse(null)));
+    }
+
+    private static void putBytes(ByteBuffer record, byte[] bytes) {
+        if (bytes == null) {
+            record.putInt(-1);
+        } else {
+            record.putInt(bytes.length);
+            record.put(bytes);
+        }
+    }
+
+    private static Optional<String> getString(ByteBuffer record) {
+        int length = record.getInt();
+        if (length < 0) {
+            return Optional.empty();
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return Optional.of(new String(bytes, UTF_8));
+    }
+}
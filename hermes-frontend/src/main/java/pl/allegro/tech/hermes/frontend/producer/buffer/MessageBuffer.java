@@ -0,0 +1,207 @@
+package pl.allegro.tech.hermes.frontend.producer.buffer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-ahead buffer of messages which could not be sent to Kafka. Messages are appended to the newest segment and
+ * read from the oldest one; drained segments are recycled, so disk usage never exceeds number of segments times
+ * their size. Number of pending messages is kept outside of buffer lock, so checking whether buffer is empty on every
+ * publish does not contend with appends and replay.
+ */
+class MessageBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageBuffer.class);
+
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    private final File directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private final Deque<BufferSegment> active = new ArrayDeque<>();
+    private final Deque<BufferSegment> free = new ArrayDeque<>();
+    private final Set<BufferSegment> dirty = new LinkedHashSet<>();
+    private final Object forceLock = new Object();
+    private final AtomicLong pending = new AtomicLong();
+    private int segments;
+    private long nextSequence;
+    private long appended;
+    private long forced;
+
+    MessageBuffer(File directory, int segmentSize, int maxSegments) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        load();
+    }
+
+    /**
+     * @param force whether to return only after message is written to disk; forces are done outside of buffer lock
+     *              and appends waiting for a force in progress are all written by the next one
+     */
+    boolean append(BufferedMessage message, boolean force) {
+        long appendSequence;
+        synchronized (this) {
+            byte[] record = message.serialize();
+            BufferSegment segment = active.peekLast();
+            if (segment == null || !segment.append(record)) {
+                segment = nextSegment();
+                if (segment == null || !segment.append(record)) {
+                    return false;
+                }
+            }
+            dirty.add(segment);
+            appendSequence = ++appended;
+            pending.incrementAndGet();
+        }
+        if (force) {
+            force(appendSequence);
+        }
+        return true;
+    }
+
+    List<BufferedMessage> peek(int maxMessages) {
+        List<byte[]> records = new ArrayList<>();
+        synchronized (this) {
+            releaseDrained();
+            BufferSegment segment = active.peekFirst();
+            if (segment != null) {
+                int position = segment.getReadPosition();
+                byte[] record;
+                while (records.size() < maxMessages && (record = segment.read(position)) != null) {
+                    records.add(record);
+                    position = segment.next(position);
+                }
+            }
+        }
+        List<BufferedMessage> messages = new ArrayList<>(records.size());
+        for (byte[] record : records) {
+            messages.add(BufferedMessage.deserialize(record));
+        }
+        return messages;
+    }
+
+    synchronized void remove(int count) {
+        BufferSegment segment = active.peekFirst();
+        int position = segment.getReadPosition();
+        for (int i = 0; i < count; i++) {
+            position = segment.next(position);
+        }
+        segment.commit(position, count);
+        pending.addAndGet(-count);
+        releaseDrained();
+    }
+
+    boolean isEmpty() {
+        return pending.get() == 0;
+    }
+
+    long getPendingMessages() {
+        return pending.get();
+    }
+
+    synchronized long getPendingBytes() {
+        return active.stream().mapToLong(BufferSegment::getPendingBytes).sum();
+    }
+
+    synchronized int getUsedSegments() {
+        return active.size();
+    }
+
+    synchronized void close() {
+        for (BufferSegment segment : active) {
+            close(segment);
+        }
+        for (BufferSegment segment : free) {
+            close(segment);
+        }
+    }
+
+    private void force(long appendSequence) {
+        synchronized (forceLock) {
+            if (forced >= appendSequence) {
+                return;
+            }
+            long forcing;
+            List<BufferSegment> segmentsToForce;
+            synchronized (this) {
+                forcing = appended;
+                segmentsToForce = new ArrayList<>(dirty);
+                dirty.clear();
+            }
+            segmentsToForce.forEach(BufferSegment::force);
+            forced = forcing;
+        }
+    }
+
+    private void releaseDrained() {
+        while (active.size() > 1 && active.peekFirst().isEmpty()) {
+            free.addLast(active.removeFirst());
+        }
+    }
+
+    private BufferSegment nextSegment() {
+        BufferSegment segment = free.pollFirst();
+        if (segment == null && segments < maxSegments) {
+            segment = open(new File(directory, segments + SEGMENT_SUFFIX));
+            segments++;
+        }
+        if (segment != null) {
+            segment.recycle(nextSequence++);
+            active.addLast(segment);
+        }
+        return segment;
+    }
+
+    private void load() {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Could not create message buffer directory " + directory);
+        }
+        List<BufferSegment> loaded = new ArrayList<>();
+        while (segments < maxSegments && new File(directory, segments + SEGMENT_SUFFIX).exists()) {
+            loaded.add(open(new File(directory, segments + SEGMENT_SUFFIX)));
+            segments++;
+        }
+        loaded.sort(Comparator.comparingLong(BufferSegment::getSequence));
+        for (BufferSegment segment : loaded) {
+            if (segment.isEmpty()) {
+                free.addLast(segment);
+            } else {
+                active.addLast(segment);
+                pending.addAndGet(segment.getRecords());
+            }
+            nextSequence = Math.max(nextSequence, segment.getSequence() + 1);
+        }
+        if (!active.isEmpty()) {
+            logger.info("Loaded {} messages from message buffer in {}", getPendingMessages(), directory);
+        }
+    }
+
+    private BufferSegment open(File file) {
+        try {
+            return BufferSegment.open(file, segmentSize);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open message buffer segment " + file, e);
+        }
+    }
+
+    private void close(BufferSegment segment) {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            logger.warn("Could not close message buffer segment {}", segment.getFile(), e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package pl.allegro.tech.hermes.frontend.producer.buffer;
+
+import com.codahale.metrics.Meter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
+import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sends buffered messages to Kafka in batches, in order they were buffered. Messages are removed from buffer up to
+ * the first one which is not published yet or failed transiently, the rest of batch is sent again on next run, so
+ * messages may be duplicated but are not lost. Messages of topics which no longer exist and messages which Kafka
+ * rejects permanently, e.g. too large ones, are dropped, so they never block the buffer. Buffered messages were
+ * answered as accepted, so they are logged as published in trackers only once replayed.
+ */
+class MessageBufferReplayer implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageBufferReplayer.class);
+
+    private final MessageBuffer buffer;
+    private final BrokerMessageProducer producer;
+    private final TopicsCache topicsCache;
+    private final Trackers trackers;
+    private final int batchSize;
+    private final long timeoutMs;
+    private final Meter replayedMeter;
+    private final Meter droppedMeter;
+
+    MessageBufferReplayer(MessageBuffer buffer, BrokerMessageProducer producer, TopicsCache topicsCache, Trackers trackers,
+                          int batchSize, long timeoutMs, Meter replayedMeter, Meter droppedMeter) {
+        this.buffer = buffer;
+        this.producer = producer;
+        this.topicsCache = topicsCache;
+        this.trackers = trackers;
+        this.batchSize = batchSize;
+        this.timeoutMs = timeoutMs;
+        this.replayedMeter = replayedMeter;
+        this.droppedMeter = droppedMeter;
+    }
+
+    @Override
+    public void run() {
+        try {
+            List<BufferedMessage> batch;
+            while (!(batch = buffer.peek(batchSize)).isEmpty()) {
+                int settled = replay(batch);
+                if (settled > 0) {
+                    buffer.remove(settled);
+                }
+                if (settled < batch.size()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Error while replaying buffered messages", e);
+        }
+    }
+
+    /**
+     * @return number of leading messages of batch which were published or dropped
+     */
+    private int replay(List<BufferedMessage> batch) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(batch.size());
+        AtomicReferenceArray<Outcome> outcomes = new AtomicReferenceArray<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            BufferedMessage buffered = batch.get(i);
+            Optional<Topic> topic = topicsCache.getTopic(buffered.getTopicName());
+            if (topic.isPresent()) {
+                producer.send(buffered.getMessage(), topic.get(), new ReplayCallback(i, outcomes, latch));
+            } else {
+                logger.warn("Dropping buffered message {} of removed topic {}",
+                        buffered.getMessage().getId(), buffered.getTopicName().qualifiedName());
+                droppedMeter.mark();
+                outcomes.set(i, Outcome.DROPPED);
+                latch.countDown();
+            }
+        }
+        latch.await(timeoutMs, TimeUnit.MILLISECONDS);
+        int settled = 0;
+        while (settled < batch.size() && outcomes.get(settled) != null && outcomes.get(settled) != Outcome.RETRY) {
+            settled++;
+        }
+        if (settled < batch.size()) {
+            logger.warn("Replaying buffered messages stopped at message {}, will retry",
+                    batch.get(settled).getMessage().getId());
+        }
+        return settled;
+    }
+
+    private enum Outcome {
+        PUBLISHED, DROPPED, RETRY
+    }
+
+    private class ReplayCallback implements PublishingCallback {
+
+        private final int index;
+        private final AtomicReferenceArray<Outcome> outcomes;
+        private final CountDownLatch latch;
+
+        ReplayCallback(int index, AtomicReferenceArray<Outcome> outcomes, CountDownLatch latch) {
+            this.index = index;
+            this.outcomes = outcomes;
+            this.latch = latch;
+        }
+
+        @Override
+        public void onUnpublished(Message message, Topic topic, Exception exception) {
+            if (BufferedBrokerMessageProducer.isTransient(exception)) {
+                outcomes.set(index, Outcome.RETRY);
+            } else {
+                logger.error("Dropping buffered message {} of topic {} rejected by Kafka",
+                        message.getId(), topic.getQualifiedName(), exception);
+                droppedMeter.mark();
+                trackers.get(topic).logError(message.getId(), topic.getName(), exception.getMessage());
+                outcomes.set(index, Outcome.DROPPED);
+            }
+            latch.countDown();
+        }
+
+        @Override
+        public void onPublished(Message message, Topic topic) {
+            replayedMeter.mark();
+            trackers.get(topic).logPublished(message.getId(), topic.getName());
+            outcomes.set(index, Outcome.PUBLISHED);
+            latch.countDown();
+        }
+
+        @Override
+        public void onAccepted(Message message, Topic topic) {
+            outcomes.set(index, Outcome.RETRY);
+            latch.countDown();
+        }
+    }
+}
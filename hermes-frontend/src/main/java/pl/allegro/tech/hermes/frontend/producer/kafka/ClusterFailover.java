@@ -0,0 +1,102 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka;
+
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.Gauges;
+import pl.allegro.tech.hermes.common.time.Clock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_FAILOVER_ERROR_THRESHOLD_PERCENT;
+import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_FAILOVER_FAILBACK_RATIO_PERCENT;
+import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_FAILOVER_LATENCY_THRESHOLD_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_FAILOVER_MIN_DURATION_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_FAILOVER_PROBE_INTERVAL;
+import static pl.allegro.tech.hermes.metrics.PathsCompiler.HOSTNAME;
+
+/**
+ * Decides per topic whether to publish to primary or secondary Kafka cluster. Smoothed ack latency and error rate of
+ * primary cluster are kept for each topic; topic is diverted when any of them exceeds its threshold. While diverted,
+ * every n-th message still goes to primary to observe it, and topic fails back only when both values dropped below
+ * part of thresholds and minimal failover time passed, so it does not flap between clusters.
+ */
+public class ClusterFailover {
+
+    private static final double SMOOTHING = 0.1;
+    private static final String PRODUCER_GAUGE_PREFIX = "producer." + HOSTNAME;
+
+    private final double latencyThresholdMs;
+    private final double errorThreshold;
+    private final double failbackRatio;
+    private final long minDurationMs;
+    private final int probeInterval;
+    private final Clock clock;
+
+    private final ConcurrentMap<TopicName, TopicHealth> topics = new ConcurrentHashMap<>();
+
+    public ClusterFailover(ConfigFactory configFactory, Clock clock) {
+        this(configFactory.getIntProperty(KAFKA_FAILOVER_LATENCY_THRESHOLD_MS),
+                configFactory.getIntProperty(KAFKA_FAILOVER_ERROR_THRESHOLD_PERCENT),
+                configFactory.getIntProperty(KAFKA_FAILOVER_FAILBACK_RATIO_PERCENT),
+                configFactory.getIntProperty(KAFKA_FAILOVER_MIN_DURATION_MS),
+                configFactory.getIntProperty(KAFKA_FAILOVER_PROBE_INTERVAL),
+                clock);
+    }
+
+    ClusterFailover(long latencyThresholdMs, int errorThresholdPercent, int failbackRatioPercent,
+                    long minDurationMs, int probeInterval, Clock clock) {
+        this.latencyThresholdMs = latencyThresholdMs;
+        this.errorThreshold = errorThresholdPercent / 100.0;
+        this.failbackRatio = failbackRatioPercent / 100.0;
+        this.minDurationMs = minDurationMs;
+        this.probeInterval = probeInterval;
+        this.clock = clock;
+    }
+
+    public boolean useSecondary(TopicName topicName) {
+        TopicHealth health = topics.get(topicName);
+        return health != null && health.useSecondary();
+    }
+
+    public void recordPrimary(TopicName topicName, long latencyMs, boolean failed) {
+        topics.computeIfAbsent(topicName, name -> new TopicHealth()).record(latencyMs, failed);
+    }
+
+    public long getDivertedTopics() {
+        return topics.values().stream().filter(health -> health.diverted).count();
+    }
+
+    /**
+     * Maps name of producer gauge to the one reported for secondary cluster, so both clusters are visible side by side.
+     */
+    public static String secondaryGauge(String gauge) {
+        return Gauges.PRODUCER_FAILOVER_SECONDARY_PREFIX + gauge.substring(PRODUCER_GAUGE_PREFIX.length());
+    }
+
+    private class TopicHealth {
+
+        private double latencyMs;
+        private double errorRate;
+        private boolean diverted;
+        private long divertedAt;
+        private long divertedMessages;
+
+        synchronized boolean useSecondary() {
+            return diverted && divertedMessages++ % probeInterval != 0;
+        }
+
+        synchronized void record(long sampleLatencyMs, boolean failed) {
+            latencyMs += SMOOTHING * (sampleLatencyMs - latencyMs);
+            errorRate += SMOOTHING * ((failed ? 1.0 : 0.0) - errorRate);
+            if (!diverted && (latencyMs > latencyThresholdMs || errorRate > errorThreshold)) {
+                diverted = true;
+                divertedAt = clock.getTime();
+                divertedMessages = 1;
+            } else if (diverted && clock.getTime() - divertedAt >= minDurationMs
+                    && latencyMs < latencyThresholdMs * failbackRatio && errorRate < errorThreshold * failbackRatio) {
+                diverted = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import org.apache.kafka.common.record.CompressionType;
+import org.xerial.snappy.Snappy;
+import pl.allegro.tech.hermes.common.exception.InternalProcessingException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses single message the way Kafka producer would, to measure ratio and CPU time of codecs.
+ */
+class CompressionSampler {
+
+    private static final LZ4Compressor LZ4_COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+
+    static class Sample {
+        private final double ratio;
+        private final long nanos;
+
+        Sample(double ratio, long nanos) {
+            this.ratio = ratio;
+            this.nanos = nanos;
+        }
+
+        double getRatio() {
+            return ratio;
+        }
+
+        long getNanos() {
+            return nanos;
+        }
+    }
+
+    Sample sample(CompressionType codec, byte[] data) {
+        if (codec == CompressionType.NONE || data.length == 0) {
+            return new Sample(1.0, 0);
+        }
+        long start = System.nanoTime();
+        int compressedSize = compress(codec, data);
+        return new Sample((double) compressedSize / data.length, System.nanoTime() - start);
+    }
+
+    private int compress(CompressionType codec, byte[] data) {
+        try {
+            switch (codec) {
+                case GZIP:
+                    ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+                    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                        gzip.write(data);
+                    }
+                    return out.size();
+                case SNAPPY:
+                    return Snappy.compress(data).length;
+                case LZ4:
+                    return LZ4_COMPRESSOR.compress(data).length;
+                default:
+                    return data.length;
+            }
+        } catch (IOException e) {
+            throw new InternalProcessingException(e);
+        }
+    }
+}
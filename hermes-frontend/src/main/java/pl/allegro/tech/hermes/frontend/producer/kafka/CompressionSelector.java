@@ -0,0 +1,94 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.kafka.common.record.CompressionType;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.Gauges;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_COMPRESSION_AUTO_MIN_SAVING_PERCENT;
+import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_COMPRESSION_CODEC;
+import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_COMPRESSION_SAMPLING_INTERVAL;
+import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_COMPRESSION_SWITCH_MAX_WAIT_MS;
+
+public class CompressionSelector {
+
+    private static final int SAMPLING_QUEUE_SIZE = 100;
+
+    private final CompressionType defaultCodec;
+    private final TopicCompression defaultCompression;
+    private final int samplingInterval;
+    private final int minSavingPercent;
+    private final int maxSwitchWaitMs;
+    private final HermesMetrics hermesMetrics;
+    private final CompressionSampler sampler = new CompressionSampler();
+    private final Executor samplingExecutor;
+    private final ConcurrentMap<TopicName, TopicCompression> topics = new ConcurrentHashMap<>();
+
+    public CompressionSelector(ConfigFactory configFactory, HermesMetrics hermesMetrics) {
+        this(CompressionType.forName(configFactory.getStringProperty(KAFKA_PRODUCER_COMPRESSION_CODEC)),
+                configFactory.getIntProperty(KAFKA_PRODUCER_COMPRESSION_SAMPLING_INTERVAL),
+                configFactory.getIntProperty(KAFKA_PRODUCER_COMPRESSION_AUTO_MIN_SAVING_PERCENT),
+                configFactory.getIntProperty(KAFKA_PRODUCER_COMPRESSION_SWITCH_MAX_WAIT_MS),
+                hermesMetrics, samplingExecutor());
+    }
+
+    CompressionSelector(CompressionType defaultCodec, int samplingInterval, int minSavingPercent, int maxSwitchWaitMs,
+                        HermesMetrics hermesMetrics, Executor samplingExecutor) {
+        this.defaultCodec = defaultCodec;
+        this.samplingInterval = samplingInterval;
+        this.minSavingPercent = minSavingPercent;
+        this.maxSwitchWaitMs = maxSwitchWaitMs;
+        this.hermesMetrics = hermesMetrics;
+        this.samplingExecutor = samplingExecutor;
+        this.defaultCompression = create(Topic.Compression.valueOf(defaultCodec.name.toUpperCase()));
+    }
+
+    /**
+     * Samples are dropped rather than queued when sampler falls behind, they are taken again with next messages.
+     */
+    private static Executor samplingExecutor() {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(SAMPLING_QUEUE_SIZE),
+                new ThreadFactoryBuilder().setNameFormat("compression-sampler-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public CompressionType getDefaultCodec() {
+        return defaultCodec;
+    }
+
+    TopicCompression compressionOf(Topic topic) {
+        if (topic.getCompression() == null) {
+            return defaultCompression;
+        }
+        TopicCompression current = topics.get(topic.getName());
+        if (current == null || current.getSetting() != topic.getCompression()) {
+            current = create(topic.getCompression());
+            if (topics.put(topic.getName(), current) == null) {
+                registerGauges(topic.getName());
+            }
+        }
+        return current;
+    }
+
+    private TopicCompression create(Topic.Compression setting) {
+        return new TopicCompression(setting, sampler, samplingExecutor, samplingInterval, minSavingPercent,
+                maxSwitchWaitMs);
+    }
+
+    private void registerGauges(TopicName topicName) {
+        hermesMetrics.registerGauge(Gauges.PRODUCER_TOPIC_COMPRESSION_CODEC, topicName,
+                () -> topics.get(topicName).getChosen().id);
+        hermesMetrics.registerGauge(Gauges.PRODUCER_TOPIC_COMPRESSION_RATIO, topicName,
+                () -> topics.get(topicName).getChosenRatio());
+    }
+}
@@ -2,39 +2,68 @@ package pl.allegro.tech.hermes.frontend.producer.kafka;
 
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.record.CompressionType;
 import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.common.kafka.KafkaNamesMapper;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Meters;
 import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
 import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
 import pl.allegro.tech.hermes.frontend.publishing.message.Message;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 @Singleton
 public class KafkaBrokerMessageProducer implements BrokerMessageProducer {
 
     private final Producers producers;
+    private final Producers secondaryProducers;
+    private final ClusterFailover failover;
     private final KafkaNamesMapper kafkaNamesMapper;
     private final HermesMetrics metrics;
+    private final CompressionSelector compressionSelector;
 
     @Inject
-    public KafkaBrokerMessageProducer(Producers producers, HermesMetrics metrics, KafkaNamesMapper kafkaNamesMapper) {
+    public KafkaBrokerMessageProducer(Producers producers, HermesMetrics metrics, KafkaNamesMapper kafkaNamesMapper,
+                                      CompressionSelector compressionSelector) {
+        this(producers, null, null, metrics, kafkaNamesMapper, compressionSelector);
+    }
+
+    public KafkaBrokerMessageProducer(Producers producers, Producers secondaryProducers, ClusterFailover failover,
+                                      HermesMetrics metrics, KafkaNamesMapper kafkaNamesMapper,
+                                      CompressionSelector compressionSelector) {
         this.kafkaNamesMapper = kafkaNamesMapper;
         this.producers = producers;
+        this.secondaryProducers = secondaryProducers;
+        this.failover = failover;
         this.metrics = metrics;
+        this.compressionSelector = compressionSelector;
         producers.registerGauges(metrics);
+        if (secondaryProducers != null) {
+            secondaryProducers.registerGauges(metrics, ClusterFailover::secondaryGauge);
+        }
     }
 
     @Override
     public void send(Message message, Topic topic, final PublishingCallback callback) {
+        boolean secondary = secondaryProducers != null && failover.useSecondary(topic.getName());
+        TopicCompression compression = compressionSelector.compressionOf(topic);
+        CompressionType codec = compression.select(message.getData());
+        SendCallback sendCallback = new SendCallback(message, topic, callback, secondary, compression);
         try {
             String kafkaTopicName = kafkaNamesMapper.toKafkaTopics(topic).getPrimary().name().asString();
-            ProducerRecord<byte[], byte[]> producerRecord = new ProducerRecord<>(kafkaTopicName, message.getData());
-            producers.get(topic).send(producerRecord, new SendCallback(message, topic, callback));
+            ProducerRecord<byte[], byte[]> producerRecord = new ProducerRecord<>(kafkaTopicName,
+                    message.getPartitionKey().map(key -> key.getBytes(StandardCharsets.UTF_8)).orElse(null), message.getData());
+            Producers target = secondary ? secondaryProducers : producers;
+            if (secondary) {
+                metrics.meter(Meters.PRODUCER_FAILOVER_METER).mark();
+            }
+            target.get(topic, codec).send(producerRecord, sendCallback);
         } catch (Exception e) {
-            callback.onUnpublished(message, topic, e);
+            sendCallback.onCompletion(null, e);
         }
     }
 
@@ -42,20 +71,33 @@ public class KafkaBrokerMessageProducer implements BrokerMessageProducer {
         private final Message message;
         private final Topic topic;
         private final PublishingCallback callback;
+        private final boolean secondary;
+        private final TopicCompression compression;
+        private final long start = System.nanoTime();
 
-        public SendCallback(Message message, Topic topic, PublishingCallback callback) {
+        public SendCallback(Message message, Topic topic, PublishingCallback callback, boolean secondary,
+                            TopicCompression compression) {
             this.message = message;
             this.topic = topic;
             this.callback = callback;
+            this.secondary = secondary;
+            this.compression = compression;
         }
 
         @Override
         public void onCompletion(RecordMetadata recordMetadata, Exception e) {
+            compression.sent();
+            if (failover != null && !secondary) {
+                failover.recordPrimary(topic.getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), e != null);
+            }
             if (e != null) {
+                if (secondary) {
+                    metrics.meter(Meters.PRODUCER_FAILOVER_FAILED_METER).mark();
+                }
                 callback.onUnpublished(message, topic, e);
             } else {
                 callback.onPublished(message, topic);
-                producers.maybeRegisterNodeMetricsGauges(metrics);
+                (secondary ? secondaryProducers : producers).maybeRegisterNodeMetricsGauges(metrics);
             }
         }
     }
@@ -1,32 +1,54 @@
 package pl.allegro.tech.hermes.frontend.producer.kafka;
 
 import org.glassfish.hk2.api.Factory;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.kafka.KafkaNamesMapper;
+import pl.allegro.tech.hermes.common.metric.Gauges;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.time.Clock;
 
 import javax.inject.Inject;
 
+import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_FAILOVER_BROKER_LIST;
+
 public class KafkaBrokerMessageProducerFactory implements Factory<KafkaBrokerMessageProducer> {
 
     private final Producers producers;
     private final HermesMetrics hermesMetrics;
     private final KafkaNamesMapper kafkaNamesMapper;
+    private final ConfigFactory configFactory;
+    private final Clock clock;
+    private Producers secondaryProducers;
 
     @Inject
-    public KafkaBrokerMessageProducerFactory(Producers producers, HermesMetrics hermesMetrics, KafkaNamesMapper kafkaNamesMapper) {
+    public KafkaBrokerMessageProducerFactory(Producers producers, HermesMetrics hermesMetrics, KafkaNamesMapper kafkaNamesMapper,
+                                             ConfigFactory configFactory, Clock clock) {
         this.producers = producers;
         this.hermesMetrics = hermesMetrics;
         this.kafkaNamesMapper = kafkaNamesMapper;
+        this.configFactory = configFactory;
+        this.clock = clock;
     }
 
     @Override
     public KafkaBrokerMessageProducer provide() {
-        return new KafkaBrokerMessageProducer(producers, hermesMetrics, kafkaNamesMapper);
+        CompressionSelector compressionSelector = new CompressionSelector(configFactory, hermesMetrics);
+        String secondaryBrokerList = configFactory.getStringProperty(KAFKA_FAILOVER_BROKER_LIST);
+        if (secondaryBrokerList.isEmpty()) {
+            return new KafkaBrokerMessageProducer(producers, hermesMetrics, kafkaNamesMapper, compressionSelector);
+        }
+        secondaryProducers = new KafkaMessageProducerFactory(configFactory).create(secondaryBrokerList);
+        ClusterFailover failover = new ClusterFailover(configFactory, clock);
+        hermesMetrics.registerGauge(Gauges.PRODUCER_FAILOVER_DIVERTED_TOPICS, failover::getDivertedTopics);
+        return new KafkaBrokerMessageProducer(producers, secondaryProducers, failover, hermesMetrics, kafkaNamesMapper,
+                compressionSelector);
     }
 
     @Override
     public void dispose(KafkaBrokerMessageProducer instance) {
-
+        if (secondaryProducers != null) {
+            secondaryProducers.close();
+        }
     }
 
 }
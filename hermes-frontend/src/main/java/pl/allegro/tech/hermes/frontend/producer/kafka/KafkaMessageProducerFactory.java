@@ -3,12 +3,15 @@ package pl.allegro.tech.hermes.frontend.producer.kafka;
 import com.google.common.collect.ImmutableMap;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.record.CompressionType;
 import org.glassfish.hk2.api.Factory;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.config.Configs;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.apache.kafka.clients.producer.ProducerConfig.ACKS_CONFIG;
@@ -41,6 +44,7 @@ import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_MAX_RE
 import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_METADATA_FETCH_TIMEOUT_MS;
 import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_METADATA_MAX_AGE;
 import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_METRICS_SAMPLE_WINDOW_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_POOL_SIZE;
 import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_RETRIES;
 import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_RETRY_BACKOFF_MS;
 import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_TCP_SEND_BUFFER;
@@ -49,15 +53,22 @@ public class KafkaMessageProducerFactory implements Factory<Producers> {
     private static final String ACK_ALL = "-1";
     private static final String ACK_LEADER = "1";
 
+    private final ConfigFactory configFactory;
+
     @Inject
-    private ConfigFactory configFactory;
+    public KafkaMessageProducerFactory(ConfigFactory configFactory) {
+        this.configFactory = configFactory;
+    }
 
     @Override
     public Producers provide() {
+        return create(getString(KAFKA_BROKER_LIST));
+    }
+
+    Producers create(String brokerList) {
         Map<String, Object> common = new HashMap<>();
-        common.put(BOOTSTRAP_SERVERS_CONFIG, getString(KAFKA_BROKER_LIST));
+        common.put(BOOTSTRAP_SERVERS_CONFIG, brokerList);
         common.put(METADATA_FETCH_TIMEOUT_CONFIG, getInt(KAFKA_PRODUCER_METADATA_FETCH_TIMEOUT_MS));
-        common.put(COMPRESSION_TYPE_CONFIG, getString(KAFKA_PRODUCER_COMPRESSION_CODEC));
         common.put(BUFFER_MEMORY_CONFIG, configFactory.getLongProperty(KAFKA_PRODUCER_BUFFER_MEMORY));
         common.put(BLOCK_ON_BUFFER_FULL_CONFIG, configFactory.getBooleanProperty(KAFKA_PRODUCER_BLOCK_ON_BUFFER_FULL));
         common.put(TIMEOUT_CONFIG, getInt(KAFKA_PRODUCER_ACK_TIMEOUT));
@@ -73,9 +84,25 @@ public class KafkaMessageProducerFactory implements Factory<Producers> {
         common.put(METRICS_SAMPLE_WINDOW_MS_CONFIG, getInt(KAFKA_PRODUCER_METRICS_SAMPLE_WINDOW_MS));
         common.put(MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, getInt(KAFKA_PRODUCER_MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION));
 
-        Producer<byte[], byte[]> leaderConfirms = new KafkaProducer<>(copyWithEntryAdded(common, ACKS_CONFIG, ACK_LEADER));
-        Producer<byte[], byte[]> everyoneConfirms = new KafkaProducer<>(copyWithEntryAdded(common, ACKS_CONFIG, ACK_ALL));
-        return new Producers(leaderConfirms, everyoneConfirms, configFactory);
+        CompressionType defaultCodec = CompressionType.forName(getString(KAFKA_PRODUCER_COMPRESSION_CODEC));
+        Producers.PoolFactory poolFactory = (everyoneConfirms, codec) -> createPool(
+                copyWithEntryAdded(copyWithEntryAdded(common, ACKS_CONFIG, everyoneConfirms ? ACK_ALL : ACK_LEADER),
+                        COMPRESSION_TYPE_CONFIG, codec.name));
+
+        return new Producers(
+                poolFactory.create(false, defaultCodec),
+                poolFactory.create(true, defaultCodec),
+                defaultCodec,
+                poolFactory,
+                configFactory);
+    }
+
+    private List<Producer<byte[], byte[]>> createPool(Map<String, Object> props) {
+        List<Producer<byte[], byte[]>> pool = new ArrayList<>();
+        for (int i = 0; i < getInt(KAFKA_PRODUCER_POOL_SIZE); i++) {
+            pool.add(new KafkaProducer<>(props));
+        }
+        return pool;
     }
 
     private ImmutableMap<String, Object> copyWithEntryAdded(Map<String, Object> common, String key, String value) {
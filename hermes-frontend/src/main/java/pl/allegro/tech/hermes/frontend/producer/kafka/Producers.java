@@ -4,6 +4,7 @@ import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.common.Metric;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.Node;
+import org.apache.kafka.common.record.CompressionType;
 import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.config.Configs;
@@ -13,38 +14,119 @@ import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
 
+import static java.util.Collections.singletonList;
 import static pl.allegro.tech.hermes.common.metric.HermesMetrics.escapeDots;
 
-
+/**
+ * Pool of Kafka producers for each ack level. Topic is always sent through the same producer chosen by hash
+ * of its name, so order of messages on partitions is kept while load is spread among producer accumulators
+ * and sender threads. Topics compressed with codec other than the default one get separate pools, created on first use;
+ * every producer of such pool allocates its own buffer memory.
+ */
 public class Producers {
-    private final Producer<byte[], byte[]> leaderConfirms;
-    private final Producer<byte[], byte[]> everyoneConfirms;
+    private static final Function<DoubleStream, Double> SUM = DoubleStream::sum;
+    private static final Function<DoubleStream, Double> AVERAGE = values -> values.average().orElse(0.0);
+    private static final Function<DoubleStream, Double> MAX = values -> values.max().orElse(0.0);
+
+    private final List<Producer<byte[], byte[]>> leaderConfirms;
+    private final List<Producer<byte[], byte[]>> everyoneConfirms;
+    private final CompressionType defaultCodec;
+    private final PoolFactory poolFactory;
+    private final ConcurrentMap<CompressionType, List<Producer<byte[], byte[]>>> leaderConfirmsByCodec = new ConcurrentHashMap<>();
+    private final ConcurrentMap<CompressionType, List<Producer<byte[], byte[]>>> everyoneConfirmsByCodec = new ConcurrentHashMap<>();
 
     private boolean reportNodeMetrics;
     private AtomicBoolean nodeMetricsRegistered = new AtomicBoolean(false);
+    private volatile UnaryOperator<String> gaugeNaming = UnaryOperator.identity();
+
+    /**
+     * Single producer per ack level, compressing with codec from configuration. It can not serve topics compressed
+     * with other codec, sending them fails instead of silently using wrong one.
+     */
+    Producers(Producer<byte[], byte[]> leaderConfirms,
+              Producer<byte[], byte[]> everyoneConfirms,
+              ConfigFactory configFactory) {
+        this(singletonList(leaderConfirms), singletonList(everyoneConfirms),
+                CompressionType.forName(configFactory.getStringProperty(Configs.KAFKA_PRODUCER_COMPRESSION_CODEC)),
+                (everyone, codec) -> {
+                    throw new IllegalStateException("No producer compressing with " + codec.name);
+                },
+                configFactory);
+    }
 
-    public Producers(Producer<byte[], byte[]> leaderConfirms,
-                     Producer<byte[], byte[]> everyoneConfirms,
+    public Producers(List<Producer<byte[], byte[]>> leaderConfirms,
+                     List<Producer<byte[], byte[]>> everyoneConfirms,
+                     CompressionType defaultCodec,
+                     PoolFactory poolFactory,
                      ConfigFactory configFactory) {
         this.leaderConfirms = leaderConfirms;
         this.everyoneConfirms = everyoneConfirms;
+        this.defaultCodec = defaultCodec;
+        this.poolFactory = poolFactory;
         this.reportNodeMetrics = configFactory.getBooleanProperty(Configs.KAFKA_PRODUCER_REPORT_NODE_METRICS);
     }
 
     public Producer<byte[], byte[]> get(Topic topic) {
-        return topic.isReplicationConfirmRequired() ? everyoneConfirms : leaderConfirms;
+        return get(topic, defaultCodec);
+    }
+
+    public Producer<byte[], byte[]> get(Topic topic, CompressionType codec) {
+        List<Producer<byte[], byte[]>> pool = pool(topic.isReplicationConfirmRequired(), codec);
+        return pool.get(Math.floorMod(topic.getName().qualifiedName().hashCode(), pool.size()));
+    }
+
+    private List<Producer<byte[], byte[]>> pool(boolean everyone, CompressionType codec) {
+        if (codec == defaultCodec) {
+            return everyone ? everyoneConfirms : leaderConfirms;
+        }
+        ConcurrentMap<CompressionType, List<Producer<byte[], byte[]>>> pools = everyone ? everyoneConfirmsByCodec : leaderConfirmsByCodec;
+        return pools.computeIfAbsent(codec, c -> poolFactory.create(everyone, c));
+    }
+
+    private Stream<Producer<byte[], byte[]>> leaderConfirms() {
+        return all(leaderConfirms, leaderConfirmsByCodec);
+    }
+
+    private Stream<Producer<byte[], byte[]>> everyoneConfirms() {
+        return all(everyoneConfirms, everyoneConfirmsByCodec);
+    }
+
+    private Stream<Producer<byte[], byte[]>> all(List<Producer<byte[], byte[]>> defaultPool,
+                                                 Map<CompressionType, List<Producer<byte[], byte[]>>> codecPools) {
+        return Stream.concat(defaultPool.stream(), codecPools.values().stream().flatMap(List::stream)).distinct();
     }
 
     public void registerGauges(HermesMetrics metrics) {
-        registerTotalBytesGauge(leaderConfirms, metrics, Gauges.PRODUCER_LEADER_CONFIRMS_BUFFER_TOTAL_BYTES);
-        registerAvailableBytesGauge(leaderConfirms, metrics, Gauges.PRODUCER_LEADER_CONFIRMS_BUFFER_AVAILABLE_BYTES);
-        registerTotalBytesGauge(everyoneConfirms, metrics, Gauges.PRODUCER_EVERYONE_CONFIRMS_BUFFER_TOTAL_BYTES);
-        registerAvailableBytesGauge(everyoneConfirms, metrics, Gauges.PRODUCER_EVERYONE_CONFIRMS_BUFFER_AVAILABLE_BYTES);
-        registerCompressionRateGauge(leaderConfirms, metrics, Gauges.PRODUCER_LEADER_CONFIRMS_COMPRESSION_RATE);
-        registerCompressionRateGauge(everyoneConfirms, metrics, Gauges.PRODUCER_EVERYONE_CONFIRMS_COMPRESSION_RATE);
+        registerGauges(metrics, UnaryOperator.identity());
+    }
+
+    /**
+     * @param naming maps gauge names, so that pools connected to different clusters do not overwrite each other gauges;
+     *               node metrics gauges registered later are named the same way
+     */
+    public void registerGauges(HermesMetrics metrics, UnaryOperator<String> naming) {
+        this.gaugeNaming = naming;
+        registerTotalBytesGauge(this::leaderConfirms, metrics, naming.apply(Gauges.PRODUCER_LEADER_CONFIRMS_BUFFER_TOTAL_BYTES));
+        registerAvailableBytesGauge(this::leaderConfirms, metrics, naming.apply(Gauges.PRODUCER_LEADER_CONFIRMS_BUFFER_AVAILABLE_BYTES));
+        registerTotalBytesGauge(this::everyoneConfirms, metrics, naming.apply(Gauges.PRODUCER_EVERYONE_CONFIRMS_BUFFER_TOTAL_BYTES));
+        registerAvailableBytesGauge(this::everyoneConfirms, metrics,
+                naming.apply(Gauges.PRODUCER_EVERYONE_CONFIRMS_BUFFER_AVAILABLE_BYTES));
+        registerCompressionRateGauge(this::leaderConfirms, metrics, naming.apply(Gauges.PRODUCER_LEADER_CONFIRMS_COMPRESSION_RATE));
+        registerCompressionRateGauge(this::everyoneConfirms, metrics, naming.apply(Gauges.PRODUCER_EVERYONE_CONFIRMS_COMPRESSION_RATE));
+        registerBatchSizeGauge(this::leaderConfirms, metrics, naming.apply(Gauges.PRODUCER_LEADER_CONFIRMS_BATCH_SIZE));
+        registerBatchSizeGauge(this::everyoneConfirms, metrics, naming.apply(Gauges.PRODUCER_EVERYONE_CONFIRMS_BATCH_SIZE));
+        registerRequestLatencyGauge(this::leaderConfirms, metrics, naming.apply(Gauges.PRODUCER_LEADER_CONFIRMS_REQUEST_LATENCY));
+        registerRequestLatencyGauge(this::everyoneConfirms, metrics, naming.apply(Gauges.PRODUCER_EVERYONE_CONFIRMS_REQUEST_LATENCY));
     }
 
     public void maybeRegisterNodeMetricsGauges(HermesMetrics metrics) {
@@ -54,70 +136,87 @@ public class Producers {
     }
 
     private void registerLatencyPerBrokerGauge(HermesMetrics metrics) {
-        List<Node> brokers = ProducerBrokerNodeReader.read(leaderConfirms);
-        registerLatencyPerBrokerGauge(everyoneConfirms, metrics, "request-latency-avg", "everyone-confirms", brokers);
-        registerLatencyPerBrokerGauge(leaderConfirms, metrics, "request-latency-avg", "leader-confirms", brokers);
-        registerLatencyPerBrokerGauge(everyoneConfirms, metrics, "request-latency-max", "everyone-confirms", brokers);
-        registerLatencyPerBrokerGauge(leaderConfirms, metrics, "request-latency-max", "leader-confirms", brokers);
+        List<Node> brokers = ProducerBrokerNodeReader.read(leaderConfirms.get(0));
+        registerLatencyPerBrokerGauge(this::everyoneConfirms, metrics, "request-latency-avg", "everyone-confirms", brokers);
+        registerLatencyPerBrokerGauge(this::leaderConfirms, metrics, "request-latency-avg", "leader-confirms", brokers);
+        registerLatencyPerBrokerGauge(this::everyoneConfirms, metrics, "request-latency-max", "everyone-confirms", brokers);
+        registerLatencyPerBrokerGauge(this::leaderConfirms, metrics, "request-latency-max", "leader-confirms", brokers);
+    }
+
+    private void registerCompressionRateGauge(Supplier<Stream<Producer<byte[], byte[]>>> pool, HermesMetrics metrics, String gauge) {
+        registerProducerGauge(pool, metrics, new MetricName("compression-rate-avg", "producer-metrics"), gauge, AVERAGE);
     }
 
-    private void registerCompressionRateGauge(Producer<byte[], byte[]> producer, HermesMetrics metrics, String gauge) {
-        registerProducerGauge(producer, metrics, new MetricName("compression-rate-avg", "producer-metrics"), gauge);
+    private void registerTotalBytesGauge(Supplier<Stream<Producer<byte[], byte[]>>> pool, HermesMetrics metrics, String gauge) {
+        registerProducerGauge(pool, metrics, new MetricName("buffer-total-bytes", "producer-metrics"), gauge, SUM);
     }
 
-    private void registerTotalBytesGauge(Producer<byte[], byte[]> producer, HermesMetrics metrics, String gauge) {
-        registerProducerGauge(producer, metrics, new MetricName("buffer-total-bytes", "producer-metrics"), gauge);
+    private void registerAvailableBytesGauge(Supplier<Stream<Producer<byte[], byte[]>>> pool, HermesMetrics metrics, String gauge) {
+        registerProducerGauge(pool, metrics, new MetricName("buffer-available-bytes", "producer-metrics"), gauge, SUM);
     }
 
-    private void registerAvailableBytesGauge(Producer<byte[], byte[]> producer, HermesMetrics metrics, String gauge) {
-        registerProducerGauge(producer, metrics, new MetricName("buffer-available-bytes", "producer-metrics"), gauge);
+    private void registerBatchSizeGauge(Supplier<Stream<Producer<byte[], byte[]>>> pool, HermesMetrics metrics, String gauge) {
+        registerProducerGauge(pool, metrics, new MetricName("batch-size-avg", "producer-metrics"), gauge, AVERAGE);
     }
 
-    private void registerProducerGauge(final Producer<byte[], byte[]> producer,
+    private void registerRequestLatencyGauge(Supplier<Stream<Producer<byte[], byte[]>>> pool, HermesMetrics metrics, String gauge) {
+        registerProducerGauge(pool, metrics, new MetricName("request-latency-avg", "producer-metrics"), gauge, AVERAGE);
+    }
+
+    private void registerProducerGauge(final Supplier<Stream<Producer<byte[], byte[]>>> pool,
                                        final HermesMetrics metrics,
                                        final MetricName name,
-                                       final String gauge) {
+                                       final String gauge,
+                                       final Function<DoubleStream, Double> aggregation) {
 
-        registerGauge(producer, metrics, gauge,
+        registerGauge(pool, metrics, gauge, aggregation,
                 entry -> entry.getKey().group().equals(name.group()) && entry.getKey().name().equals(name.name()));
     }
 
-    private void registerLatencyPerBrokerGauge(Producer<byte[], byte[]> producer,
+    private void registerLatencyPerBrokerGauge(Supplier<Stream<Producer<byte[], byte[]>>> pool,
                                                HermesMetrics metrics,
                                                String metricName,
                                                String producerName,
                                                List<Node> brokers) {
         for (Node broker : brokers) {
-            registerLatencyPerBrokerGauge(producer, metrics, metricName, producerName, broker);
+            registerLatencyPerBrokerGauge(pool, metrics, metricName, producerName, broker);
         }
     }
 
-    private void registerLatencyPerBrokerGauge(Producer<byte[], byte[]> producer,
+    private void registerLatencyPerBrokerGauge(Supplier<Stream<Producer<byte[], byte[]>>> pool,
                                                HermesMetrics metrics,
                                                String metricName,
                                                String producerName,
                                                Node node) {
 
-        String gauge = Gauges.PRODUCER_JMX_PREFIX + "." + producerName + "-" + metricName + "." + escapeDots(node.host());
-        registerGauge(producer, metrics, gauge,
+        String gauge = gaugeNaming.apply(
+                Gauges.PRODUCER_JMX_PREFIX + "." + producerName + "-" + metricName + "." + escapeDots(node.host()));
+        registerGauge(pool, metrics, gauge, metricName.endsWith("max") ? MAX : AVERAGE,
                 entry -> entry.getKey().group().equals("producer-node-metrics")
                         && entry.getKey().name().equals(metricName)
                         && entry.getKey().tags().containsValue("node-" + node.id()));
 
     }
 
-    private void registerGauge(Producer<byte[], byte[]> producer, HermesMetrics metrics, String gauge,
+    private void registerGauge(Supplier<Stream<Producer<byte[], byte[]>>> pool, HermesMetrics metrics, String gauge,
+                               Function<DoubleStream, Double> aggregation,
                                Predicate<Map.Entry<MetricName, ? extends Metric>> predicate) {
-        metrics.registerGauge(gauge, () -> {
-            Optional<? extends Map.Entry<MetricName, ? extends Metric>> first =
-                    producer.metrics().entrySet().stream().filter(predicate).findFirst();
-            double value = first.isPresent() ? first.get().getValue().value() : 0.0;
-            return value < 0? 0.0 : value;
-        });
+        metrics.registerGauge(gauge, () -> aggregation.apply(pool.get().mapToDouble(producer -> value(producer, predicate))));
+    }
+
+    private double value(Producer<byte[], byte[]> producer, Predicate<Map.Entry<MetricName, ? extends Metric>> predicate) {
+        Optional<? extends Map.Entry<MetricName, ? extends Metric>> first =
+                producer.metrics().entrySet().stream().filter(predicate).findFirst();
+        double value = first.isPresent() ? first.get().getValue().value() : 0.0;
+        return value < 0? 0.0 : value;
     }
 
     public void close() {
-        everyoneConfirms.close();
-        leaderConfirms.close();
+        everyoneConfirms().forEach(Producer::close);
+        leaderConfirms().forEach(Producer::close);
+    }
+
+    public interface PoolFactory {
+        List<Producer<byte[], byte[]>> create(boolean everyoneConfirms, CompressionType codec);
     }
 }
@@ -0,0 +1,149 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka;
+
+import org.apache.kafka.common.record.CompressionType;
+import pl.allegro.tech.hermes.api.Topic;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compression state of single topic. In auto mode every n-th message is compressed with candidate codecs on sampler
+ * executor, off the publishing thread, and smoothed ratio and CPU time per byte are kept. The codec saving most bytes
+ * per CPU time is proposed, as long as it saves at least configured part of message size, otherwise messages are not
+ * compressed. Since codecs are sent through different producers, proposed codec is taken into use only when no message
+ * of the topic is in flight, so that switching codec does not reorder messages. On busy topic that moment may never
+ * come, so once codec is proposed new messages are held until messages in flight are acknowledged, but not longer than
+ * configured time, after which codec is switched anyway. Topics with fixed codec are not sampled.
+ */
+class TopicCompression {
+
+    private static final CompressionType[] AUTO_CANDIDATES = {CompressionType.GZIP, CompressionType.SNAPPY, CompressionType.LZ4};
+    private static final double SMOOTHING = 0.2;
+
+    private final Topic.Compression setting;
+    private final double[] ratios = new double[AUTO_CANDIDATES.length];
+    private final double[] nanosPerByte = new double[AUTO_CANDIDATES.length];
+    private final CompressionSampler sampler;
+    private final Executor samplingExecutor;
+    private final int samplingInterval;
+    private final double minSaving;
+    private final long maxSwitchWaitNanos;
+    private final AtomicLong messages = new AtomicLong();
+
+    private boolean sampled;
+    private int inflight;
+    private volatile CompressionType proposed;
+    private volatile double proposedRatio = 1.0;
+    private volatile CompressionType chosen;
+
+    TopicCompression(Topic.Compression setting, CompressionSampler sampler, Executor samplingExecutor,
+                     int samplingInterval, int minSavingPercent, int maxSwitchWaitMs) {
+        this.setting = setting;
+        this.sampler = sampler;
+        this.samplingExecutor = samplingExecutor;
+        this.samplingInterval = samplingInterval;
+        this.minSaving = minSavingPercent / 100.0;
+        this.maxSwitchWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxSwitchWaitMs);
+        this.chosen = isAuto() ? CompressionType.NONE : CompressionType.forName(setting.name().toLowerCase());
+        this.proposed = chosen;
+    }
+
+    /**
+     * Codec of next message; {@link #sent()} has to be called once the message is acknowledged or failed.
+     */
+    CompressionType select(byte[] data) {
+        if (!isAuto()) {
+            return chosen;
+        }
+        if (messages.getAndIncrement() % samplingInterval == 0 && data.length > 0) {
+            samplingExecutor.execute(() -> sample(data));
+        }
+        synchronized (this) {
+            if (proposed != chosen) {
+                awaitInflight();
+                chosen = proposed;
+            }
+            inflight++;
+            return chosen;
+        }
+    }
+
+    void sent() {
+        if (isAuto()) {
+            synchronized (this) {
+                if (--inflight == 0) {
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    Topic.Compression getSetting() {
+        return setting;
+    }
+
+    CompressionType getChosen() {
+        return chosen;
+    }
+
+    /**
+     * Ratio measured for proposed codec, known only in auto mode.
+     */
+    double getChosenRatio() {
+        return proposedRatio;
+    }
+
+    private void awaitInflight() {
+        long deadline = System.nanoTime() + maxSwitchWaitNanos;
+        long remaining;
+        while (inflight > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean isAuto() {
+        return setting == Topic.Compression.AUTO;
+    }
+
+    /**
+     * Runs on single sampler thread, so sampling state needs no locking.
+     */
+    private void sample(byte[] data) {
+        boolean first = !sampled;
+        sampled = true;
+        for (int i = 0; i < AUTO_CANDIDATES.length; i++) {
+            CompressionSampler.Sample sample = sampler.sample(AUTO_CANDIDATES[i], data);
+            double samplePerByte = (double) sample.getNanos() / data.length;
+            ratios[i] = first ? sample.getRatio() : smooth(ratios[i], sample.getRatio());
+            nanosPerByte[i] = first ? samplePerByte : smooth(nanosPerByte[i], samplePerByte);
+        }
+        propose();
+    }
+
+    private void propose() {
+        CompressionType best = CompressionType.NONE;
+        double bestRatio = 1.0;
+        double bestEfficiency = 0.0;
+        for (int i = 0; i < AUTO_CANDIDATES.length; i++) {
+            double saving = 1.0 - ratios[i];
+            double efficiency = saving / Math.max(nanosPerByte[i], Double.MIN_VALUE);
+            if (saving >= minSaving && efficiency > bestEfficiency) {
+                best = AUTO_CANDIDATES[i];
+                bestRatio = ratios[i];
+                bestEfficiency = efficiency;
+            }
+        }
+        proposed = best;
+        proposedRatio = bestRatio;
+    }
+
+    private double smooth(double current, double sample) {
+        return current + SMOOTHING * (sample - current);
+    }
+}
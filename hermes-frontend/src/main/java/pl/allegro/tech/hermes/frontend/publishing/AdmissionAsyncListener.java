@@ -0,0 +1,34 @@
+package pl.allegro.tech.hermes.frontend.publishing;
+
+import pl.allegro.tech.hermes.frontend.publishing.admission.Admission;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.io.IOException;
+
+class AdmissionAsyncListener implements AsyncListener {
+
+    private final Admission admission;
+
+    AdmissionAsyncListener(Admission admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) throws IOException {
+        admission.release();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) throws IOException {
+    }
+
+    @Override
+    public void onError(AsyncEvent event) throws IOException {
+        admission.release();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) throws IOException {
+    }
+}
@@ -1,5 +1,8 @@
 package pl.allegro.tech.hermes.frontend.publishing;
 
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+
 import javax.servlet.http.HttpServletRequest;
 
 import static java.lang.String.format;
@@ -15,6 +18,18 @@ public final class ContentLengthChecker {
         }
     }
 
+    public static void checkContentLength(HttpServerExchange exchange, int contentLength, String message) {
+        long expected = exchange.getRequestContentLength();
+        if (!isChunked(exchange) && expected != contentLength) {
+            throw new IllegalStateException(format("%s [header:%s, actual:%s].", message, expected, contentLength));
+        }
+    }
+
+    private static boolean isChunked(HttpServerExchange exchange) {
+        return "chunked".equals(exchange.getRequestHeaders().getFirst(Headers.TRANSFER_ENCODING))
+                && exchange.getRequestContentLength() < 0;
+    }
+
     private static boolean isChunked(HttpServletRequest request) {
         return "chunked".equals(request.getHeader("Transfer-Encoding")) && request.getContentLength() < 0;
     }
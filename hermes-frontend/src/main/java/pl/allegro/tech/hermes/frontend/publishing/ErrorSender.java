@@ -1,6 +1,9 @@
 package pl.allegro.tech.hermes.frontend.publishing;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
 import pl.allegro.tech.hermes.api.ErrorDescription;
 import pl.allegro.tech.hermes.common.exception.InternalProcessingException;
 
@@ -33,4 +36,15 @@ public class ErrorSender {
             throw new InternalProcessingException(e);
         }
     }
+
+    public void sendErrorResponseQuietly(ErrorDescription error, HttpServerExchange exchange, String messageId) {
+        try {
+            exchange.setResponseCode(error.getCode().getHttpCode());
+            exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+            exchange.getResponseHeaders().put(new HttpString(MESSAGE_ID.getName()), messageId);
+            exchange.getResponseSender().send(objectMapper.writeValueAsString(error));
+        } catch (IOException e) {
+            throw new InternalProcessingException(e);
+        }
+    }
 }
@@ -14,11 +14,12 @@ import static java.lang.String.format;
 import static javax.servlet.http.HttpServletResponse.SC_ACCEPTED;
 import static javax.servlet.http.HttpServletResponse.SC_CREATED;
 import static pl.allegro.tech.hermes.api.ErrorCode.INTERNAL_ERROR;
+import static pl.allegro.tech.hermes.api.ErrorCode.SERVICE_OVERLOADED;
 import static pl.allegro.tech.hermes.api.ErrorCode.TIMEOUT;
 import static pl.allegro.tech.hermes.api.ErrorCode.VALIDATION_ERROR;
 import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.MESSAGE_ID;
 
-public class HttpResponder {
+public class HttpResponder implements Responder {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpResponder.class);
 
@@ -52,28 +53,39 @@ public class HttpResponder {
         this.remoteHost = remoteHost;
     }
 
+    @Override
     public void accept() {
         trackers.get(topic).logInflight(messageId, topic.getName());
         completeCorrect(SC_ACCEPTED);
     }
 
+    @Override
     public void ok() {
         trackers.get(topic).logPublished(messageId, topic.getName());
         completeCorrect(SC_CREATED);
     }
 
-    public void timeout(Throwable throwable) {
-        completeError(new ErrorDescription(formatErrorMessage("Async timeout", throwable), TIMEOUT));
+    @Override
+    public void timeout() {
+        completeError(new ErrorDescription(formatErrorMessage("Async timeout", null), TIMEOUT));
     }
 
+    @Override
     public void badRequest(Throwable throwable, String message) {
         completeError(new ErrorDescription(formatErrorMessage(message, throwable), VALIDATION_ERROR));
     }
 
+    @Override
     public void badRequest(Throwable throwable) {
         completeError(new ErrorDescription(throwable.getMessage(), VALIDATION_ERROR));
     }
 
+    @Override
+    public void overloaded(Throwable throwable, String message) {
+        completeError(new ErrorDescription(formatErrorMessage(message, throwable), SERVICE_OVERLOADED));
+    }
+
+    @Override
     public void internalError(Throwable throwable, String message) {
         completeError(new ErrorDescription(formatErrorMessage(message, throwable), INTERNAL_ERROR));
     }
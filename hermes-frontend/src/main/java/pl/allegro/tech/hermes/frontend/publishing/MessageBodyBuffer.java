@@ -0,0 +1,49 @@
+package pl.allegro.tech.hermes.frontend.publishing;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Collects request body into single array. When size of body is known upfront, array is allocated once and handed
+ * over without copying, otherwise it doubles when full and is trimmed to actual size at the end.
+ */
+public class MessageBodyBuffer {
+
+    private byte[] content;
+    private int size;
+
+    MessageBodyBuffer(int initialCapacity) {
+        this.content = new byte[initialCapacity];
+    }
+
+    public void append(byte[] source, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(source, offset, content, size, length);
+        size += length;
+    }
+
+    public void append(ByteBuffer source) {
+        int length = source.remaining();
+        ensureCapacity(length);
+        source.get(content, size, length);
+        size += length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toBytes() {
+        return size == content.length ? content : Arrays.copyOf(content, size);
+    }
+
+    int capacity() {
+        return content.length;
+    }
+
+    private void ensureCapacity(int length) {
+        if (size + length > content.length) {
+            content = Arrays.copyOf(content, Math.max(content.length * 2, size + length));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package pl.allegro.tech.hermes.frontend.publishing;
+
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.config.Configs;
+
+import javax.inject.Inject;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Provides per thread read chunks and body buffers sized by Content-Length or, for chunked requests, by size of
+ * last message published on topic. Declared size is trusted only up to max request size accepted by Kafka,
+ * bigger bodies grow as they are read.
+ */
+public class MessageBodyBuffers {
+
+    private final int chunkSize;
+    private final int maxExactSize;
+    private final ThreadLocal<byte[]> readChunks;
+    private final ConcurrentMap<TopicName, Integer> sizeEstimates = new ConcurrentHashMap<>();
+
+    @Inject
+    public MessageBodyBuffers(ConfigFactory configFactory) {
+        this(configFactory.getIntProperty(Configs.FRONTEND_REQUEST_CHUNK_SIZE),
+                configFactory.getIntProperty(Configs.KAFKA_PRODUCER_MAX_REQUEST_SIZE));
+    }
+
+    MessageBodyBuffers(int chunkSize, int maxExactSize) {
+        this.chunkSize = chunkSize;
+        this.maxExactSize = maxExactSize;
+        this.readChunks = ThreadLocal.withInitial(() -> new byte[chunkSize]);
+    }
+
+    public byte[] readChunk() {
+        return readChunks.get();
+    }
+
+    public MessageBodyBuffer allocate(TopicName topicName, long contentLength) {
+        if (contentLength >= 0 && contentLength <= maxExactSize) {
+            return new MessageBodyBuffer((int) contentLength);
+        }
+        return new MessageBodyBuffer(Math.max(chunkSize, sizeEstimates.getOrDefault(topicName, 0)));
+    }
+
+    public void recordSize(TopicName topicName, int size) {
+        sizeEstimates.put(topicName, Math.min(size, maxExactSize));
+    }
+}
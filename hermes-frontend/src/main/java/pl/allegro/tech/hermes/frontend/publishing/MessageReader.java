@@ -9,7 +9,6 @@ import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
 import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.function.Consumer;
 
@@ -18,9 +17,9 @@ import static pl.allegro.tech.hermes.frontend.publishing.message.MessageState.St
 
 public class MessageReader implements ReadListener {
 
-    private final ByteArrayOutputStream messageContent = new ByteArrayOutputStream();
+    private final MessageBodyBuffers bodyBuffers;
+    private final MessageBodyBuffer messageContent;
     private final ServletInputStream inputStream;
-    private final Integer chunkSize;
     private final TopicName topicName;
     private final HermesMetrics hermesMetrics;
     private Timer.Context parsingTimerPerTopic;
@@ -33,7 +32,7 @@ public class MessageReader implements ReadListener {
 
     public MessageReader(
             HttpServletRequest request,
-            Integer chunkSize,
+            MessageBodyBuffers bodyBuffers,
             TopicName topicName,
             HermesMetrics hermesMetrics,
             MessageState messageState,
@@ -46,7 +45,8 @@ public class MessageReader implements ReadListener {
         this.onValidationError = onValidationError;
         this.onOtherError = onOtherError;
         this.inputStream = request.getInputStream();
-        this.chunkSize = chunkSize;
+        this.bodyBuffers = bodyBuffers;
+        this.messageContent = bodyBuffers.allocate(topicName, request.getContentLengthLong());
         this.topicName = topicName;
         this.hermesMetrics = hermesMetrics;
         this.onRead = onRead;
@@ -59,9 +59,9 @@ public class MessageReader implements ReadListener {
     @Override
     public void onDataAvailable() throws IOException {
         int bufferLength;
-        byte[] buffer = new byte[chunkSize];
+        byte[] buffer = bodyBuffers.readChunk();
         while (inputStream.isReady() && (bufferLength = inputStream.read(buffer)) != -1) {
-            messageContent.write(buffer, 0, bufferLength);
+            messageContent.append(buffer, 0, bufferLength);
         }
     }
 
@@ -72,7 +72,8 @@ public class MessageReader implements ReadListener {
         try {
             checkContentLength(request, messageContent.size(), "Content-Length does not match the header");
             hermesMetrics.reportContentSize(messageContent.size(), topicName);
-            onRead.accept(messageContent.toByteArray());
+            bodyBuffers.recordSize(topicName, messageContent.size());
+            onRead.accept(messageContent.toBytes());
         } catch (IllegalStateException e) {
             onValidationError.accept(e);
         }
@@ -9,4 +9,10 @@ public interface PublishingCallback {
 
     void onPublished(Message message, Topic topic);
 
+    /**
+     * Called instead of {@link #onPublished(Message, Topic)} when message was not sent to broker yet, but is kept
+     * locally and will be sent later, so it should be answered as accepted rather than published.
+     */
+    void onAccepted(Message message, Topic topic);
+
 }
@@ -0,0 +1,53 @@
+package pl.allegro.tech.hermes.frontend.publishing;
+
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.metric.Counters;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Meters;
+import pl.allegro.tech.hermes.common.metric.timer.ProducerAckAllLatencyTimer;
+import pl.allegro.tech.hermes.common.metric.timer.ProducerAckLeaderLatencyTimer;
+import pl.allegro.tech.hermes.common.metric.timer.ProducerLatencyTimer;
+
+import static javax.ws.rs.core.Response.Status.Family;
+
+/**
+ * Latency and status metrics of single published message, measured from the moment it was received until transport
+ * answered it.
+ */
+public class PublishingMetrics {
+
+    private final HermesMetrics hermesMetrics;
+    private final TopicName topicName;
+    private final ProducerLatencyTimer producerLatencyTimer;
+
+    public PublishingMetrics(HermesMetrics hermesMetrics, Topic topic) {
+        this.hermesMetrics = hermesMetrics;
+        this.topicName = topic.getName();
+        this.producerLatencyTimer = latencyTimer(hermesMetrics, topic);
+    }
+
+    private ProducerLatencyTimer latencyTimer(HermesMetrics hermesMetrics, Topic topic) {
+        if (Topic.Ack.ALL.equals(topic.getAck())) {
+            return new ProducerAckAllLatencyTimer(hermesMetrics, topic.getName());
+        } else {
+            return new ProducerAckLeaderLatencyTimer(hermesMetrics, topic.getName());
+        }
+    }
+
+    public void completed(int responseStatus) {
+        aborted();
+        hermesMetrics.httpStatusCodeMeter(responseStatus).mark();
+        hermesMetrics.httpStatusCodeMeter(responseStatus, topicName).mark();
+
+        if (Family.SUCCESSFUL != Family.familyOf(responseStatus)) {
+            hermesMetrics.meter(Meters.PRODUCER_FAILED_METER).mark();
+            hermesMetrics.meter(Meters.PRODUCER_FAILED_TOPIC_METER, topicName).mark();
+            hermesMetrics.counter(Counters.PRODUCER_UNPUBLISHED, topicName).inc();
+        }
+    }
+
+    public void aborted() {
+        producerLatencyTimer.close();
+    }
+}
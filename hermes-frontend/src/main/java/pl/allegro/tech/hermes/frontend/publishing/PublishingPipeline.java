@@ -0,0 +1,154 @@
+package pl.allegro.tech.hermes.frontend.publishing;
+
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.config.Configs;
+import pl.allegro.tech.hermes.common.message.converter.ConvertingException;
+import pl.allegro.tech.hermes.common.message.wrapper.UnsupportedContentTypeException;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.domain.topic.schema.CouldNotLoadSchemaException;
+import pl.allegro.tech.hermes.frontend.listeners.BrokerListeners;
+import pl.allegro.tech.hermes.frontend.publishing.callbacks.BrokerListenersPublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.callbacks.CompositePublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.callbacks.FireAndForgetPublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.callbacks.MessageStatePublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.callbacks.MetricsPublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.callbacks.ResponderPublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
+import pl.allegro.tech.hermes.frontend.publishing.metadata.MetadataAddingMessageConverter;
+import pl.allegro.tech.hermes.frontend.publishing.quota.TopicQuotas;
+import pl.allegro.tech.hermes.frontend.validator.InvalidMessageException;
+import pl.allegro.tech.hermes.frontend.validator.MessageValidators;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+import javax.inject.Inject;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Publishing steps shared by servlet, Undertow handler and stream transports: charging bytes quota of topic with bytes
+ * actually read, conversion, validation, adding metadata and handing message over to broker, with timeouts and
+ * answers given through transport {@link Responder}.
+ */
+public class PublishingPipeline {
+
+    private final HermesMetrics hermesMetrics;
+    private final Trackers trackers;
+    private final MessageValidators messageValidators;
+    private final Clock clock;
+    private final MessagePublisher messagePublisher;
+    private final BrokerListeners listeners;
+    private final MessageContentTypeEnforcer contentTypeEnforcer;
+    private final MetadataAddingMessageConverter metadataAddingMessageConverter;
+    private final TopicQuotas topicQuotas;
+    private final int defaultAsyncTimeout;
+    private final int longAsyncTimeout;
+
+    @Inject
+    public PublishingPipeline(HermesMetrics hermesMetrics,
+                              ConfigFactory configFactory,
+                              Trackers trackers,
+                              MessageValidators messageValidators,
+                              Clock clock,
+                              MessagePublisher messagePublisher,
+                              BrokerListeners listeners,
+                              MessageContentTypeEnforcer contentTypeEnforcer,
+                              MetadataAddingMessageConverter metadataAddingMessageConverter,
+                              TopicQuotas topicQuotas) {
+        this.hermesMetrics = hermesMetrics;
+        this.trackers = trackers;
+        this.messageValidators = messageValidators;
+        this.clock = clock;
+        this.messagePublisher = messagePublisher;
+        this.listeners = listeners;
+        this.contentTypeEnforcer = contentTypeEnforcer;
+        this.metadataAddingMessageConverter = metadataAddingMessageConverter;
+        this.topicQuotas = topicQuotas;
+        this.defaultAsyncTimeout = configFactory.getIntProperty(Configs.FRONTEND_IDLE_TIMEOUT);
+        this.longAsyncTimeout = configFactory.getIntProperty(Configs.FRONTEND_LONG_IDLE_TIMEOUT);
+    }
+
+    public int asyncTimeout(Topic topic) {
+        return topic.isReplicationConfirmRequired() ? longAsyncTimeout : defaultAsyncTimeout;
+    }
+
+    public PublishingTimeout timeout(Responder responder, Topic topic, MessageState messageState) {
+        return new PublishingTimeout(responder, topic, messageState, listeners);
+    }
+
+    /**
+     * Executor answering with overloaded when processing queue rejects task. Null executor is passed as is.
+     */
+    public Executor overloadedOnRejection(Executor processingExecutor, Responder responder) {
+        if (processingExecutor == null) {
+            return null;
+        }
+        return task -> {
+            try {
+                processingExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                responder.overloaded(e, "Message processing queue is full");
+            }
+        };
+    }
+
+    public void publish(String messageId, byte[] content, String contentType, String partitionKey, Topic topic,
+                        MessageState messageState, Responder responder, PublishingTimeout timeout) {
+        publish(messageId, content, contentType, partitionKey, topic, messageState, responder, timeout, UnaryOperator.identity());
+    }
+
+    /**
+     * @param brokerCallback lets transport decide on which thread broker answer is handled
+     */
+    public void publish(String messageId, byte[] content, String contentType, String partitionKey, Topic topic,
+                        MessageState messageState, Responder responder, PublishingTimeout timeout,
+                        UnaryOperator<PublishingCallback> brokerCallback) {
+        topicQuotas.charge(topic, content.length);
+        try {
+            Message message = contentTypeEnforcer.enforce(contentType,
+                    new Message(messageId, content, clock.getTime(), partitionKey), topic);
+
+            messageValidators.check(topic, message.getData());
+
+            message = metadataAddingMessageConverter.addMetadata(message, topic);
+            timeout.sendingToBroker(message);
+
+            if (topic.isFireAndForget()) {
+                publishWithoutConfirmation(message, topic, messageState, responder);
+            } else {
+                messagePublisher.publish(message, topic, messageState,
+                        listeners,
+                        brokerCallback.apply(new CompositePublishingCallback(
+                                new MessageStatePublishingCallback(messageState),
+                                new ResponderPublishingCallback(responder),
+                                new MetricsPublishingCallback(hermesMetrics, topic),
+                                new BrokerListenersPublishingCallback(listeners))));
+            }
+
+        } catch (InvalidMessageException | ConvertingException | UnsupportedContentTypeException exception) {
+            responder.badRequest(exception);
+        } catch (CouldNotLoadSchemaException e) {
+            responder.internalError(e, "Could not load schema for published message");
+        }
+    }
+
+    private void publishWithoutConfirmation(Message message, Topic topic, MessageState messageState, Responder responder) {
+        FireAndForgetPublishingCallback fireAndForget = new FireAndForgetPublishingCallback(hermesMetrics, trackers);
+        messagePublisher.publish(message, topic, messageState,
+                listeners,
+                new CompositePublishingCallback(
+                        new MessageStatePublishingCallback(messageState),
+                        new MetricsPublishingCallback(hermesMetrics, topic),
+                        new BrokerListenersPublishingCallback(listeners),
+                        fireAndForget));
+
+        if (fireAndForget.accept()) {
+            responder.accept();
+        } else {
+            responder.internalError(fireAndForget.getFailure(), "Broker seems to be down");
+        }
+    }
+}
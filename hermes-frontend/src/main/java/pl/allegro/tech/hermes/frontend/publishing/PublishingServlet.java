@@ -4,25 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import pl.allegro.tech.hermes.api.ErrorDescription;
 import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.api.TopicName;
-import pl.allegro.tech.hermes.common.config.ConfigFactory;
-import pl.allegro.tech.hermes.common.config.Configs;
-import pl.allegro.tech.hermes.common.message.converter.ConvertingException;
-import pl.allegro.tech.hermes.common.message.wrapper.UnsupportedContentTypeException;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
-import pl.allegro.tech.hermes.common.time.Clock;
-import pl.allegro.tech.hermes.domain.topic.schema.CouldNotLoadSchemaException;
+import pl.allegro.tech.hermes.common.util.MessageId;
 import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
-import pl.allegro.tech.hermes.frontend.listeners.BrokerListeners;
+import pl.allegro.tech.hermes.frontend.publishing.admission.Admission;
+import pl.allegro.tech.hermes.frontend.publishing.admission.AdmissionControl;
 import pl.allegro.tech.hermes.frontend.publishing.callbacks.AsyncContextExecutionCallback;
-import pl.allegro.tech.hermes.frontend.publishing.callbacks.BrokerListenersPublishingCallback;
-import pl.allegro.tech.hermes.frontend.publishing.callbacks.HttpPublishingCallback;
-import pl.allegro.tech.hermes.frontend.publishing.callbacks.MessageStatePublishingCallback;
-import pl.allegro.tech.hermes.frontend.publishing.callbacks.MetricsPublishingCallback;
-import pl.allegro.tech.hermes.frontend.publishing.message.Message;
 import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
-import pl.allegro.tech.hermes.frontend.publishing.metadata.MetadataAddingMessageConverter;
-import pl.allegro.tech.hermes.frontend.validator.InvalidMessageException;
-import pl.allegro.tech.hermes.frontend.validator.MessageValidators;
+import pl.allegro.tech.hermes.frontend.publishing.processing.ProcessingExecutors;
 import pl.allegro.tech.hermes.tracker.frontend.Trackers;
 
 import javax.inject.Inject;
@@ -31,15 +20,17 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.HttpHeaders;
 import java.io.IOException;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.Executor;
 
 import static java.lang.String.format;
 import static org.apache.commons.lang.StringUtils.strip;
 import static org.apache.commons.lang.StringUtils.substringAfterLast;
 import static pl.allegro.tech.hermes.api.ErrorCode.TOPIC_NOT_EXISTS;
 import static pl.allegro.tech.hermes.api.TopicName.fromQualifiedName;
+import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.PARTITION_KEY;
 
 public class PublishingServlet extends HttpServlet {
 
@@ -47,99 +38,81 @@ public class PublishingServlet extends HttpServlet {
     private final ErrorSender errorSender;
     private final Trackers trackers;
     private final TopicsCache topicsCache;
-    private final MessageValidators messageValidators;
-    private final Clock clock;
-    private final MessagePublisher messagePublisher;
-    private final MessageContentTypeEnforcer contentTypeEnforcer;
-    private final MetadataAddingMessageConverter metadataAddingMessageConverter;
-    private final BrokerListeners listeners;
-
-    private final Integer defaultAsyncTimeout;
-    private final Integer longAsyncTimeout;
-    private final Integer chunkSize;
+    private final PublishingPipeline pipeline;
+    private final MessageBodyBuffers bodyBuffers;
+    private final AdmissionControl admissionControl;
+    private final ProcessingExecutors processingExecutors;
 
     @Inject
     public PublishingServlet(TopicsCache topicsCache,
                              HermesMetrics hermesMetrics,
                              ObjectMapper objectMapper,
-                             ConfigFactory configFactory,
                              Trackers trackers,
-                             MessageValidators messageValidators,
-                             Clock clock,
-                             MessagePublisher messagePublisher,
-                             BrokerListeners listeners,
-                             MessageContentTypeEnforcer contentTypeEnforcer,
-                             MetadataAddingMessageConverter metadataAddingMessageConverter) {
+                             PublishingPipeline pipeline,
+                             MessageBodyBuffers bodyBuffers,
+                             AdmissionControl admissionControl,
+                             ProcessingExecutors processingExecutors) {
 
         this.topicsCache = topicsCache;
-        this.messageValidators = messageValidators;
-        this.clock = clock;
-        this.messagePublisher = messagePublisher;
-        this.contentTypeEnforcer = contentTypeEnforcer;
-        this.metadataAddingMessageConverter = metadataAddingMessageConverter;
+        this.pipeline = pipeline;
         this.errorSender = new ErrorSender(objectMapper);
         this.hermesMetrics = hermesMetrics;
         this.trackers = trackers;
-        this.listeners = listeners;
-        this.defaultAsyncTimeout = configFactory.getIntProperty(Configs.FRONTEND_IDLE_TIMEOUT);
-        this.longAsyncTimeout = configFactory.getIntProperty(Configs.FRONTEND_LONG_IDLE_TIMEOUT);
-        this.chunkSize = configFactory.getIntProperty(Configs.FRONTEND_REQUEST_CHUNK_SIZE);
+        this.bodyBuffers = bodyBuffers;
+        this.admissionControl = admissionControl;
+        this.processingExecutors = processingExecutors;
     }
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         TopicName topicName = parseTopicName(request);
-        final String messageId = UUID.randomUUID().toString();
+        final String messageId = MessageId.generate();
         Optional<Topic> topic = topicsCache.getTopic(topicName);
 
         if (topic.isPresent()) {
-            handlePublishAsynchronously(request, response, topic.get(), messageId);
+            Admission admission = admissionControl.admit(topic.get(), request.getContentLengthLong());
+            if (admission.isAdmitted()) {
+                handlePublishAsynchronously(request, response, topic.get(), messageId, admission);
+            } else {
+                shed(response, topicName, messageId, admission);
+            }
         } else {
             String cause = format("Topic %s not exists in group %s", topicName.getName(), topicName.getGroupName());
             errorSender.sendErrorResponse(new ErrorDescription(cause, TOPIC_NOT_EXISTS), response, messageId);
         }
     }
 
-    private void handlePublishAsynchronously(HttpServletRequest request, HttpServletResponse response, Topic topic, String messageId)
-            throws IOException {
+    private void handlePublishAsynchronously(HttpServletRequest request, HttpServletResponse response, Topic topic, String messageId,
+                                             Admission admission) throws IOException {
+        final String partitionKey = request.getHeader(PARTITION_KEY.getName());
         final MessageState messageState = new MessageState();
         final AsyncContext asyncContext = request.startAsync();
+        asyncContext.addListener(new AdmissionAsyncListener(admission));
         final HttpResponder httpResponder = new HttpResponder(trackers, messageId, response, asyncContext, topic, errorSender, messageState,
                 request.getRemoteHost());
-
-        asyncContext.addListener(new TimeoutAsyncListener(httpResponder, messageState));
-        asyncContext.addListener(new MetricsAsyncListener(hermesMetrics, topic.getName(), topic.getAck()));
-        asyncContext.setTimeout(topic.isReplicationConfirmRequired() ? longAsyncTimeout : defaultAsyncTimeout);
-
-        new MessageReader(request, chunkSize, topic.getName(), hermesMetrics, messageState,
-                messageContent -> asyncContext.start(() -> {
-                    try {
-                        Message message = contentTypeEnforcer.enforce(request.getContentType(),
-                                new Message(messageId, messageContent, clock.getTime()), topic);
-
-                        messageValidators.check(topic, message.getData());
-
-                        message = metadataAddingMessageConverter.addMetadata(message, topic);
-                        asyncContext.addListener(new BrokerTimeoutAsyncListener(httpResponder, message, topic, messageState, listeners));
-
-                        messagePublisher.publish(message, topic, messageState,
-                                listeners,
-                                new AsyncContextExecutionCallback(asyncContext,
-                                        new MessageStatePublishingCallback(messageState),
-                                        new HttpPublishingCallback(httpResponder),
-                                        new MetricsPublishingCallback(hermesMetrics, topic),
-                                        new BrokerListenersPublishingCallback(listeners)));
-
-                    } catch (InvalidMessageException | ConvertingException | UnsupportedContentTypeException exception) {
-                        httpResponder.badRequest(exception);
-                    } catch (CouldNotLoadSchemaException e) {
-                        httpResponder.internalError(e, "Could not load schema for published message");
-                    }
-                }),
+        final PublishingTimeout timeout = pipeline.timeout(httpResponder, topic, messageState);
+
+        asyncContext.addListener(new TimeoutAsyncListener(timeout));
+        asyncContext.addListener(new MetricsAsyncListener(new PublishingMetrics(hermesMetrics, topic)));
+        asyncContext.setTimeout(pipeline.asyncTimeout(topic));
+        final Executor processingExecutor = pipeline.overloadedOnRejection(
+                processingExecutors.executorFor(topic, asyncContext::start), httpResponder);
+
+        new MessageReader(request, bodyBuffers, topic.getName(), hermesMetrics, messageState,
+                messageContent -> processingExecutor.execute(() ->
+                        pipeline.publish(messageId, messageContent, request.getContentType(), partitionKey, topic, messageState,
+                                httpResponder, timeout, callback -> new AsyncContextExecutionCallback(asyncContext, callback))),
                 input -> httpResponder.badRequest(input, "Validation error"),
                 throwable -> httpResponder.internalError(throwable, "Error while reading request"));
     }
 
+    private void shed(HttpServletResponse response, TopicName topicName, String messageId, Admission admission) throws IOException {
+        hermesMetrics.httpStatusCodeMeter(admission.getRejectionCode().getHttpCode()).mark();
+        hermesMetrics.httpStatusCodeMeter(admission.getRejectionCode().getHttpCode(), topicName).mark();
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admissionControl.getRetryAfterSeconds()));
+        errorSender.sendErrorResponse(new ErrorDescription(admission.getRejectionReason(), admission.getRejectionCode()), response, messageId);
+    }
+
     private TopicName parseTopicName(HttpServletRequest request) {
         return fromQualifiedName(substringAfterLast(strip(request.getRequestURI(), "/"), "/"));
     }
@@ -0,0 +1,43 @@
+package pl.allegro.tech.hermes.frontend.publishing;
+
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.listeners.BrokerListeners;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
+
+import static pl.allegro.tech.hermes.frontend.publishing.message.MessageState.State.SENDING_TO_KAFKA;
+
+/**
+ * Answers message which was not published in time: with timeout when it did not reach broker yet, or as accepted
+ * when broker did not answer. Scheduling is left to transport.
+ */
+public class PublishingTimeout implements Runnable {
+
+    private final Responder responder;
+    private final Topic topic;
+    private final MessageState messageState;
+    private final BrokerListeners listeners;
+
+    private volatile Message message;
+
+    PublishingTimeout(Responder responder, Topic topic, MessageState messageState, BrokerListeners listeners) {
+        this.responder = responder;
+        this.topic = topic;
+        this.messageState = messageState;
+        this.listeners = listeners;
+    }
+
+    void sendingToBroker(Message message) {
+        this.message = message;
+    }
+
+    @Override
+    public void run() {
+        if (!messageState.wasDelegatedToKafka()) {
+            responder.timeout();
+        } else if (messageState.getState() == SENDING_TO_KAFKA && message != null) {
+            responder.accept();
+            listeners.onTimeout(message, topic);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package pl.allegro.tech.hermes.frontend.publishing;
+
+/**
+ * Response side of publishing, implemented by every transport. Only first answer is sent, later ones are ignored.
+ */
+public interface Responder {
+
+    void accept();
+
+    void ok();
+
+    void timeout();
+
+    void badRequest(Throwable throwable, String message);
+
+    void badRequest(Throwable throwable);
+
+    void overloaded(Throwable throwable, String message);
+
+    void internalError(Throwable throwable, String message);
+}
@@ -2,7 +2,6 @@ package pl.allegro.tech.hermes.frontend.publishing;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
 
 import javax.servlet.AsyncEvent;
 import javax.servlet.AsyncListener;
@@ -12,12 +11,10 @@ class TimeoutAsyncListener implements AsyncListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TimeoutAsyncListener.class);
 
-    private final HttpResponder httpResponder;
-    private final MessageState messageState;
+    private final PublishingTimeout timeout;
 
-    TimeoutAsyncListener(HttpResponder httpResponder, MessageState messageState) {
-        this.httpResponder = httpResponder;
-        this.messageState = messageState;
+    TimeoutAsyncListener(PublishingTimeout timeout) {
+        this.timeout = timeout;
     }
 
     @Override
@@ -26,9 +23,7 @@ class TimeoutAsyncListener implements AsyncListener {
 
     @Override
     public void onTimeout(AsyncEvent event) throws IOException {
-        if (!messageState.wasDelegatedToKafka()) {
-            httpResponder.timeout(event.getThrowable());
-        }
+        timeout.run();
     }
 
     @Override
@@ -0,0 +1,55 @@
+package pl.allegro.tech.hermes.frontend.publishing.admission;
+
+import pl.allegro.tech.hermes.api.ErrorCode;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Result of admission check. Admitted request holds its in-flight slots until released, which may safely happen
+ * more than once.
+ */
+public class Admission {
+
+    static final Admission UNLIMITED = new Admission(null, null, () -> { });
+
+    private final String rejectionReason;
+    private final ErrorCode rejectionCode;
+    private final Runnable release;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    private Admission(String rejectionReason, ErrorCode rejectionCode, Runnable release) {
+        this.rejectionReason = rejectionReason;
+        this.rejectionCode = rejectionCode;
+        this.release = release;
+    }
+
+    static Admission admitted(Runnable release) {
+        return new Admission(null, null, release);
+    }
+
+    static Admission rejected(String reason) {
+        return rejected(reason, ErrorCode.SERVICE_OVERLOADED);
+    }
+
+    static Admission rejected(String reason, ErrorCode code) {
+        return new Admission(reason, code, () -> { });
+    }
+
+    public boolean isAdmitted() {
+        return rejectionReason == null;
+    }
+
+    public String getRejectionReason() {
+        return rejectionReason;
+    }
+
+    public ErrorCode getRejectionCode() {
+        return rejectionCode;
+    }
+
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            release.run();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package pl.allegro.tech.hermes.frontend.publishing.admission;
+
+import pl.allegro.tech.hermes.api.ErrorCode;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.Gauges;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Meters;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.frontend.publishing.quota.TopicQuotas;
+
+import javax.inject.Inject;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_ADMISSION_CONTROL_ENABLED;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_ADMISSION_MAX_IN_FLIGHT;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_ADMISSION_MAX_TOPIC_IN_FLIGHT;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_ADMISSION_MIN_BUFFER_AVAILABLE_PERCENT;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_ADMISSION_RETRY_AFTER_SECONDS;
+
+/**
+ * Sheds publish requests before they are read, when Kafka producer buffer is almost exhausted or too many
+ * publishes are in flight, globally or for single topic; in-flight limits set to 0 are not checked. Buffer headroom
+ * is checked for the producer which serves ack level of topic, as exhausted leader producer does not slow down topics
+ * with ack ALL and the other way round. It is computed from producer metrics, so it is refreshed at most once per
+ * {@link #BUFFER_CHECK_INTERVAL_MS}.
+ * Publishing quotas of topics are always enforced, even when shedding is disabled.
+ */
+public class AdmissionControl {
+
+    public static final long BUFFER_CHECK_INTERVAL_MS = 100;
+
+    private final boolean enabled;
+    private final double minBufferAvailable;
+    private final int maxInFlight;
+    private final int maxTopicInFlight;
+    private final int retryAfterSeconds;
+    private final BufferHeadroom leaderBufferHeadroom;
+    private final BufferHeadroom everyoneBufferHeadroom;
+    private final Clock clock;
+    private final HermesMetrics hermesMetrics;
+    private final TopicQuotas topicQuotas;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConcurrentMap<TopicName, AtomicInteger> topicsInFlight = new ConcurrentHashMap<>();
+
+    @Inject
+    public AdmissionControl(ConfigFactory configFactory, HermesMetrics hermesMetrics, Clock clock, TopicQuotas topicQuotas) {
+        this(configFactory.getBooleanProperty(FRONTEND_ADMISSION_CONTROL_ENABLED),
+                configFactory.getIntProperty(FRONTEND_ADMISSION_MIN_BUFFER_AVAILABLE_PERCENT),
+                configFactory.getIntProperty(FRONTEND_ADMISSION_MAX_IN_FLIGHT),
+                configFactory.getIntProperty(FRONTEND_ADMISSION_MAX_TOPIC_IN_FLIGHT),
+                configFactory.getIntProperty(FRONTEND_ADMISSION_RETRY_AFTER_SECONDS),
+                ack -> ack == Topic.Ack.ALL
+                        ? hermesMetrics::getEveryoneConfirmsBufferAvailability
+                        : hermesMetrics::getLeaderConfirmsBufferAvailability,
+                clock, hermesMetrics, topicQuotas);
+    }
+
+    /**
+     * @param bufferAvailable supplies available part of buffer of producer used for given ack level
+     */
+    AdmissionControl(boolean enabled, int minBufferAvailablePercent, int maxInFlight, int maxTopicInFlight,
+                     int retryAfterSeconds, Function<Topic.Ack, DoubleSupplier> bufferAvailable, Clock clock,
+                     HermesMetrics hermesMetrics, TopicQuotas topicQuotas) {
+        this.enabled = enabled;
+        this.minBufferAvailable = minBufferAvailablePercent / 100.0;
+        this.maxInFlight = maxInFlight;
+        this.maxTopicInFlight = maxTopicInFlight;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.leaderBufferHeadroom = new BufferHeadroom(bufferAvailable.apply(Topic.Ack.LEADER));
+        this.everyoneBufferHeadroom = new BufferHeadroom(bufferAvailable.apply(Topic.Ack.ALL));
+        this.clock = clock;
+        this.hermesMetrics = hermesMetrics;
+        this.topicQuotas = topicQuotas;
+        if (enabled) {
+            hermesMetrics.registerGauge(Gauges.PRODUCER_IN_FLIGHT, inFlight::get);
+        }
+    }
+
+    /**
+     * @param contentLength declared length of message, negative when unknown; bytes quota is charged only after body is read
+     */
+    public Admission admit(Topic topic, long contentLength) {
+        Admission admission = admit(topic.getName(), topic.getAck());
+        if (admission.isAdmitted() && !topicQuotas.tryAcquire(topic, Math.max(contentLength, 0))) {
+            admission.release();
+            return Admission.rejected("Publishing quota of topic exceeded", ErrorCode.QUOTA_EXCEEDED);
+        }
+        return admission;
+    }
+
+    Admission admit(TopicName topicName, Topic.Ack ack) {
+        if (!enabled) {
+            return Admission.UNLIMITED;
+        }
+        if (!hasBufferHeadroom(ack)) {
+            return reject(topicName, Meters.PRODUCER_SHED_BUFFER_METER, "Kafka producer buffer is almost full");
+        }
+        int current = inFlight.incrementAndGet();
+        if (maxInFlight > 0 && current > maxInFlight) {
+            inFlight.decrementAndGet();
+            return reject(topicName, Meters.PRODUCER_SHED_IN_FLIGHT_METER, "Too many publishes in flight");
+        }
+        if (maxTopicInFlight <= 0) {
+            return Admission.admitted(inFlight::decrementAndGet);
+        }
+        AtomicInteger topicInFlight = topicsInFlight.computeIfAbsent(topicName, name -> new AtomicInteger());
+        if (topicInFlight.incrementAndGet() > maxTopicInFlight) {
+            topicInFlight.decrementAndGet();
+            inFlight.decrementAndGet();
+            return reject(topicName, Meters.PRODUCER_SHED_TOPIC_IN_FLIGHT_METER, "Too many publishes in flight on topic");
+        }
+        return Admission.admitted(() -> {
+            topicInFlight.decrementAndGet();
+            inFlight.decrementAndGet();
+        });
+    }
+
+    /**
+     * Checked also when shedding is disabled, so that streaming publishers stop reading frames before producer
+     * serving ack level of their topic runs out of buffer.
+     */
+    public boolean hasBufferHeadroom(Topic.Ack ack) {
+        BufferHeadroom headroom = ack == Topic.Ack.ALL ? everyoneBufferHeadroom : leaderBufferHeadroom;
+        return headroom.get() >= minBufferAvailable;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private class BufferHeadroom {
+
+        private final DoubleSupplier bufferAvailable;
+
+        private volatile double lastBufferAvailable = 1.0;
+        private volatile long lastBufferCheck = -BUFFER_CHECK_INTERVAL_MS;
+
+        BufferHeadroom(DoubleSupplier bufferAvailable) {
+            this.bufferAvailable = bufferAvailable;
+        }
+
+        double get() {
+            long now = clock.getTime();
+            if (now - lastBufferCheck >= BUFFER_CHECK_INTERVAL_MS) {
+                lastBufferAvailable = bufferAvailable.getAsDouble();
+                lastBufferCheck = now;
+            }
+            return lastBufferAvailable;
+        }
+    }
+
+    private Admission reject(TopicName topicName, String reasonMeter, String reason) {
+        hermesMetrics.meter(reasonMeter).mark();
+        hermesMetrics.meter(Meters.PRODUCER_SHED_TOPIC_METER, topicName).mark();
+        return Admission.rejected(reason);
+    }
+}
@@ -26,4 +26,9 @@ public class AsyncContextExecutionCallback implements PublishingCallback {
     public void onUnpublished(Message message, Topic topic, Exception exception) {
         asyncContext.start(() -> Arrays.stream(callbacks).forEach(c -> c.onUnpublished(message, topic, exception)));
     }
+
+    @Override
+    public void onAccepted(Message message, Topic topic) {
+        asyncContext.start(() -> Arrays.stream(callbacks).forEach(c -> c.onAccepted(message, topic)));
+    }
 }
@@ -22,4 +22,9 @@ public class BrokerListenersPublishingCallback implements PublishingCallback {
     public void onPublished(Message message, Topic topic) {
         listeners.onAcknowledge(message, topic);
     }
+
+    @Override
+    public void onAccepted(Message message, Topic topic) {
+        listeners.onTimeout(message, topic);
+    }
 }
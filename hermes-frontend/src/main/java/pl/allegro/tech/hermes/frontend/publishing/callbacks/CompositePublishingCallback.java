@@ -0,0 +1,30 @@
+package pl.allegro.tech.hermes.frontend.publishing.callbacks;
+
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+
+import java.util.Arrays;
+
+public class CompositePublishingCallback implements PublishingCallback {
+    private final PublishingCallback[] callbacks;
+
+    public CompositePublishingCallback(PublishingCallback... callbacks) {
+        this.callbacks = callbacks;
+    }
+
+    @Override
+    public void onPublished(Message message, Topic topic) {
+        Arrays.stream(callbacks).forEach(c -> c.onPublished(message, topic));
+    }
+
+    @Override
+    public void onUnpublished(Message message, Topic topic, Exception exception) {
+        Arrays.stream(callbacks).forEach(c -> c.onUnpublished(message, topic, exception));
+    }
+
+    @Override
+    public void onAccepted(Message message, Topic topic) {
+        Arrays.stream(callbacks).forEach(c -> c.onAccepted(message, topic));
+    }
+}
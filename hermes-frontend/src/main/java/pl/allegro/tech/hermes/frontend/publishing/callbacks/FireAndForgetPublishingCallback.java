@@ -0,0 +1,62 @@
+package pl.allegro.tech.hermes.frontend.publishing.callbacks;
+
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.metric.Counters;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Meters;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+/**
+ * Used for topics with {@link Topic.Ack#FIRE_AND_FORGET}, which are answered as soon as message is queued in producer.
+ * Failure reported before {@link #accept()} should be answered with error, later ones go only to metrics and trackers.
+ */
+public class FireAndForgetPublishingCallback implements PublishingCallback {
+
+    private final HermesMetrics hermesMetrics;
+    private final Trackers trackers;
+
+    private boolean accepted = false;
+    private Exception failure;
+
+    public FireAndForgetPublishingCallback(HermesMetrics hermesMetrics, Trackers trackers) {
+        this.hermesMetrics = hermesMetrics;
+        this.trackers = trackers;
+    }
+
+    /**
+     * @return false when message has already been rejected by producer
+     */
+    public synchronized boolean accept() {
+        accepted = failure == null;
+        return accepted;
+    }
+
+    public synchronized Exception getFailure() {
+        return failure;
+    }
+
+    @Override
+    public void onUnpublished(Message message, Topic topic, Exception exception) {
+        synchronized (this) {
+            if (!accepted) {
+                failure = exception;
+                return;
+            }
+        }
+        hermesMetrics.meter(Meters.PRODUCER_FAILED_METER).mark();
+        hermesMetrics.meter(Meters.PRODUCER_FAILED_TOPIC_METER, topic.getName()).mark();
+        hermesMetrics.counter(Counters.PRODUCER_UNPUBLISHED, topic.getName()).inc();
+        trackers.get(topic).logError(message.getId(), topic.getName(), exception.getMessage());
+    }
+
+    @Override
+    public void onPublished(Message message, Topic topic) {
+        trackers.get(topic).logPublished(message.getId(), topic.getName());
+    }
+
+    @Override
+    public void onAccepted(Message message, Topic topic) {
+    }
+}
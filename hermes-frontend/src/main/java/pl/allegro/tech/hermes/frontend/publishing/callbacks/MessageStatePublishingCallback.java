@@ -23,4 +23,8 @@ public class MessageStatePublishingCallback implements PublishingCallback {
     public void onPublished(Message message, Topic topic) {
         messageState.setState(SENT_TO_KAFKA);
     }
+
+    @Override
+    public void onAccepted(Message message, Topic topic) {
+    }
 }
@@ -40,4 +40,9 @@ public class MetricsPublishingCallback implements PublishingCallback {
         hermesMetrics.meter(Meters.PRODUCER_TOPIC_METER, topic.getName()).mark();
         hermesMetrics.counter(Counters.PRODUCER_PUBLISHED, topic.getName()).inc();
     }
+
+    @Override
+    public void onAccepted(Message message, Topic topic) {
+        brokerLatencyTimer.close();
+    }
 }
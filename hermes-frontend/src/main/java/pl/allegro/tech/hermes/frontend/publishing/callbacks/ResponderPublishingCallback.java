@@ -0,0 +1,30 @@
+package pl.allegro.tech.hermes.frontend.publishing.callbacks;
+
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.Responder;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+
+public class ResponderPublishingCallback implements PublishingCallback {
+
+    private final Responder responder;
+
+    public ResponderPublishingCallback(Responder responder) {
+        this.responder = responder;
+    }
+
+    @Override
+    public void onUnpublished(Message message, Topic topic, Exception exception) {
+        responder.internalError(exception, "Broker seems to be down");
+    }
+
+    @Override
+    public void onPublished(Message message, Topic topic) {
+        responder.ok();
+    }
+
+    @Override
+    public void onAccepted(Message message, Topic topic) {
+        responder.accept();
+    }
+}
@@ -0,0 +1,124 @@
+package pl.allegro.tech.hermes.frontend.publishing.handler;
+
+import com.codahale.metrics.Timer;
+import io.undertow.server.HttpServerExchange;
+import org.xnio.Pooled;
+import org.xnio.channels.StreamSourceChannel;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Timers;
+import pl.allegro.tech.hermes.frontend.publishing.MessageBodyBuffer;
+import pl.allegro.tech.hermes.frontend.publishing.MessageBodyBuffers;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+import static pl.allegro.tech.hermes.frontend.publishing.ContentLengthChecker.checkContentLength;
+import static pl.allegro.tech.hermes.frontend.publishing.message.MessageState.State.PARSED;
+import static pl.allegro.tech.hermes.frontend.publishing.message.MessageState.State.PARSING;
+
+/**
+ * Reads request body on IO thread using buffers from connection pool.
+ */
+class ExchangeMessageReader {
+
+    private final HttpServerExchange exchange;
+    private final MessageBodyBuffers bodyBuffers;
+    private final MessageBodyBuffer messageContent;
+    private final TopicName topicName;
+    private final HermesMetrics hermesMetrics;
+    private final MessageState messageState;
+    private final Consumer<byte[]> onRead;
+    private final Consumer<IllegalStateException> onValidationError;
+    private final Consumer<Throwable> onOtherError;
+
+    private Timer.Context parsingTimerPerTopic;
+    private Timer.Context parsingTimer;
+
+    ExchangeMessageReader(HttpServerExchange exchange,
+                          MessageBodyBuffers bodyBuffers,
+                          TopicName topicName,
+                          HermesMetrics hermesMetrics,
+                          MessageState messageState,
+                          Consumer<byte[]> onRead,
+                          Consumer<IllegalStateException> onValidationError,
+                          Consumer<Throwable> onOtherError) {
+        this.exchange = exchange;
+        this.topicName = topicName;
+        this.hermesMetrics = hermesMetrics;
+        this.messageState = messageState;
+        this.onRead = onRead;
+        this.onValidationError = onValidationError;
+        this.onOtherError = onOtherError;
+        this.bodyBuffers = bodyBuffers;
+        this.messageContent = bodyBuffers.allocate(topicName, exchange.getRequestContentLength());
+    }
+
+    void read() {
+        messageState.setState(PARSING);
+        initParsingTimers();
+
+        StreamSourceChannel channel = exchange.getRequestChannel();
+        if (readAvailable(channel)) {
+            channel.getReadSetter().set(this::readAvailable);
+            channel.resumeReads();
+        }
+    }
+
+    /**
+     * @return true when there is more data to wait for
+     */
+    private boolean readAvailable(StreamSourceChannel channel) {
+        Pooled<ByteBuffer> pooled = exchange.getConnection().getBufferPool().allocate();
+        try {
+            ByteBuffer buffer = pooled.getResource();
+            int read;
+            do {
+                buffer.clear();
+                read = channel.read(buffer);
+                if (read > 0) {
+                    buffer.flip();
+                    messageContent.append(buffer);
+                }
+            } while (read > 0);
+
+            if (read == -1) {
+                channel.suspendReads();
+                onAllDataRead();
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            channel.suspendReads();
+            closeParsingTimers();
+            onOtherError.accept(e);
+            return false;
+        } finally {
+            pooled.free();
+        }
+    }
+
+    private void onAllDataRead() {
+        messageState.setState(PARSED);
+        closeParsingTimers();
+        try {
+            checkContentLength(exchange, messageContent.size(), "Content-Length does not match the header");
+            hermesMetrics.reportContentSize(messageContent.size(), topicName);
+            bodyBuffers.recordSize(topicName, messageContent.size());
+            onRead.accept(messageContent.toBytes());
+        } catch (IllegalStateException e) {
+            onValidationError.accept(e);
+        }
+    }
+
+    private void initParsingTimers() {
+        this.parsingTimerPerTopic = hermesMetrics.timer(Timers.PRODUCER_TOPIC_PARSING_REQUEST, topicName).time();
+        this.parsingTimer = hermesMetrics.timer(Timers.PRODUCER_PARSING_REQUEST).time();
+    }
+
+    private void closeParsingTimers() {
+        HermesMetrics.close(parsingTimer, parsingTimerPerTopic);
+    }
+}
@@ -0,0 +1,127 @@
+package pl.allegro.tech.hermes.frontend.publishing.handler;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HttpString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.ErrorDescription;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.publishing.ErrorSender;
+import pl.allegro.tech.hermes.frontend.publishing.Responder;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+import static java.lang.String.format;
+import static javax.servlet.http.HttpServletResponse.SC_ACCEPTED;
+import static javax.servlet.http.HttpServletResponse.SC_CREATED;
+import static pl.allegro.tech.hermes.api.ErrorCode.INTERNAL_ERROR;
+import static pl.allegro.tech.hermes.api.ErrorCode.SERVICE_OVERLOADED;
+import static pl.allegro.tech.hermes.api.ErrorCode.TIMEOUT;
+import static pl.allegro.tech.hermes.api.ErrorCode.VALIDATION_ERROR;
+import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.MESSAGE_ID;
+
+/**
+ * Counterpart of {@link pl.allegro.tech.hermes.frontend.publishing.HttpResponder} which writes response directly
+ * to Undertow exchange, from whichever thread completes the request.
+ */
+class ExchangeResponder implements Responder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExchangeResponder.class);
+
+    private final Trackers trackers;
+    private final String messageId;
+    private final HttpServerExchange exchange;
+    private final Topic topic;
+    private final ErrorSender errorSender;
+    private final MessageState messageState;
+    private boolean completed = false;
+
+    ExchangeResponder(Trackers trackers, String messageId, HttpServerExchange exchange, Topic topic,
+                      ErrorSender errorSender, MessageState messageState) {
+        this.trackers = trackers;
+        this.messageId = messageId;
+        this.exchange = exchange;
+        this.topic = topic;
+        this.errorSender = errorSender;
+        this.messageState = messageState;
+    }
+
+    @Override
+    public void accept() {
+        trackers.get(topic).logInflight(messageId, topic.getName());
+        completeCorrect(SC_ACCEPTED);
+    }
+
+    @Override
+    public void ok() {
+        trackers.get(topic).logPublished(messageId, topic.getName());
+        completeCorrect(SC_CREATED);
+    }
+
+    @Override
+    public void timeout() {
+        completeError(new ErrorDescription("Async timeout, cause: unknown", TIMEOUT));
+    }
+
+    @Override
+    public void badRequest(Throwable throwable, String message) {
+        completeError(new ErrorDescription(formatErrorMessage(message, throwable), VALIDATION_ERROR));
+    }
+
+    @Override
+    public void badRequest(Throwable throwable) {
+        completeError(new ErrorDescription(throwable.getMessage(), VALIDATION_ERROR));
+    }
+
+    @Override
+    public void overloaded(Throwable throwable, String message) {
+        completeError(new ErrorDescription(formatErrorMessage(message, throwable), SERVICE_OVERLOADED));
+    }
+
+    @Override
+    public void internalError(Throwable throwable, String message) {
+        completeError(new ErrorDescription(formatErrorMessage(message, throwable), INTERNAL_ERROR));
+    }
+
+    private void completeError(ErrorDescription desc) {
+        synchronized (this) {
+            if (completed) {
+                LOGGER.warn("Response already sent. Error message {}, topic {}, remote host {}, message state {}",
+                        desc.getMessage(), topic.getName().qualifiedName(), remoteHost(), messageState.getState().name()
+                );
+                return;
+            }
+            completed = true;
+
+            LOGGER.error(
+                    "{}, publishing on topic {}, remote host {}, message state {}",
+                    desc.getMessage(), topic.getName().qualifiedName(), remoteHost(), messageState.getState().name()
+            );
+
+            errorSender.sendErrorResponseQuietly(desc, exchange, messageId);
+        }
+
+        trackers.get(topic).logError(messageId, topic.getName(), desc.getMessage());
+    }
+
+    private void completeCorrect(int status) {
+        synchronized (this) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+
+            exchange.setResponseCode(status);
+            exchange.getResponseHeaders().put(new HttpString(MESSAGE_ID.getName()), messageId);
+            exchange.endExchange();
+        }
+    }
+
+    private String remoteHost() {
+        return exchange.getSourceAddress().getHostString();
+    }
+
+    private String formatErrorMessage(String message, Throwable throwable) {
+        return format("%s, cause: %s", message, throwable == null ? "unknown" : throwable.getMessage());
+    }
+}
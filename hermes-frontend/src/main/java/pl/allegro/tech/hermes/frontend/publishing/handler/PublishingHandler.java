@@ -0,0 +1,136 @@
+package pl.allegro.tech.hermes.frontend.publishing.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import org.xnio.XnioExecutor;
+import pl.allegro.tech.hermes.api.ErrorDescription;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.util.MessageId;
+import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
+import pl.allegro.tech.hermes.frontend.publishing.admission.Admission;
+import pl.allegro.tech.hermes.frontend.publishing.admission.AdmissionControl;
+import pl.allegro.tech.hermes.frontend.publishing.ErrorSender;
+import pl.allegro.tech.hermes.frontend.publishing.MessageBodyBuffers;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingMetrics;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingPipeline;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingTimeout;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
+import pl.allegro.tech.hermes.frontend.publishing.processing.ProcessingExecutors;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+import javax.inject.Inject;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static org.apache.commons.lang.StringUtils.strip;
+import static org.apache.commons.lang.StringUtils.substringAfterLast;
+import static pl.allegro.tech.hermes.api.ErrorCode.TOPIC_NOT_EXISTS;
+import static pl.allegro.tech.hermes.api.TopicName.fromQualifiedName;
+import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.PARTITION_KEY;
+
+/**
+ * Publishing endpoint working directly on Undertow exchange instead of servlet container. Body is read on IO thread,
+ * only content conversion and validation is dispatched to worker thread or {@link ProcessingExecutors} lane, and response
+ * is written from broker callback. Publishing itself is done by {@link PublishingPipeline} shared with
+ * {@link pl.allegro.tech.hermes.frontend.publishing.PublishingServlet}.
+ */
+public class PublishingHandler implements HttpHandler {
+
+    private final HermesMetrics hermesMetrics;
+    private final ErrorSender errorSender;
+    private final Trackers trackers;
+    private final TopicsCache topicsCache;
+    private final PublishingPipeline pipeline;
+    private final MessageBodyBuffers bodyBuffers;
+    private final AdmissionControl admissionControl;
+    private final ProcessingExecutors processingExecutors;
+
+    @Inject
+    public PublishingHandler(TopicsCache topicsCache,
+                             HermesMetrics hermesMetrics,
+                             ObjectMapper objectMapper,
+                             Trackers trackers,
+                             PublishingPipeline pipeline,
+                             MessageBodyBuffers bodyBuffers,
+                             AdmissionControl admissionControl,
+                             ProcessingExecutors processingExecutors) {
+
+        this.topicsCache = topicsCache;
+        this.pipeline = pipeline;
+        this.errorSender = new ErrorSender(objectMapper);
+        this.hermesMetrics = hermesMetrics;
+        this.trackers = trackers;
+        this.bodyBuffers = bodyBuffers;
+        this.admissionControl = admissionControl;
+        this.processingExecutors = processingExecutors;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        TopicName topicName = parseTopicName(exchange);
+        final String messageId = MessageId.generate();
+        Optional<Topic> topic = topicsCache.getTopic(topicName);
+
+        if (topic.isPresent()) {
+            Admission admission = admissionControl.admit(topic.get(), exchange.getRequestContentLength());
+            if (admission.isAdmitted()) {
+                exchange.addExchangeCompleteListener((completed, nextListener) -> {
+                    admission.release();
+                    nextListener.proceed();
+                });
+                handlePublishAsynchronously(exchange, topic.get(), messageId);
+            } else {
+                shed(exchange, topicName, messageId, admission);
+            }
+        } else {
+            String cause = format("Topic %s not exists in group %s", topicName.getName(), topicName.getGroupName());
+            errorSender.sendErrorResponseQuietly(new ErrorDescription(cause, TOPIC_NOT_EXISTS), exchange, messageId);
+        }
+    }
+
+    private void handlePublishAsynchronously(HttpServerExchange exchange, Topic topic, String messageId) {
+        final String partitionKey = exchange.getRequestHeaders().getFirst(PARTITION_KEY.getName());
+        final String contentType = exchange.getRequestHeaders().getFirst(Headers.CONTENT_TYPE);
+        final MessageState messageState = new MessageState();
+        final ExchangeResponder responder = new ExchangeResponder(trackers, messageId, exchange, topic, errorSender, messageState);
+        final PublishingTimeout timeout = pipeline.timeout(responder, topic, messageState);
+        final PublishingMetrics publishingMetrics = new PublishingMetrics(hermesMetrics, topic);
+        // dispatch requested during handler call is executed by Undertow after the call, so rejection has to be handled
+        // by executor itself; null executor means worker pool
+        final Executor processingExecutor = pipeline.overloadedOnRejection(processingExecutors.executorFor(topic, null), responder);
+
+        XnioExecutor.Key timeoutKey = exchange.getIoThread().executeAfter(timeout, pipeline.asyncTimeout(topic), TimeUnit.MILLISECONDS);
+        exchange.addExchangeCompleteListener((completed, nextListener) -> {
+            timeoutKey.remove();
+            try {
+                publishingMetrics.completed(completed.getResponseCode());
+            } finally {
+                nextListener.proceed();
+            }
+        });
+
+        new ExchangeMessageReader(exchange, bodyBuffers, topic.getName(), hermesMetrics, messageState,
+                messageContent -> exchange.dispatch(processingExecutor, () ->
+                        pipeline.publish(messageId, messageContent, contentType, partitionKey, topic, messageState, responder, timeout)),
+                input -> responder.badRequest(input, "Validation error"),
+                throwable -> responder.internalError(throwable, "Error while reading request")).read();
+    }
+
+    private void shed(HttpServerExchange exchange, TopicName topicName, String messageId, Admission admission) {
+        hermesMetrics.httpStatusCodeMeter(admission.getRejectionCode().getHttpCode()).mark();
+        hermesMetrics.httpStatusCodeMeter(admission.getRejectionCode().getHttpCode(), topicName).mark();
+        exchange.getResponseHeaders().put(Headers.RETRY_AFTER, admissionControl.getRetryAfterSeconds());
+        errorSender.sendErrorResponseQuietly(new ErrorDescription(admission.getRejectionReason(), admission.getRejectionCode()),
+                exchange, messageId);
+    }
+
+    private TopicName parseTopicName(HttpServerExchange exchange) {
+        return fromQualifiedName(substringAfterLast(strip(exchange.getRequestPath(), "/"), "/"));
+    }
+}
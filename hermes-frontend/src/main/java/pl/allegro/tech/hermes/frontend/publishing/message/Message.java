@@ -1,15 +1,23 @@
 package pl.allegro.tech.hermes.frontend.publishing.message;
 
+import java.util.Optional;
+
 public class Message {
 
     private final String id;
     private final byte[] data;
     private final long timestamp;
+    private final String partitionKey;
 
     public Message(String id, byte[] data, long timestamp) {
+        this(id, data, timestamp, null);
+    }
+
+    public Message(String id, byte[] data, long timestamp, String partitionKey) {
         this.id = id;
         this.data = data;
         this.timestamp = timestamp;
+        this.partitionKey = partitionKey;
     }
 
     public String getId() {
@@ -24,8 +32,12 @@ public class Message {
         return timestamp;
     }
 
+    public Optional<String> getPartitionKey() {
+        return Optional.ofNullable(partitionKey);
+    }
+
     public Message withDataReplaced(byte[] newData) {
-        return new Message(id, newData, timestamp);
+        return new Message(id, newData, timestamp, partitionKey);
     }
 
 }
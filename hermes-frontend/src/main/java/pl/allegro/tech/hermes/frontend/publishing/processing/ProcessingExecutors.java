@@ -0,0 +1,94 @@
+package pl.allegro.tech.hermes.frontend.publishing.processing;
+
+import com.codahale.metrics.Meter;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Meters;
+import pl.allegro.tech.hermes.common.metric.executor.InstrumentedExecutorService;
+
+import javax.inject.Inject;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_PROCESSING_CRITICAL_THREADS_COUNT;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_PROCESSING_CRITICAL_TOPICS;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_PROCESSING_EXECUTORS_ENABLED;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_PROCESSING_QUEUE_SIZE;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_PROCESSING_THREADS_COUNT;
+
+/**
+ * CPU bound part of publishing (content conversion, validation, metadata wrapping) runs on small, dedicated pools
+ * instead of worker pool shared with blocking IO. Topics and groups listed as critical get separate lane, so they are
+ * not queued behind bulk topics. Queues are bounded, when lane is full task is rejected with
+ * {@link RejectedExecutionException}. Waiting time of every lane is reported in executor metrics.
+ */
+public class ProcessingExecutors {
+
+    static final String DEFAULT_LANE = "publishing-default";
+    static final String CRITICAL_LANE = "publishing-critical";
+
+    private final boolean enabled;
+    private final Set<String> criticalTopics;
+    private final Executor defaultLane;
+    private final Executor criticalLane;
+    private final Meter rejected;
+
+    @Inject
+    public ProcessingExecutors(ConfigFactory configFactory, HermesMetrics hermesMetrics) {
+        this(configFactory.getBooleanProperty(FRONTEND_PROCESSING_EXECUTORS_ENABLED),
+                ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings()
+                        .split(configFactory.getStringProperty(FRONTEND_PROCESSING_CRITICAL_TOPICS))),
+                configFactory.getIntProperty(FRONTEND_PROCESSING_THREADS_COUNT),
+                configFactory.getIntProperty(FRONTEND_PROCESSING_CRITICAL_THREADS_COUNT),
+                configFactory.getIntProperty(FRONTEND_PROCESSING_QUEUE_SIZE),
+                hermesMetrics);
+    }
+
+    ProcessingExecutors(boolean enabled, Set<String> criticalTopics, int threads, int criticalThreads, int queueSize,
+                        HermesMetrics hermesMetrics) {
+        this.enabled = enabled;
+        this.criticalTopics = criticalTopics;
+        this.defaultLane = enabled ? lane(DEFAULT_LANE, threads, queueSize, hermesMetrics) : null;
+        this.criticalLane = enabled && !criticalTopics.isEmpty() ? lane(CRITICAL_LANE, criticalThreads, queueSize, hermesMetrics) : null;
+        this.rejected = hermesMetrics.meter(Meters.PRODUCER_PROCESSING_REJECTED_METER);
+    }
+
+    /**
+     * @return executor processing messages of topic, or given fallback when dedicated executors are disabled
+     */
+    public Executor executorFor(Topic topic, Executor fallback) {
+        if (!enabled) {
+            return fallback;
+        }
+        Executor lane = isCritical(topic) ? criticalLane : defaultLane;
+        return task -> {
+            try {
+                lane.execute(task);
+            } catch (RejectedExecutionException e) {
+                rejected.mark();
+                throw e;
+            }
+        };
+    }
+
+    private boolean isCritical(Topic topic) {
+        return criticalLane != null
+                && (criticalTopics.contains(topic.getQualifiedName()) || criticalTopics.contains(topic.getName().getGroupName()));
+    }
+
+    private static ExecutorService lane(String name, int threads, int queueSize, HermesMetrics hermesMetrics) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build());
+        return new InstrumentedExecutorService(executor, hermesMetrics, name);
+    }
+}
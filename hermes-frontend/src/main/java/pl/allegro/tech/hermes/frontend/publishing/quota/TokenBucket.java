@@ -0,0 +1,41 @@
+package pl.allegro.tech.hermes.frontend.publishing.quota;
+
+/**
+ * Bucket holding at most one second worth of tokens. Request bigger than whole bucket is let through when bucket is
+ * full and leaves it in debt, so single large message can not be rejected forever.
+ */
+class TokenBucket {
+
+    private double ratePerMs;
+    private double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double ratePerSecond, long now) {
+        resize(ratePerSecond);
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    void resize(double ratePerSecond) {
+        this.ratePerMs = ratePerSecond / 1000;
+        this.capacity = Math.max(ratePerSecond, 1);
+        this.tokens = Math.min(tokens, capacity);
+    }
+
+    boolean canAcquire(long amount, long now) {
+        refill(now);
+        return tokens >= Math.min(amount, capacity);
+    }
+
+    void acquire(long amount) {
+        tokens -= amount;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerMs);
+            lastRefill = now;
+        }
+    }
+}
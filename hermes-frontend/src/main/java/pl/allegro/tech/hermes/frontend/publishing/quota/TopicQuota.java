@@ -0,0 +1,64 @@
+package pl.allegro.tech.hermes.frontend.publishing.quota;
+
+import pl.allegro.tech.hermes.api.PublishingQuota;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class TopicQuota {
+
+    private final PublishingQuota quota;
+    private final TokenBucket messages;
+    private final TokenBucket bytes;
+    private final AtomicLong demand = new AtomicLong();
+
+    private long lastDemand;
+
+    TopicQuota(PublishingQuota quota, long now) {
+        this.quota = quota;
+        this.lastDemand = now;
+        this.messages = quota.getMessagesPerSecond() > 0 ? new TokenBucket(quota.getMessagesPerSecond(), now) : null;
+        this.bytes = quota.getBytesPerSecond() > 0 ? new TokenBucket(quota.getBytesPerSecond(), now) : null;
+    }
+
+    synchronized boolean tryAcquire(long declaredBytes, long now) {
+        demand.incrementAndGet();
+        if ((messages != null && !messages.canAcquire(1, now)) || (bytes != null && !bytes.canAcquire(declaredBytes, now))) {
+            return false;
+        }
+        if (messages != null) {
+            messages.acquire(1);
+        }
+        return true;
+    }
+
+    synchronized void charge(long messageBytes) {
+        if (bytes != null) {
+            bytes.acquire(messageBytes);
+        }
+    }
+
+    synchronized void updateShare(double share) {
+        if (messages != null) {
+            messages.resize(quota.getMessagesPerSecond() * share);
+        }
+        if (bytes != null) {
+            bytes.resize(quota.getBytesPerSecond() * share);
+        }
+    }
+
+    long drainDemand(long now) {
+        long drained = demand.getAndSet(0);
+        if (drained > 0) {
+            lastDemand = now;
+        }
+        return drained;
+    }
+
+    boolean isIdleSince(long time) {
+        return lastDemand <= time;
+    }
+
+    PublishingQuota getQuota() {
+        return quota;
+    }
+}
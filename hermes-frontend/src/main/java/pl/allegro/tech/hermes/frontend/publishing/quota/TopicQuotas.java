@@ -0,0 +1,106 @@
+package pl.allegro.tech.hermes.frontend.publishing.quota;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.PublishingQuota;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Meters;
+import pl.allegro.tech.hermes.common.time.Clock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Enforces publishing quotas of topics with local token buckets. Every frontend gets part of quota proportional to
+ * its share of topic traffic, recomputed by {@link #refreshShares(long)}; until then it may use whole quota.
+ * Bytes are charged by {@link #charge(Topic, long)} once body is read, as declared length may be missing or wrong;
+ * topic stays over quota until that debt is paid off. Quotas of topics which were not published to for
+ * idle expiry time are dropped together with their rate in ZooKeeper.
+ */
+public class TopicQuotas {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicQuotas.class);
+
+    private final ConcurrentMap<TopicName, TopicQuota> quotas = new ConcurrentHashMap<>();
+    private final ZookeeperTrafficShares trafficShares;
+    private final Clock clock;
+    private final HermesMetrics hermesMetrics;
+    private final long idleExpiryMs;
+    private final ScheduledExecutorService refreshExecutor;
+
+    TopicQuotas(ZookeeperTrafficShares trafficShares, Clock clock, HermesMetrics hermesMetrics, long idleExpiryMs,
+                ScheduledExecutorService refreshExecutor) {
+        this.trafficShares = trafficShares;
+        this.clock = clock;
+        this.hermesMetrics = hermesMetrics;
+        this.idleExpiryMs = idleExpiryMs;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * @param declaredBytes length declared by publisher, 0 when unknown
+     */
+    public boolean tryAcquire(Topic topic, long declaredBytes) {
+        PublishingQuota quota = topic.getPublishingQuota();
+        if (quota == null || quota.isUnlimited()) {
+            return true;
+        }
+        if (quotaOf(topic.getName(), quota).tryAcquire(declaredBytes, clock.getTime())) {
+            return true;
+        }
+        hermesMetrics.meter(Meters.PRODUCER_QUOTA_EXCEEDED_METER).mark();
+        hermesMetrics.meter(Meters.PRODUCER_QUOTA_EXCEEDED_TOPIC_METER, topic.getName()).mark();
+        return false;
+    }
+
+    public void charge(Topic topic, long messageBytes) {
+        PublishingQuota quota = topic.getPublishingQuota();
+        if (quota != null && !quota.isUnlimited()) {
+            quotaOf(topic.getName(), quota).charge(messageBytes);
+        }
+    }
+
+    void refreshShares(long intervalMs) {
+        long now = clock.getTime();
+        quotas.forEach((topicName, quota) -> {
+            long localRate = quota.drainDemand(now) * 1000 / intervalMs;
+            try {
+                if (quota.isIdleSince(now - idleExpiryMs)) {
+                    expire(topicName, quota);
+                } else {
+                    quota.updateShare(trafficShares.share(topicName, localRate));
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not refresh publishing quota share of topic {}", topicName.qualifiedName(), e);
+            }
+        });
+    }
+
+    private void expire(TopicName topicName, TopicQuota quota) {
+        if (quotas.remove(topicName, quota)) {
+            trafficShares.release(topicName);
+        }
+    }
+
+    int size() {
+        return quotas.size();
+    }
+
+    public void close() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    private TopicQuota quotaOf(TopicName topicName, PublishingQuota quota) {
+        TopicQuota current = quotas.get(topicName);
+        if (current != null && current.getQuota().equals(quota)) {
+            return current;
+        }
+        return quotas.compute(topicName, (name, existing) ->
+                existing != null && existing.getQuota().equals(quota) ? existing : new TopicQuota(quota, clock.getTime()));
+    }
+}
@@ -0,0 +1,57 @@
+package pl.allegro.tech.hermes.frontend.publishing.quota;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.glassfish.hk2.api.Factory;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.common.util.HostnameResolver;
+import pl.allegro.tech.hermes.infrastructure.zookeeper.ZookeeperPaths;
+import pl.allegro.tech.hermes.infrastructure.zookeeper.counter.DistributedEphemeralCounter;
+
+import javax.inject.Inject;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_QUOTA_IDLE_EXPIRY_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_QUOTA_SHARE_REFRESH_INTERVAL_MS;
+
+public class TopicQuotasFactory implements Factory<TopicQuotas> {
+
+    private final DistributedEphemeralCounter counter;
+    private final ZookeeperPaths zookeeperPaths;
+    private final HostnameResolver hostnameResolver;
+    private final Clock clock;
+    private final HermesMetrics hermesMetrics;
+    private final ConfigFactory configFactory;
+
+    @Inject
+    public TopicQuotasFactory(DistributedEphemeralCounter counter, ZookeeperPaths zookeeperPaths, HostnameResolver hostnameResolver,
+                              Clock clock, HermesMetrics hermesMetrics, ConfigFactory configFactory) {
+        this.counter = counter;
+        this.zookeeperPaths = zookeeperPaths;
+        this.hostnameResolver = hostnameResolver;
+        this.clock = clock;
+        this.hermesMetrics = hermesMetrics;
+        this.configFactory = configFactory;
+    }
+
+    @Override
+    public TopicQuotas provide() {
+        ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("quota-share-refresh-%d").setDaemon(true).build());
+        TopicQuotas topicQuotas = new TopicQuotas(
+                new ZookeeperTrafficShares(counter, zookeeperPaths, hostnameResolver.resolve()),
+                clock, hermesMetrics, configFactory.getIntProperty(FRONTEND_QUOTA_IDLE_EXPIRY_MS), refreshExecutor);
+
+        int interval = configFactory.getIntProperty(FRONTEND_QUOTA_SHARE_REFRESH_INTERVAL_MS);
+        refreshExecutor.scheduleWithFixedDelay(() -> topicQuotas.refreshShares(interval), interval, interval, TimeUnit.MILLISECONDS);
+        return topicQuotas;
+    }
+
+    @Override
+    public void dispose(TopicQuotas instance) {
+        instance.close();
+    }
+}
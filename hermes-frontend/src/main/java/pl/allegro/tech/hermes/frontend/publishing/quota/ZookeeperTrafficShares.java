@@ -0,0 +1,54 @@
+package pl.allegro.tech.hermes.frontend.publishing.quota;
+
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.infrastructure.zookeeper.ZookeeperPaths;
+import pl.allegro.tech.hermes.infrastructure.zookeeper.counter.DistributedEphemeralCounter;
+
+/**
+ * Publishes rate observed by this frontend in its ephemeral node and computes which part of cluster-wide traffic it
+ * receives. Frontends that died drop out of computation together with their session.
+ */
+public class ZookeeperTrafficShares {
+
+    static final String PUBLISH_RATE = "publish-rate";
+
+    private final DistributedEphemeralCounter counter;
+    private final ZookeeperPaths zookeeperPaths;
+    private final String hostname;
+
+    public ZookeeperTrafficShares(DistributedEphemeralCounter counter, ZookeeperPaths zookeeperPaths, String hostname) {
+        this.counter = counter;
+        this.zookeeperPaths = zookeeperPaths;
+        this.hostname = hostname;
+    }
+
+    public double share(TopicName topicName, long localRate) {
+        counter.setCounterValue(zookeeperPaths.frontendTopicMetricPath(hostname, topicName, PUBLISH_RATE), localRate);
+
+        String ratePath = zookeeperPaths.topicMetricPathWithoutBasePath(topicName, PUBLISH_RATE);
+        long totalRate = counter.getValue(zookeeperPaths.frontendPath(), ratePath);
+        int frontends = counter.countOccurrences(zookeeperPaths.frontendPath(), ratePath);
+        return share(localRate, totalRate, frontends);
+    }
+
+    /**
+     * Removes rate of this frontend, so that it stops counting in shares of topic it no longer receives.
+     */
+    public void release(TopicName topicName) {
+        counter.deleteCounter(zookeeperPaths.frontendTopicMetricPath(hostname, topicName, PUBLISH_RATE));
+    }
+
+    /**
+     * Each frontend keeps at least half of equal share, so traffic moving to it is not rejected before next refresh.
+     */
+    static double share(long localRate, long totalRate, int frontends) {
+        if (frontends <= 1) {
+            return 1.0;
+        }
+        double minimalShare = 0.5 / frontends;
+        if (totalRate <= 0) {
+            return 1.0 / frontends;
+        }
+        return Math.min(1.0, Math.max(minimalShare, (double) localRate / totalRate));
+    }
+}
@@ -0,0 +1,149 @@
+package pl.allegro.tech.hermes.frontend.publishing.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.undertow.websockets.core.AbstractReceiveListener;
+import io.undertow.websockets.core.BufferedBinaryMessage;
+import io.undertow.websockets.core.BufferedTextMessage;
+import io.undertow.websockets.core.WebSocketChannel;
+import io.undertow.websockets.core.WebSockets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xnio.Pooled;
+import org.xnio.XnioExecutor;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.common.util.MessageId;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static pl.allegro.tech.hermes.frontend.publishing.admission.AdmissionControl.BUFFER_CHECK_INTERVAL_MS;
+
+/**
+ * Receives messages of single topic from one WebSocket connection, each text or binary frame being one message.
+ * Frames are read on IO thread, so sequence numbers need no synchronization; acks are sent from broker callbacks.
+ * Once channel is closed, timeouts of pending messages are cancelled and their acks are dropped; messages already
+ * received are still published.
+ */
+class PublishingStream extends AbstractReceiveListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublishingStream.class);
+
+    private final StreamingPublishingHandler publisher;
+    private final WebSocketChannel channel;
+    private final Topic topic;
+    private final String contentType;
+    private final StreamFlowControl flowControl;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final long maxMessageSize;
+
+    private final ConcurrentMap<Long, XnioExecutor.Key> timeouts = new ConcurrentHashMap<>();
+
+    private long sequence = 0;
+    private boolean bufferCheckScheduled = false;
+    private volatile boolean closed = false;
+
+    PublishingStream(StreamingPublishingHandler publisher, WebSocketChannel channel, Topic topic, String contentType,
+                     StreamFlowControl flowControl, ObjectMapper objectMapper, Clock clock, long maxMessageSize) {
+        this.publisher = publisher;
+        this.channel = channel;
+        this.topic = topic;
+        this.contentType = contentType;
+        this.flowControl = flowControl;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    @Override
+    protected void onFullTextMessage(WebSocketChannel channel, BufferedTextMessage message) {
+        received(message.getData().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected void onFullBinaryMessage(WebSocketChannel channel, BufferedBinaryMessage message) {
+        Pooled<ByteBuffer[]> data = message.getData();
+        try {
+            ByteBuffer content = WebSockets.mergeBuffers(data.getResource());
+            byte[] bytes = new byte[content.remaining()];
+            content.get(bytes);
+            received(bytes);
+        } finally {
+            data.free();
+        }
+    }
+
+    @Override
+    protected long getMaxTextBufferSize() {
+        return maxMessageSize;
+    }
+
+    @Override
+    protected long getMaxBinaryBufferSize() {
+        return maxMessageSize;
+    }
+
+    void acknowledge(StreamAck ack) {
+        flowControl.release();
+        XnioExecutor.Key timeout = timeouts.remove(ack.getSequence());
+        if (timeout != null) {
+            timeout.remove();
+        }
+        if (closed) {
+            return;
+        }
+        try {
+            WebSockets.sendText(objectMapper.writeValueAsString(ack), channel, null);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize ack of message {} on topic {}", ack.getId(), topic.getQualifiedName(), e);
+        }
+        channel.getIoThread().execute(this::updateReceives);
+    }
+
+    void scheduleTimeout(long sequence, Runnable timeout, long delayMs) {
+        timeouts.put(sequence, channel.getIoThread().executeAfter(timeout, delayMs, TimeUnit.MILLISECONDS));
+    }
+
+    void close() {
+        closed = true;
+        timeouts.values().forEach(XnioExecutor.Key::remove);
+        timeouts.clear();
+    }
+
+    void pause(int seconds) {
+        flowControl.pauseUntil(clock.getTime() + TimeUnit.SECONDS.toMillis(seconds));
+        channel.getIoThread().executeAfter(this::updateReceives, seconds, TimeUnit.SECONDS);
+    }
+
+    private void received(byte[] content) {
+        flowControl.acquire();
+        StreamResponder responder = publisher.responder(this, ++sequence, MessageId.generate(), topic);
+        publisher.publish(this, topic, contentType, content, responder, channel.getWorker());
+        updateReceives();
+    }
+
+    private void updateReceives() {
+        if (closed) {
+            return;
+        }
+        if (flowControl.canReceive(clock.getTime())) {
+            channel.resumeReceives();
+        } else {
+            channel.suspendReceives();
+            if (flowControl.isWaitingForBuffer() && !bufferCheckScheduled) {
+                bufferCheckScheduled = true;
+                channel.getIoThread().executeAfter(this::checkBuffer, BUFFER_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void checkBuffer() {
+        bufferCheckScheduled = false;
+        updateReceives();
+    }
+}
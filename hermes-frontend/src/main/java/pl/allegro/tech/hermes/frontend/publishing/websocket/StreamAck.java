@@ -0,0 +1,39 @@
+package pl.allegro.tech.hermes.frontend.publishing.websocket;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Frame sent back for every message received on stream. Sequence is position of message frame on stream, starting
+ * from 1, so that client can match acknowledgement before it knows message id.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StreamAck {
+
+    private final long sequence;
+    private final String id;
+    private final int status;
+    private final String message;
+
+    StreamAck(long sequence, String id, int status, String message) {
+        this.sequence = sequence;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,57 @@
+package pl.allegro.tech.hermes.frontend.publishing.websocket;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decides whether stream should receive next frames. Receiving stops when too many messages wait for broker, and
+ * starts again only when half of them are acknowledged, while stream is paused because frontend is overloaded, or
+ * while Kafka producer has too little free buffer.
+ */
+class StreamFlowControl {
+
+    private final int maxInFlight;
+    private final BooleanSupplier bufferHeadroom;
+
+    private int inFlight = 0;
+    private boolean full = false;
+    private boolean waitingForBuffer = false;
+    private long pausedUntil = 0;
+
+    StreamFlowControl(int maxInFlight, BooleanSupplier bufferHeadroom) {
+        this.maxInFlight = maxInFlight;
+        this.bufferHeadroom = bufferHeadroom;
+    }
+
+    synchronized void acquire() {
+        inFlight++;
+    }
+
+    synchronized void release() {
+        inFlight--;
+    }
+
+    synchronized void pauseUntil(long time) {
+        pausedUntil = Math.max(pausedUntil, time);
+    }
+
+    synchronized boolean canReceive(long now) {
+        if (full) {
+            full = inFlight > maxInFlight / 2;
+        } else {
+            full = inFlight >= maxInFlight;
+        }
+        waitingForBuffer = !full && now >= pausedUntil && !bufferHeadroom.getAsBoolean();
+        return !full && now >= pausedUntil && !waitingForBuffer;
+    }
+
+    /**
+     * Buffer is not watched by anything that would resume receiving, so stream has to check it again by itself.
+     */
+    synchronized boolean isWaitingForBuffer() {
+        return waitingForBuffer;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,127 @@
+package pl.allegro.tech.hermes.frontend.publishing.websocket;
+
+import pl.allegro.tech.hermes.api.ErrorCode;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingMetrics;
+import pl.allegro.tech.hermes.frontend.publishing.Responder;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.String.format;
+import static javax.servlet.http.HttpServletResponse.SC_ACCEPTED;
+import static javax.servlet.http.HttpServletResponse.SC_CREATED;
+import static pl.allegro.tech.hermes.api.ErrorCode.INTERNAL_ERROR;
+import static pl.allegro.tech.hermes.api.ErrorCode.SERVICE_OVERLOADED;
+import static pl.allegro.tech.hermes.api.ErrorCode.TIMEOUT;
+import static pl.allegro.tech.hermes.api.ErrorCode.VALIDATION_ERROR;
+
+/**
+ * Counterpart of {@link pl.allegro.tech.hermes.frontend.publishing.HttpResponder} for single message of stream,
+ * which answers with ack frame instead of HTTP response. Status codes are the same as in HTTP publishing.
+ */
+class StreamResponder implements Responder {
+
+    private final PublishingStream stream;
+    private final long sequence;
+    private final String messageId;
+    private final Topic topic;
+    private final Trackers trackers;
+    private final PublishingMetrics publishingMetrics;
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+
+    private volatile Runnable onComplete = () -> { };
+
+    StreamResponder(PublishingStream stream, long sequence, String messageId, Topic topic, Trackers trackers,
+                    HermesMetrics hermesMetrics) {
+        this.stream = stream;
+        this.sequence = sequence;
+        this.messageId = messageId;
+        this.topic = topic;
+        this.trackers = trackers;
+        this.publishingMetrics = new PublishingMetrics(hermesMetrics, topic);
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    String getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * Adds action run once message is answered; actions have to be added before message is handed over for processing.
+     */
+    void onComplete(Runnable onComplete) {
+        Runnable previous = this.onComplete;
+        this.onComplete = () -> {
+            previous.run();
+            onComplete.run();
+        };
+    }
+
+    @Override
+    public void accept() {
+        if (complete(SC_ACCEPTED, null)) {
+            trackers.get(topic).logInflight(messageId, topic.getName());
+        }
+    }
+
+    @Override
+    public void ok() {
+        if (complete(SC_CREATED, null)) {
+            trackers.get(topic).logPublished(messageId, topic.getName());
+        }
+    }
+
+    @Override
+    public void timeout() {
+        error(TIMEOUT, "Async timeout, cause: unknown");
+    }
+
+    @Override
+    public void badRequest(Throwable throwable, String message) {
+        error(VALIDATION_ERROR, formatErrorMessage(message, throwable));
+    }
+
+    @Override
+    public void badRequest(Throwable throwable) {
+        error(VALIDATION_ERROR, throwable.getMessage());
+    }
+
+    @Override
+    public void overloaded(Throwable throwable, String message) {
+        error(SERVICE_OVERLOADED, formatErrorMessage(message, throwable));
+    }
+
+    @Override
+    public void internalError(Throwable throwable, String message) {
+        error(INTERNAL_ERROR, formatErrorMessage(message, throwable));
+    }
+
+    void error(ErrorCode errorCode, String message) {
+        if (complete(errorCode.getHttpCode(), message)) {
+            trackers.get(topic).logError(messageId, topic.getName(), message);
+        }
+    }
+
+    void pauseStream(int seconds) {
+        stream.pause(seconds);
+    }
+
+    private boolean complete(int status, String message) {
+        if (!completed.compareAndSet(false, true)) {
+            return false;
+        }
+        publishingMetrics.completed(status);
+        onComplete.run();
+        stream.acknowledge(new StreamAck(sequence, messageId, status, message));
+        return true;
+    }
+
+    private String formatErrorMessage(String message, Throwable throwable) {
+        return format("%s, cause: %s", message, throwable == null ? "unknown" : throwable.getMessage());
+    }
+}
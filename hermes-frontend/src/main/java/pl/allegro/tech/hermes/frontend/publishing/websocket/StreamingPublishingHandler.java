@@ -0,0 +1,140 @@
+package pl.allegro.tech.hermes.frontend.publishing.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.undertow.Handlers;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
+import io.undertow.util.Headers;
+import io.undertow.websockets.WebSocketProtocolHandshakeHandler;
+import io.undertow.websockets.core.WebSocketChannel;
+import io.undertow.websockets.spi.WebSocketHttpExchange;
+import pl.allegro.tech.hermes.api.ErrorCode;
+import pl.allegro.tech.hermes.api.ErrorDescription;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.common.util.MessageId;
+import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
+import pl.allegro.tech.hermes.frontend.publishing.ErrorSender;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingPipeline;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingTimeout;
+import pl.allegro.tech.hermes.frontend.publishing.admission.Admission;
+import pl.allegro.tech.hermes.frontend.publishing.admission.AdmissionControl;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
+import pl.allegro.tech.hermes.frontend.publishing.processing.ProcessingExecutors;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+import javax.inject.Inject;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static java.lang.String.format;
+import static org.apache.commons.lang.StringUtils.strip;
+import static org.apache.commons.lang.StringUtils.substringAfterLast;
+import static pl.allegro.tech.hermes.api.ErrorCode.TOPIC_NOT_EXISTS;
+import static pl.allegro.tech.hermes.api.TopicName.fromQualifiedName;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_WEBSOCKET_MAX_IN_FLIGHT;
+import static pl.allegro.tech.hermes.common.config.Configs.KAFKA_PRODUCER_MAX_REQUEST_SIZE;
+
+/**
+ * Publishing endpoint for high rate publishers, which stream messages of one topic over WebSocket connection opened
+ * on {@code /stream/topics/<group.topic>}. Every message goes through the same admission and {@link PublishingPipeline}
+ * as in {@link pl.allegro.tech.hermes.frontend.publishing.PublishingServlet} and is answered with
+ * {@link StreamAck} frame as soon as broker answers, or after the same timeout as in HTTP publishing. Content type is
+ * taken from handshake request; partition keys are not supported on this path.
+ */
+public class StreamingPublishingHandler implements HttpHandler {
+
+    private static final AttachmentKey<Topic> TOPIC = AttachmentKey.create(Topic.class);
+
+    private final TopicsCache topicsCache;
+    private final HermesMetrics hermesMetrics;
+    private final ObjectMapper objectMapper;
+    private final ErrorSender errorSender;
+    private final Trackers trackers;
+    private final Clock clock;
+    private final PublishingPipeline pipeline;
+    private final AdmissionControl admissionControl;
+    private final ProcessingExecutors processingExecutors;
+    private final int maxInFlight;
+    private final long maxMessageSize;
+    private final WebSocketProtocolHandshakeHandler handshakeHandler;
+
+    @Inject
+    public StreamingPublishingHandler(TopicsCache topicsCache,
+                                      HermesMetrics hermesMetrics,
+                                      ObjectMapper objectMapper,
+                                      ConfigFactory configFactory,
+                                      Trackers trackers,
+                                      Clock clock,
+                                      PublishingPipeline pipeline,
+                                      AdmissionControl admissionControl,
+                                      ProcessingExecutors processingExecutors) {
+        this.topicsCache = topicsCache;
+        this.hermesMetrics = hermesMetrics;
+        this.objectMapper = objectMapper;
+        this.errorSender = new ErrorSender(objectMapper);
+        this.trackers = trackers;
+        this.clock = clock;
+        this.pipeline = pipeline;
+        this.admissionControl = admissionControl;
+        this.processingExecutors = processingExecutors;
+        this.maxInFlight = configFactory.getIntProperty(FRONTEND_WEBSOCKET_MAX_IN_FLIGHT);
+        this.maxMessageSize = configFactory.getIntProperty(KAFKA_PRODUCER_MAX_REQUEST_SIZE);
+        this.handshakeHandler = Handlers.websocket(this::onConnect);
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        TopicName topicName = fromQualifiedName(substringAfterLast(strip(exchange.getRequestPath(), "/"), "/"));
+        Optional<Topic> topic = topicsCache.getTopic(topicName);
+
+        if (topic.isPresent()) {
+            exchange.putAttachment(TOPIC, topic.get());
+            handshakeHandler.handleRequest(exchange);
+        } else {
+            String cause = format("Topic %s not exists in group %s", topicName.getName(), topicName.getGroupName());
+            errorSender.sendErrorResponseQuietly(new ErrorDescription(cause, TOPIC_NOT_EXISTS), exchange,
+                    MessageId.generate());
+        }
+    }
+
+    private void onConnect(WebSocketHttpExchange exchange, WebSocketChannel channel) {
+        Topic topic = exchange.getAttachment(TOPIC);
+        StreamFlowControl flowControl = new StreamFlowControl(maxInFlight, () -> admissionControl.hasBufferHeadroom(topic.getAck()));
+        PublishingStream stream = new PublishingStream(this, channel, topic, exchange.getRequestHeader(Headers.CONTENT_TYPE_STRING),
+                flowControl, objectMapper, clock, maxMessageSize);
+        channel.addCloseTask(closed -> stream.close());
+        channel.getReceiveSetter().set(stream);
+        channel.resumeReceives();
+    }
+
+    StreamResponder responder(PublishingStream stream, long sequence, String messageId, Topic topic) {
+        return new StreamResponder(stream, sequence, messageId, topic, trackers, hermesMetrics);
+    }
+
+    void publish(PublishingStream stream, Topic topic, String contentType, byte[] content, StreamResponder responder,
+                 Executor worker) {
+        Admission admission = admissionControl.admit(topic, content.length);
+        if (!admission.isAdmitted()) {
+            responder.error(admission.getRejectionCode(), admission.getRejectionReason());
+            if (admission.getRejectionCode() == ErrorCode.SERVICE_OVERLOADED) {
+                responder.pauseStream(admissionControl.getRetryAfterSeconds());
+            }
+            return;
+        }
+        responder.onComplete(admission::release);
+
+        MessageState messageState = new MessageState();
+        PublishingTimeout timeout = pipeline.timeout(responder, topic, messageState);
+        stream.scheduleTimeout(responder.getSequence(), timeout, pipeline.asyncTimeout(topic));
+
+        hermesMetrics.reportContentSize(content.length, topic.getName());
+        pipeline.overloadedOnRejection(processingExecutors.executorFor(topic, worker), responder)
+                .execute(() -> pipeline.publish(responder.getMessageId(), content, contentType, null, topic, messageState,
+                        responder, timeout));
+    }
+}
@@ -0,0 +1,32 @@
+package pl.allegro.tech.hermes.frontend.server;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Methods;
+
+import java.util.regex.Pattern;
+
+/**
+ * Routes publishing requests to native publishing handler, leaving all other requests to servlet container.
+ */
+public class HermesHandlerDispatcher implements HttpHandler {
+
+    private final HttpHandler publishingHandler;
+    private final HttpHandler next;
+    private final Pattern publishingPattern;
+
+    public HermesHandlerDispatcher(HttpHandler publishingHandler, HttpHandler next, String topicsRoot) {
+        this.publishingHandler = publishingHandler;
+        this.next = next;
+        this.publishingPattern = Pattern.compile(String.format("/%s/([^/]+)/?", topicsRoot));
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        (isRequestForPublishing(exchange) ? publishingHandler : next).handleRequest(exchange);
+    }
+
+    private boolean isRequestForPublishing(HttpServerExchange exchange) {
+        return Methods.POST.equals(exchange.getRequestMethod()) && publishingPattern.matcher(exchange.getRequestPath()).matches();
+    }
+}
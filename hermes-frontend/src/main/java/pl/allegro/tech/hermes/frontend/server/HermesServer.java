@@ -16,6 +16,8 @@ import pl.allegro.tech.hermes.frontend.HermesFrontend;
 import pl.allegro.tech.hermes.frontend.cache.topic.TopicCallback;
 import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
 import pl.allegro.tech.hermes.frontend.publishing.PublishingServlet;
+import pl.allegro.tech.hermes.frontend.publishing.handler.PublishingHandler;
+import pl.allegro.tech.hermes.frontend.publishing.websocket.StreamingPublishingHandler;
 import pl.allegro.tech.hermes.frontend.services.HealthCheckService;
 
 import javax.inject.Inject;
@@ -42,6 +44,8 @@ public class HermesServer {
     private final ConfigFactory configFactory;
     private final TopicsCache topicsCache;
     private final PublishingServlet publishingServlet;
+    private final PublishingHandler publishingHandler;
+    private final StreamingPublishingHandler streamingPublishingHandler;
     private final HealthCheckService healthCheckService;
     private final int port;
     private final int sslPort;
@@ -53,12 +57,16 @@ public class HermesServer {
             ConfigFactory configFactory,
             HermesMetrics hermesMetrics,
             PublishingServlet publishingServlet,
+            PublishingHandler publishingHandler,
+            StreamingPublishingHandler streamingPublishingHandler,
             HealthCheckService healthCheckService) {
 
         this.topicsCache = topicsCache;
         this.configFactory = configFactory;
         this.hermesMetrics = hermesMetrics;
         this.publishingServlet = publishingServlet;
+        this.publishingHandler = publishingHandler;
+        this.streamingPublishingHandler = streamingPublishingHandler;
         this.healthCheckService = healthCheckService;
 
         this.port = configFactory.getIntProperty(FRONTEND_PORT);
@@ -110,11 +118,15 @@ public class HermesServer {
     private PathHandler deployAndStart() {
         try {
             HttpHandler handler = deploy().start();
+            handler = isEnabled(FRONTEND_NATIVE_PUBLISHING_HANDLER_ENABLED)
+                    ? new HermesHandlerDispatcher(publishingHandler, handler, "topics") : handler;
             handler = isEnabled(FRONTEND_REQUEST_DUMPER) ? new RequestDumpingHandler(handler) : handler;
-            return path().addExactPath("/", redirect("/status/health"))
+            PathHandler pathHandler = path().addExactPath("/", redirect("/status/health"))
                     .addExactPath("/status/ping", redirect("/status/health"))
                     .addPrefixPath("/status/health", new HealthCheckHandler(healthCheckService))
                     .addPrefixPath("/", handler);
+            return isEnabled(FRONTEND_WEBSOCKET_PUBLISHING_ENABLED)
+                    ? pathHandler.addPrefixPath("/stream/topics", streamingPublishingHandler) : pathHandler;
         } catch (ServletException e) {
             throw new IllegalStateException("Something went wrong while starting servlet in undertow", e);
         }
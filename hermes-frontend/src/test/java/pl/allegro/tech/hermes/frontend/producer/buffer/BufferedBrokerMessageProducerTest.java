@@ -0,0 +1,123 @@
+package pl.allegro.tech.hermes.frontend.producer.buffer;
+
+import com.codahale.metrics.Meter;
+import org.apache.kafka.clients.producer.BufferExhaustedException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static pl.allegro.tech.hermes.api.Topic.Builder.topic;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BufferedBrokerMessageProducerTest {
+
+    private static final Topic TOPIC = topic().applyDefaults().withName("group.topic").build();
+    private static final Message MESSAGE = new Message("id", "{}".getBytes(UTF_8), 1L);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private BrokerMessageProducer kafkaProducer;
+
+    @Mock
+    private ScheduledExecutorService replayExecutor;
+
+    @Mock
+    private PublishingCallback callback;
+
+    private MessageBuffer buffer;
+
+    private BufferedBrokerMessageProducer producer;
+
+    @Before
+    public void setUp() throws IOException {
+        buffer = new MessageBuffer(folder.newFolder(), 1024, 2);
+        producer = new BufferedBrokerMessageProducer(kafkaProducer, buffer, replayExecutor, sameThreadExecutor(), new Meter());
+    }
+
+    @Test
+    public void shouldBufferMessageWhenKafkaProducerBufferIsFull() {
+        // given
+        failSendingWith(new BufferExhaustedException("full"));
+
+        // when
+        producer.send(MESSAGE, TOPIC, callback);
+
+        // then
+        verify(callback).onAccepted(MESSAGE, TOPIC);
+        verify(callback, never()).onPublished(MESSAGE, TOPIC);
+        assertThat(buffer.getPendingMessages()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotBufferMessageWhichKafkaWillNeverAccept() {
+        // given
+        RecordTooLargeException exception = new RecordTooLargeException("too large");
+        failSendingWith(exception);
+
+        // when
+        producer.send(MESSAGE, TOPIC, callback);
+
+        // then
+        verify(callback).onUnpublished(MESSAGE, TOPIC, exception);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldNotBufferMessagesOfTopicsRequiringAllReplicas() {
+        // given
+        Topic topic = topic().applyDefaults().withName("group.topic").withAck(Topic.Ack.ALL).build();
+        failSendingWith(new BufferExhaustedException("full"));
+
+        // when
+        producer.send(MESSAGE, topic, callback);
+
+        // then
+        verify(callback).onUnpublished(eq(MESSAGE), eq(topic), any(BufferExhaustedException.class));
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldBufferNewMessagesUntilBufferIsReplayed() {
+        // given
+        buffer.append(new BufferedMessage(TOPIC.getName(), MESSAGE), false);
+
+        // when
+        producer.send(MESSAGE, TOPIC, callback);
+
+        // then
+        verify(kafkaProducer, never()).send(any(Message.class), any(Topic.class), any(PublishingCallback.class));
+        verify(callback).onAccepted(MESSAGE, TOPIC);
+        verify(callback, never()).onPublished(MESSAGE, TOPIC);
+        assertThat(buffer.getPendingMessages()).isEqualTo(2);
+    }
+
+    private void failSendingWith(Exception exception) {
+        doAnswer(invocation -> {
+            ((PublishingCallback) invocation.getArguments()[2]).onUnpublished(
+                    (Message) invocation.getArguments()[0], (Topic) invocation.getArguments()[1], exception);
+            return null;
+        }).when(kafkaProducer).send(any(Message.class), any(Topic.class), any(PublishingCallback.class));
+    }
+}
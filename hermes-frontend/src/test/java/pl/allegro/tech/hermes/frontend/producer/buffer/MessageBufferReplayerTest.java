@@ -0,0 +1,128 @@
+package pl.allegro.tech.hermes.frontend.producer.buffer;
+
+import com.codahale.metrics.Meter;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
+import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.tracker.frontend.PublishingTracker;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static pl.allegro.tech.hermes.api.Topic.Builder.topic;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MessageBufferReplayerTest {
+
+    private static final Topic TOPIC = topic().applyDefaults().withName("group.topic").build();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private BrokerMessageProducer kafkaProducer;
+
+    @Mock
+    private TopicsCache topicsCache;
+
+    @Mock
+    private Trackers trackers;
+
+    @Mock
+    private PublishingTracker publishingTracker;
+
+    private final Map<String, Exception> failures = new HashMap<>();
+    private final Meter replayedMeter = new Meter();
+    private final Meter droppedMeter = new Meter();
+
+    private MessageBuffer buffer;
+    private MessageBufferReplayer replayer;
+
+    @Before
+    public void setUp() throws IOException {
+        buffer = new MessageBuffer(folder.newFolder(), 1024, 2);
+        replayer = new MessageBufferReplayer(buffer, kafkaProducer, topicsCache, trackers, 10, 1000, replayedMeter, droppedMeter);
+        when(topicsCache.getTopic(TOPIC.getName())).thenReturn(Optional.of(TOPIC));
+        when(trackers.get(TOPIC)).thenReturn(publishingTracker);
+        doAnswer(invocation -> {
+            Message message = (Message) invocation.getArguments()[0];
+            PublishingCallback callback = (PublishingCallback) invocation.getArguments()[2];
+            if (failures.containsKey(message.getId())) {
+                callback.onUnpublished(message, TOPIC, failures.get(message.getId()));
+            } else {
+                callback.onPublished(message, TOPIC);
+            }
+            return null;
+        }).when(kafkaProducer).send(any(Message.class), any(Topic.class), any(PublishingCallback.class));
+    }
+
+    @Test
+    public void shouldDropMessageWhichKafkaAlwaysRejectsAndReplayTheRest() {
+        // given
+        append("1", "2", "3");
+        failures.put("2", new RecordTooLargeException("too large"));
+
+        // when
+        replayer.run();
+
+        // then
+        assertThat(buffer.isEmpty()).isTrue();
+        assertThat(replayedMeter.getCount()).isEqualTo(2);
+        assertThat(droppedMeter.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRemoveOnlyMessagesBeforeFirstTransientFailure() {
+        // given
+        append("1", "2", "3");
+        failures.put("2", new TimeoutException("no leader"));
+
+        // when
+        replayer.run();
+
+        // then
+        assertThat(buffer.peek(10)).extracting(m -> m.getMessage().getId()).containsExactly("2", "3");
+        assertThat(droppedMeter.getCount()).isZero();
+    }
+
+    @Test
+    public void shouldLogMessageAsPublishedOnlyWhenReplayed() {
+        // given
+        append("1", "2");
+        failures.put("2", new TimeoutException("no leader"));
+
+        // when
+        replayer.run();
+
+        // then
+        verify(publishingTracker).logPublished("1", TOPIC.getName());
+        verify(publishingTracker, never()).logPublished("2", TOPIC.getName());
+    }
+
+    private void append(String... ids) {
+        for (String id : ids) {
+            buffer.append(new BufferedMessage(TOPIC.getName(), new Message(id, "{}".getBytes(UTF_8), 1L)), false);
+        }
+    }
+}
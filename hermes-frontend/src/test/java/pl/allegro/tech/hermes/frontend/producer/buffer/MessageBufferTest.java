@@ -0,0 +1,125 @@
+package pl.allegro.tech.hermes.frontend.producer.buffer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MessageBufferTest {
+
+    private static final TopicName TOPIC = TopicName.fromQualifiedName("group.topic");
+    private static final int SEGMENT_SIZE = 256;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadMessagesInOrderTheyWereAppended() throws IOException {
+        // given
+        MessageBuffer buffer = new MessageBuffer(folder.newFolder(), SEGMENT_SIZE, 4);
+        buffer.append(message("1", "key"), false);
+        buffer.append(message("2", null), false);
+
+        // when
+        List<BufferedMessage> messages = buffer.peek(10);
+
+        // then
+        assertThat(messages).extracting(m -> m.getMessage().getId()).containsExactly("1", "2");
+        assertThat(messages.get(0).getMessage().getPartitionKey()).contains("key");
+        assertThat(messages.get(1).getMessage().getPartitionKey()).isEmpty();
+        assertThat(new String(messages.get(0).getMessage().getData(), UTF_8)).isEqualTo("{\"id\":\"1\"}");
+        assertThat(messages.get(0).getTopicName()).isEqualTo(TOPIC);
+    }
+
+    @Test
+    public void shouldKeepNotRemovedMessagesAfterReopening() throws IOException {
+        // given
+        File directory = folder.newFolder();
+        MessageBuffer buffer = new MessageBuffer(directory, SEGMENT_SIZE, 4);
+        for (int i = 0; i < 10; i++) {
+            buffer.append(message(String.valueOf(i), null), true);
+        }
+        buffer.remove(buffer.peek(3).size());
+        buffer.close();
+
+        // when
+        MessageBuffer reopened = new MessageBuffer(directory, SEGMENT_SIZE, 4);
+
+        // then
+        assertThat(reopened.getPendingMessages()).isEqualTo(7);
+        assertThat(reopened.peek(1).get(0).getMessage().getId()).isEqualTo("3");
+    }
+
+    @Test
+    public void shouldRejectMessagesWhenAllSegmentsAreUsed() throws IOException {
+        // given
+        MessageBuffer buffer = new MessageBuffer(folder.newFolder(), SEGMENT_SIZE, 2);
+
+        // when
+        int appended = 0;
+        while (buffer.append(message(String.valueOf(appended), null), false)) {
+            appended++;
+        }
+
+        // then
+        assertThat(appended).isGreaterThan(0);
+        assertThat(buffer.getUsedSegments()).isEqualTo(2);
+        assertThat(buffer.getPendingMessages()).isEqualTo(appended);
+    }
+
+    @Test
+    public void shouldRecycleDrainedSegments() throws IOException {
+        // given
+        MessageBuffer buffer = new MessageBuffer(folder.newFolder(), SEGMENT_SIZE, 2);
+        int appended = 0;
+        while (buffer.append(message(String.valueOf(appended), null), false)) {
+            appended++;
+        }
+
+        // when
+        List<BufferedMessage> drained;
+        while (!(drained = buffer.peek(100)).isEmpty()) {
+            buffer.remove(drained.size());
+        }
+
+        // then
+        assertThat(buffer.isEmpty()).isTrue();
+        assertThat(buffer.append(message("next", null), false)).isTrue();
+        assertThat(buffer.peek(100)).extracting(m -> m.getMessage().getId()).containsExactly("next");
+    }
+
+    @Test
+    public void shouldCutOffTornRecordWhenReopeningTruncatedSegment() throws IOException {
+        // given
+        File directory = folder.newFolder();
+        MessageBuffer buffer = new MessageBuffer(directory, SEGMENT_SIZE, 4);
+        buffer.append(message("1", null), true);
+        long firstRecordEnd = BufferSegment.HEADER_SIZE + buffer.getPendingBytes();
+        buffer.append(message("2", null), true);
+        buffer.close();
+        try (RandomAccessFile segment = new RandomAccessFile(new File(directory, "0.segment"), "rw")) {
+            segment.setLength(firstRecordEnd + 12);
+        }
+
+        // when
+        MessageBuffer reopened = new MessageBuffer(directory, SEGMENT_SIZE, 4);
+
+        // then
+        assertThat(reopened.getPendingMessages()).isEqualTo(1);
+        assertThat(reopened.append(message("3", null), true)).isTrue();
+        assertThat(reopened.peek(10)).extracting(m -> m.getMessage().getId()).containsExactly("1", "3");
+    }
+
+    private BufferedMessage message(String id, String partitionKey) {
+        return new BufferedMessage(TOPIC, new Message(id, ("{\"id\":\"" + id + "\"}").getBytes(UTF_8), 1L, partitionKey));
+    }
+}
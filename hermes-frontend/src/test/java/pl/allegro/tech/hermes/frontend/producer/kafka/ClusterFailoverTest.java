@@ -0,0 +1,91 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.time.Clock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClusterFailoverTest {
+
+    private static final TopicName TOPIC = TopicName.fromQualifiedName("group.topic");
+    private static final TopicName OTHER_TOPIC = TopicName.fromQualifiedName("group.other");
+
+    @Mock
+    private Clock clock;
+
+    private ClusterFailover failover;
+
+    @Before
+    public void setUp() {
+        failover = new ClusterFailover(100, 20, 50, 1000, 5, clock);
+    }
+
+    @Test
+    public void shouldDivertOnlyTopicWithSlowPrimaryAcks() {
+        // when
+        recordPrimary(TOPIC, 10, 1000, false);
+        recordPrimary(OTHER_TOPIC, 10, 5, false);
+
+        // then
+        assertThat(failover.useSecondary(TOPIC)).isTrue();
+        assertThat(failover.useSecondary(OTHER_TOPIC)).isFalse();
+        assertThat(failover.getDivertedTopics()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDivertTopicWhenPrimaryFails() {
+        // when
+        recordPrimary(TOPIC, 5, 5, true);
+
+        // then
+        assertThat(failover.useSecondary(TOPIC)).isTrue();
+    }
+
+    @Test
+    public void shouldStillProbePrimaryWhileDiverted() {
+        // given
+        recordPrimary(TOPIC, 10, 1000, false);
+
+        // when
+        int primary = 0;
+        for (int i = 0; i < 20; i++) {
+            primary += failover.useSecondary(TOPIC) ? 0 : 1;
+        }
+
+        // then
+        assertThat(primary).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldFailBackOnlyAfterMinimalDurationAndRecovery() {
+        // given
+        when(clock.getTime()).thenReturn(0L);
+        recordPrimary(TOPIC, 10, 1000, false);
+
+        // when
+        recordPrimary(TOPIC, 100, 5, false);
+
+        // then
+        assertThat(failover.useSecondary(TOPIC)).isTrue();
+
+        // when
+        when(clock.getTime()).thenReturn(1000L);
+        recordPrimary(TOPIC, 1, 5, false);
+
+        // then
+        assertThat(failover.useSecondary(TOPIC)).isFalse();
+    }
+
+    private void recordPrimary(TopicName topic, int times, long latencyMs, boolean failed) {
+        for (int i = 0; i < times; i++) {
+            failover.recordPrimary(topic, latencyMs, failed);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka;
+
+import org.apache.kafka.common.record.CompressionType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.base.Strings.repeat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static pl.allegro.tech.hermes.api.Topic.Builder.topic;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CompressionSelectorTest {
+
+    private static final byte[] JSON = ("[" + repeat("{\"field\":\"value\",\"number\":12345},", 100) + "{}]").getBytes(UTF_8);
+
+    @Mock
+    private HermesMetrics hermesMetrics;
+
+    private CompressionSelector selector;
+
+    @Before
+    public void setUp() {
+        selector = new CompressionSelector(CompressionType.SNAPPY, 1, 10, 100, hermesMetrics, Runnable::run);
+    }
+
+    @Test
+    public void shouldUseDefaultCodecWhenTopicDoesNotSpecifyCompression() {
+        // given
+        Topic topic = topic().applyDefaults().withName("group.topic").build();
+
+        // when
+        CompressionType codec = selector.compressionOf(topic).select(JSON);
+
+        // then
+        assertThat(codec).isEqualTo(CompressionType.SNAPPY);
+    }
+
+    @Test
+    public void shouldUseCodecConfiguredForTopic() {
+        // given
+        Topic topic = topic().applyDefaults().withName("group.topic").withCompression(Topic.Compression.GZIP).build();
+
+        // when
+        CompressionType codec = selector.compressionOf(topic).select(JSON);
+
+        // then
+        assertThat(codec).isEqualTo(CompressionType.GZIP);
+    }
+
+    @Test
+    public void shouldNotCompressIncompressibleMessagesInAutoMode() {
+        // given
+        Topic topic = topic().applyDefaults().withName("group.topic").withCompression(Topic.Compression.AUTO).build();
+        byte[] random = new byte[4096];
+        new Random(42).nextBytes(random);
+
+        // when
+        CompressionType codec = selector.compressionOf(topic).select(random);
+
+        // then
+        assertThat(codec).isEqualTo(CompressionType.NONE);
+    }
+
+    @Test
+    public void shouldCompressRepetitiveMessagesInAutoMode() {
+        // given
+        Topic topic = topic().applyDefaults().withName("group.topic").withCompression(Topic.Compression.AUTO).build();
+
+        // when
+        CompressionType codec = selector.compressionOf(topic).select(JSON);
+
+        // then
+        assertThat(codec).isNotEqualTo(CompressionType.NONE);
+    }
+
+    @Test
+    public void shouldNotSampleTopicWithFixedCodec() {
+        // given
+        CompressionSampler sampler = mock(CompressionSampler.class);
+        TopicCompression compression = new TopicCompression(Topic.Compression.LZ4, sampler, Runnable::run, 1, 10, 100);
+
+        // when
+        CompressionType codec = compression.select(JSON);
+
+        // then
+        assertThat(codec).isEqualTo(CompressionType.LZ4);
+        verifyZeroInteractions(sampler);
+    }
+
+    @Test
+    public void shouldHoldNewMessagesUntilMessagesInFlightAreSentBeforeSwitchingCodec() throws Exception {
+        // given
+        List<Runnable> samples = new ArrayList<>();
+        TopicCompression compression = new TopicCompression(Topic.Compression.AUTO, new CompressionSampler(), samples::add, 1, 10,
+                10000);
+        CompressionType beforeProposal = compression.select(JSON);
+        samples.forEach(Runnable::run);
+
+        ExecutorService publisher = Executors.newSingleThreadExecutor();
+
+        // when
+        Future<CompressionType> held = publisher.submit(() -> compression.select(JSON));
+        Thread.sleep(50);
+        boolean heldWhileInFlight = !held.isDone();
+        compression.sent();
+        publisher.shutdown();
+
+        // then
+        assertThat(beforeProposal).isEqualTo(CompressionType.NONE);
+        assertThat(heldWhileInFlight).isTrue();
+        assertThat(held.get(1, TimeUnit.SECONDS)).isNotEqualTo(CompressionType.NONE);
+    }
+
+    @Test
+    public void shouldSwitchCodecAfterMaxWaitUnderContinuousTraffic() throws Exception {
+        // given
+        List<Runnable> samples = new ArrayList<>();
+        TopicCompression compression = new TopicCompression(Topic.Compression.AUTO, new CompressionSampler(), samples::add, 1, 10,
+                50);
+        compression.select(JSON);
+        samples.forEach(Runnable::run);
+        AtomicBoolean publishing = new AtomicBoolean(true);
+        List<CompressionType> codecs = new CopyOnWriteArrayList<>();
+        Thread publisher = new Thread(() -> {
+            while (publishing.get()) {
+                codecs.add(compression.select(JSON));
+            }
+        });
+
+        // when
+        publisher.start();
+        Thread.sleep(500);
+        publishing.set(false);
+        publisher.join(1000);
+
+        // then
+        assertThat(codecs).isNotEmpty();
+        assertThat(codecs.get(codecs.size() - 1)).isNotEqualTo(CompressionType.NONE);
+    }
+}
@@ -1,5 +1,7 @@
 package pl.allegro.tech.hermes.frontend.producer.kafka;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
 import org.apache.kafka.clients.producer.MockProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.After;
@@ -11,7 +13,10 @@ import org.mockito.runners.MockitoJUnitRunner;
 import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.common.kafka.KafkaNamesMapper;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.Gauges;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Meters;
+import pl.allegro.tech.hermes.common.time.SystemClock;
 import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
 import pl.allegro.tech.hermes.frontend.publishing.message.Message;
 
@@ -21,6 +26,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import static com.google.common.base.Charsets.UTF_8;
 import static com.jayway.awaitility.Awaitility.await;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static pl.allegro.tech.hermes.api.Topic.Builder.topic;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -44,7 +54,8 @@ public class KafkaBrokerMessageProducerTest {
 
     @Before
     public void before() {
-        producer = new KafkaBrokerMessageProducer(producers, hermesMetrics, kafkaNamesMapper);
+        producer = new KafkaBrokerMessageProducer(producers, hermesMetrics, kafkaNamesMapper,
+                new CompressionSelector(new ConfigFactory(), hermesMetrics));
     }
 
     @After
@@ -80,6 +91,11 @@ public class KafkaBrokerMessageProducerTest {
             public void onPublished(Message message, Topic topic) {
                 callbackCalled.set(true);
             }
+
+            @Override
+            public void onAccepted(Message message, Topic topic) {
+                callbackCalled.set(true);
+            }
         });
 
         //then
@@ -100,12 +116,84 @@ public class KafkaBrokerMessageProducerTest {
         assertThat(records.get(0).topic()).isEqualTo("ns_group.all");
     }
 
+    @Test
+    public void shouldUsePartitionKeyAsRecordKey() {
+        //given
+        Message message = new Message(MESSAGE_ID, CONTENT, TIMESTAMP, "entity-1");
+
+        //when
+        producer.send(message, TOPIC, new DoNothing());
+
+        //then
+        List<ProducerRecord<byte[], byte[]>> records = leaderConfirmsProducer.history();
+        assertThat(records.get(0).key()).isEqualTo("entity-1".getBytes(UTF_8));
+        assertThat(records.get(0).value()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldPublishDivertedTopicToSecondaryCluster() {
+        //given
+        MockProducer secondaryProducer = new MockProducer();
+        ClusterFailover failover = new ClusterFailover(100, 20, 50, 1000, 100, new SystemClock());
+        failover.recordPrimary(TOPIC.getName(), 10000, false);
+        when(hermesMetrics.meter(anyString())).thenReturn(new Meter());
+        KafkaBrokerMessageProducer failoverProducer = new KafkaBrokerMessageProducer(producers,
+                new Producers(secondaryProducer, secondaryProducer, new ConfigFactory()), failover, hermesMetrics,
+                kafkaNamesMapper, new CompressionSelector(new ConfigFactory(), hermesMetrics));
+
+        //when
+        failoverProducer.send(MESSAGE, TOPIC, new DoNothing());
+
+        //then
+        assertThat(secondaryProducer.history()).hasSize(1);
+        assertThat(leaderConfirmsProducer.history()).isEmpty();
+    }
+
+    @Test
+    public void shouldRegisterBufferGaugesOfSecondaryClusterUnderFailoverPrefix() {
+        //given
+        MockProducer secondaryProducer = new MockProducer();
+        ClusterFailover failover = new ClusterFailover(100, 20, 50, 1000, 100, new SystemClock());
+
+        //when
+        new KafkaBrokerMessageProducer(producers, new Producers(secondaryProducer, secondaryProducer, new ConfigFactory()),
+                failover, hermesMetrics, kafkaNamesMapper, new CompressionSelector(new ConfigFactory(), hermesMetrics));
+
+        //then
+        verify(hermesMetrics).registerGauge(
+                eq(ClusterFailover.secondaryGauge(Gauges.PRODUCER_LEADER_CONFIRMS_BUFFER_AVAILABLE_BYTES)), any(Gauge.class));
+    }
+
+    @Test
+    public void shouldMarkFailedSendToSecondaryCluster() {
+        //given
+        MockProducer secondaryProducer = new MockProducer(false);
+        ClusterFailover failover = new ClusterFailover(100, 20, 50, 1000, 100, new SystemClock());
+        failover.recordPrimary(TOPIC.getName(), 10000, false);
+        Meter failed = new Meter();
+        when(hermesMetrics.meter(anyString())).thenReturn(new Meter());
+        when(hermesMetrics.meter(Meters.PRODUCER_FAILOVER_FAILED_METER)).thenReturn(failed);
+        KafkaBrokerMessageProducer failoverProducer = new KafkaBrokerMessageProducer(producers,
+                new Producers(secondaryProducer, secondaryProducer, new ConfigFactory()), failover, hermesMetrics,
+                kafkaNamesMapper, new CompressionSelector(new ConfigFactory(), hermesMetrics));
+
+        //when
+        failoverProducer.send(MESSAGE, TOPIC, new DoNothing());
+        secondaryProducer.errorNext(new RuntimeException("secondary down"));
+
+        //then
+        assertThat(failed.getCount()).isEqualTo(1);
+    }
+
     private static class DoNothing implements PublishingCallback {
         public void onUnpublished(Message message, Topic topic, Exception exception) {
         }
 
         public void onPublished(Message message, Topic topic) {
         }
+
+        public void onAccepted(Message message, Topic topic) {
+        }
     }
 
 }
@@ -0,0 +1,76 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.record.CompressionType;
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.allegro.tech.hermes.api.Topic.Builder.topic;
+
+public class ProducersTest {
+
+    private final List<Producer<byte[], byte[]>> leaderConfirms = ImmutableList.of(new MockProducer(), new MockProducer(), new MockProducer());
+    private final List<Producer<byte[], byte[]>> everyoneConfirms = ImmutableList.of(new MockProducer(), new MockProducer());
+
+    private final Producer<byte[], byte[]> gzipProducer = new MockProducer();
+
+    private final Producers producers = new Producers(leaderConfirms, everyoneConfirms, CompressionType.NONE,
+            (everyone, codec) -> ImmutableList.of(gzipProducer), new ConfigFactory());
+
+    @Test
+    public void shouldAlwaysUseSameProducerForTopic() {
+        // given
+        Topic topic = topic().applyDefaults().withName("group.topic").build();
+
+        // when
+        Producer<byte[], byte[]> producer = producers.get(topic);
+
+        // then
+        assertThat(producers.get(topic)).isSameAs(producer);
+        assertThat(leaderConfirms).contains(producer);
+    }
+
+    @Test
+    public void shouldUseEveryoneConfirmsPoolForAckAllTopics() {
+        // given
+        Topic topic = topic().applyDefaults().withName("group.topic").withAck(Topic.Ack.ALL).build();
+
+        // when
+        Producer<byte[], byte[]> producer = producers.get(topic);
+
+        // then
+        assertThat(everyoneConfirms).contains(producer);
+    }
+
+    @Test
+    public void shouldSpreadTopicsAmongProducers() {
+        // when
+        Set<Producer<byte[], byte[]>> used = IntStream.range(0, 100)
+                .mapToObj(i -> producers.get(topic().applyDefaults().withName("group.topic" + i).build()))
+                .collect(Collectors.toSet());
+
+        // then
+        assertThat(used).hasSize(leaderConfirms.size());
+    }
+
+    @Test
+    public void shouldUseSeparatePoolForTopicCompressedWithOtherCodec() {
+        // given
+        Topic topic = topic().applyDefaults().withName("group.topic").build();
+
+        // when
+        Producer<byte[], byte[]> producer = producers.get(topic, CompressionType.GZIP);
+
+        // then
+        assertThat(producer).isSameAs(gzipProducer);
+    }
+}
@@ -0,0 +1,63 @@
+package pl.allegro.tech.hermes.frontend.publishing;
+
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.TopicName;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MessageBodyBuffersTest {
+
+    private static final TopicName TOPIC = new TopicName("group", "topic");
+    private static final byte[] CONTENT = "{\"data\":\"json\"}".getBytes(UTF_8);
+
+    private final MessageBodyBuffers bodyBuffers = new MessageBodyBuffers(4, 1024);
+
+    @Test
+    public void shouldHandOverExactlySizedBodyWithoutCopying() {
+        // given
+        MessageBodyBuffer buffer = bodyBuffers.allocate(TOPIC, CONTENT.length);
+
+        // when
+        buffer.append(CONTENT, 0, CONTENT.length);
+
+        // then
+        assertThat(buffer.toBytes()).isEqualTo(CONTENT).isSameAs(buffer.toBytes());
+    }
+
+    @Test
+    public void shouldGrowBufferOfChunkedBody() {
+        // given
+        MessageBodyBuffer buffer = bodyBuffers.allocate(TOPIC, -1);
+
+        // when
+        buffer.append(CONTENT, 0, 3);
+        buffer.append(CONTENT, 3, 3);
+        buffer.append(CONTENT, 6, CONTENT.length - 6);
+
+        // then
+        assertThat(buffer.capacity()).isEqualTo(16);
+        assertThat(buffer.toBytes()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldSizeChunkedBodyByLastMessageOnTopic() {
+        // given
+        bodyBuffers.recordSize(TOPIC, 100);
+
+        // when
+        MessageBodyBuffer buffer = bodyBuffers.allocate(TOPIC, -1);
+
+        // then
+        assertThat(buffer.capacity()).isEqualTo(100);
+    }
+
+    @Test
+    public void shouldNotTrustContentLengthBiggerThanMaxRequestSize() {
+        // when
+        MessageBodyBuffer buffer = bodyBuffers.allocate(TOPIC, Integer.MAX_VALUE);
+
+        // then
+        assertThat(buffer.capacity()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,67 @@
+package pl.allegro.tech.hermes.frontend.publishing;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.listeners.BrokerListeners;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static pl.allegro.tech.hermes.api.Topic.Builder.topic;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PublishingTimeoutTest {
+
+    private static final Topic TOPIC = topic().withName("group.topic").build();
+
+    @Mock
+    private Responder responder;
+
+    @Mock
+    private BrokerListeners listeners;
+
+    private MessageState messageState = new MessageState();
+
+    private PublishingTimeout timeout;
+
+    @Before
+    public void setUp() {
+        timeout = new PublishingTimeout(responder, TOPIC, messageState, listeners);
+    }
+
+    @Test
+    public void shouldAnswerWithTimeoutWhenMessageWasNotSentToBroker() {
+        // given
+        messageState.setState(MessageState.State.PARSING);
+
+        // when
+        timeout.run();
+
+        // then
+        verify(responder).timeout();
+        verifyNoMoreInteractions(responder);
+        verifyZeroInteractions(listeners);
+    }
+
+    @Test
+    public void shouldAcceptMessageWhichBrokerDidNotAnswerInTime() {
+        // given
+        Message message = new Message("id", new byte[0], 1L);
+        timeout.sendingToBroker(message);
+        messageState.setState(MessageState.State.SENDING_TO_KAFKA);
+
+        // when
+        timeout.run();
+
+        // then
+        verify(responder).accept();
+        verifyNoMoreInteractions(responder);
+        verify(listeners).onTimeout(message, TOPIC);
+    }
+}
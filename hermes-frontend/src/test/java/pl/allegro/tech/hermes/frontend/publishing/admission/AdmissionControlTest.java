@@ -0,0 +1,162 @@
+package pl.allegro.tech.hermes.frontend.publishing.admission;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.ErrorCode;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.frontend.publishing.quota.TopicQuotas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.when;
+import static pl.allegro.tech.hermes.api.Topic.Ack.ALL;
+import static pl.allegro.tech.hermes.api.Topic.Ack.LEADER;
+import static pl.allegro.tech.hermes.api.Topic.Builder.topic;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdmissionControlTest {
+
+    private static final TopicName TOPIC = TopicName.fromQualifiedName("group.topic");
+    private static final TopicName OTHER_TOPIC = TopicName.fromQualifiedName("group.other");
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private HermesMetrics hermesMetrics;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private TopicQuotas topicQuotas;
+
+    @Test
+    public void shouldAdmitEverythingWhenDisabled() {
+        // given
+        AdmissionControl admissionControl = new AdmissionControl(false, 10, 1, 1, 1, ack -> () -> 0.0, clock, hermesMetrics, topicQuotas);
+
+        // when
+        admissionControl.admit(TOPIC, LEADER);
+
+        // then
+        assertThat(admissionControl.admit(TOPIC, LEADER).isAdmitted()).isTrue();
+    }
+
+    @Test
+    public void shouldShedWhenProducerBufferIsAlmostFull() {
+        // given
+        AdmissionControl admissionControl = new AdmissionControl(true, 10, 0, 0, 1, ack -> () -> 0.05, clock, hermesMetrics, topicQuotas);
+
+        // when
+        Admission admission = admissionControl.admit(TOPIC, LEADER);
+
+        // then
+        assertThat(admission.isAdmitted()).isFalse();
+        assertThat(admission.getRejectionReason()).contains("buffer");
+    }
+
+    @Test
+    public void shouldCheckHeadroomOfProducerServingAckLevelOfTopic() {
+        // given
+        AdmissionControl admissionControl = new AdmissionControl(true, 10, 0, 0, 1, ack -> () -> ack == ALL ? 1.0 : 0.0,
+                clock, hermesMetrics, topicQuotas);
+
+        // when
+        Admission leaderAck = admissionControl.admit(TOPIC, LEADER);
+        Admission allAck = admissionControl.admit(OTHER_TOPIC, ALL);
+
+        // then
+        assertThat(leaderAck.isAdmitted()).isFalse();
+        assertThat(allAck.isAdmitted()).isTrue();
+    }
+
+    @Test
+    public void shouldReportBufferHeadroomEvenWhenSheddingIsDisabled() {
+        // given
+        AdmissionControl admissionControl = new AdmissionControl(false, 10, 0, 0, 1, ack -> () -> ack == ALL ? 1.0 : 0.05,
+                clock, hermesMetrics, topicQuotas);
+
+        // when
+        boolean leaderHeadroom = admissionControl.hasBufferHeadroom(LEADER);
+        boolean everyoneHeadroom = admissionControl.hasBufferHeadroom(ALL);
+
+        // then
+        assertThat(leaderHeadroom).isFalse();
+        assertThat(everyoneHeadroom).isTrue();
+    }
+
+    @Test
+    public void shouldShedWhenTooManyPublishesInFlightUntilOneIsReleased() {
+        // given
+        AdmissionControl admissionControl = new AdmissionControl(true, 10, 2, 0, 1, ack -> () -> 1.0, clock, hermesMetrics, topicQuotas);
+        Admission first = admissionControl.admit(TOPIC, LEADER);
+        admissionControl.admit(OTHER_TOPIC, LEADER);
+
+        // when
+        Admission rejected = admissionControl.admit(TOPIC, LEADER);
+        first.release();
+        first.release();
+
+        // then
+        assertThat(rejected.isAdmitted()).isFalse();
+        assertThat(admissionControl.admit(TOPIC, LEADER).isAdmitted()).isTrue();
+        assertThat(admissionControl.admit(TOPIC, LEADER).isAdmitted()).isFalse();
+    }
+
+    @Test
+    public void shouldNotLetSingleTopicTakeAllSlots() {
+        // given
+        AdmissionControl admissionControl = new AdmissionControl(true, 10, 10, 1, 1, ack -> () -> 1.0, clock, hermesMetrics, topicQuotas);
+        admissionControl.admit(TOPIC, LEADER);
+
+        // when
+        Admission sameTopic = admissionControl.admit(TOPIC, LEADER);
+        Admission otherTopic = admissionControl.admit(OTHER_TOPIC, LEADER);
+
+        // then
+        assertThat(sameTopic.isAdmitted()).isFalse();
+        assertThat(otherTopic.isAdmitted()).isTrue();
+    }
+
+    @Test
+    public void shouldCheckBufferHeadroomAtMostOncePerInterval() {
+        // given
+        double[] available = {1.0};
+        AdmissionControl admissionControl = new AdmissionControl(true, 10, 0, 0, 1, ack -> () -> available[0], clock, hermesMetrics, topicQuotas);
+        when(clock.getTime()).thenReturn(1000L);
+        admissionControl.admit(TOPIC, LEADER);
+        available[0] = 0.0;
+
+        // when
+        when(clock.getTime()).thenReturn(1000L + AdmissionControl.BUFFER_CHECK_INTERVAL_MS - 1);
+        Admission beforeRefresh = admissionControl.admit(TOPIC, LEADER);
+        when(clock.getTime()).thenReturn(1000L + AdmissionControl.BUFFER_CHECK_INTERVAL_MS);
+        Admission afterRefresh = admissionControl.admit(TOPIC, LEADER);
+
+        // then
+        assertThat(beforeRefresh.isAdmitted()).isTrue();
+        assertThat(afterRefresh.isAdmitted()).isFalse();
+    }
+
+    @Test
+    public void shouldRejectWithQuotaExceededAndReleaseSlotWhenTopicQuotaIsUsed() {
+        // given
+        Topic topic = topic().withName(TOPIC).build();
+        AdmissionControl admissionControl = new AdmissionControl(true, 10, 1, 0, 1, ack -> () -> 1.0, clock, hermesMetrics, topicQuotas);
+        when(topicQuotas.tryAcquire(any(Topic.class), anyLong())).thenReturn(false, true);
+
+        // when
+        Admission overQuota = admissionControl.admit(topic, 100);
+        Admission withinQuota = admissionControl.admit(topic, 100);
+
+        // then
+        assertThat(overQuota.isAdmitted()).isFalse();
+        assertThat(overQuota.getRejectionCode()).isEqualTo(ErrorCode.QUOTA_EXCEEDED);
+        assertThat(withinQuota.isAdmitted()).isTrue();
+    }
+}
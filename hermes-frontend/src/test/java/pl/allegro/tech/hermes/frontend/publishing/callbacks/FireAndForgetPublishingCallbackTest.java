@@ -0,0 +1,85 @@
+package pl.allegro.tech.hermes.frontend.publishing.callbacks;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.tracker.frontend.PublishingTracker;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static pl.allegro.tech.hermes.api.Topic.Builder.topic;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FireAndForgetPublishingCallbackTest {
+
+    private static final Topic TOPIC = topic().applyDefaults().withName("group.topic").withAck(Topic.Ack.FIRE_AND_FORGET).build();
+    private static final Message MESSAGE = new Message("id", "{}".getBytes(UTF_8), 1L);
+    private static final Exception FAILURE = new RuntimeException("broker down");
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private HermesMetrics hermesMetrics;
+
+    @Mock
+    private Trackers trackers;
+
+    @Mock
+    private PublishingTracker publishingTracker;
+
+    private FireAndForgetPublishingCallback callback;
+
+    @Before
+    public void setUp() {
+        when(trackers.get(TOPIC)).thenReturn(publishingTracker);
+        callback = new FireAndForgetPublishingCallback(hermesMetrics, trackers);
+    }
+
+    @Test
+    public void shouldRejectMessageWhichFailedBeforeAccepting() {
+        // given
+        callback.onUnpublished(MESSAGE, TOPIC, FAILURE);
+
+        // when
+        boolean accepted = callback.accept();
+
+        // then
+        assertThat(accepted).isFalse();
+        assertThat(callback.getFailure()).isSameAs(FAILURE);
+        verify(publishingTracker, never()).logError(anyString(), eq(TOPIC.getName()), anyString());
+    }
+
+    @Test
+    public void shouldReportFailureAfterAcceptingToTrackers() {
+        // given
+        callback.accept();
+
+        // when
+        callback.onUnpublished(MESSAGE, TOPIC, FAILURE);
+
+        // then
+        verify(publishingTracker).logError("id", TOPIC.getName(), "broker down");
+    }
+
+    @Test
+    public void shouldTrackPublishedMessage() {
+        // given
+        callback.accept();
+
+        // when
+        callback.onPublished(MESSAGE, TOPIC);
+
+        // then
+        verify(publishingTracker).logPublished("id", TOPIC.getName());
+    }
+}
@@ -0,0 +1,325 @@
+package pl.allegro.tech.hermes.frontend.publishing.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.undertow.Undertow;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.config.Configs;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.time.Clock;
+import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
+import pl.allegro.tech.hermes.frontend.listeners.BrokerListeners;
+import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
+import pl.allegro.tech.hermes.frontend.publishing.MessageBodyBuffers;
+import pl.allegro.tech.hermes.frontend.publishing.MessageContentTypeEnforcer;
+import pl.allegro.tech.hermes.frontend.publishing.MessagePublisher;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingPipeline;
+import pl.allegro.tech.hermes.frontend.publishing.admission.Admission;
+import pl.allegro.tech.hermes.frontend.publishing.admission.AdmissionControl;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.frontend.publishing.metadata.MetadataAddingMessageConverter;
+import pl.allegro.tech.hermes.frontend.publishing.processing.ProcessingExecutors;
+import pl.allegro.tech.hermes.frontend.publishing.quota.TopicQuotas;
+import pl.allegro.tech.hermes.frontend.validator.MessageValidators;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static pl.allegro.tech.hermes.api.Topic.Builder.topic;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PublishingHandlerTest {
+
+    private static final Topic TOPIC = topic().applyDefaults().withName("group.topic").withAck(Topic.Ack.LEADER).build();
+    private static final String BODY = "{\"field\": \"value\"}";
+    private static final int ASYNC_TIMEOUT_MS = 10000;
+    private static final int SHORT_ASYNC_TIMEOUT_MS = 200;
+
+    @Mock
+    private TopicsCache topicsCache;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private HermesMetrics hermesMetrics;
+
+    @Mock
+    private ConfigFactory configFactory;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private Trackers trackers;
+
+    @Mock
+    private MessageValidators messageValidators;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private BrokerMessageProducer brokerMessageProducer;
+
+    @Mock
+    private BrokerListeners listeners;
+
+    @Mock
+    private MessageContentTypeEnforcer contentTypeEnforcer;
+
+    @Mock
+    private MetadataAddingMessageConverter metadataAddingMessageConverter;
+
+    @Mock
+    private AdmissionControl admissionControl;
+
+    @Mock
+    private Admission admission;
+
+    @Mock
+    private ProcessingExecutors processingExecutors;
+
+    @Mock
+    private TopicQuotas topicQuotas;
+
+    private int port;
+
+    private Undertow server;
+
+    @Before
+    public void setUp() throws IOException {
+        when(configFactory.getIntProperty(Configs.FRONTEND_REQUEST_CHUNK_SIZE)).thenReturn(1024);
+        when(configFactory.getIntProperty(Configs.KAFKA_PRODUCER_MAX_REQUEST_SIZE)).thenReturn(1024 * 1024);
+        when(topicsCache.getTopic(any(TopicName.class))).thenReturn(Optional.empty());
+        when(topicsCache.getTopic(TOPIC.getName())).thenReturn(Optional.of(TOPIC));
+        when(admissionControl.admit(any(Topic.class), anyLong())).thenReturn(admission);
+        when(admission.isAdmitted()).thenReturn(true);
+        when(contentTypeEnforcer.enforce(anyString(), any(Message.class), any(Topic.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[1]);
+        when(metadataAddingMessageConverter.addMetadata(any(Message.class), any(Topic.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[0]);
+        startServer(ASYNC_TIMEOUT_MS);
+    }
+
+    /**
+     * Timeout is long enough not to fire in tests which do not expect it, even on busy machine.
+     */
+    private void startServer(int asyncTimeoutMs) throws IOException {
+        if (server != null) {
+            server.stop();
+        }
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        when(configFactory.getIntProperty(Configs.FRONTEND_IDLE_TIMEOUT)).thenReturn(asyncTimeoutMs);
+        when(configFactory.getIntProperty(Configs.FRONTEND_LONG_IDLE_TIMEOUT)).thenReturn(asyncTimeoutMs);
+
+        PublishingPipeline pipeline = new PublishingPipeline(hermesMetrics, configFactory, trackers, messageValidators, clock,
+                new MessagePublisher(brokerMessageProducer), listeners, contentTypeEnforcer, metadataAddingMessageConverter,
+                topicQuotas);
+        PublishingHandler handler = new PublishingHandler(topicsCache, hermesMetrics, new ObjectMapper(), trackers, pipeline,
+                new MessageBodyBuffers(configFactory), admissionControl, processingExecutors);
+        server = Undertow.builder().addHttpListener(port, "localhost").setHandler(handler).build();
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void shouldPublishMessageAndReleaseAdmissionWhenExchangeCompletes() throws IOException {
+        // given
+        brokerAnswers(true);
+
+        // when
+        int status = publish("group.topic", BODY);
+
+        // then
+        assertThat(status).isEqualTo(201);
+        verify(admission, timeout(1000)).release();
+    }
+
+    @Test
+    public void shouldRespondWithInternalErrorWhenBrokerFailsToPublish() throws IOException {
+        // given
+        brokerAnswers(false);
+
+        // when
+        int status = publish("group.topic", BODY);
+
+        // then
+        assertThat(status).isEqualTo(500);
+        verify(admission, timeout(1000)).release();
+    }
+
+    @Test
+    public void shouldAcceptMessageWithoutWaitingForBrokerWhenTopicIsFireAndForget() throws IOException {
+        // given
+        Topic fireAndForget = topic().applyDefaults().withName("group.fireAndForget").withAck(Topic.Ack.FIRE_AND_FORGET).build();
+        when(topicsCache.getTopic(fireAndForget.getName())).thenReturn(Optional.of(fireAndForget));
+
+        // when
+        int status = publish("group.fireAndForget", BODY);
+
+        // then
+        assertThat(status).isEqualTo(202);
+        verify(listeners, never()).onTimeout(any(Message.class), any(Topic.class));
+    }
+
+    @Test
+    public void shouldWaitForBrokerWhenTopicAckIsNone() throws IOException {
+        // given
+        Topic none = topic().applyDefaults().withName("group.none").withAck(Topic.Ack.NONE).build();
+        when(topicsCache.getTopic(none.getName())).thenReturn(Optional.of(none));
+        brokerAnswers(true);
+
+        // when
+        int status = publish("group.none", BODY);
+
+        // then
+        assertThat(status).isEqualTo(201);
+    }
+
+    @Test
+    public void shouldRespondWithNotFoundForUnknownTopic() throws IOException {
+        // when
+        int status = publish("group.unknown", BODY);
+
+        // then
+        assertThat(status).isEqualTo(404);
+    }
+
+    @Test
+    public void shouldRespondWithServiceUnavailableWhenProcessingQueueRejectsMessage() throws IOException {
+        // given
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("queue is full");
+        };
+        when(processingExecutors.executorFor(TOPIC, null)).thenReturn(rejecting);
+
+        // when
+        int status = publish("group.topic", BODY);
+
+        // then
+        assertThat(status).isEqualTo(503);
+        verify(admission, timeout(1000)).release();
+    }
+
+    @Test
+    public void shouldRespondWithTimeoutWhenMessageWasNotSentToBrokerInTime() throws IOException {
+        // given
+        startServer(SHORT_ASYNC_TIMEOUT_MS);
+        Executor stalled = task -> { };
+        when(processingExecutors.executorFor(TOPIC, null)).thenReturn(stalled);
+
+        // when
+        int status = publish("group.topic", BODY);
+
+        // then
+        assertThat(status).isEqualTo(408);
+        verify(admission, timeout(1000)).release();
+    }
+
+    @Test
+    public void shouldAcceptMessageWhenBrokerDoesNotAnswerInTime() throws IOException {
+        // given
+        startServer(SHORT_ASYNC_TIMEOUT_MS);
+        // processing on IO thread, which runs timeout as well, so message is sent before timeout fires
+        when(processingExecutors.executorFor(TOPIC, null)).thenReturn(Runnable::run);
+
+        // when
+        int status = publish("group.topic", BODY);
+
+        // then
+        assertThat(status).isEqualTo(202);
+        verify(listeners, timeout(1000)).onTimeout(any(Message.class), any(Topic.class));
+    }
+
+    @Test
+    public void shouldRespondWithBadRequestWhenBodyDoesNotMatchContentLength() throws IOException {
+        // when
+        String response = sendRaw("POST /topics/group.topic HTTP/1.1\r\nHost: localhost\r\nContent-Length: 100\r\n"
+                + "Transfer-Encoding: chunked\r\n\r\n" + Integer.toHexString(BODY.length()) + "\r\n" + BODY + "\r\n0\r\n\r\n");
+
+        // then
+        assertThat(response).startsWith("HTTP/1.1 400");
+    }
+
+    @Test
+    public void shouldRespondWithInternalErrorWhenConnectionIsClosedBeforeWholeBodyIsRead() throws IOException {
+        // when
+        String response = sendRaw("POST /topics/group.topic HTTP/1.1\r\nHost: localhost\r\nContent-Length: 100\r\n\r\n" + BODY);
+
+        // then
+        assertThat(response).startsWith("HTTP/1.1 500");
+        verify(admission, timeout(1000)).release();
+    }
+
+    private void brokerAnswers(boolean published) {
+        doAnswer(invocation -> {
+            Message message = (Message) invocation.getArguments()[0];
+            Topic topic = (Topic) invocation.getArguments()[1];
+            PublishingCallback callback = (PublishingCallback) invocation.getArguments()[2];
+            if (published) {
+                callback.onPublished(message, topic);
+            } else {
+                callback.onUnpublished(message, topic, new IllegalStateException("broker is down"));
+            }
+            return null;
+        }).when(brokerMessageProducer).send(any(Message.class), any(Topic.class), any(PublishingCallback.class));
+    }
+
+    private int publish(String topic, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/topics/" + topic)
+                .openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream os = connection.getOutputStream()) {
+            os.write(body.getBytes(UTF_8));
+        }
+        return connection.getResponseCode();
+    }
+
+    private String sendRaw(String request) throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.getOutputStream().write(request.getBytes(UTF_8));
+            socket.shutdownOutput();
+            InputStream in = socket.getInputStream();
+            byte[] response = new byte[12];
+            int read = 0;
+            while (read < response.length) {
+                int count = in.read(response, read, response.length - read);
+                if (count < 0) {
+                    break;
+                }
+                read += count;
+            }
+            return new String(response, 0, read, UTF_8);
+        }
+    }
+}
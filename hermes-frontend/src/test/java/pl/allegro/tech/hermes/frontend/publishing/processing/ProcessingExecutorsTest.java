@@ -0,0 +1,91 @@
+package pl.allegro.tech.hermes.frontend.publishing.processing;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.allegro.tech.hermes.api.Topic.Builder.topic;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessingExecutorsTest {
+
+    private static final Topic BULK_TOPIC = topic().withName("bulk.topic").build();
+    private static final Topic CRITICAL_TOPIC = topic().withName("critical.topic").build();
+    private static final Topic CRITICAL_GROUP_TOPIC = topic().withName("payments.topic").build();
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private HermesMetrics hermesMetrics;
+
+    @Test
+    public void shouldUseFallbackWhenDisabled() {
+        // given
+        ProcessingExecutors executors = new ProcessingExecutors(false, ImmutableSet.of(), 1, 1, 1, hermesMetrics);
+        Executor fallback = Runnable::run;
+
+        // when
+        Executor executor = executors.executorFor(BULK_TOPIC, fallback);
+
+        // then
+        assertThat(executor).isSameAs(fallback);
+    }
+
+    @Test
+    public void shouldProcessCriticalTopicsAndGroupsInSeparateLane() throws Exception {
+        // given
+        ProcessingExecutors executors = new ProcessingExecutors(true, ImmutableSet.of("critical.topic", "payments"), 1, 1, 1,
+                hermesMetrics);
+
+        // when
+        String bulkThread = threadOf(executors.executorFor(BULK_TOPIC, null));
+        String criticalThread = threadOf(executors.executorFor(CRITICAL_TOPIC, null));
+        String criticalGroupThread = threadOf(executors.executorFor(CRITICAL_GROUP_TOPIC, null));
+
+        // then
+        assertThat(bulkThread).startsWith(ProcessingExecutors.DEFAULT_LANE);
+        assertThat(criticalThread).startsWith(ProcessingExecutors.CRITICAL_LANE);
+        assertThat(criticalGroupThread).startsWith(ProcessingExecutors.CRITICAL_LANE);
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void shouldRejectWhenLaneQueueIsFull() {
+        // given
+        ProcessingExecutors executors = new ProcessingExecutors(true, ImmutableSet.of(), 1, 1, 1, hermesMetrics);
+        Executor executor = executors.executorFor(BULK_TOPIC, null);
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> await(blocked));
+        executor.execute(() -> { });
+
+        try {
+            // when
+            executor.execute(() -> { });
+        } finally {
+            blocked.countDown();
+        }
+    }
+
+    private String threadOf(Executor executor) throws Exception {
+        CompletableFuture<String> thread = new CompletableFuture<>();
+        executor.execute(() -> thread.complete(Thread.currentThread().getName()));
+        return thread.get(1, TimeUnit.SECONDS);
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
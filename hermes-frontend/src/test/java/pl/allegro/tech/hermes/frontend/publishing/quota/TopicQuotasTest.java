@@ -0,0 +1,166 @@
+package pl.allegro.tech.hermes.frontend.publishing.quota;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.PublishingQuota;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.time.Clock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static pl.allegro.tech.hermes.api.Topic.Builder.topic;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TopicQuotasTest {
+
+    private static final TopicName TOPIC = TopicName.fromQualifiedName("group.topic");
+    private static final long IDLE_EXPIRY_MS = 60000;
+
+    @Mock
+    private ZookeeperTrafficShares trafficShares;
+
+    @Mock
+    private Clock clock;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private HermesMetrics hermesMetrics;
+
+    private TopicQuotas topicQuotas;
+
+    @Before
+    public void setUp() {
+        when(clock.getTime()).thenReturn(0L);
+        topicQuotas = new TopicQuotas(trafficShares, clock, hermesMetrics, IDLE_EXPIRY_MS, null);
+    }
+
+    @Test
+    public void shouldNotLimitTopicWithoutQuota() {
+        // given
+        Topic topic = topic().withName(TOPIC).build();
+
+        // when
+        int accepted = publish(topic, 1000, 100);
+
+        // then
+        assertThat(accepted).isEqualTo(1000);
+    }
+
+    @Test
+    public void shouldLimitMessagesPerSecondAndRefillOverTime() {
+        // given
+        Topic topic = topic().withName(TOPIC).withPublishingQuota(PublishingQuota.of(10, 0)).build();
+
+        // when
+        int acceptedInFirstSecond = publish(topic, 20, 100);
+        when(clock.getTime()).thenReturn(500L);
+        int acceptedAfterHalfSecond = publish(topic, 20, 100);
+
+        // then
+        assertThat(acceptedInFirstSecond).isEqualTo(10);
+        assertThat(acceptedAfterHalfSecond).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldLimitBytesPerSecondButLetThroughMessageBiggerThanQuota() {
+        // given
+        Topic topic = topic().withName(TOPIC).withPublishingQuota(PublishingQuota.of(0, 1000)).build();
+
+        // when
+        int acceptedSmall = publish(topic, 20, 100);
+        when(clock.getTime()).thenReturn(1000L);
+        boolean acceptedHuge = topicQuotas.tryAcquire(topic, 5000);
+        topicQuotas.charge(topic, 5000);
+        when(clock.getTime()).thenReturn(2000L);
+        boolean acceptedInDebt = topicQuotas.tryAcquire(topic, 100);
+
+        // then
+        assertThat(acceptedSmall).isEqualTo(10);
+        assertThat(acceptedHuge).isTrue();
+        assertThat(acceptedInDebt).isFalse();
+    }
+
+    @Test
+    public void shouldChargeBytesActuallyReadWhenLengthWasNotDeclared() {
+        // given
+        Topic topic = topic().withName(TOPIC).withPublishingQuota(PublishingQuota.of(0, 1000)).build();
+
+        // when
+        boolean acceptedChunked = topicQuotas.tryAcquire(topic, 0);
+        topicQuotas.charge(topic, 1500);
+        when(clock.getTime()).thenReturn(400L);
+        boolean acceptedInDebt = topicQuotas.tryAcquire(topic, 0);
+        when(clock.getTime()).thenReturn(600L);
+        boolean acceptedAfterDebtIsPaid = topicQuotas.tryAcquire(topic, 0);
+
+        // then
+        assertThat(acceptedChunked).isTrue();
+        assertThat(acceptedInDebt).isFalse();
+        assertThat(acceptedAfterDebtIsPaid).isTrue();
+    }
+
+    @Test
+    public void shouldUseOnlyLocalShareOfQuotaAfterRefresh() {
+        // given
+        Topic topic = topic().withName(TOPIC).withPublishingQuota(PublishingQuota.of(100, 0)).build();
+        publish(topic, 100, 1);
+        when(trafficShares.share(eq(TOPIC), anyLong())).thenReturn(0.25);
+
+        // when
+        topicQuotas.refreshShares(1000);
+        when(clock.getTime()).thenReturn(1000L);
+        int accepted = publish(topic, 100, 1);
+
+        // then
+        assertThat(accepted).isEqualTo(25);
+    }
+
+    @Test
+    public void shouldDropQuotaOfTopicWhichIsNoLongerPublishedTo() {
+        // given
+        Topic topic = topic().withName(TOPIC).withPublishingQuota(PublishingQuota.of(100, 0)).build();
+        publish(topic, 1, 1);
+        topicQuotas.refreshShares(1000);
+
+        // when
+        when(clock.getTime()).thenReturn(IDLE_EXPIRY_MS - 1);
+        topicQuotas.refreshShares(1000);
+        int sizeBeforeExpiry = topicQuotas.size();
+        when(clock.getTime()).thenReturn(IDLE_EXPIRY_MS);
+        topicQuotas.refreshShares(1000);
+
+        // then
+        assertThat(sizeBeforeExpiry).isEqualTo(1);
+        assertThat(topicQuotas.size()).isEqualTo(0);
+        verify(trafficShares, times(2)).share(eq(TOPIC), anyLong());
+        verify(trafficShares).release(TOPIC);
+    }
+
+    @Test
+    public void shouldSplitQuotaProportionallyToTrafficWithMinimalShare() {
+        assertThat(ZookeeperTrafficShares.share(30, 100, 2)).isEqualTo(0.3);
+        assertThat(ZookeeperTrafficShares.share(0, 100, 4)).isEqualTo(0.125);
+        assertThat(ZookeeperTrafficShares.share(0, 0, 4)).isEqualTo(0.25);
+        assertThat(ZookeeperTrafficShares.share(10, 100, 1)).isEqualTo(1.0);
+    }
+
+    private int publish(Topic topic, int messages, long messageBytes) {
+        int accepted = 0;
+        for (int i = 0; i < messages; i++) {
+            if (topicQuotas.tryAcquire(topic, messageBytes)) {
+                topicQuotas.charge(topic, messageBytes);
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+}
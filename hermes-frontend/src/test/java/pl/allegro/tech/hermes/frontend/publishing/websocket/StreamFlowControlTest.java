@@ -0,0 +1,77 @@
+package pl.allegro.tech.hermes.frontend.publishing.websocket;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StreamFlowControlTest {
+
+    @Test
+    public void shouldStopReceivingWhenTooManyMessagesInFlight() {
+        // given
+        StreamFlowControl flowControl = new StreamFlowControl(4, () -> true);
+
+        // when
+        acquire(flowControl, 3);
+        boolean belowLimit = flowControl.canReceive(0);
+        acquire(flowControl, 1);
+
+        // then
+        assertThat(belowLimit).isTrue();
+        assertThat(flowControl.canReceive(0)).isFalse();
+    }
+
+    @Test
+    public void shouldResumeOnlyWhenHalfOfMessagesIsAcknowledged() {
+        // given
+        StreamFlowControl flowControl = new StreamFlowControl(4, () -> true);
+        acquire(flowControl, 4);
+        flowControl.canReceive(0);
+
+        // when
+        flowControl.release();
+        boolean afterFirstAck = flowControl.canReceive(0);
+        flowControl.release();
+
+        // then
+        assertThat(afterFirstAck).isFalse();
+        assertThat(flowControl.canReceive(0)).isTrue();
+    }
+
+    @Test
+    public void shouldNotReceiveWhilePaused() {
+        // given
+        StreamFlowControl flowControl = new StreamFlowControl(4, () -> true);
+
+        // when
+        flowControl.pauseUntil(1000);
+
+        // then
+        assertThat(flowControl.canReceive(999)).isFalse();
+        assertThat(flowControl.canReceive(1000)).isTrue();
+    }
+
+    @Test
+    public void shouldNotReceiveWhileProducerBufferIsAlmostFull() {
+        // given
+        boolean[] headroom = {false};
+        StreamFlowControl flowControl = new StreamFlowControl(4, () -> headroom[0]);
+
+        // when
+        boolean withoutHeadroom = flowControl.canReceive(0);
+        boolean waitingForBuffer = flowControl.isWaitingForBuffer();
+        headroom[0] = true;
+
+        // then
+        assertThat(withoutHeadroom).isFalse();
+        assertThat(waitingForBuffer).isTrue();
+        assertThat(flowControl.canReceive(0)).isTrue();
+        assertThat(flowControl.isWaitingForBuffer()).isFalse();
+    }
+
+    private void acquire(StreamFlowControl flowControl, int times) {
+        for (int i = 0; i < times; i++) {
+            flowControl.acquire();
+        }
+    }
+}
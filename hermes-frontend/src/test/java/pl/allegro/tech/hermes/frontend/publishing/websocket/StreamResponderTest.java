@@ -0,0 +1,67 @@
+package pl.allegro.tech.hermes.frontend.publishing.websocket;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import pl.allegro.tech.hermes.api.ErrorCode;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static pl.allegro.tech.hermes.api.Topic.Builder.topic;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StreamResponderTest {
+
+    private static final Topic TOPIC = topic().withName("group.topic").build();
+
+    @Mock
+    private PublishingStream stream;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private Trackers trackers;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private HermesMetrics hermesMetrics;
+
+    @Test
+    public void shouldAcknowledgeMessageWithSequenceAndId() {
+        // given
+        StreamResponder responder = new StreamResponder(stream, 7, "id", TOPIC, trackers, hermesMetrics);
+
+        // when
+        responder.ok();
+
+        // then
+        ArgumentCaptor<StreamAck> ack = ArgumentCaptor.forClass(StreamAck.class);
+        verify(stream).acknowledge(ack.capture());
+        assertThat(ack.getValue().getSequence()).isEqualTo(7);
+        assertThat(ack.getValue().getId()).isEqualTo("id");
+        assertThat(ack.getValue().getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    public void shouldAnswerOnlyOnceAndRunCompletionOnce() {
+        // given
+        Runnable onComplete = mock(Runnable.class);
+        StreamResponder responder = new StreamResponder(stream, 1, "id", TOPIC, trackers, hermesMetrics);
+        responder.onComplete(onComplete);
+
+        // when
+        responder.error(ErrorCode.QUOTA_EXCEEDED, "Publishing quota of topic exceeded");
+        responder.ok();
+
+        // then
+        ArgumentCaptor<StreamAck> ack = ArgumentCaptor.forClass(StreamAck.class);
+        verify(stream, times(1)).acknowledge(ack.capture());
+        verify(onComplete, times(1)).run();
+        assertThat(ack.getValue().getStatus()).isEqualTo(429);
+    }
+}
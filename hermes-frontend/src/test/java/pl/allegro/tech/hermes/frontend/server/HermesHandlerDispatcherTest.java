@@ -0,0 +1,99 @@
+package pl.allegro.tech.hermes.frontend.server;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HttpString;
+import io.undertow.util.Methods;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HermesHandlerDispatcherTest {
+
+    @Mock
+    private HttpHandler publishingHandler;
+
+    @Mock
+    private HttpHandler next;
+
+    @Test
+    public void shouldDispatchPublishingRequestToPublishingHandler() throws Exception {
+        // given
+        HttpServerExchange exchange = exchange(Methods.POST, "/topics/group.topic");
+
+        // when
+        dispatcher().handleRequest(exchange);
+
+        // then
+        verify(publishingHandler).handleRequest(exchange);
+        verifyZeroInteractions(next);
+    }
+
+    @Test
+    public void shouldDispatchPublishingRequestWithTrailingSlashToPublishingHandler() throws Exception {
+        // given
+        HttpServerExchange exchange = exchange(Methods.POST, "/topics/group.topic/");
+
+        // when
+        dispatcher().handleRequest(exchange);
+
+        // then
+        verify(publishingHandler).handleRequest(exchange);
+        verifyZeroInteractions(next);
+    }
+
+    @Test
+    public void shouldLeaveOtherMethodsToServletContainer() throws Exception {
+        // given
+        HttpServerExchange exchange = exchange(Methods.GET, "/topics/group.topic");
+
+        // when
+        dispatcher().handleRequest(exchange);
+
+        // then
+        verify(next).handleRequest(exchange);
+        verifyZeroInteractions(publishingHandler);
+    }
+
+    @Test
+    public void shouldLeaveNestedTopicResourcesToServletContainer() throws Exception {
+        // given
+        HttpServerExchange exchange = exchange(Methods.POST, "/topics/group.topic/subscriptions");
+
+        // when
+        dispatcher().handleRequest(exchange);
+
+        // then
+        verify(next).handleRequest(exchange);
+        verifyZeroInteractions(publishingHandler);
+    }
+
+    @Test
+    public void shouldLeaveRequestsOutsideOfTopicsRootToServletContainer() throws Exception {
+        // given
+        HttpServerExchange exchange = exchange(Methods.POST, "/status/group.topic");
+
+        // when
+        dispatcher().handleRequest(exchange);
+
+        // then
+        verify(next).handleRequest(exchange);
+        verifyZeroInteractions(publishingHandler);
+    }
+
+    private HermesHandlerDispatcher dispatcher() {
+        return new HermesHandlerDispatcher(publishingHandler, next, "topics");
+    }
+
+    private HttpServerExchange exchange(HttpString method, String path) {
+        HttpServerExchange exchange = new HttpServerExchange(null);
+        exchange.setRequestMethod(method);
+        exchange.setRequestPath(path);
+        return exchange;
+    }
+}